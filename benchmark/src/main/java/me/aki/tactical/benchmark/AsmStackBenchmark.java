@@ -0,0 +1,74 @@
+package me.aki.tactical.benchmark;
+
+import me.aki.tactical.conversion.Asm2Stack;
+import me.aki.tactical.conversion.Stack2Asm;
+import me.aki.tactical.conversion.stack2asm.ClassfileHierarchy;
+import me.aki.tactical.conversion.stack2asm.ResourceClassHierarchy;
+import me.aki.tactical.conversion.stack2asm.SuperClassResolver;
+import me.aki.tactical.core.Classfile;
+import org.objectweb.asm.ClassReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the conversions between jvm bytecode and the stack intermediation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AsmStackBenchmark {
+    @Param({ "CLASSES", "GIANT_METHODS" })
+    public JvmCorpus corpus;
+
+    private List<byte[]> bytecode;
+    private List<Classfile> stackClasses;
+
+    /**
+     * Resolver shared by all iterations, like it is shared by all classes of a jar.
+     */
+    private SuperClassResolver resolver;
+
+    @Setup
+    public void setup() {
+        this.bytecode = corpus.load();
+        this.stackClasses = corpus.loadStackClasses();
+        this.resolver = new SuperClassResolver(new ClassfileHierarchy(stackClasses).withFallback(new ResourceClassHierarchy()));
+    }
+
+    @Benchmark
+    public void asm2stack(Blackhole blackhole) {
+        for (byte[] bytes : bytecode) {
+            blackhole.consume(Asm2Stack.convert(new ClassReader(bytes)));
+        }
+    }
+
+    @Benchmark
+    public void stack2asm(Blackhole blackhole) {
+        for (Classfile classfile : stackClasses) {
+            blackhole.consume(Stack2Asm.toBytecode(classfile));
+        }
+    }
+
+    @Benchmark
+    public void stack2asmResolver(Blackhole blackhole) {
+        for (Classfile classfile : stackClasses) {
+            blackhole.consume(Stack2Asm.toBytecode(classfile, resolver));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package me.aki.tactical.benchmark;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * Generate a class whose methods consist mostly of numeric constants.
+ *
+ * Array initializers and sparse switch tables are common in generated code (e.g. lookup tables).
+ * The time to textify and parse such methods is dominated by the conversion of numeric literals.
+ */
+public class ConstantMethodGenerator {
+    public static final String CLASS_NAME = "me/aki/tactical/benchmark/generated/ConstantMethods";
+
+    private static final int ARRAY_LENGTH = 2000;
+    private static final int SWITCH_CASES = 2000;
+
+    /**
+     * Generate the bytecode of the class.
+     *
+     * @return jvm bytecode of the class
+     */
+    public static byte[] generate() {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+        cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, CLASS_NAME, null, "java/lang/Object", null);
+
+        generateArrayInitializer(cw, "ints", "[I", Opcodes.T_INT, Opcodes.IASTORE, i -> i * 0x9E3779B9);
+        generateArrayInitializer(cw, "longs", "[J", Opcodes.T_LONG, Opcodes.LASTORE, i -> i * 0x9E3779B97F4A7C15L);
+        generateArrayInitializer(cw, "floats", "[F", Opcodes.T_FLOAT, Opcodes.FASTORE, i -> i * 0.618034f);
+        generateArrayInitializer(cw, "doubles", "[D", Opcodes.T_DOUBLE, Opcodes.DASTORE, i -> i * -1.6180339887e-3);
+        generateLookupSwitch(cw);
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    /**
+     * A method that returns an array initialized with one constant per element.
+     */
+    private static void generateArrayInitializer(ClassWriter cw, String name, String arrayDescriptor, int elementType, int storeOpcode, ValueGenerator values) {
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, name, "()" + arrayDescriptor, null, null);
+        mv.visitCode();
+
+        mv.visitLdcInsn(ARRAY_LENGTH);
+        mv.visitIntInsn(Opcodes.NEWARRAY, elementType);
+        for (int i = 0; i < ARRAY_LENGTH; i++) {
+            mv.visitInsn(Opcodes.DUP);
+            mv.visitLdcInsn(i);
+            mv.visitLdcInsn(values.generate(i));
+            mv.visitInsn(storeOpcode);
+        }
+
+        mv.visitInsn(Opcodes.ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /**
+     * A method with one lookupswitch over sparse keys whose cases return constants.
+     */
+    private static void generateLookupSwitch(ClassWriter cw) {
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "lookupSwitch", "(I)J", null, null);
+        mv.visitCode();
+
+        Label defaultLabel = new Label();
+        int[] keys = new int[SWITCH_CASES];
+        Label[] labels = new Label[SWITCH_CASES];
+        for (int i = 0; i < SWITCH_CASES; i++) {
+            keys[i] = Integer.MIN_VALUE + i * 2147483;
+            labels[i] = new Label();
+        }
+
+        mv.visitVarInsn(Opcodes.ILOAD, 0);
+        mv.visitLookupSwitchInsn(defaultLabel, keys, labels);
+
+        for (int i = 0; i < SWITCH_CASES; i++) {
+            mv.visitLabel(labels[i]);
+            mv.visitLdcInsn(keys[i] * 31L);
+            mv.visitInsn(Opcodes.LRETURN);
+        }
+
+        mv.visitLabel(defaultLabel);
+        mv.visitInsn(Opcodes.LCONST_0);
+        mv.visitInsn(Opcodes.LRETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    @FunctionalInterface
+    private interface ValueGenerator {
+        Object generate(int index);
+    }
+}
@@ -0,0 +1,70 @@
+package me.aki.tactical.benchmark;
+
+import me.aki.tactical.conversion.Smali2Dex;
+import me.aki.tactical.conversion.dex2smali.ClassfileConverter;
+import me.aki.tactical.core.Classfile;
+import me.aki.tactical.core.textify.ClassTextifier;
+import me.aki.tactical.dex.DexFile;
+import me.aki.tactical.dex.textifier.DexBodyTextifier;
+import org.jf.dexlib2.Opcodes;
+import org.jf.dexlib2.iface.ClassDef;
+import org.jf.dexlib2.immutable.ImmutableDexFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the conversions between smali and the dex intermediation and of the dex textifier.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DexBenchmark {
+    /**
+     * The number of statements, switch cases and loops of the generated methods.
+     */
+    @Param({ "100", "1000", "5000" })
+    public int size;
+
+    private final ClassTextifier dexTextifier = new ClassTextifier(new DexBodyTextifier());
+
+    private Classfile dexClass;
+    private org.jf.dexlib2.iface.DexFile smaliFile;
+
+    @Setup
+    public void setup() {
+        this.dexClass = DexCorpus.generate(size);
+
+        ClassDef classDef = new ClassfileConverter(dexClass).convert();
+        this.smaliFile = new ImmutableDexFile(Opcodes.getDefault(), List.of(classDef));
+    }
+
+    @Benchmark
+    public ClassDef dex2smali() {
+        return new ClassfileConverter(dexClass).convert();
+    }
+
+    @Benchmark
+    public DexFile smali2dex() {
+        return Smali2Dex.convertDex(smaliFile);
+    }
+
+    @Benchmark
+    public String textifyDex() {
+        return dexTextifier.toString(dexClass);
+    }
+}
@@ -0,0 +1,193 @@
+package me.aki.tactical.benchmark;
+
+import me.aki.tactical.core.Classfile;
+import me.aki.tactical.core.Method;
+import me.aki.tactical.core.Path;
+import me.aki.tactical.core.constant.IntConstant;
+import me.aki.tactical.core.type.IntType;
+import me.aki.tactical.core.type.ObjectType;
+import me.aki.tactical.core.type.Type;
+import me.aki.tactical.core.util.InsertList;
+import me.aki.tactical.dex.DexBody;
+import me.aki.tactical.dex.Register;
+import me.aki.tactical.dex.TryCatchBlock;
+import me.aki.tactical.dex.insn.ConstInstruction;
+import me.aki.tactical.dex.insn.GotoInstruction;
+import me.aki.tactical.dex.insn.IfInstruction;
+import me.aki.tactical.dex.insn.Instruction;
+import me.aki.tactical.dex.insn.MoveExceptionInstruction;
+import me.aki.tactical.dex.insn.ReturnInstruction;
+import me.aki.tactical.dex.insn.SwitchInstruction;
+import me.aki.tactical.dex.insn.litmath.AddLitInstruction;
+import me.aki.tactical.dex.insn.math.AddInstruction;
+import me.aki.tactical.dex.insn.math.DivInstruction;
+import me.aki.tactical.dex.insn.math.MulInstruction;
+import me.aki.tactical.dex.insn.math.XorInstruction;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Generate dex classes for the benchmarks of the dex conversions.
+ *
+ * There is no parser for the textual dex representation yet,
+ * so the classes are built in the tactical dex intermediation and converted to smali where needed.
+ */
+public class DexCorpus {
+    private static final Path ARITHMETIC_EXCEPTION = Path.of("java", "lang", "ArithmeticException");
+
+    /**
+     * Generate a class with one method of each kind.
+     *
+     * @param size the number of statements, switch cases or loops of each method
+     * @return the generated class
+     */
+    public static Classfile generate(int size) {
+        Path name = Path.of("me", "aki", "tactical", "benchmark", "generated", "GiantDex" + size);
+        Classfile classfile = new Classfile(new Classfile.Version(Classfile.Version.MAJOR_JDK_8, 0), name, Path.OBJECT, new ArrayList<>());
+        classfile.getFlags().add(Classfile.Flag.PUBLIC);
+
+        classfile.getMethods().add(generateStraightLine(size));
+        classfile.getMethods().add(generateSwitch(size));
+        classfile.getMethods().add(generateLoops(size));
+        return classfile;
+    }
+
+    private static Method newStaticMethod(String name, int parameterCount) {
+        List<Type> parameterTypes = new ArrayList<>();
+        for (int i = 0; i < parameterCount; i++) {
+            parameterTypes.add(IntType.getInstance());
+        }
+
+        Method method = new Method(name, parameterTypes, Optional.of(IntType.getInstance()));
+        method.getFlags().add(Method.Flag.PUBLIC);
+        method.getFlags().add(Method.Flag.STATIC);
+        return method;
+    }
+
+    private static List<Register> addRegisters(DexBody body, int count) {
+        List<Register> registers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            registers.add(new Register(IntType.getInstance()));
+        }
+        body.getRegisters().addAll(registers);
+        return registers;
+    }
+
+    /**
+     * A method with one basic block of arithmetic operations on a few registers.
+     */
+    private static Method generateStraightLine(int size) {
+        Method method = newStaticMethod("straightLine", 2);
+        DexBody body = new DexBody();
+        List<Register> registers = addRegisters(body, 8);
+        body.getParameterRegisters().addAll(registers.subList(0, 2));
+
+        InsertList<Instruction> insns = body.getInstructions();
+        for (int i = 2; i < registers.size(); i++) {
+            insns.add(new ConstInstruction(new IntConstant(i), registers.get(i)));
+        }
+
+        for (int i = 0; i < size; i++) {
+            Register op1 = registers.get(i % registers.size());
+            Register op2 = registers.get((i * 3 + 1) % registers.size());
+            Register result = registers.get(2 + i % (registers.size() - 2));
+
+            switch (i % 3) {
+                case 0:
+                    insns.add(new AddInstruction(IntType.getInstance(), op1, op2, result));
+                    break;
+                case 1:
+                    insns.add(new MulInstruction(IntType.getInstance(), op1, op2, result));
+                    break;
+                default:
+                    insns.add(new XorInstruction(IntType.getInstance(), op1, op2, result));
+                    break;
+            }
+            insns.add(new AddLitInstruction(result, (short) i, result));
+        }
+
+        insns.add(new ReturnInstruction(registers.get(2)));
+        method.setBody(Optional.of(body));
+        return method;
+    }
+
+    /**
+     * A method with one large switch whose cases all merge into one block.
+     */
+    private static Method generateSwitch(int size) {
+        Method method = newStaticMethod("tableSwitch", 1);
+        DexBody body = new DexBody();
+        List<Register> registers = addRegisters(body, 2);
+        Register value = registers.get(0);
+        Register result = registers.get(1);
+        body.getParameterRegisters().add(value);
+
+        ReturnInstruction returnInsn = new ReturnInstruction(result);
+        LinkedHashMap<Integer, Instruction> branchTable = new LinkedHashMap<>();
+        List<Instruction> cases = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            ConstInstruction caseStart = new ConstInstruction(new IntConstant(i * 7), result);
+            branchTable.put(i, caseStart);
+            cases.add(caseStart);
+            cases.add(new GotoInstruction(returnInsn));
+        }
+
+        InsertList<Instruction> insns = body.getInstructions();
+        insns.add(new SwitchInstruction(value, branchTable));
+        insns.add(new ConstInstruction(new IntConstant(-1), result));
+        insns.add(new GotoInstruction(returnInsn));
+        insns.addAll(cases);
+        insns.add(returnInsn);
+
+        method.setBody(Optional.of(body));
+        return method;
+    }
+
+    /**
+     * A method with many consecutive loops whose bodies are covered by try/catch blocks.
+     */
+    private static Method generateLoops(int size) {
+        Method method = newStaticMethod("loops", 2);
+        DexBody body = new DexBody();
+        List<Register> registers = addRegisters(body, 3);
+        Register count = registers.get(0);
+        Register accumulator = registers.get(1);
+        Register index = registers.get(2);
+        body.getParameterRegisters().addAll(registers.subList(0, 2));
+
+        Register exception = new Register(new ObjectType(ARITHMETIC_EXCEPTION));
+        body.getRegisters().add(exception);
+
+        InsertList<Instruction> insns = body.getInstructions();
+        for (int i = 0; i < size; i++) {
+            ConstInstruction loopExit = new ConstInstruction(new IntConstant(0), index);
+            AddLitInstruction increment = new AddLitInstruction(index, (short) 1, index);
+
+            ConstInstruction init = new ConstInstruction(new IntConstant(0), index);
+            IfInstruction head = new IfInstruction(IfInstruction.Comparison.GREATER_EQUAL, index, Optional.of(count), loopExit);
+            DivInstruction division = new DivInstruction(IntType.getInstance(), accumulator, index, accumulator);
+            GotoInstruction skipHandler = new GotoInstruction(increment);
+            MoveExceptionInstruction handler = new MoveExceptionInstruction(exception);
+
+            insns.add(init);
+            insns.add(head);
+            insns.add(division);
+            insns.add(skipHandler);
+            insns.add(handler);
+            insns.add(new AddLitInstruction(accumulator, (short) i, accumulator));
+            insns.add(increment);
+            insns.add(new GotoInstruction(head));
+            insns.add(loopExit);
+
+            List<TryCatchBlock.Handler> handlers = List.of(new TryCatchBlock.Handler(Optional.of(ARITHMETIC_EXCEPTION), handler));
+            body.getTryCatchBlocks().add(new TryCatchBlock(division, division, handlers));
+        }
+
+        insns.add(new ReturnInstruction(accumulator));
+        method.setBody(Optional.of(body));
+        return method;
+    }
+}
@@ -0,0 +1,151 @@
+package me.aki.tactical.benchmark;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * Generate a class whose methods are close to the 64KiB code size limit of the jvm.
+ *
+ * Such methods are rare in handwritten code, but common in generated code (e.g. parsers or obfuscated code).
+ * Analyses whose runtime is not linear in the size of a method dominate the conversion times of these methods.
+ */
+public class GiantMethodGenerator {
+    public static final String CLASS_NAME = "me/aki/tactical/benchmark/generated/GiantMethods";
+
+    private static final int STRAIGHT_LINE_STATEMENTS = 4000;
+    private static final int SWITCH_CASES = 2000;
+    private static final int LOOPS = 500;
+
+    /**
+     * Generate the bytecode of the class.
+     *
+     * @return jvm bytecode of the class
+     */
+    public static byte[] generate() {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+        cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, CLASS_NAME, null, "java/lang/Object", null);
+
+        generateStraightLine(cw);
+        generateTableSwitch(cw);
+        generateLoops(cw);
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    /**
+     * A method with one basic block of arithmetic operations on a few locals.
+     */
+    private static void generateStraightLine(ClassWriter cw) {
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "straightLine", "(II)I", null, null);
+        mv.visitCode();
+
+        int localCount = 8;
+        for (int local = 2; local < localCount; local++) {
+            mv.visitVarInsn(Opcodes.ILOAD, local % 2);
+            mv.visitVarInsn(Opcodes.ISTORE, local);
+        }
+
+        int[] operations = { Opcodes.IADD, Opcodes.IMUL, Opcodes.IXOR, Opcodes.ISUB };
+        for (int i = 0; i < STRAIGHT_LINE_STATEMENTS; i++) {
+            mv.visitVarInsn(Opcodes.ILOAD, i % localCount);
+            mv.visitVarInsn(Opcodes.ILOAD, (i * 3 + 1) % localCount);
+            mv.visitInsn(operations[i % operations.length]);
+            mv.visitIntInsn(Opcodes.SIPUSH, i);
+            mv.visitInsn(Opcodes.IADD);
+            mv.visitVarInsn(Opcodes.ISTORE, 2 + i % (localCount - 2));
+        }
+
+        mv.visitVarInsn(Opcodes.ILOAD, 2);
+        mv.visitInsn(Opcodes.IRETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /**
+     * A method with one large tableswitch whose cases all merge into one block.
+     */
+    private static void generateTableSwitch(ClassWriter cw) {
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "tableSwitch", "(I)I", null, null);
+        mv.visitCode();
+
+        Label end = new Label();
+        Label defaultLabel = new Label();
+        Label[] labels = new Label[SWITCH_CASES];
+        for (int i = 0; i < SWITCH_CASES; i++) {
+            labels[i] = new Label();
+        }
+
+        mv.visitVarInsn(Opcodes.ILOAD, 0);
+        mv.visitTableSwitchInsn(0, SWITCH_CASES - 1, defaultLabel, labels);
+
+        for (int i = 0; i < SWITCH_CASES; i++) {
+            mv.visitLabel(labels[i]);
+            mv.visitIntInsn(Opcodes.SIPUSH, i * 7);
+            mv.visitVarInsn(Opcodes.ISTORE, 1);
+            mv.visitJumpInsn(Opcodes.GOTO, end);
+        }
+
+        mv.visitLabel(defaultLabel);
+        mv.visitInsn(Opcodes.ICONST_M1);
+        mv.visitVarInsn(Opcodes.ISTORE, 1);
+
+        mv.visitLabel(end);
+        mv.visitVarInsn(Opcodes.ILOAD, 1);
+        mv.visitInsn(Opcodes.IRETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /**
+     * A method with many consecutive loops whose bodies are covered by try/catch blocks.
+     */
+    private static void generateLoops(ClassWriter cw) {
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "loops", "(II)I", null, null);
+        mv.visitCode();
+
+        for (int i = 0; i < LOOPS; i++) {
+            Label head = new Label();
+            Label exit = new Label();
+            Label tryStart = new Label();
+            Label tryEnd = new Label();
+            Label handler = new Label();
+            Label increment = new Label();
+
+            mv.visitTryCatchBlock(tryStart, tryEnd, handler, "java/lang/ArithmeticException");
+
+            mv.visitInsn(Opcodes.ICONST_0);
+            mv.visitVarInsn(Opcodes.ISTORE, 2);
+
+            mv.visitLabel(head);
+            mv.visitVarInsn(Opcodes.ILOAD, 2);
+            mv.visitVarInsn(Opcodes.ILOAD, 0);
+            mv.visitJumpInsn(Opcodes.IF_ICMPGE, exit);
+
+            mv.visitLabel(tryStart);
+            mv.visitVarInsn(Opcodes.ILOAD, 1);
+            mv.visitVarInsn(Opcodes.ILOAD, 2);
+            mv.visitInsn(Opcodes.IDIV);
+            mv.visitVarInsn(Opcodes.ISTORE, 1);
+            mv.visitLabel(tryEnd);
+            mv.visitJumpInsn(Opcodes.GOTO, increment);
+
+            mv.visitLabel(handler);
+            mv.visitVarInsn(Opcodes.ASTORE, 3);
+            mv.visitIincInsn(1, i);
+
+            mv.visitLabel(increment);
+            mv.visitIincInsn(2, 1);
+            mv.visitJumpInsn(Opcodes.GOTO, head);
+
+            mv.visitLabel(exit);
+        }
+
+        mv.visitVarInsn(Opcodes.ILOAD, 1);
+        mv.visitInsn(Opcodes.IRETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+}
@@ -0,0 +1,125 @@
+package me.aki.tactical.benchmark;
+
+import me.aki.tactical.core.Classfile;
+import me.aki.tactical.core.Method;
+import me.aki.tactical.core.util.ArrayIdentityInsertList;
+import me.aki.tactical.core.util.ArrayInsertList;
+import me.aki.tactical.core.util.InsertList;
+import me.aki.tactical.core.util.LinkedIdentityInsertList;
+import me.aki.tactical.core.util.LinkedInsertList;
+import me.aki.tactical.stack.StackBody;
+import me.aki.tactical.stack.insn.Instruction;
+import me.aki.tactical.stack.insn.SwapInsn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Benchmarks of the {@link InsertList} implementations on the instructions of stack bodies.
+ *
+ * {@link LinkedInsertList} was the default list of bodies, the identity based lists are the current defaults.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InsertListBenchmark {
+    public enum ListKind {
+        LINKED(LinkedInsertList::new),
+        LINKED_IDENTITY(LinkedIdentityInsertList::new),
+        ARRAY(ArrayInsertList::new),
+        ARRAY_IDENTITY(ArrayIdentityInsertList::new);
+
+        private final Function<List<Instruction>, InsertList<Instruction>> factory;
+
+        ListKind(Function<List<Instruction>, InsertList<Instruction>> factory) {
+            this.factory = factory;
+        }
+
+        public InsertList<Instruction> create(List<Instruction> instructions) {
+            return factory.apply(instructions);
+        }
+    }
+
+    @Param({ "CLASSES", "GIANT_METHODS" })
+    public JvmCorpus corpus;
+
+    @Param({ "LINKED", "LINKED_IDENTITY", "ARRAY", "ARRAY_IDENTITY" })
+    public ListKind listKind;
+
+    /**
+     * The instructions of all bodies of the corpus.
+     */
+    private List<List<Instruction>> bodies;
+
+    /**
+     * The instructions of all bodies stored in a list of the benchmarked kind.
+     */
+    private List<InsertList<Instruction>> lists;
+
+    @Setup
+    public void setup() {
+        this.bodies = new ArrayList<>();
+        for (Classfile classfile : corpus.loadStackClasses()) {
+            for (Method method : classfile.getMethods()) {
+                method.getBody().ifPresent(body -> bodies.add(new ArrayList<>(((StackBody) body).getInstructions())));
+            }
+        }
+
+        this.lists = new ArrayList<>();
+        for (List<Instruction> instructions : bodies) {
+            lists.add(listKind.create(instructions));
+        }
+    }
+
+    @Benchmark
+    public void build(Blackhole blackhole) {
+        for (List<Instruction> instructions : bodies) {
+            blackhole.consume(listKind.create(instructions));
+        }
+    }
+
+    /**
+     * Find the neighbours of every instruction, as analyses that walk the control flow do.
+     */
+    @Benchmark
+    public void getNext(Blackhole blackhole) {
+        for (InsertList<Instruction> list : lists) {
+            for (Instruction instruction : list) {
+                blackhole.consume(list.getNext(instruction));
+                blackhole.consume(list.getPrevious(instruction));
+            }
+        }
+    }
+
+    /**
+     * Insert an instruction before every instruction and remove it again.
+     */
+    @Benchmark
+    public void insertAndRemove(Blackhole blackhole) {
+        for (int i = 0; i < lists.size(); i++) {
+            InsertList<Instruction> list = lists.get(i);
+            for (Instruction location : bodies.get(i)) {
+                SwapInsn insn = new SwapInsn();
+                list.insertBefore(location, insn);
+                blackhole.consume(list.remove(insn));
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package me.aki.tactical.benchmark;
+
+import me.aki.tactical.conversion.Asm2Stack;
+import me.aki.tactical.conversion.Stack2Ref;
+import me.aki.tactical.core.Classfile;
+import me.aki.tactical.core.util.BoundedTaskQueue;
+import org.objectweb.asm.ClassReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The jvm classes that the benchmarks operate on.
+ */
+public enum JvmCorpus {
+    /**
+     * Classes listed in the <tt>jvm-classes.txt</tt> resource,
+     * whose bytecode is stored in the <tt>jvm-classes</tt> resource directory.
+     */
+    CLASSES {
+        @Override
+        public List<byte[]> load() {
+            List<byte[]> classes = new ArrayList<>();
+            for (String className : readClassList()) {
+                classes.add(readResource("jvm-classes/" + className.replace('.', '/') + ".class"));
+            }
+            return classes;
+        }
+    },
+
+    /**
+     * A generated class with methods close to the size limit of the jvm.
+     */
+    GIANT_METHODS {
+        @Override
+        public List<byte[]> load() {
+            return List.of(GiantMethodGenerator.generate());
+        }
+    },
+
+    /**
+     * A generated class with array initializers and switch tables full of numeric constants.
+     */
+    CONSTANTS {
+        @Override
+        public List<byte[]> load() {
+            return List.of(ConstantMethodGenerator.generate());
+        }
+    };
+
+    /**
+     * Load the bytecode of all classes of this corpus.
+     *
+     * @return bytecode of the classes
+     */
+    public abstract List<byte[]> load();
+
+    /**
+     * Load all classes of this corpus converted to the stack intermediation.
+     *
+     * @return classes with stack bodies
+     */
+    public List<Classfile> loadStackClasses() {
+        List<Classfile> classfiles = new ArrayList<>();
+        for (byte[] bytecode : load()) {
+            classfiles.add(Asm2Stack.convert(new ClassReader(bytecode)));
+        }
+        return classfiles;
+    }
+
+    /**
+     * Load all classes of this corpus converted to the ref intermediation.
+     *
+     * @return classes with ref bodies
+     */
+    public List<Classfile> loadRefClasses() {
+        List<Classfile> classfiles = loadStackClasses();
+        for (Classfile classfile : classfiles) {
+            Stack2Ref.convert(classfile);
+        }
+        return classfiles;
+    }
+
+    private static List<String> readClassList() {
+        InputStream in = JvmCorpus.class.getResourceAsStream("jvm-classes.txt");
+        if (in == null) {
+            throw new IllegalStateException("Missing resource jvm-classes.txt");
+        }
+
+        List<String> classNames = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    classNames.add(line);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return classNames;
+    }
+
+    private static byte[] readResource(String name) {
+        InputStream in = JvmCorpus.class.getResourceAsStream(name);
+        if (in == null) {
+            throw new IllegalStateException("Missing resource " + name);
+        }
+
+        try (in) {
+            return BoundedTaskQueue.readFully(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
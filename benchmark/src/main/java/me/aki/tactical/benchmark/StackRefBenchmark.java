@@ -0,0 +1,70 @@
+package me.aki.tactical.benchmark;
+
+import me.aki.tactical.conversion.Ref2Stack;
+import me.aki.tactical.conversion.Stack2Ref;
+import me.aki.tactical.core.Classfile;
+import me.aki.tactical.core.Method;
+import me.aki.tactical.ref.RefBody;
+import me.aki.tactical.stack.StackBody;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the conversions between the stack and the ref intermediation.
+ *
+ * The bodies are converted one by one, so the converted classes can be reused by all invocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StackRefBenchmark {
+    @Param({ "CLASSES", "GIANT_METHODS" })
+    public JvmCorpus corpus;
+
+    private List<Classfile> stackClasses;
+    private List<Classfile> refClasses;
+
+    @Setup
+    public void setup() {
+        this.stackClasses = corpus.loadStackClasses();
+        this.refClasses = corpus.loadRefClasses();
+    }
+
+    @Benchmark
+    public void stack2ref(Blackhole blackhole) {
+        for (Classfile classfile : stackClasses) {
+            for (Method method : classfile.getMethods()) {
+                if (method.getBody().isPresent()) {
+                    blackhole.consume(Stack2Ref.convert(classfile, method, (StackBody) method.getBody().get()));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void ref2stack(Blackhole blackhole) {
+        for (Classfile classfile : refClasses) {
+            for (Method method : classfile.getMethods()) {
+                if (method.getBody().isPresent()) {
+                    blackhole.consume(Ref2Stack.convert((RefBody) method.getBody().get()));
+                }
+            }
+        }
+    }
+}
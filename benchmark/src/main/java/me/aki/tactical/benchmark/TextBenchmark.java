@@ -0,0 +1,95 @@
+package me.aki.tactical.benchmark;
+
+import me.aki.tactical.core.Classfile;
+import me.aki.tactical.core.parser.ClassfileParser;
+import me.aki.tactical.core.textify.ClassTextifier;
+import me.aki.tactical.ref.parser.RefBodyParser$;
+import me.aki.tactical.ref.textifier.RefBodyTextifier;
+import me.aki.tactical.stack.parser.StackBodyParser;
+import me.aki.tactical.stack.textify.StackBodyTextifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the textifiers and parsers of the stack and ref intermediation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TextBenchmark {
+    @Param({ "CLASSES", "GIANT_METHODS", "CONSTANTS" })
+    public JvmCorpus corpus;
+
+    private final ClassTextifier stackTextifier = new ClassTextifier(new StackBodyTextifier());
+    private final ClassTextifier refTextifier = new ClassTextifier(new RefBodyTextifier());
+
+    private final ClassfileParser stackParser = new ClassfileParser(new StackBodyParser());
+    private final ClassfileParser refParser = new ClassfileParser(RefBodyParser$.MODULE$);
+
+    private List<Classfile> stackClasses;
+    private List<Classfile> refClasses;
+
+    private List<String> stackTexts;
+    private List<String> refTexts;
+
+    @Setup
+    public void setup() {
+        this.stackClasses = corpus.loadStackClasses();
+        this.refClasses = corpus.loadRefClasses();
+
+        this.stackTexts = new ArrayList<>();
+        for (Classfile classfile : stackClasses) {
+            stackTexts.add(stackTextifier.toString(classfile));
+        }
+
+        this.refTexts = new ArrayList<>();
+        for (Classfile classfile : refClasses) {
+            refTexts.add(refTextifier.toString(classfile));
+        }
+    }
+
+    @Benchmark
+    public void textifyStack(Blackhole blackhole) {
+        for (Classfile classfile : stackClasses) {
+            blackhole.consume(stackTextifier.toString(classfile));
+        }
+    }
+
+    @Benchmark
+    public void textifyRef(Blackhole blackhole) {
+        for (Classfile classfile : refClasses) {
+            blackhole.consume(refTextifier.toString(classfile));
+        }
+    }
+
+    @Benchmark
+    public void parseStack(Blackhole blackhole) {
+        for (String text : stackTexts) {
+            blackhole.consume(stackParser.parse(text));
+        }
+    }
+
+    @Benchmark
+    public void parseRef(Blackhole blackhole) {
+        for (String text : refTexts) {
+            blackhole.consume(refParser.parse(text));
+        }
+    }
+}
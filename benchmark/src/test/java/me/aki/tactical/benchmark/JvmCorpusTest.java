@@ -0,0 +1,41 @@
+package me.aki.tactical.benchmark;
+
+import me.aki.tactical.conversion.Asm2Stack;
+import me.aki.tactical.core.Classfile;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Convert the benchmark corpora in verification mode, so the stack size analysis
+ * of the asm to stack conversion is checked against the asm analyzer.
+ */
+public class JvmCorpusTest {
+    @Test
+    public void testVerifyClasses() {
+        verifyAnalysis(JvmCorpus.CLASSES);
+    }
+
+    @Test
+    public void testVerifyGiantMethods() {
+        verifyAnalysis(JvmCorpus.GIANT_METHODS);
+    }
+
+    @Test
+    public void testVerifyConstants() {
+        verifyAnalysis(JvmCorpus.CONSTANTS);
+    }
+
+    private void verifyAnalysis(JvmCorpus corpus) {
+        List<byte[]> classes = corpus.load();
+        assertFalse(classes.isEmpty());
+
+        for (byte[] bytecode : classes) {
+            Classfile classfile = Asm2Stack.convert(new ClassReader(bytecode), 0, true);
+            assertFalse(classfile.getMethods().isEmpty());
+        }
+    }
+}
@@ -2,12 +2,16 @@ package me.aki.tactical.conversion;
 
 import me.aki.tactical.conversion.asm2stack.ClassConvertVisitor;
 import me.aki.tactical.core.Classfile;
+import me.aki.tactical.core.TypePool;
 import me.aki.tactical.stack.StackBody;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.analysis.Analyzer;
 
 /**
  * The entry point for the asm to stack conversion.
+ *
+ * Classes are converted within the active {@link TypePool} or within a new pool per class.
  */
 public class Asm2Stack {
     /**
@@ -21,8 +25,29 @@ public class Asm2Stack {
      */
     public static Classfile convert(ClassReader cr, int parsingOption) {
         ClassConvertVisitor converter = new ClassConvertVisitor();
-        cr.accept(converter, parsingOption);
-        return converter.getClassfile();
+        return TypePool.withinActiveOrNew(() -> {
+            cr.accept(converter, parsingOption);
+            return converter.getClassfile();
+        });
+    }
+
+    /**
+     * Build a Classfile with {@link StackBody Stackbodys} from an asm {@link ClassReader}.
+     *
+     * The verification mode additionally runs the asm {@link Analyzer} on all method bodies
+     * and checks that its results match the lightweight analysis used by the conversion.
+     *
+     * @param cr the class reader
+     * @param parsingOption the parsingOption flag that is passed to the ClassReader.
+     * @param verifyAnalysis verify the analysis of method bodies against the asm analyzer
+     * @return the converted class
+     */
+    public static Classfile convert(ClassReader cr, int parsingOption, boolean verifyAnalysis) {
+        ClassConvertVisitor converter = new ClassConvertVisitor(verifyAnalysis);
+        return TypePool.withinActiveOrNew(() -> {
+            cr.accept(converter, parsingOption);
+            return converter.getClassfile();
+        });
     }
 
     /**
@@ -33,8 +58,10 @@ public class Asm2Stack {
      */
     public static Classfile convert(ClassReader cr) {
         ClassConvertVisitor converter = new ClassConvertVisitor();
-        cr.accept(converter, 0);
-        return converter.getClassfile();
+        return TypePool.withinActiveOrNew(() -> {
+            cr.accept(converter, 0);
+            return converter.getClassfile();
+        });
     }
 
     /**
@@ -45,7 +72,9 @@ public class Asm2Stack {
      */
     public static Classfile convert(ClassNode cn) {
         ClassConvertVisitor converter = new ClassConvertVisitor();
-        cn.accept(converter);
-        return converter.getClassfile();
+        return TypePool.withinActiveOrNew(() -> {
+            cn.accept(converter);
+            return converter.getClassfile();
+        });
     }
 }
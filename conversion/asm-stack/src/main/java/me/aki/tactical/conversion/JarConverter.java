@@ -0,0 +1,429 @@
+package me.aki.tactical.conversion;
+
+import me.aki.tactical.conversion.stack2asm.ClassHierarchy;
+import me.aki.tactical.conversion.stack2asm.ClassfileHierarchy;
+import me.aki.tactical.conversion.stack2asm.FileClassHierarchy;
+import me.aki.tactical.conversion.stack2asm.ResourceClassHierarchy;
+import me.aki.tactical.conversion.stack2asm.SuperClassResolver;
+import me.aki.tactical.core.Classfile;
+import me.aki.tactical.core.TypePool;
+import me.aki.tactical.core.util.BoundedTaskQueue;
+import me.aki.tactical.stack.StackBody;
+import org.objectweb.asm.ClassReader;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Convert all classes of a jar file or directory.
+ *
+ * Each class is read into a {@link Classfile} with {@link StackBody StackBodies}, passed to a transformation
+ * (e.g. a conversion to the ref intermediation and back) and written back as bytecode.
+ * The classes are converted concurrently on an {@link ExecutorService}, but the output contains
+ * all entries in the same order as the input.
+ *
+ * Frames are computed based on the classes of the converted jar or directory and the
+ * {@link #getClasspath() classpath hierarchy}, without loading any class.
+ * Classes that were already converted are looked up as {@link Classfile Classfiles} after their transformation,
+ * all other classes of the input by the headers of their bytecode.
+ *
+ * All classes of one conversion share a {@link TypePool}, so equal names and types are stored only once.
+ *
+ * At most {@link #getMaxInFlight()} entries are held in memory at once.
+ * A class that cannot be converted does not abort the conversion,
+ * its original bytes are copied and the failure is reported in the {@link Result}.
+ */
+public class JarConverter {
+    private static final String CLASS_SUFFIX = ".class";
+
+    /**
+     * The executor that converts the classes.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Max amount of entries that are submitted to the executor but not yet written.
+     */
+    private final int maxInFlight;
+
+    /**
+     * Transformation applied to every converted class before it gets written again.
+     */
+    private final Consumer<Classfile> transformation;
+
+    /**
+     * Supertype information about classes referenced by but not contained in the converted jar.
+     */
+    private final ClassHierarchy classpath;
+
+    /**
+     * Convert the classes on the {@link ForkJoinPool#commonPool() common pool}.
+     *
+     * @param transformation transformation applied to each class
+     */
+    public JarConverter(Consumer<Classfile> transformation) {
+        this(ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism() * 4, transformation);
+    }
+
+    /**
+     * @param executor executor that converts the classes
+     * @param maxInFlight max amount of entries held in memory at once
+     * @param transformation transformation applied to each class
+     */
+    public JarConverter(ExecutorService executor, int maxInFlight, Consumer<Classfile> transformation) {
+        this(executor, maxInFlight, transformation, new ResourceClassHierarchy());
+    }
+
+    /**
+     * @param executor executor that converts the classes
+     * @param maxInFlight max amount of entries held in memory at once
+     * @param transformation transformation applied to each class
+     * @param classpath hierarchy of classes that are referenced by but not contained in the converted jars
+     */
+    public JarConverter(ExecutorService executor, int maxInFlight, Consumer<Classfile> transformation, ClassHierarchy classpath) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive");
+        }
+
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+        this.transformation = transformation;
+        this.classpath = classpath;
+    }
+
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public Consumer<Classfile> getTransformation() {
+        return transformation;
+    }
+
+    public ClassHierarchy getClasspath() {
+        return classpath;
+    }
+
+    /**
+     * Convert all classes of a jar file and write them with all other entries into a new jar file.
+     *
+     * @param input the jar to read
+     * @param output the jar to write
+     * @return the outcome of the conversion
+     * @throws IOException reading or writing the jars failed
+     */
+    public Result convertJar(File input, File output) throws IOException {
+        try (FileClassHierarchy hierarchy = new FileClassHierarchy(List.of(input));
+             ZipInputStream in = new ZipInputStream(new FileInputStream(input));
+             ZipOutputStream out = new ZipOutputStream(new FileOutputStream(output))) {
+
+            return convert(new ZipEntryIterator(in), entry -> {
+                out.putNextEntry(new ZipEntry(entry.getName()));
+                out.write(entry.getBytes());
+                out.closeEntry();
+            }, hierarchy.withFallback(classpath));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Convert all classes within a directory and write them with all other files into another directory.
+     *
+     * @param input the directory to read
+     * @param output the directory to write
+     * @return the outcome of the conversion
+     * @throws IOException reading or writing the files failed
+     */
+    public Result convertDirectory(File input, File output) throws IOException {
+        java.nio.file.Path root = input.toPath();
+        java.nio.file.Path outputRoot = output.toPath();
+
+        List<java.nio.file.Path> files;
+        try (Stream<java.nio.file.Path> stream = Files.walk(root)) {
+            files = stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+
+        Iterator<java.nio.file.Path> fileIter = files.iterator();
+        Iterator<Entry> entries = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return fileIter.hasNext();
+            }
+
+            @Override
+            public Entry next() {
+                java.nio.file.Path file = fileIter.next();
+                String name = root.relativize(file).toString().replace(File.separatorChar, '/');
+                try {
+                    return new Entry(name, Files.readAllBytes(file));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+
+        try (FileClassHierarchy hierarchy = new FileClassHierarchy(List.of(input))) {
+            return convert(entries, entry -> {
+                java.nio.file.Path file = outputRoot.resolve(entry.getName());
+                Files.createDirectories(file.getParent());
+                Files.write(file, entry.getBytes());
+            }, hierarchy.withFallback(classpath));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Convert a sequence of entries.
+     *
+     * Entries are pulled lazily from the iterator and passed to the writer in the same order.
+     *
+     * @param entries the entries to convert
+     * @param writer receives the converted entries
+     * @param hierarchy hierarchy of all classes of the input and the classpath
+     * @return the outcome of the conversion
+     * @throws IOException the writer failed
+     */
+    public Result convert(Iterator<Entry> entries, EntryWriter writer, ClassHierarchy hierarchy) throws IOException {
+        List<Failure> failures = new ArrayList<>();
+        TypePool pool = new TypePool();
+        int converted = 0;
+
+        ClassfileHierarchy classfiles = new ClassfileHierarchy();
+        SuperClassResolver resolver = new SuperClassResolver(classfiles.withFallback(hierarchy));
+
+        try (BoundedTaskQueue<Outcome> pending = new BoundedTaskQueue<>(maxInFlight)) {
+            while (entries.hasNext()) {
+                Entry entry = entries.next();
+
+                if (entry.getName().endsWith(CLASS_SUFFIX)) {
+                    pending.add(executor.submit(() -> pool.within(() -> convertEntry(entry, classfiles, resolver))));
+                } else {
+                    pending.add(CompletableFuture.completedFuture(new Outcome(entry, null)));
+                }
+
+                while (pending.isFull()) {
+                    converted += writeOutcome(pending.next(), writer, failures);
+                }
+            }
+
+            while (!pending.isEmpty()) {
+                converted += writeOutcome(pending.next(), writer, failures);
+            }
+        }
+
+        return new Result(converted, failures);
+    }
+
+    private int writeOutcome(Outcome outcome, EntryWriter writer, List<Failure> failures) throws IOException {
+        writer.write(outcome.entry);
+
+        if (outcome.failure != null) {
+            failures.add(outcome.failure);
+            return 0;
+        } else {
+            return outcome.entry.getName().endsWith(CLASS_SUFFIX) ? 1 : 0;
+        }
+    }
+
+    /**
+     * Convert one class. This is invoked concurrently for several entries.
+     *
+     * @param entry the class to convert
+     * @param classfiles receives the class after its transformation
+     * @param resolver computes common super classes for the frames
+     * @return the converted class or the original class and the cause of the failure
+     */
+    private Outcome convertEntry(Entry entry, ClassfileHierarchy classfiles, SuperClassResolver resolver) {
+        try {
+            Classfile classfile = Asm2Stack.convert(new ClassReader(entry.getBytes()));
+            transformation.accept(classfile);
+            classfiles.add(classfile);
+            byte[] bytecode = Stack2Asm.toBytecode(classfile, resolver);
+            return new Outcome(new Entry(entry.getName(), bytecode), null);
+        } catch (RuntimeException | AssertionError | StackOverflowError e) {
+            return new Outcome(entry, new Failure(entry.getName(), e));
+        }
+    }
+
+    /**
+     * Iterate over all file entries of a zip stream.
+     */
+    private static class ZipEntryIterator implements Iterator<Entry> {
+        private final ZipInputStream in;
+        private Entry next;
+
+        private ZipEntryIterator(ZipInputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                try {
+                    ZipEntry zipEntry;
+                    do {
+                        zipEntry = in.getNextEntry();
+                    } while (zipEntry != null && zipEntry.isDirectory());
+
+                    if (zipEntry != null) {
+                        next = new Entry(zipEntry.getName(), BoundedTaskQueue.readFully(in));
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Entry next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            Entry entry = next;
+            next = null;
+            return entry;
+        }
+    }
+
+    /**
+     * Receives the entries after their conversion.
+     */
+    @FunctionalInterface
+    public interface EntryWriter {
+        void write(Entry entry) throws IOException;
+    }
+
+    /**
+     * A named file within a jar or directory.
+     */
+    public static class Entry {
+        /**
+         * Path of the file relative to the jar root separated by slashes.
+         */
+        private final String name;
+
+        /**
+         * Content of the file.
+         */
+        private final byte[] bytes;
+
+        public Entry(String name, byte[] bytes) {
+            this.name = name;
+            this.bytes = bytes;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public byte[] getBytes() {
+            return bytes;
+        }
+    }
+
+    /**
+     * The entry that should get written and the failure that prevented its conversion.
+     */
+    private static class Outcome {
+        private final Entry entry;
+        private final Failure failure;
+
+        private Outcome(Entry entry, Failure failure) {
+            this.entry = entry;
+            this.failure = failure;
+        }
+    }
+
+    /**
+     * A class that could not be converted.
+     */
+    public static class Failure {
+        /**
+         * Name of the entry that contained the class.
+         */
+        private final String name;
+
+        /**
+         * The exception thrown while converting the class.
+         */
+        private final Throwable cause;
+
+        public Failure(String name, Throwable cause) {
+            this.name = name;
+            this.cause = cause;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Throwable getCause() {
+            return cause;
+        }
+
+        @Override
+        public String toString() {
+            return Failure.class.getSimpleName() + '{' +
+                    "name='" + name + '\'' +
+                    ", cause=" + cause +
+                    '}';
+        }
+    }
+
+    /**
+     * Outcome of the conversion of a jar or directory.
+     */
+    public static class Result {
+        /**
+         * Amount of successfully converted classes.
+         */
+        private final int convertedCount;
+
+        /**
+         * All classes that could not be converted.
+         */
+        private final List<Failure> failures;
+
+        public Result(int convertedCount, List<Failure> failures) {
+            this.convertedCount = convertedCount;
+            this.failures = Collections.unmodifiableList(failures);
+        }
+
+        public int getConvertedCount() {
+            return convertedCount;
+        }
+
+        public List<Failure> getFailures() {
+            return failures;
+        }
+
+        public boolean isSuccessful() {
+            return failures.isEmpty();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package me.aki.tactical.conversion;
 
+import me.aki.tactical.conversion.stack2asm.SuperClassResolver;
 import me.aki.tactical.conversion.stack2asm.TacticalClassReader;
 import me.aki.tactical.core.Classfile;
 import me.aki.tactical.stack.StackBody;
@@ -8,6 +9,8 @@ import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.tree.ClassNode;
 
+import java.util.Optional;
+
 /**
  * A Facade for the conversions from {@link Classfile Classfiles} with {@link StackBody StackBodies}
  * to objectweb asm structures.
@@ -26,6 +29,20 @@ public class Stack2Asm {
         new TacticalClassReader(file).accept(cv);
     }
 
+    /**
+     * Make a {@link ClassVisitor} visit a {@link Classfile} including the
+     * {@link MethodVisitor#visitMaxs(int, int) stack size and local count} of all methods.
+     *
+     * Frames are visited if the class version requires them (java 6 and above).
+     *
+     * @param file the file that the {@link ClassVisitor} will visit.
+     * @param cv the ClassVisitor that will visit the class
+     * @param resolver computes common super classes of types merged within frames
+     */
+    public static void accept(Classfile file, ClassVisitor cv, SuperClassResolver resolver) {
+        new TacticalClassReader(file, Optional.of(resolver)).accept(cv);
+    }
+
     /**
      * Convert a {@link Classfile} into an asm {@link ClassNode}.
      *
@@ -49,4 +66,23 @@ public class Stack2Asm {
         accept(classfile, cw);
         return cw.toByteArray();
     }
+
+    /**
+     * Convert a {@link Classfile} into a byte array of jvm bytecode.
+     *
+     * The frames, stack sizes and local counts are computed from the tactical representation
+     * rather than by asm, which would rebuild the control flow graph and re-analyze the bytecode.
+     * Common super classes are resolved by the class hierarchy known to the resolver,
+     * so no classes get loaded. Share the resolver between classes to benefit from its cache.
+     *
+     * @param classfile the {@link Classfile} to convert
+     * @param resolver computes common super classes of types merged within frames
+     * @return the converted jvm bytecode
+     * @throws TypeNotPresentException a class merged within a frame is not known to the resolver
+     */
+    public static byte[] toBytecode(Classfile classfile, SuperClassResolver resolver) {
+        ClassWriter cw = new ClassWriter(0);
+        accept(classfile, cw, resolver);
+        return cw.toByteArray();
+    }
 }
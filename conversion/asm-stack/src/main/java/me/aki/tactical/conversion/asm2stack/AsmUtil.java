@@ -2,7 +2,7 @@ package me.aki.tactical.conversion.asm2stack;
 
 import me.aki.tactical.core.MethodDescriptor;
 import me.aki.tactical.core.Path;
-import me.aki.tactical.core.type.ArrayType;
+import me.aki.tactical.core.TypePool;
 import me.aki.tactical.core.type.BooleanType;
 import me.aki.tactical.core.type.ByteType;
 import me.aki.tactical.core.type.CharType;
@@ -57,7 +57,8 @@ public class AsmUtil {
      * @return descriptor represented as {@link Type}
      */
     public static Type fromDescriptor(String descriptor) {
-        return fromAsmType(org.objectweb.asm.Type.getType(descriptor));
+        return TypePool.current().typeFromDescriptor(descriptor,
+                desc -> fromAsmType(org.objectweb.asm.Type.getType(desc)));
     }
 
     public static Type fromAsmType(org.objectweb.asm.Type type) {
@@ -75,11 +76,11 @@ public class AsmUtil {
 
             case org.objectweb.asm.Type.ARRAY:
                 Type baseType = fromAsmType(type.getElementType());
-                return new ArrayType(baseType, type.getDimensions());
+                return TypePool.current().arrayType(baseType, type.getDimensions());
 
             case org.objectweb.asm.Type.OBJECT:
                 Path path = pathFromInternalName(type.getInternalName());
-                return new ObjectType(path);
+                return TypePool.current().objectType(path);
 
             default: throw new AssertionError();
         }
@@ -103,7 +104,7 @@ public class AsmUtil {
      * @return parsed class name
      */
     public static Path pathFromInternalName(String internalName) {
-        return pathFromSeperatedString(internalName, '/');
+        return TypePool.current().pathFromInternalName(internalName);
     }
 
     /**
@@ -130,11 +131,12 @@ public class AsmUtil {
             }
         }
 
-        return new Path(pkgs, builder.toString());
+        return TypePool.current().path(pkgs, builder.toString());
     }
 
     public static MethodDescriptor parseMethodDescriptor(String descriptor) {
-        return parseMethodDescriptor(org.objectweb.asm.Type.getType(descriptor));
+        return TypePool.current().methodDescriptorFromDescriptor(descriptor,
+                desc -> parseMethodDescriptor(org.objectweb.asm.Type.getType(desc)));
     }
 
     public static MethodDescriptor parseMethodDescriptor(org.objectweb.asm.Type methodType) {
@@ -142,7 +144,7 @@ public class AsmUtil {
                 .map(AsmUtil::fromAsmType)
                 .collect(Collectors.toList());
 
-        return new MethodDescriptor(convertedArgTypes, fromAsmReturnType(methodType.getReturnType()));
+        return TypePool.current().methodDescriptor(convertedArgTypes, fromAsmReturnType(methodType.getReturnType()));
     }
 
     /**
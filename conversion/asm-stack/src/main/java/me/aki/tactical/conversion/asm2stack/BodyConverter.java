@@ -46,16 +46,26 @@ public class BodyConverter {
     private final StackBody body;
     private final MethodNode mn;
 
+    /**
+     * Verify the results of the {@link StackSizeAnalysis} against the asm {@link Analyzer}.
+     */
+    private final boolean verifyAnalysis;
+
     private final ConversionContext ctx = new ConversionContext();
-    private Frame<BasicValue>[] frames;
+    private StackSizeAnalysis analysis;
 
     private final Map<AbstractInsnNode, List<Instruction>> convertedInsns = new HashMap<>();
 
     public BodyConverter(Classfile classfile, Method method, StackBody body, MethodNode mn) {
+        this(classfile, method, body, mn, false);
+    }
+
+    public BodyConverter(Classfile classfile, Method method, StackBody body, MethodNode mn, boolean verifyAnalysis) {
         this.classfile = classfile;
         this.method = method;
         this.body = body;
         this.mn = mn;
+        this.verifyAnalysis = verifyAnalysis;
     }
 
     private void initLocals() {
@@ -78,7 +88,7 @@ public class BodyConverter {
     public void convert() {
         initLocals();
 
-        runAsmClassAnalysis();
+        runAnalysis();
         convertInsns();
 
         convertTryCatchBlocks();
@@ -88,11 +98,20 @@ public class BodyConverter {
         updateInsnCells();
     }
 
-    private void runAsmClassAnalysis() {
+    private void runAnalysis() {
+        this.analysis = new StackSizeAnalysis(mn);
+        this.analysis.analyze();
+
+        if (verifyAnalysis) {
+            this.analysis.verify(runAsmClassAnalysis());
+        }
+    }
+
+    private Frame<BasicValue>[] runAsmClassAnalysis() {
         String owner = classfile.getName().join('/');
         try {
             Analyzer<BasicValue> analyzer = new Analyzer<>(new BasicInterpreter());
-            this.frames = analyzer.analyze(owner, mn);
+            return analyzer.analyze(owner, mn);
         } catch (AnalyzerException e) {
             throw new RuntimeException("Asm cannot analyze method " + owner + "#" + mn.name + mn.desc);
         }
@@ -105,8 +124,7 @@ public class BodyConverter {
         InsnList instructions = mn.instructions;
         for (int index = 0; index < instructions.size(); index++) {
             AbstractInsnNode insn = instructions.get(index);
-            Frame<BasicValue> frame = this.frames[index];
-            if (frame == null) {
+            if (!analysis.isReachable(index)) {
                 // this instruction is dead code
                 continue;
             }
@@ -120,7 +138,7 @@ public class BodyConverter {
                 continue;
             }
 
-            reader.accept(insn, frame);
+            reader.accept(insn, analysis.getStackSizes(index));
 
             List<Instruction> convertedInsns = iw.getInstructions();
 
@@ -329,7 +347,7 @@ public class BodyConverter {
         AbstractInsnNode node = start;
         do {
             int insnIndex = mn.instructions.indexOf(node);
-            if (frames[insnIndex] != null) {
+            if (analysis.isReachable(insnIndex)) {
                 return false;
             }
         } while((node = node.getNext()) != end);
@@ -23,10 +23,10 @@ import org.objectweb.asm.FieldVisitor;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.ModuleVisitor;
 import org.objectweb.asm.Opcodes;
-import org.objectweb.asm.Type;
 import org.objectweb.asm.TypePath;
 import org.objectweb.asm.TypeReference;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -39,8 +39,18 @@ import java.util.stream.Stream;
 public class ClassConvertVisitor extends ClassVisitor {
     private Classfile classfile;
 
+    /**
+     * Verify the analysis of method bodies against the asm analyzer.
+     */
+    private final boolean verifyAnalysis;
+
     public ClassConvertVisitor() {
+        this(false);
+    }
+
+    public ClassConvertVisitor(boolean verifyAnalysis) {
         super(Opcodes.ASM7);
+        this.verifyAnalysis = verifyAnalysis;
     }
 
     public Classfile getClassfile() {
@@ -172,7 +182,7 @@ public class ClassConvertVisitor extends ClassVisitor {
 
     @Override
     public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
-        Field field = new Field(name, AsmUtil.fromAsmType(Type.getType(descriptor)));
+        Field field = new Field(name, AsmUtil.fromDescriptor(descriptor));
         field.getFlags().addAll(AccessConverter.FIELD.fromBitMap(access));
         field.setSignature(Optional.ofNullable(signature));
         field.setValue(Optional.ofNullable(value).map(this::convertFieldValue));
@@ -203,7 +213,7 @@ public class ClassConvertVisitor extends ClassVisitor {
     @Override
     public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
         MethodDescriptor desc = AsmUtil.parseMethodDescriptor(descriptor);
-        Method method = new Method(name, desc.getParameterTypes(), desc.getReturnType());
+        Method method = new Method(name, new ArrayList<>(desc.getParameterTypes()), desc.getReturnType());
         method.getFlags().addAll(AccessConverter.METHOD.fromBitMap(access));
         method.setSignature(Optional.ofNullable(signature));
 
@@ -214,7 +224,7 @@ public class ClassConvertVisitor extends ClassVisitor {
         this.classfile.getMethods().add(method);
 
         MethodVisitor mv = super.visitMethod(access, name, descriptor, signature, exceptions);
-        mv = new MethodConvertVisitor(mv, classfile, method, access, name, descriptor, signature, exceptions);
+        mv = new MethodConvertVisitor(mv, classfile, method, access, name, descriptor, signature, exceptions, verifyAnalysis);
         return mv;
     }
 }
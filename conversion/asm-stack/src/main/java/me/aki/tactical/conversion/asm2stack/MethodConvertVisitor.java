@@ -7,6 +7,7 @@ import me.aki.tactical.core.annotation.Annotation;
 import me.aki.tactical.core.annotation.AnnotationValue;
 import me.aki.tactical.core.typeannotation.MethodTypeAnnotation;
 import me.aki.tactical.core.typeannotation.TargetType;
+import me.aki.tactical.core.util.ArrayIdentityInsertList;
 import me.aki.tactical.stack.StackBody;
 import org.objectweb.asm.AnnotationVisitor;
 import org.objectweb.asm.MethodVisitor;
@@ -27,10 +28,20 @@ public class MethodConvertVisitor extends JSRInlinerAdapter {
     private final Method method;
     private StackBody body;
 
+    /**
+     * Verify the analysis of the method body against the asm analyzer.
+     */
+    private final boolean verifyAnalysis;
+
     public MethodConvertVisitor(MethodVisitor methodVisitor, Classfile classfile, Method method, int access, String name, String descriptor, String signature, String[] exceptions) {
+        this(methodVisitor, classfile, method, access, name, descriptor, signature, exceptions, false);
+    }
+
+    public MethodConvertVisitor(MethodVisitor methodVisitor, Classfile classfile, Method method, int access, String name, String descriptor, String signature, String[] exceptions, boolean verifyAnalysis) {
         super(Opcodes.ASM7, methodVisitor, access, name, descriptor, signature, exceptions);
         this.method = method;
         this.classfile = classfile;
+        this.verifyAnalysis = verifyAnalysis;
     }
 
     @Override
@@ -127,6 +138,7 @@ public class MethodConvertVisitor extends JSRInlinerAdapter {
         super.visitCode();
 
         this.body = new StackBody();
+        this.body.setInstructions(new ArrayIdentityInsertList<>());
         this.method.setBody(Optional.of(this.body));
     }
 
@@ -135,7 +147,7 @@ public class MethodConvertVisitor extends JSRInlinerAdapter {
         super.visitEnd();
 
         if (this.body != null) {
-            new BodyConverter(this.classfile, this.method, this.body, this).convert();
+            new BodyConverter(this.classfile, this.method, this.body, this, verifyAnalysis).convert();
         }
     }
 }
@@ -0,0 +1,646 @@
+package me.aki.tactical.conversion.asm2stack;
+
+import me.aki.tactical.conversion.asmutils.AsmInsnReader;
+import org.objectweb.asm.ConstantDynamic;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.FieldInsnNode;
+import org.objectweb.asm.tree.InsnList;
+import org.objectweb.asm.tree.InvokeDynamicInsnNode;
+import org.objectweb.asm.tree.JumpInsnNode;
+import org.objectweb.asm.tree.LabelNode;
+import org.objectweb.asm.tree.LdcInsnNode;
+import org.objectweb.asm.tree.LookupSwitchInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.MultiANewArrayInsnNode;
+import org.objectweb.asm.tree.TableSwitchInsnNode;
+import org.objectweb.asm.tree.TryCatchBlockNode;
+import org.objectweb.asm.tree.analysis.Analyzer;
+import org.objectweb.asm.tree.analysis.BasicValue;
+import org.objectweb.asm.tree.analysis.Frame;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Compute which instructions of a method are reachable and which values on the stack are of computational type 2.
+ *
+ * This is all the information that the conversion of a method body requires.
+ * It is a lightweight alternative to the asm {@link Analyzer}: Every instruction is visited exactly once
+ * and no frames are allocated, since the sizes of the stack values are already determined by the instructions.
+ */
+public class StackSizeAnalysis {
+    /**
+     * Amount of values from the top of the stack whose size is recorded for each instruction.
+     * The <tt>DUP2_X2</tt> instruction is the one that inspects the most values.
+     */
+    private static final int RECORDED_VALUES = 4;
+
+    private final MethodNode mn;
+    private final InsnList instructions;
+
+    /**
+     * Instructions that are either already analyzed or enqueued for analysis.
+     */
+    private final BitSet reachable;
+
+    /**
+     * The n-th bit is set if the value n-elements down the stack before an instruction is of computational type 2.
+     */
+    private final byte[] wideValues;
+
+    /**
+     * Stacks of all enqueued instructions that were not yet analyzed.
+     */
+    private final int[][] enqueuedStacks;
+    private final int[] worklist;
+    private int worklistSize = 0;
+
+    /**
+     * Sizes of all values on the stack at the currently analyzed instruction.
+     */
+    private int[] stack = new int[16];
+    private int stackSize = 0;
+
+    public StackSizeAnalysis(MethodNode mn) {
+        this.mn = mn;
+        this.instructions = mn.instructions;
+
+        int insnCount = instructions.size();
+        this.reachable = new BitSet(insnCount);
+        this.wideValues = new byte[insnCount];
+        this.enqueuedStacks = new int[insnCount][];
+        this.worklist = new int[insnCount];
+    }
+
+    public void analyze() {
+        if (instructions.size() == 0) {
+            return;
+        }
+
+        enqueue(0, new int[0]);
+
+        List<TryCatchBlockNode> tryCatchBlocks = mn.tryCatchBlocks;
+        boolean[] isHandlerReachable = new boolean[tryCatchBlocks.size()];
+
+        boolean changed;
+        do {
+            analyzeEnqueued();
+
+            // A handler becomes reachable once any instruction that it protects got reachable.
+            changed = false;
+            for (int i = 0; i < tryCatchBlocks.size(); i++) {
+                if (isHandlerReachable[i]) {
+                    continue;
+                }
+
+                TryCatchBlockNode block = tryCatchBlocks.get(i);
+                int start = instructions.indexOf(block.start);
+                int end = instructions.indexOf(block.end);
+                int firstReachable = reachable.nextSetBit(start);
+                if (firstReachable >= 0 && firstReachable < end) {
+                    isHandlerReachable[i] = true;
+                    changed = true;
+
+                    // The stack contains only the exception
+                    enqueue(instructions.indexOf(block.handler), new int[] { 1 });
+                }
+            }
+        } while (changed);
+    }
+
+    /**
+     * Is an instruction reachable or is it dead code.
+     *
+     * @param index index of the instruction within the method
+     * @return whether the instruction is reachable
+     */
+    public boolean isReachable(int index) {
+        return reachable.get(index);
+    }
+
+    /**
+     * Get the sizes of the values on the stack before a reachable instruction.
+     *
+     * @param index index of the instruction within the method
+     * @return sizes of the stack values
+     */
+    public AsmInsnReader.StackSizes getStackSizes(int index) {
+        int wide = wideValues[index];
+        return valueIndex -> valueIndex >= RECORDED_VALUES || (wide & (1 << valueIndex)) == 0;
+    }
+
+    /**
+     * Check that the results of this analysis match the frames computed by the asm {@link Analyzer}.
+     *
+     * @param frames the frames computed by asm
+     * @throws IllegalStateException the results differ
+     */
+    public void verify(Frame<BasicValue>[] frames) {
+        for (int index = 0; index < frames.length; index++) {
+            Frame<BasicValue> frame = frames[index];
+            if ((frame != null) != isReachable(index)) {
+                throw new IllegalStateException("Reachability of instruction " + index + " differs from asm analysis");
+            }
+
+            if (frame != null) {
+                int recordedValues = Math.min(frame.getStackSize(), RECORDED_VALUES);
+                for (int valueIndex = 0; valueIndex < recordedValues; valueIndex++) {
+                    BasicValue value = frame.getStack(frame.getStackSize() - 1 - valueIndex);
+                    if ((value.getSize() == 1) != getStackSizes(index).is32bit(valueIndex)) {
+                        throw new IllegalStateException("Stack of instruction " + index + " differs from asm analysis");
+                    }
+                }
+            }
+        }
+    }
+
+    private void enqueue(int index, int[] stack) {
+        if (!reachable.get(index)) {
+            reachable.set(index);
+            enqueuedStacks[index] = stack;
+            worklist[worklistSize++] = index;
+        }
+    }
+
+    private void enqueue(LabelNode label) {
+        enqueue(instructions.indexOf(label), Arrays.copyOf(stack, stackSize));
+    }
+
+    /**
+     * Analyze all enqueued instructions and all instructions reachable from them.
+     */
+    private void analyzeEnqueued() {
+        while (worklistSize > 0) {
+            int index = worklist[--worklistSize];
+            int[] enqueuedStack = enqueuedStacks[index];
+            enqueuedStacks[index] = null;
+
+            stackSize = 0;
+            for (int size : enqueuedStack) {
+                push(size);
+            }
+
+            while (true) {
+                recordStack(index);
+
+                if (!execute(instructions.get(index))) {
+                    break;
+                }
+
+                index++;
+                if (index >= instructions.size()) {
+                    throw new IllegalStateException("Execution can fall off the end of the code");
+                }
+
+                if (reachable.get(index)) {
+                    // This instruction was already analyzed or is enqueued for analysis
+                    break;
+                }
+                reachable.set(index);
+            }
+        }
+    }
+
+    private void recordStack(int index) {
+        int wide = 0;
+        int recordedValues = Math.min(stackSize, RECORDED_VALUES);
+        for (int valueIndex = 0; valueIndex < recordedValues; valueIndex++) {
+            if (stack[stackSize - 1 - valueIndex] == 2) {
+                wide |= 1 << valueIndex;
+            }
+        }
+        wideValues[index] = (byte) wide;
+    }
+
+    private void push(int size) {
+        if (stackSize == stack.length) {
+            stack = Arrays.copyOf(stack, stackSize * 2);
+        }
+        stack[stackSize++] = size;
+    }
+
+    private int pop() {
+        if (stackSize == 0) {
+            throw new IllegalStateException("Stack underflow");
+        }
+        return stack[--stackSize];
+    }
+
+    private void pop(int count) {
+        for (int i = 0; i < count; i++) {
+            pop();
+        }
+    }
+
+    /**
+     * Pop values from the stack that occupy a certain amount of slots.
+     *
+     * @param slots amount of slots to pop
+     * @return sizes of the popped values, starting with the most recent value
+     */
+    private int[] popSlots(int slots) {
+        int[] values = new int[slots];
+        int count = 0;
+        int poppedSlots = 0;
+        while (poppedSlots < slots) {
+            int size = pop();
+            values[count++] = size;
+            poppedSlots += size;
+        }
+
+        if (poppedSlots != slots) {
+            throw new IllegalStateException("Instruction splits a value of computational type 2");
+        }
+
+        return Arrays.copyOf(values, count);
+    }
+
+    private void pushAll(int[] values) {
+        for (int i = values.length - 1; i >= 0; i--) {
+            push(values[i]);
+        }
+    }
+
+    /**
+     * Emulate the <tt>DUP</tt> instructions on a slot level.
+     *
+     * @param dupSlots amount of slots to duplicate
+     * @param skipSlots amount of slots below the duplicated ones, where the copy is inserted
+     */
+    private void dup(int dupSlots, int skipSlots) {
+        int[] duplicated = popSlots(dupSlots);
+        int[] skipped = popSlots(skipSlots);
+        pushAll(duplicated);
+        pushAll(skipped);
+        pushAll(duplicated);
+    }
+
+    /**
+     * Update the stack as an instruction would do and enqueue all its branch targets.
+     *
+     * @param insn the instruction to emulate
+     * @return can the instruction complete normally and continue with the next instruction
+     */
+    private boolean execute(AbstractInsnNode insn) {
+        switch (insn.getType()) {
+            case AbstractInsnNode.LABEL:
+            case AbstractInsnNode.LINE:
+            case AbstractInsnNode.FRAME:
+            case AbstractInsnNode.IINC_INSN:
+                return true;
+
+            case AbstractInsnNode.INSN:
+                return executeInsn(insn.getOpcode());
+
+            case AbstractInsnNode.INT_INSN:
+                if (insn.getOpcode() == Opcodes.NEWARRAY) {
+                    pop();
+                }
+                push(1);
+                return true;
+
+            case AbstractInsnNode.VAR_INSN:
+                switch (insn.getOpcode()) {
+                    case Opcodes.ILOAD:
+                    case Opcodes.FLOAD:
+                    case Opcodes.ALOAD:
+                        push(1);
+                        return true;
+
+                    case Opcodes.LLOAD:
+                    case Opcodes.DLOAD:
+                        push(2);
+                        return true;
+
+                    case Opcodes.ISTORE:
+                    case Opcodes.LSTORE:
+                    case Opcodes.FSTORE:
+                    case Opcodes.DSTORE:
+                    case Opcodes.ASTORE:
+                        pop();
+                        return true;
+
+                    case Opcodes.RET:
+                        throw new IllegalStateException("Subroutine was not inlined by JSRInlinerAdapter");
+
+                    default:
+                        throw new AssertionError();
+                }
+
+            case AbstractInsnNode.TYPE_INSN:
+                if (insn.getOpcode() != Opcodes.NEW) {
+                    // ANEWARRAY, CHECKCAST and INSTANCEOF
+                    pop();
+                }
+                push(1);
+                return true;
+
+            case AbstractInsnNode.FIELD_INSN: {
+                int size = Type.getType(((FieldInsnNode) insn).desc).getSize();
+                switch (insn.getOpcode()) {
+                    case Opcodes.GETSTATIC:
+                        push(size);
+                        return true;
+
+                    case Opcodes.PUTSTATIC:
+                        pop();
+                        return true;
+
+                    case Opcodes.GETFIELD:
+                        pop();
+                        push(size);
+                        return true;
+
+                    case Opcodes.PUTFIELD:
+                        pop(2);
+                        return true;
+
+                    default:
+                        throw new AssertionError();
+                }
+            }
+
+            case AbstractInsnNode.METHOD_INSN:
+                if (insn.getOpcode() != Opcodes.INVOKESTATIC) {
+                    pop();
+                }
+                executeInvoke(((MethodInsnNode) insn).desc);
+                return true;
+
+            case AbstractInsnNode.INVOKE_DYNAMIC_INSN:
+                executeInvoke(((InvokeDynamicInsnNode) insn).desc);
+                return true;
+
+            case AbstractInsnNode.JUMP_INSN:
+                return executeJump((JumpInsnNode) insn);
+
+            case AbstractInsnNode.LDC_INSN: {
+                Object constant = ((LdcInsnNode) insn).cst;
+                boolean isWide = constant instanceof Long || constant instanceof Double ||
+                        (constant instanceof ConstantDynamic && ((ConstantDynamic) constant).getSize() == 2);
+                push(isWide ? 2 : 1);
+                return true;
+            }
+
+            case AbstractInsnNode.TABLESWITCH_INSN: {
+                TableSwitchInsnNode switchInsn = (TableSwitchInsnNode) insn;
+                pop();
+                enqueue(switchInsn.dflt);
+                switchInsn.labels.forEach(this::enqueue);
+                return false;
+            }
+
+            case AbstractInsnNode.LOOKUPSWITCH_INSN: {
+                LookupSwitchInsnNode switchInsn = (LookupSwitchInsnNode) insn;
+                pop();
+                enqueue(switchInsn.dflt);
+                switchInsn.labels.forEach(this::enqueue);
+                return false;
+            }
+
+            case AbstractInsnNode.MULTIANEWARRAY_INSN:
+                pop(((MultiANewArrayInsnNode) insn).dims);
+                push(1);
+                return true;
+
+            default:
+                throw new AssertionError();
+        }
+    }
+
+    private void executeInvoke(String descriptor) {
+        pop(Type.getArgumentTypes(descriptor).length);
+
+        int returnSize = Type.getReturnType(descriptor).getSize();
+        if (returnSize > 0) {
+            push(returnSize);
+        }
+    }
+
+    private boolean executeJump(JumpInsnNode insn) {
+        switch (insn.getOpcode()) {
+            case Opcodes.GOTO:
+                enqueue(insn.label);
+                return false;
+
+            case Opcodes.JSR:
+                throw new IllegalStateException("Subroutine was not inlined by JSRInlinerAdapter");
+
+            case Opcodes.IFEQ:
+            case Opcodes.IFNE:
+            case Opcodes.IFLT:
+            case Opcodes.IFGE:
+            case Opcodes.IFGT:
+            case Opcodes.IFLE:
+            case Opcodes.IFNULL:
+            case Opcodes.IFNONNULL:
+                pop();
+                enqueue(insn.label);
+                return true;
+
+            case Opcodes.IF_ICMPEQ:
+            case Opcodes.IF_ICMPNE:
+            case Opcodes.IF_ICMPLT:
+            case Opcodes.IF_ICMPGE:
+            case Opcodes.IF_ICMPGT:
+            case Opcodes.IF_ICMPLE:
+            case Opcodes.IF_ACMPEQ:
+            case Opcodes.IF_ACMPNE:
+                pop(2);
+                enqueue(insn.label);
+                return true;
+
+            default:
+                throw new AssertionError();
+        }
+    }
+
+    private boolean executeInsn(int opcode) {
+        switch (opcode) {
+            case Opcodes.NOP:
+                return true;
+
+            case Opcodes.ACONST_NULL:
+            case Opcodes.ICONST_M1:
+            case Opcodes.ICONST_0:
+            case Opcodes.ICONST_1:
+            case Opcodes.ICONST_2:
+            case Opcodes.ICONST_3:
+            case Opcodes.ICONST_4:
+            case Opcodes.ICONST_5:
+            case Opcodes.FCONST_0:
+            case Opcodes.FCONST_1:
+            case Opcodes.FCONST_2:
+                push(1);
+                return true;
+
+            case Opcodes.LCONST_0:
+            case Opcodes.LCONST_1:
+            case Opcodes.DCONST_0:
+            case Opcodes.DCONST_1:
+                push(2);
+                return true;
+
+            case Opcodes.IALOAD:
+            case Opcodes.FALOAD:
+            case Opcodes.AALOAD:
+            case Opcodes.BALOAD:
+            case Opcodes.CALOAD:
+            case Opcodes.SALOAD:
+                pop(2);
+                push(1);
+                return true;
+
+            case Opcodes.LALOAD:
+            case Opcodes.DALOAD:
+                pop(2);
+                push(2);
+                return true;
+
+            case Opcodes.IASTORE:
+            case Opcodes.LASTORE:
+            case Opcodes.FASTORE:
+            case Opcodes.DASTORE:
+            case Opcodes.AASTORE:
+            case Opcodes.BASTORE:
+            case Opcodes.CASTORE:
+            case Opcodes.SASTORE:
+                pop(3);
+                return true;
+
+            case Opcodes.POP:
+                popSlots(1);
+                return true;
+
+            case Opcodes.POP2:
+                popSlots(2);
+                return true;
+
+            case Opcodes.DUP:
+                dup(1, 0);
+                return true;
+
+            case Opcodes.DUP_X1:
+                dup(1, 1);
+                return true;
+
+            case Opcodes.DUP_X2:
+                dup(1, 2);
+                return true;
+
+            case Opcodes.DUP2:
+                dup(2, 0);
+                return true;
+
+            case Opcodes.DUP2_X1:
+                dup(2, 1);
+                return true;
+
+            case Opcodes.DUP2_X2:
+                dup(2, 2);
+                return true;
+
+            case Opcodes.SWAP: {
+                int value1 = pop();
+                int value2 = pop();
+                push(value1);
+                push(value2);
+                return true;
+            }
+
+            case Opcodes.IADD:
+            case Opcodes.FADD:
+            case Opcodes.ISUB:
+            case Opcodes.FSUB:
+            case Opcodes.IMUL:
+            case Opcodes.FMUL:
+            case Opcodes.IDIV:
+            case Opcodes.FDIV:
+            case Opcodes.IREM:
+            case Opcodes.FREM:
+            case Opcodes.ISHL:
+            case Opcodes.ISHR:
+            case Opcodes.IUSHR:
+            case Opcodes.IAND:
+            case Opcodes.IOR:
+            case Opcodes.IXOR:
+            case Opcodes.LCMP:
+            case Opcodes.FCMPL:
+            case Opcodes.FCMPG:
+            case Opcodes.DCMPL:
+            case Opcodes.DCMPG:
+                pop(2);
+                push(1);
+                return true;
+
+            case Opcodes.LADD:
+            case Opcodes.DADD:
+            case Opcodes.LSUB:
+            case Opcodes.DSUB:
+            case Opcodes.LMUL:
+            case Opcodes.DMUL:
+            case Opcodes.LDIV:
+            case Opcodes.DDIV:
+            case Opcodes.LREM:
+            case Opcodes.DREM:
+            case Opcodes.LSHL:
+            case Opcodes.LSHR:
+            case Opcodes.LUSHR:
+            case Opcodes.LAND:
+            case Opcodes.LOR:
+            case Opcodes.LXOR:
+                pop(2);
+                push(2);
+                return true;
+
+            case Opcodes.INEG:
+            case Opcodes.FNEG:
+            case Opcodes.L2I:
+            case Opcodes.L2F:
+            case Opcodes.D2I:
+            case Opcodes.D2F:
+            case Opcodes.I2F:
+            case Opcodes.F2I:
+            case Opcodes.I2B:
+            case Opcodes.I2C:
+            case Opcodes.I2S:
+            case Opcodes.ARRAYLENGTH:
+                pop();
+                push(1);
+                return true;
+
+            case Opcodes.LNEG:
+            case Opcodes.DNEG:
+            case Opcodes.I2L:
+            case Opcodes.I2D:
+            case Opcodes.L2D:
+            case Opcodes.F2L:
+            case Opcodes.F2D:
+            case Opcodes.D2L:
+                pop();
+                push(2);
+                return true;
+
+            case Opcodes.MONITORENTER:
+            case Opcodes.MONITOREXIT:
+                pop();
+                return true;
+
+            case Opcodes.IRETURN:
+            case Opcodes.LRETURN:
+            case Opcodes.FRETURN:
+            case Opcodes.DRETURN:
+            case Opcodes.ARETURN:
+            case Opcodes.RETURN:
+            case Opcodes.ATHROW:
+                return false;
+
+            default:
+                throw new AssertionError();
+        }
+    }
+}
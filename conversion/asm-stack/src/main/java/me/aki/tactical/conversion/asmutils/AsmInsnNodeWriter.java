@@ -405,19 +405,20 @@ public class AsmInsnNodeWriter extends StackInsnVisitor<Instruction, StackLocal>
     @Override
     public void visitNewArray(ArrayType type, int initializedDimensions) {
         if (initializedDimensions == 1) {
-            Type baseType = type.getBaseType();
-            if (baseType instanceof RefType) {
-                String descriptor = AsmUtil.toInternalName((RefType) baseType);
+            // the component type is an array for arrays with more dimensions than initialized ones
+            Type componentType = type.getLowerType();
+            if (componentType instanceof RefType) {
+                String descriptor = AsmUtil.toInternalName((RefType) componentType);
                 visitConvertedInsn(new TypeInsnNode(Opcodes.ANEWARRAY, descriptor));
             } else {
-                int operand = baseType instanceof BooleanType ? Opcodes.T_BOOLEAN :
-                        baseType instanceof ByteType ? Opcodes.T_BYTE :
-                        baseType instanceof CharType ? Opcodes.T_CHAR :
-                        baseType instanceof ShortType ? Opcodes.T_SHORT :
-                        baseType instanceof IntType ? Opcodes.T_INT :
-                        baseType instanceof LongType ? Opcodes.T_LONG :
-                        baseType instanceof FloatType ? Opcodes.T_FLOAT :
-                        baseType instanceof DoubleType ? Opcodes.T_DOUBLE :
+                int operand = componentType instanceof BooleanType ? Opcodes.T_BOOLEAN :
+                        componentType instanceof ByteType ? Opcodes.T_BYTE :
+                        componentType instanceof CharType ? Opcodes.T_CHAR :
+                        componentType instanceof ShortType ? Opcodes.T_SHORT :
+                        componentType instanceof IntType ? Opcodes.T_INT :
+                        componentType instanceof LongType ? Opcodes.T_LONG :
+                        componentType instanceof FloatType ? Opcodes.T_FLOAT :
+                        componentType instanceof DoubleType ? Opcodes.T_DOUBLE :
                         assertionError();
 
                 visitConvertedInsn(new IntInsnNode(Opcodes.NEWARRAY, operand));
@@ -955,12 +956,14 @@ public class AsmInsnNodeWriter extends StackInsnVisitor<Instruction, StackLocal>
             ctx.registerLabel(defaultTarget, RWCell.of(() -> node.dflt, x -> node.dflt = x, LabelNode.class));
             IntStream.rangeClosed(min, max).forEach(key -> {
                 Instruction target = targetTable.get(key);
-                ctx.registerLabel(target, RWCell.of(() -> node.labels.get(key), x -> node.labels.set(key, x), LabelNode.class));
+                int index = key - min;
+                ctx.registerLabel(target, RWCell.of(() -> node.labels.get(index), x -> node.labels.set(index, x), LabelNode.class));
             });
 
             visitConvertedInsn(node);
         } else {
-            int[] keys = targetTable.keySet().stream().mapToInt(Integer::intValue).toArray();
+            // the jvm requires the keys of a lookupswitch to be sorted
+            int[] keys = keySet.stream().mapToInt(Integer::intValue).toArray();
             LabelNode[] labels = new LabelNode[targetTable.size()];
             LookupSwitchInsnNode node = new LookupSwitchInsnNode(null, keys, labels);
 
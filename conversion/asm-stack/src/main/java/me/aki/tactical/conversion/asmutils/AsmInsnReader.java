@@ -67,8 +67,6 @@ import org.objectweb.asm.tree.MultiANewArrayInsnNode;
 import org.objectweb.asm.tree.TableSwitchInsnNode;
 import org.objectweb.asm.tree.TypeInsnNode;
 import org.objectweb.asm.tree.VarInsnNode;
-import org.objectweb.asm.tree.analysis.BasicValue;
-import org.objectweb.asm.tree.analysis.Frame;
 
 import java.util.Arrays;
 import java.util.HashMap;
@@ -95,10 +93,16 @@ public class AsmInsnReader {
         this.iv = iv;
     }
 
-    public void accept(AbstractInsnNode insn, Frame<BasicValue> frame) {
+    /**
+     * Visit the events corresponding to an asm instruction.
+     *
+     * @param insn the instruction to convert
+     * @param stack sizes of the values on the stack before the instruction
+     */
+    public void accept(AbstractInsnNode insn, StackSizes stack) {
         switch (insn.getType()) {
             case AbstractInsnNode.INSN:
-                convertInsnNode((InsnNode) insn, frame);
+                convertInsnNode((InsnNode) insn, stack);
                 break;
 
             case AbstractInsnNode.INT_INSN:
@@ -159,7 +163,7 @@ public class AsmInsnReader {
         }
     }
 
-    private void convertInsnNode(InsnNode insn, Frame<BasicValue> frame) {
+    private void convertInsnNode(InsnNode insn, StackSizes stack) {
         int opcode = insn.getOpcode();
         switch (opcode) {
             case Opcodes.NOP:
@@ -226,7 +230,7 @@ public class AsmInsnReader {
             case Opcodes.DUP2_X1:
             case Opcodes.DUP2_X2:
             case Opcodes.SWAP:
-                visitStackInsns(insn, frame);
+                visitStackInsns(insn, stack);
                 break;
 
             case Opcodes.IADD:
@@ -360,24 +364,24 @@ public class AsmInsnReader {
         }
     }
 
-    private void visitStackInsns(InsnNode insn, Frame<BasicValue> frame) {
+    private void visitStackInsns(InsnNode insn, StackSizes stack) {
         switch (insn.getOpcode()) {
             case Opcodes.SWAP:
-                if (is32bit(frame, 0)) {
+                if (stack.is32bit(0)) {
                     iv.visitSwap();
                     break;
                 }
                 throw new StackTypeException();
 
             case Opcodes.POP:
-                if (is32bit(frame, 0)) {
+                if (stack.is32bit(0)) {
                     iv.visitPop();
                     break;
                 }
                 throw new StackTypeException();
 
             case Opcodes.POP2:
-                if (is32bit(frame, 0)) {
+                if (stack.is32bit(0)) {
                     // Form 1
                     iv.visitPop();
                     iv.visitPop();
@@ -389,23 +393,23 @@ public class AsmInsnReader {
                 }
 
             case Opcodes.DUP:
-                if (is32bit(frame, 0)) {
+                if (stack.is32bit(0)) {
                     iv.visitDup();
                     break;
                 }
                 throw new StackTypeException();
 
             case Opcodes.DUP_X1:
-                if (is32bit(frame, 0) && is32bit(frame, 1)) {
+                if (stack.is32bit(0) && stack.is32bit(1)) {
                     iv.visitDupX1();
                     break;
                 }
                 throw new StackTypeException();
 
             case Opcodes.DUP_X2:
-                if (is32bit(frame, 0)) {
-                    if (is32bit(frame, 1)) {
-                        if (is32bit(frame, 2)) {
+                if (stack.is32bit(0)) {
+                    if (stack.is32bit(1)) {
+                        if (stack.is32bit(2)) {
                             // Form 1
                             iv.visitDupX2();
                             break;
@@ -419,8 +423,8 @@ public class AsmInsnReader {
                 throw new StackTypeException();
 
             case Opcodes.DUP2:
-                if (is32bit(frame, 0)) {
-                    if (is32bit(frame, 1)) {
+                if (stack.is32bit(0)) {
+                    if (stack.is32bit(1)) {
                         // Form 1
                         iv.visitDup2();
                         break;
@@ -433,16 +437,16 @@ public class AsmInsnReader {
                 throw new StackTypeException();
 
             case Opcodes.DUP2_X1:
-                if (is32bit(frame, 0)) {
-                    if (is32bit(frame, 1)) {
-                        if (is32bit(frame, 2)) {
+                if (stack.is32bit(0)) {
+                    if (stack.is32bit(1)) {
+                        if (stack.is32bit(2)) {
                             // Form 1
                             iv.visitDup2X1();
                             break;
                         }
                     }
                 } else {
-                    if (is32bit(frame, 1)) {
+                    if (stack.is32bit(1)) {
                         // Form 2
                         iv.visitDupX1();
                         break;
@@ -451,10 +455,10 @@ public class AsmInsnReader {
                 throw new StackTypeException();
 
             case Opcodes.DUP2_X2:
-                if (is32bit(frame, 0)) {
-                    if (is32bit(frame, 1)) {
-                        if (is32bit(frame, 2)) {
-                            if (is32bit(frame, 3)) {
+                if (stack.is32bit(0)) {
+                    if (stack.is32bit(1)) {
+                        if (stack.is32bit(2)) {
+                            if (stack.is32bit(3)) {
                                 // Form 1
                                 iv.visitDup2X2();
                                 break;
@@ -466,8 +470,8 @@ public class AsmInsnReader {
                         }
                     }
                 } else {
-                    if (is32bit(frame, 1)) {
-                        if (is32bit(frame, 2)) {
+                    if (stack.is32bit(1)) {
+                        if (stack.is32bit(2)) {
                             // Form 2
                             iv.visitDupX2();
                             break;
@@ -485,21 +489,6 @@ public class AsmInsnReader {
         }
     }
 
-    /**
-     * Is a value n-elements down in the stack of computational type 1.
-     *
-     * @param frame frame of the current instruction
-     * @param index index of stack where 0 is the must recent value
-     * @return is the value of computational type 1
-     */
-    private boolean is32bit(Frame<BasicValue> frame, int index) {
-        BasicValue value = frame.getStack(frame.getStackSize() - 1 - index);
-        int sort = value.getType().getSort();
-
-        return sort != org.objectweb.asm.Type.LONG &&
-                sort != org.objectweb.asm.Type.DOUBLE;
-    }
-
     private Type getArrayLoadType(int opcode) {
         switch (opcode) {
             case Opcodes.IALOAD: return IntType.getInstance();
@@ -1022,6 +1011,22 @@ public class AsmInsnReader {
         iv.visitNewArray(array, insn.dims);
     }
 
+    /**
+     * Sizes of the values on the stack before an instruction.
+     *
+     * They are required to convert instructions that operate on values of computational type 2.
+     */
+    @FunctionalInterface
+    public interface StackSizes {
+        /**
+         * Is a value n-elements down in the stack of computational type 1.
+         *
+         * @param index index of stack where 0 is the must recent value
+         * @return is the value of computational type 1
+         */
+        boolean is32bit(int index);
+    }
+
     public static class StackTypeException extends IllegalStateException {
         public StackTypeException() {}
 
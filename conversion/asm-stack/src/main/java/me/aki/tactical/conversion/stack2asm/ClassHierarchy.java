@@ -0,0 +1,95 @@
+package me.aki.tactical.conversion.stack2asm;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Source of supertype information used to compute the frames of methods.
+ *
+ * Classes are identified by their internal name (e.g. <tt>java/lang/Object</tt>).
+ * Implementations must be safe for concurrent use.
+ */
+public interface ClassHierarchy {
+    /**
+     * Lookup the supertype information of a class.
+     *
+     * @param internalName internal name of the class
+     * @return info about the class or an empty optional if the class is unknown
+     */
+    Optional<ClassInfo> getClassInfo(String internalName);
+
+    /**
+     * Create a hierarchy that asks another hierarchy for classes that this hierarchy does not know.
+     *
+     * @param fallback hierarchy to ask for unknown classes
+     * @return the combined hierarchy
+     */
+    default ClassHierarchy withFallback(ClassHierarchy fallback) {
+        return internalName -> {
+            Optional<ClassInfo> info = getClassInfo(internalName);
+            return info.isPresent() ? info : fallback.getClassInfo(internalName);
+        };
+    }
+
+    /**
+     * Position of a class within the class hierarchy.
+     */
+    public static class ClassInfo {
+        /**
+         * Internal name of the class.
+         */
+        private final String name;
+
+        /**
+         * Internal name of the supertype or an empty optional for <tt>java/lang/Object</tt> and modules.
+         */
+        private final Optional<String> supertype;
+
+        /**
+         * Is the class an interface.
+         */
+        private final boolean isInterface;
+
+        public ClassInfo(String name, Optional<String> supertype, boolean isInterface) {
+            this.name = name;
+            this.supertype = supertype;
+            this.isInterface = isInterface;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Optional<String> getSupertype() {
+            return supertype;
+        }
+
+        public boolean isInterface() {
+            return isInterface;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ClassInfo classInfo = (ClassInfo) o;
+            return isInterface == classInfo.isInterface &&
+                    Objects.equals(name, classInfo.name) &&
+                    Objects.equals(supertype, classInfo.supertype);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, supertype, isInterface);
+        }
+
+        @Override
+        public String toString() {
+            return ClassInfo.class.getSimpleName() + '{' +
+                    "name='" + name + '\'' +
+                    ", supertype=" + supertype +
+                    ", isInterface=" + isInterface +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package me.aki.tactical.conversion.stack2asm;
+
+import me.aki.tactical.core.Classfile;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link ClassHierarchy} indexing {@link Classfile Classfiles} that are being converted.
+ */
+public class ClassfileHierarchy implements ClassHierarchy {
+    private final Map<String, ClassInfo> classes = new ConcurrentHashMap<>();
+
+    public ClassfileHierarchy() {}
+
+    public ClassfileHierarchy(Collection<Classfile> classfiles) {
+        classfiles.forEach(this::add);
+    }
+
+    /**
+     * Add a class to the index.
+     *
+     * @param classfile class to add
+     */
+    public void add(Classfile classfile) {
+        String name = AsmUtil.toInternalName(classfile.getName());
+        Optional<String> supertype = Optional.ofNullable(classfile.getSupertype()).map(AsmUtil::toInternalName);
+        boolean isInterface = classfile.getFlag(Classfile.Flag.INTERFACE);
+        classes.put(name, new ClassInfo(name, supertype, isInterface));
+    }
+
+    @Override
+    public Optional<ClassInfo> getClassInfo(String internalName) {
+        return Optional.ofNullable(classes.get(internalName));
+    }
+}
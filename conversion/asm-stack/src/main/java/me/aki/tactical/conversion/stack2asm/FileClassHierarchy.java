@@ -0,0 +1,119 @@
+package me.aki.tactical.conversion.stack2asm;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Opcodes;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * A {@link ClassHierarchy} that reads the headers of classes stored in jar files or directories.
+ *
+ * Classes are read on demand and never loaded by a class loader.
+ * Looked up classes are cached, including classes that could not be found.
+ */
+public class FileClassHierarchy implements ClassHierarchy, Closeable {
+    private static final Optional<ClassInfo> UNKNOWN = Optional.empty();
+
+    /**
+     * The opened jar files.
+     */
+    private final List<ZipFile> jars = new ArrayList<>();
+
+    /**
+     * Root directories of class files.
+     */
+    private final List<File> directories = new ArrayList<>();
+
+    private final Map<String, Optional<ClassInfo>> cache = new ConcurrentHashMap<>();
+
+    /**
+     * @param files jar files or directories containing classes, the first one containing a class is used.
+     * @throws IOException a jar could not be opened
+     */
+    public FileClassHierarchy(List<File> files) throws IOException {
+        try {
+            for (File file : files) {
+                if (file.isDirectory()) {
+                    directories.add(file);
+                } else {
+                    jars.add(new ZipFile(file));
+                }
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public Optional<ClassInfo> getClassInfo(String internalName) {
+        return cache.computeIfAbsent(internalName, name -> {
+            try {
+                return readClassInfo(name);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private Optional<ClassInfo> readClassInfo(String internalName) throws IOException {
+        String fileName = internalName + ".class";
+
+        for (ZipFile jar : jars) {
+            ZipEntry entry = jar.getEntry(fileName);
+            if (entry != null) {
+                try (InputStream in = jar.getInputStream(entry)) {
+                    return Optional.of(readClassInfo(new ClassReader(in)));
+                }
+            }
+        }
+
+        for (File directory : directories) {
+            File file = new File(directory, fileName);
+            if (file.isFile()) {
+                return Optional.of(readClassInfo(new ClassReader(Files.readAllBytes(file.toPath()))));
+            }
+        }
+
+        return UNKNOWN;
+    }
+
+    /**
+     * Read the header of a class.
+     *
+     * @param reader reader of the class
+     * @return supertype information about the class
+     */
+    static ClassInfo readClassInfo(ClassReader reader) {
+        boolean isInterface = (reader.getAccess() & Opcodes.ACC_INTERFACE) != 0;
+        return new ClassInfo(reader.getClassName(), Optional.ofNullable(reader.getSuperName()), isInterface);
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException exception = null;
+        for (ZipFile jar : jars) {
+            try {
+                jar.close();
+            } catch (IOException e) {
+                exception = e;
+            }
+        }
+
+        if (exception != null) {
+            throw exception;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package me.aki.tactical.conversion.stack2asm;
+
+import org.objectweb.asm.ClassReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link ClassHierarchy} that reads classes as resources of a {@link ClassLoader}.
+ *
+ * Only the bytes of the class files are read, the classes themselves are never loaded.
+ * This is mainly useful to resolve classes of the java runtime.
+ */
+public class ResourceClassHierarchy implements ClassHierarchy {
+    private final ClassLoader classLoader;
+
+    private final Map<String, Optional<ClassInfo>> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Read classes available to the {@link ClassLoader#getSystemClassLoader() system class loader}.
+     */
+    public ResourceClassHierarchy() {
+        this(ClassLoader.getSystemClassLoader());
+    }
+
+    public ResourceClassHierarchy(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    @Override
+    public Optional<ClassInfo> getClassInfo(String internalName) {
+        return cache.computeIfAbsent(internalName, name -> {
+            try (InputStream in = classLoader.getResourceAsStream(name + ".class")) {
+                return in == null ? Optional.empty() : Optional.of(FileClassHierarchy.readClassInfo(new ClassReader(in)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
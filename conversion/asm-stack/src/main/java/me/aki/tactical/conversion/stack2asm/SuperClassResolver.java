@@ -0,0 +1,120 @@
+package me.aki.tactical.conversion.stack2asm;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compute the common super class of two classes based on a {@link ClassHierarchy}.
+ *
+ * Results are cached, so one instance should be shared for all classes that are written.
+ */
+public class SuperClassResolver {
+    private static final String OBJECT = "java/lang/Object";
+
+    private final ClassHierarchy hierarchy;
+
+    private final Map<Pair, String> cache = new ConcurrentHashMap<>();
+
+    public SuperClassResolver(ClassHierarchy hierarchy) {
+        this.hierarchy = hierarchy;
+    }
+
+    public ClassHierarchy getHierarchy() {
+        return hierarchy;
+    }
+
+    /**
+     * Get the most specific common super class of two classes.
+     *
+     * Interfaces are treated like direct subclasses of <tt>java/lang/Object</tt>,
+     * the same way as the JVM verifier merges interface types.
+     *
+     * @param type1 internal name of the first class
+     * @param type2 internal name of the second class
+     * @return internal name of the common super class
+     * @throws TypeNotPresentException one of the classes or their super classes is not known to the hierarchy
+     */
+    public String getCommonSuperClass(String type1, String type2) {
+        if (type1.equals(type2)) {
+            return type1;
+        }
+
+        return cache.computeIfAbsent(new Pair(type1, type2), pair -> computeCommonSuperClass(type1, type2));
+    }
+
+    private String computeCommonSuperClass(String type1, String type2) {
+        Set<String> supertypes1 = new HashSet<>(getSuperClasses(type1));
+
+        for (String supertype : getSuperClasses(type2)) {
+            if (supertypes1.contains(supertype)) {
+                return supertype;
+            }
+        }
+
+        return OBJECT;
+    }
+
+    /**
+     * Get a class and all its super classes, starting with the class itself.
+     *
+     * @throws TypeNotPresentException the class or one of its super classes is unknown
+     */
+    private List<String> getSuperClasses(String type) {
+        List<String> supertypes = new ArrayList<>();
+
+        Optional<String> current = Optional.of(type);
+        while (current.isPresent()) {
+            String name = current.get();
+            supertypes.add(name);
+            if (name.equals(OBJECT)) {
+                break;
+            }
+
+            ClassHierarchy.ClassInfo info = hierarchy.getClassInfo(name)
+                    .orElseThrow(() -> new TypeNotPresentException(name.replace('/', '.'), null));
+
+            if (info.isInterface()) {
+                break;
+            }
+            current = info.getSupertype();
+        }
+
+        if (!supertypes.get(supertypes.size() - 1).equals(OBJECT)) {
+            supertypes.add(OBJECT);
+        }
+
+        return supertypes;
+    }
+
+    /**
+     * An unordered pair of class names.
+     */
+    private static class Pair {
+        private final String first;
+        private final String second;
+
+        private Pair(String first, String second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Pair pair = (Pair) o;
+            return (first.equals(pair.first) && second.equals(pair.second)) ||
+                    (first.equals(pair.second) && second.equals(pair.first));
+        }
+
+        @Override
+        public int hashCode() {
+            return first.hashCode() ^ second.hashCode();
+        }
+    }
+}
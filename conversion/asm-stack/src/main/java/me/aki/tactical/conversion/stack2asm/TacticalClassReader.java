@@ -30,8 +30,19 @@ import java.util.Optional;
 public class TacticalClassReader {
     private final Classfile classfile;
 
+    /**
+     * Resolves common super classes for the computation of frames.
+     * If it is absent, neither frames nor the max stack size and local count are visited.
+     */
+    private final Optional<SuperClassResolver> superClassResolver;
+
     public TacticalClassReader(Classfile classfile) {
+        this(classfile, Optional.empty());
+    }
+
+    public TacticalClassReader(Classfile classfile, Optional<SuperClassResolver> superClassResolver) {
         this.classfile = classfile;
+        this.superClassResolver = superClassResolver;
     }
 
     public void accept(ClassVisitor cv) {
@@ -218,7 +229,7 @@ public class TacticalClassReader {
 
             MethodVisitor mv = cv.visitMethod(access, name, descriptor, signature, exceptions);
             if (mv != null) {
-                new TacticalMethodReader(method).accept(mv);
+                new TacticalMethodReader(classfile, method, superClassResolver).accept(mv);
             }
         }
     }
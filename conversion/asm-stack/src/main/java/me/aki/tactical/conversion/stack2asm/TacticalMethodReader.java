@@ -1,6 +1,10 @@
 package me.aki.tactical.conversion.stack2asm;
 
+import me.aki.tactical.core.Classfile;
+import me.aki.tactical.core.TypePool;
 import me.aki.tactical.stack.utils.analysis.Analysis;
+import me.aki.tactical.stack.utils.analysis.FrameAnalysis;
+import me.aki.tactical.stack.utils.analysis.VerificationType;
 import me.aki.tactical.conversion.asmutils.AccessConverter;
 import me.aki.tactical.conversion.asmutils.AsmInsnNodeWriter;
 import me.aki.tactical.stack.utils.StackInsnReader;
@@ -20,9 +24,11 @@ import me.aki.tactical.stack.insn.Instruction;
 import org.objectweb.asm.AnnotationVisitor;
 import org.objectweb.asm.Label;
 import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.TypePath;
 import org.objectweb.asm.TypeReference;
 import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.FrameNode;
 import org.objectweb.asm.tree.InsnList;
 import org.objectweb.asm.tree.LabelNode;
 import org.objectweb.asm.tree.LineNumberNode;
@@ -38,13 +44,27 @@ import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 public class TacticalMethodReader {
+    private final Classfile classfile;
     private final Method method;
 
-    public TacticalMethodReader(Method method) {
+    /**
+     * Resolves common super classes for the computation of frames.
+     * If it is absent, neither frames nor the max stack size and local count are visited.
+     */
+    private final Optional<SuperClassResolver> superClassResolver;
+
+    public TacticalMethodReader(Classfile classfile, Method method) {
+        this(classfile, method, Optional.empty());
+    }
+
+    public TacticalMethodReader(Classfile classfile, Method method, Optional<SuperClassResolver> superClassResolver) {
+        this.classfile = classfile;
         this.method = method;
+        this.superClassResolver = superClassResolver;
     }
 
     public void accept(MethodVisitor mv) {
@@ -159,7 +179,16 @@ public class TacticalMethodReader {
             Analysis analysis = new Analysis(body);
             analysis.analyze();
 
-            LabelResolver labelResolver = convertInstructions(body, analysis, mn.instructions);
+            ConversionContext ctx = new ConversionContext(body);
+            Optional<FrameAnalysis> frameAnalysis = superClassResolver.map(resolver -> {
+                FrameAnalysis frames = new FrameAnalysis(classfile.getName(), method, analysis, ctx::getLocalIndex,
+                        (class1, class2) -> TypePool.current().pathFromInternalName(
+                                resolver.getCommonSuperClass(AsmUtil.toInternalName(class1), AsmUtil.toInternalName(class2))));
+                frames.analyze();
+                return frames;
+            });
+
+            LabelResolver labelResolver = convertInstructions(body, analysis, ctx, mn.instructions);
 
             insertLineNumberNodes(body.getLineNumbers(), mn.instructions, labelResolver);
 
@@ -168,13 +197,21 @@ public class TacticalMethodReader {
 
             convertTryCatchBlocks(body, analysis, labelResolver, mn);
 
+            frameAnalysis.ifPresent(frames -> {
+                if (classfile.getVersion().getMajor() >= Classfile.Version.MAJOR_JDK_6) {
+                    insertFrames(analysis, frames, labelResolver, mn.instructions);
+                }
+
+                mn.maxStack = analysis.getMaxStack();
+                mn.maxLocals = computeMaxLocals(frames, mn);
+            });
+
             mn.accept(mv);
         });
     }
 
-    private LabelResolver convertInstructions(StackBody body, Analysis analysis, InsnList insnList) {
+    private LabelResolver convertInstructions(StackBody body, Analysis analysis, ConversionContext ctx, InsnList insnList) {
         Map<Instruction, List<AbstractInsnNode>> convertedInsns = new HashMap<>();
-        ConversionContext ctx = new ConversionContext(body);
 
         AsmInsnNodeWriter insnWriter = new AsmInsnNodeWriter(ctx);
         StackInsnReader insnReader = new StackInsnReader(insnWriter);
@@ -203,6 +240,86 @@ public class TacticalMethodReader {
         return labelResolver;
     }
 
+    /**
+     * Insert a {@link FrameNode} before all reachable instructions that require a frame.
+     *
+     * @param analysis analysis that determines which instructions are reachable
+     * @param frameAnalysis analysis that computed the frames
+     * @param labelResolver resolves the asm instructions corresponding to an instruction
+     * @param insnList the list of converted instructions
+     */
+    private void insertFrames(Analysis analysis, FrameAnalysis frameAnalysis, LabelResolver labelResolver, InsnList insnList) {
+        frameAnalysis.getFrames().forEach((instruction, frame) -> {
+            if (analysis.isReachable(instruction)) {
+                List<AbstractInsnNode> asmInsns = labelResolver.getAsmInsns(instruction);
+                insnList.insertBefore(asmInsns.get(0), convertFrame(frame, labelResolver));
+            }
+        });
+    }
+
+    private FrameNode convertFrame(FrameAnalysis.Frame frame, LabelResolver labelResolver) {
+        List<Object> locals = new ArrayList<>();
+        List<VerificationType> frameLocals = frame.getLocals();
+        for (int index = 0; index < frameLocals.size(); index++) {
+            VerificationType type = frameLocals.get(index);
+            locals.add(convertVerificationType(type, labelResolver));
+
+            if (type.is64bit()) {
+                // asm implicitly adds the second slot of longs and doubles
+                index++;
+            }
+        }
+
+        Object[] stack = frame.getStack().stream()
+                .map(type -> convertVerificationType(type, labelResolver))
+                .toArray();
+
+        return new FrameNode(Opcodes.F_NEW, locals.size(), locals.toArray(), stack.length, stack);
+    }
+
+    private Object convertVerificationType(VerificationType type, LabelResolver labelResolver) {
+        if (type == VerificationType.TOP) {
+            return Opcodes.TOP;
+        } else if (type == VerificationType.INT) {
+            return Opcodes.INTEGER;
+        } else if (type == VerificationType.FLOAT) {
+            return Opcodes.FLOAT;
+        } else if (type == VerificationType.LONG) {
+            return Opcodes.LONG;
+        } else if (type == VerificationType.DOUBLE) {
+            return Opcodes.DOUBLE;
+        } else if (type == VerificationType.NULL) {
+            return Opcodes.NULL;
+        } else if (type == VerificationType.UNINITIALIZED_THIS) {
+            return Opcodes.UNINITIALIZED_THIS;
+        } else if (type instanceof VerificationType.Uninitialized) {
+            // uninitialized values are identified by the label of the "new" instruction that created them
+            return labelResolver.getForwardLabel(((VerificationType.Uninitialized) type).getNewInsn());
+        } else if (type instanceof VerificationType.Reference) {
+            return AsmUtil.toInternalName(((VerificationType.Reference) type).getType());
+        } else {
+            throw new AssertionError();
+        }
+    }
+
+    /**
+     * Get the amount of local slots used by the instructions and the local variable table.
+     *
+     * @param frameAnalysis analysis that computed the locals used by instructions
+     * @param mn method node containing the local variable table
+     * @return max amount of locals
+     */
+    private int computeMaxLocals(FrameAnalysis frameAnalysis, MethodNode mn) {
+        int maxLocals = frameAnalysis.getMaxLocals();
+        if (mn.localVariables != null) {
+            for (LocalVariableNode local : mn.localVariables) {
+                int size = org.objectweb.asm.Type.getType(local.desc).getSize();
+                maxLocals = Math.max(maxLocals, local.index + size);
+            }
+        }
+        return maxLocals;
+    }
+
     private void convertInsnAnnotation(List<InsnTypeAnnotation> typeAnnotations, AbstractInsnNode insn) {
         for (InsnTypeAnnotation typeAnnotation : typeAnnotations) {
             Annotation annotation = typeAnnotation.getAnnotation();
@@ -374,7 +491,7 @@ public class TacticalMethodReader {
             }
 
             LabelNode start = labelResolver.getForwardLabel(block.getFirst());
-            LabelNode end = labelResolver.getForwardLabel(block.getLast());
+            LabelNode end = labelResolver.getBackwardLabel(block.getLast());
             LabelNode handler = labelResolver.getForwardLabel(block.getHandler());
             String type = block.getExceptionType().map(AsmUtil::toInternalName).orElse(null);
 
@@ -452,7 +569,7 @@ public class TacticalMethodReader {
         while (iter.hasNext()) {
             Instruction instruction = iter.next();
 
-            if (analysis.getStackState(instruction).isPresent()) {
+            if (analysis.isReachable(instruction)) {
                 // This instruction is no dead code
                 return false;
             }
@@ -0,0 +1,326 @@
+package me.aki.tactical.conversion;
+
+import me.aki.tactical.conversion.stack2asm.ResourceClassHierarchy;
+import me.aki.tactical.conversion.stack2asm.SuperClassResolver;
+import me.aki.tactical.core.util.BoundedTaskQueue;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.analysis.Analyzer;
+import org.objectweb.asm.tree.analysis.AnalyzerException;
+import org.objectweb.asm.tree.analysis.BasicValue;
+import org.objectweb.asm.tree.analysis.SimpleVerifier;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Convert classes to the stack intermediation and back with frames computed from the tactical representation.
+ */
+public class Stack2AsmTest {
+    private static final ClassLoader CLASS_LOADER = Stack2AsmTest.class.getClassLoader();
+
+    private final SuperClassResolver resolver = new SuperClassResolver(new ResourceClassHierarchy(CLASS_LOADER));
+
+    @Test
+    public void testLoops() throws Exception {
+        verifyRoundTrip(Loops.class);
+    }
+
+    @Test
+    public void testExceptionHandlers() throws Exception {
+        verifyRoundTrip(Handlers.class);
+    }
+
+    @Test
+    public void testUninitializedTypes() throws Exception {
+        verifyRoundTrip(Base.class);
+        verifyRoundTrip(Constructors.class);
+    }
+
+    @Test
+    public void testWideLocals() throws Exception {
+        verifyRoundTrip(WideLocals.class);
+    }
+
+    @Test
+    public void testReferenceMerges() throws Exception {
+        verifyRoundTrip(Merges.class);
+    }
+
+    @Test
+    public void testSwitches() throws Exception {
+        verifyRoundTrip(Switches.class);
+    }
+
+    /**
+     * Convert a class with {@link Stack2Asm#toBytecode(me.aki.tactical.core.Classfile, SuperClassResolver)}
+     * and check the result with the asm {@link SimpleVerifier} and the verifier of the jvm.
+     * The stack sizes and local counts must equal the values computed by asm.
+     */
+    private void verifyRoundTrip(Class<?> type) throws Exception {
+        byte[] bytecode = readClass(type);
+        byte[] resolvedBytecode = Stack2Asm.toBytecode(Asm2Stack.convert(new ClassReader(bytecode)), resolver);
+        byte[] computedBytecode = Stack2Asm.toBytecode(Asm2Stack.convert(new ClassReader(bytecode)));
+
+        ClassNode resolved = readClassNode(resolvedBytecode);
+        ClassNode computed = readClassNode(computedBytecode);
+        assertEquals(computed.methods.size(), resolved.methods.size());
+
+        for (int i = 0; i < resolved.methods.size(); i++) {
+            MethodNode resolvedMethod = resolved.methods.get(i);
+            MethodNode computedMethod = computed.methods.get(i);
+            String name = resolved.name + "." + resolvedMethod.name + resolvedMethod.desc;
+
+            SimpleVerifier verifier = new SimpleVerifier();
+            verifier.setClassLoader(CLASS_LOADER);
+            try {
+                new Analyzer<BasicValue>(verifier).analyze(resolved.name, resolvedMethod);
+            } catch (AnalyzerException e) {
+                fail(name + ": " + e.getMessage());
+            }
+
+            assertEquals(computedMethod.maxStack, resolvedMethod.maxStack, name + " max stack");
+            assertEquals(computedMethod.maxLocals, resolvedMethod.maxLocals, name + " max locals");
+        }
+
+        // the jvm verifies the stack map frames while the class gets linked
+        Class.forName(type.getName(), true, new SingleClassLoader(type.getName(), resolvedBytecode));
+    }
+
+    private static byte[] readClass(Class<?> type) throws IOException {
+        String name = type.getName().replace('.', '/') + ".class";
+        try (InputStream in = CLASS_LOADER.getResourceAsStream(name)) {
+            assertNotNull(in, name);
+            return BoundedTaskQueue.readFully(in);
+        }
+    }
+
+    private static ClassNode readClassNode(byte[] bytecode) {
+        ClassNode node = new ClassNode();
+        new ClassReader(bytecode).accept(node, 0);
+        return node;
+    }
+
+    /**
+     * Define one class and delegate the loading of all other classes to the test class loader.
+     */
+    private static class SingleClassLoader extends ClassLoader {
+        private final String name;
+        private final byte[] bytecode;
+
+        private SingleClassLoader(String name, byte[] bytecode) {
+            super(CLASS_LOADER);
+            this.name = name;
+            this.bytecode = bytecode;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.equals(this.name)) {
+                return super.loadClass(name, resolve);
+            }
+
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> type = findLoadedClass(name);
+                if (type == null) {
+                    type = defineClass(name, bytecode, 0, bytecode.length);
+                }
+                return type;
+            }
+        }
+    }
+
+    public static class Loops {
+        public static int sum(int n) {
+            int sum = 0;
+            for (int i = 0; i < n; i++) {
+                String text = Integer.toString(i);
+                sum += text.length();
+            }
+            return sum;
+        }
+
+        public static Object changingLocals(int n, Object initial) {
+            Object current = initial;
+            for (int i = 0; i < n; i++) {
+                if (i % 2 == 0) {
+                    String text = String.valueOf(i);
+                    current = text;
+                } else {
+                    Integer number = i;
+                    current = number;
+                }
+
+                while (current.hashCode() > n) {
+                    long wide = current.hashCode();
+                    current = wide / 2;
+                }
+            }
+            return current;
+        }
+    }
+
+    public static class Handlers {
+        public static int counter;
+
+        public static int nested(Object object) {
+            try {
+                try {
+                    return object.hashCode();
+                } catch (NullPointerException e) {
+                    return -1;
+                } finally {
+                    counter++;
+                }
+            } catch (RuntimeException e) {
+                return -2;
+            }
+        }
+
+        public static String handlerInLoop(List<String> values) {
+            StringBuilder builder = new StringBuilder();
+            for (String value : values) {
+                try {
+                    builder.append(Integer.parseInt(value));
+                } catch (NumberFormatException e) {
+                    builder.append(e.getMessage());
+                } catch (IllegalArgumentException | IllegalStateException e) {
+                    builder.append(e);
+                }
+            }
+            return builder.toString();
+        }
+    }
+
+    public static class Base {
+        public final int value;
+
+        public Base(int value) {
+            this.value = value;
+        }
+    }
+
+    public static class Constructors extends Base {
+        // uninitialized this within a merged frame
+        public Constructors(boolean flag) {
+            super(flag ? 1 : 2);
+        }
+
+        public Constructors(String text) {
+            this(text == null || text.isEmpty());
+        }
+
+        // uninitialized objects on the stack within a merged frame
+        public static Object newInstance(boolean flag) {
+            return new StringBuilder(flag ? "a" : "b");
+        }
+
+        public static Object newInLoop(int n) {
+            Object last = null;
+            for (int i = 0; i < n; i++) {
+                last = new Base(i > 2 ? i : -i);
+            }
+            return last;
+        }
+    }
+
+    public static class WideLocals {
+        public static double wide(long a, double b, int n) {
+            long x = a;
+            double y = b;
+            while (n-- > 0) {
+                x += n;
+                y *= 2;
+                if (x > 100) {
+                    double z = y;
+                    y = z + x;
+                } else {
+                    long z = x;
+                    x = z * 3;
+                }
+            }
+            return x + y;
+        }
+
+        public static long mixed(int n) {
+            long result = 0;
+            if (n > 0) {
+                double d = n;
+                result = (long) d;
+            } else {
+                int i = n;
+                long l = i;
+                result = l;
+            }
+            return result;
+        }
+    }
+
+    public static class Merges {
+        public static Object arrays(int k) {
+            Object[] a = k > 0 ? new String[k] : null;
+            Object[] b = k > 1 ? new Integer[1] : new String[1];
+            int[] c = k > 2 ? null : new int[2];
+            Object[][] d = k > 3 ? new String[1][1] : new Integer[1][];
+            Object e = k > 4 ? c : a;
+            return k > 5 ? a : (k > 6 ? b : (k > 7 ? e : d));
+        }
+
+        public static Number commonSuperClass(int k) {
+            Number number = k > 0 ? (Number) Integer.valueOf(k) : (Number) Long.valueOf(k);
+            return number;
+        }
+
+        public static CharSequence interfaces(int k) {
+            CharSequence sequence = k > 0 ? (CharSequence) "text" : new StringBuilder();
+            return sequence;
+        }
+
+        public static Object nulls(Object value) {
+            Object result = null;
+            if (value != null) {
+                result = value;
+            }
+            return result;
+        }
+    }
+
+    public static class Switches {
+        public static int tableSwitch(int k) {
+            int result;
+            switch (k) {
+                case 0: result = 10; break;
+                case 1: result = 20; break;
+                case 2:
+                case 3: result = 30; break;
+                default: result = -1;
+            }
+            return result;
+        }
+
+        public static Object lookupSwitch(int k, Object value) {
+            Object result = value;
+            switch (k) {
+                case 10: result = "ten"; break;
+                case 1000: result = 1000L; break;
+                case 100000: result = new int[0]; break;
+            }
+            return result;
+        }
+
+        public static int stringSwitch(String text) {
+            switch (text) {
+                case "a": return 1;
+                case "b": return 2;
+                case "Aa":
+                case "BB": return 3;
+                default: return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package me.aki.tactical.conversion.stack2asm;
+
+import me.aki.tactical.core.Classfile;
+import me.aki.tactical.core.Path;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SuperClassResolverTest {
+    private final SuperClassResolver resolver = new SuperClassResolver(new ClassfileHierarchy(List.of(
+            newClass("Base", Path.OBJECT, false),
+            newClass("Left", Path.of("a", "Base"), false),
+            newClass("Right", Path.of("a", "Base"), false),
+            newClass("Iface", Path.OBJECT, true),
+            newClass("Orphan", Path.of("a", "Missing"), false)
+    )).withFallback(new ResourceClassHierarchy()));
+
+    @Test
+    public void testCommonSuperClass() {
+        assertEquals("a/Base", resolver.getCommonSuperClass("a/Left", "a/Right"));
+        assertEquals("a/Base", resolver.getCommonSuperClass("a/Right", "a/Base"));
+        assertEquals("a/Left", resolver.getCommonSuperClass("a/Left", "a/Left"));
+
+        // classes that are not part of the converted classes are looked up in the fallback hierarchy
+        assertEquals("java/lang/Number", resolver.getCommonSuperClass("java/lang/Integer", "java/lang/Long"));
+        assertEquals("java/lang/Object", resolver.getCommonSuperClass("a/Left", "java/lang/Integer"));
+    }
+
+    @Test
+    public void testInterfacesMergeToObject() {
+        assertEquals("java/lang/Object", resolver.getCommonSuperClass("a/Iface", "a/Left"));
+        assertEquals("java/lang/Object", resolver.getCommonSuperClass("a/Left", "a/Iface"));
+        assertEquals("java/lang/Object", resolver.getCommonSuperClass("a/Iface", "java/lang/Runnable"));
+    }
+
+    @Test
+    public void testUnknownClass() {
+        TypeNotPresentException exception = assertThrows(TypeNotPresentException.class,
+                () -> resolver.getCommonSuperClass("a/Left", "a/Unknown"));
+        assertEquals("a.Unknown", exception.typeName());
+
+        // an unknown super class is an error too
+        assertThrows(TypeNotPresentException.class, () -> resolver.getCommonSuperClass("a/Orphan", "a/Left"));
+    }
+
+    private static Classfile newClass(String name, Path supertype, boolean isInterface) {
+        Classfile classfile = new Classfile(new Classfile.Version(Classfile.Version.MAJOR_JDK_8, 0),
+                Path.of("a", name), supertype, List.of());
+        classfile.setFlag(Classfile.Flag.INTERFACE, isInterface);
+        return classfile;
+    }
+}
@@ -0,0 +1,177 @@
+package me.aki.tactical.conversion;
+
+import me.aki.tactical.conversion.dex2smali.ClassfileConverter;
+import me.aki.tactical.core.Classfile;
+import me.aki.tactical.core.util.BoundedTaskQueue;
+import me.aki.tactical.dex.DexFile;
+import org.jf.dexlib2.Opcodes;
+import org.jf.dexlib2.iface.ClassDef;
+import org.jf.dexlib2.writer.io.FileDataStore;
+import org.jf.dexlib2.writer.pool.DexPool;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Facade for conversions from tactical {@link DexFile DexFiles} to <tt>*.dex</tt> files backed by smali.
+ *
+ * The classes are converted concurrently, but are interned into the {@link DexPool DexPools} in the order of the
+ * {@link DexFile}. Classes that exceed the method, field or type reference limit of one <tt>*.dex</tt> file
+ * are split into several pools (multidex).
+ */
+public class Dex2Smali {
+    private static final String DEX_NAME = "classes";
+    private static final String DEX_SUFFIX = ".dex";
+
+    /**
+     * Convert a tactical {@link DexFile} and write it into one <tt>*.dex</tt> file.
+     *
+     * @param dexFile the {@link DexFile} to convert
+     * @param opcodes api level of the written <tt>*.dex</tt> file
+     * @param file the written <tt>*.dex</tt> file
+     * @throws IOException the file could not be written
+     * @throws IllegalArgumentException the classes do not fit into one <tt>*.dex</tt> file
+     */
+    public static void writeDex(DexFile dexFile, Opcodes opcodes, File file) throws IOException {
+        List<DexPool> pools = convertDex(dexFile, opcodes);
+        if (pools.size() > 1) {
+            throw new IllegalArgumentException("The classes exceed the limits of one dex file, " + pools.size() + " are required");
+        }
+
+        pools.get(0).writeTo(new FileDataStore(file));
+    }
+
+    /**
+     * Convert a tactical {@link DexFile} and write it into as many <tt>*.dex</tt> files as required.
+     *
+     * The files are named <tt>classes.dex</tt>, <tt>classes2.dex</tt>, <tt>classes3.dex</tt> and so on.
+     *
+     * @param dexFile the {@link DexFile} to convert
+     * @param opcodes api level of the written <tt>*.dex</tt> files
+     * @param directory directory that will contain the <tt>*.dex</tt> files
+     * @return the written files
+     * @throws IOException a file could not be written
+     */
+    public static List<File> writeMultiDex(DexFile dexFile, Opcodes opcodes, File directory) throws IOException {
+        List<DexPool> pools = convertDex(dexFile, opcodes);
+
+        List<File> files = new ArrayList<>();
+        for (int i = 0; i < pools.size(); i++) {
+            File file = new File(directory, DEX_NAME + (i == 0 ? "" : Integer.toString(i + 1)) + DEX_SUFFIX);
+            pools.get(i).writeTo(new FileDataStore(file));
+            files.add(file);
+        }
+        return files;
+    }
+
+    /**
+     * Convert a tactical {@link DexFile} on the {@link ForkJoinPool#commonPool() common pool}.
+     *
+     * @param dexFile the {@link DexFile} to convert
+     * @param opcodes api level of the <tt>*.dex</tt> files
+     * @return the content of each <tt>*.dex</tt> file
+     */
+    public static List<DexPool> convertDex(DexFile dexFile, Opcodes opcodes) {
+        return convertDex(dexFile, opcodes, ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism() * 4);
+    }
+
+    /**
+     * Convert a tactical {@link DexFile} into the content of as many <tt>*.dex</tt> files as required.
+     *
+     * @param dexFile the {@link DexFile} to convert
+     * @param opcodes api level of the <tt>*.dex</tt> files
+     * @param executor executor that converts the classes
+     * @param maxInFlight max amount of converted classes that are not yet interned
+     * @return the content of each <tt>*.dex</tt> file
+     * @throws UncheckedIOException the thread got interrupted while waiting for a class
+     */
+    public static List<DexPool> convertDex(DexFile dexFile, Opcodes opcodes, Executor executor, int maxInFlight) {
+        MultiDexPool pools = new MultiDexPool(opcodes);
+
+        try (BoundedTaskQueue<ClassDef> pending = new BoundedTaskQueue<>(maxInFlight)) {
+            for (Classfile classfile : dexFile.getClasses()) {
+                pending.add(CompletableFuture.supplyAsync(() -> convertClass(classfile), executor));
+
+                while (pending.isFull()) {
+                    pools.intern(pending.next());
+                }
+            }
+
+            while (!pending.isEmpty()) {
+                pools.intern(pending.next());
+            }
+        } catch (IOException e) {
+            // the conversions throw no checked exceptions, so the thread got interrupted
+            throw new UncheckedIOException(e);
+        }
+
+        return pools.getPools();
+    }
+
+    /**
+     * Convert a single tactical {@link Classfile} into a smali {@link ClassDef}.
+     *
+     * @param classfile tactical classfile to be converted
+     * @return converted smali {@link ClassDef}
+     */
+    public static ClassDef convertClass(Classfile classfile) {
+        return new ClassfileConverter(classfile).convert();
+    }
+
+    /**
+     * Interns classes into a {@link DexPool} and starts a new pool whenever a class exceeds its limits.
+     */
+    private static class MultiDexPool {
+        private final Opcodes opcodes;
+        private final List<DexPool> pools = new ArrayList<>();
+
+        /**
+         * The pool that classes are currently interned into.
+         */
+        private DexPool pool;
+
+        /**
+         * Amount of classes in the current pool.
+         */
+        private int classCount;
+
+        private MultiDexPool(Opcodes opcodes) {
+            this.opcodes = opcodes;
+            newPool();
+        }
+
+        private void newPool() {
+            this.pool = new DexPool(opcodes);
+            this.classCount = 0;
+            this.pools.add(pool);
+        }
+
+        public void intern(ClassDef classDef) {
+            pool.mark();
+            pool.internClass(classDef);
+
+            if (pool.hasOverflowed()) {
+                if (classCount == 0) {
+                    throw new IllegalArgumentException("Class " + classDef.getType() + " exceeds the limits of a dex file");
+                }
+
+                // move the class into a new dex file
+                pool.reset();
+                newPool();
+                intern(classDef);
+            } else {
+                classCount++;
+            }
+        }
+
+        public List<DexPool> getPools() {
+            return pools;
+        }
+    }
+}
@@ -1,23 +1,36 @@
 package me.aki.tactical.conversion;
 
 import me.aki.tactical.conversion.smali2dex.ClassFileConverter;
+import me.aki.tactical.conversion.smali2dex.LazyClassList;
 import me.aki.tactical.core.Classfile;
+import me.aki.tactical.core.TypePool;
+import me.aki.tactical.core.util.BoundedTaskQueue;
 import me.aki.tactical.dex.DexFile;
 import org.jf.dexlib2.Opcodes;
 import org.jf.dexlib2.dexbacked.DexBackedDexFile;
 import org.jf.dexlib2.iface.ClassDef;
 
-import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 /**
  * Facade for conversions from <tt>*.dex</tt> files to their tactical representations backed by baksmali.
  */
 public class Smali2Dex {
+    private static final String DEX_NAME = "classes";
+    private static final String DEX_SUFFIX = ".dex";
+
     /**
      * Convert a <tt>*.dex</tt> file into a tactical {@link DexFile}.
      *
@@ -27,16 +40,92 @@ public class Smali2Dex {
      * @throws IOException the file could not be read
      */
     public static DexFile convertDex(File file, Opcodes opcodes) throws IOException {
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        FileInputStream in = new FileInputStream(file);
-        byte[] cache = new byte[4096];
+        return convertDex(readDex(file, opcodes));
+    }
+
+    /**
+     * Read a <tt>*.dex</tt> file into a tactical {@link DexFile} whose classes are converted on first access.
+     *
+     * @param file a <tt>*.dex</tt> file
+     * @param opcodes api level of the provided <tt>*.dex</tt> file
+     * @return a {@link DexFile} with a {@link LazyClassList}
+     * @throws IOException the file could not be read
+     */
+    public static DexFile convertDexLazily(File file, Opcodes opcodes) throws IOException {
+        return convertDexLazily(readDex(file, opcodes));
+    }
+
+    /**
+     * Read all <tt>*.dex</tt> files of an apk into tactical {@link DexFile DexFiles}
+     * whose classes are converted on first access.
+     *
+     * The classes of all <tt>*.dex</tt> files share one {@link TypePool}.
+     *
+     * @param apk an apk or other zip file with <tt>classes.dex</tt>, <tt>classes2.dex</tt>, ... entries
+     * @param opcodes api level of the <tt>*.dex</tt> files
+     * @return a {@link DexFile} with a {@link LazyClassList} for each <tt>*.dex</tt> file
+     * @throws IOException the apk could not be read
+     */
+    public static List<DexFile> convertApkLazily(File apk, Opcodes opcodes) throws IOException {
+        TypePool pool = new TypePool();
+        List<DexFile> dexFiles = new ArrayList<>();
+        for (DexBackedDexFile dexFile : readApk(apk, opcodes)) {
+            dexFiles.add(new DexFile(new LazyClassList(dexFile.getClasses(), pool)));
+        }
+        return dexFiles;
+    }
+
+    /**
+     * Read a <tt>*.dex</tt> file without converting it.
+     *
+     * The file is read directly into one array of its size.
+     *
+     * @param file a <tt>*.dex</tt> file
+     * @param opcodes api level of the provided <tt>*.dex</tt> file
+     * @return the smali representation of the file
+     * @throws IOException the file could not be read
+     */
+    public static DexBackedDexFile readDex(File file, Opcodes opcodes) throws IOException {
+        return new DexBackedDexFile(opcodes, Files.readAllBytes(file.toPath()));
+    }
+
+    /**
+     * Read all <tt>*.dex</tt> files of an apk without converting them.
+     *
+     * Each entry is read directly into one array of its uncompressed size.
+     *
+     * @param apk an apk or other zip file with <tt>classes.dex</tt>, <tt>classes2.dex</tt>, ... entries
+     * @param opcodes api level of the <tt>*.dex</tt> files
+     * @return the smali representation of the <tt>*.dex</tt> files in the order of their names
+     * @throws IOException the apk could not be read
+     */
+    public static List<DexBackedDexFile> readApk(File apk, Opcodes opcodes) throws IOException {
+        List<DexBackedDexFile> dexFiles = new ArrayList<>();
+        try (ZipFile zip = new ZipFile(apk)) {
+            for (int index = 1; ; index++) {
+                ZipEntry entry = zip.getEntry(DEX_NAME + (index == 1 ? "" : Integer.toString(index)) + DEX_SUFFIX);
+                if (entry == null) {
+                    break;
+                }
+
+                try (InputStream in = zip.getInputStream(entry)) {
+                    dexFiles.add(new DexBackedDexFile(opcodes, readEntry(in, entry.getSize())));
+                }
+            }
+        }
+        return dexFiles;
+    }
 
-        int len;
-        while ((len = in.read(cache)) > 0) {
-            out.write(cache, 0, len);
+    private static byte[] readEntry(InputStream in, long size) throws IOException {
+        if (size < 0 || size > Integer.MAX_VALUE) {
+            return in.readAllBytes();
         }
 
-        return convertDex(out.toByteArray(), opcodes);
+        byte[] bytes = new byte[(int) size];
+        if (in.readNBytes(bytes, 0, bytes.length) != bytes.length) {
+            throw new EOFException("Zip entry is shorter than its declared size");
+        }
+        return bytes;
     }
 
     /**
@@ -53,24 +142,93 @@ public class Smali2Dex {
     /**
      * Convert a smali {@link org.jf.dexlib2.iface.DexFile} into a tactical {@link DexFile}.
      *
+     * All classes share a {@link TypePool}, so equal names and types are stored only once.
+     *
      * @param dexFile smali {@link org.jf.dexlib2.iface.DexFile} to convert
      * @return a converted tactical {@link DexFile}
      */
     public static DexFile convertDex(org.jf.dexlib2.iface.DexFile dexFile) {
-        List<Classfile> classes = dexFile.getClasses().stream()
+        List<Classfile> classes = new TypePool().within(() -> dexFile.getClasses().stream()
                 .map(Smali2Dex::convertClass)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+
+        return new DexFile(classes);
+    }
+
+    /**
+     * Convert a smali {@link org.jf.dexlib2.iface.DexFile} into a tactical {@link DexFile}
+     * while converting the classes concurrently.
+     *
+     * The converted classes keep the order of the smali file and share a {@link TypePool}.
+     * Each {@link ClassDef} is read by only one thread. A {@link DexBackedDexFile} may be read concurrently,
+     * since it only reads its immutable byte array through separate readers.
+     *
+     * @param dexFile smali {@link org.jf.dexlib2.iface.DexFile} to convert
+     * @param executor executor that converts the classes
+     * @return a converted tactical {@link DexFile}
+     */
+    public static DexFile convertDex(org.jf.dexlib2.iface.DexFile dexFile, Executor executor) {
+        return convertDex(dexFile, executor, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * Convert a smali {@link org.jf.dexlib2.iface.DexFile} into a tactical {@link DexFile}
+     * while converting the classes concurrently.
+     *
+     * The converted classes keep the order of the smali file and share a {@link TypePool}.
+     * At most <tt>maxInFlight</tt> classes are submitted to the executor at once.
+     * If a class cannot be converted, the conversion of all other classes is cancelled.
+     *
+     * @param dexFile smali {@link org.jf.dexlib2.iface.DexFile} to convert
+     * @param executor executor that converts the classes
+     * @param maxInFlight max amount of classes that are submitted but not yet collected
+     * @return a converted tactical {@link DexFile}
+     * @throws UncheckedIOException the thread got interrupted while waiting for a class
+     */
+    public static DexFile convertDex(org.jf.dexlib2.iface.DexFile dexFile, Executor executor, int maxInFlight) {
+        TypePool pool = new TypePool();
+        List<Classfile> classes = new ArrayList<>();
+
+        try (BoundedTaskQueue<Classfile> pending = new BoundedTaskQueue<>(maxInFlight)) {
+            for (ClassDef classDef : dexFile.getClasses()) {
+                pending.add(CompletableFuture.supplyAsync(() -> pool.within(() -> convertClass(classDef)), executor));
+
+                while (pending.isFull()) {
+                    classes.add(pending.next());
+                }
+            }
+
+            while (!pending.isEmpty()) {
+                classes.add(pending.next());
+            }
+        } catch (IOException e) {
+            // the conversions throw no checked exceptions, so the thread got interrupted
+            throw new UncheckedIOException(e);
+        }
 
         return new DexFile(classes);
     }
 
+    /**
+     * Wrap a smali {@link org.jf.dexlib2.iface.DexFile} into a tactical {@link DexFile}
+     * whose classes are converted on first access.
+     *
+     * @param dexFile smali {@link org.jf.dexlib2.iface.DexFile} to wrap
+     * @return a {@link DexFile} with a {@link LazyClassList}
+     */
+    public static DexFile convertDexLazily(org.jf.dexlib2.iface.DexFile dexFile) {
+        return new DexFile(new LazyClassList(dexFile.getClasses()));
+    }
+
     /**
      * Convert a single smali {@link ClassDef} into a tactical {@link Classfile}.
      *
+     * The class is converted within the active {@link TypePool} or within a new pool.
+     *
      * @param classDef smali classfile to be converted
      * @return converted tactical {@link Classfile}
      */
     public static Classfile convertClass(ClassDef classDef) {
-        return new ClassFileConverter(classDef).getTacticalClass();
+        return TypePool.withinActiveOrNew(() -> new ClassFileConverter(classDef).getTacticalClass());
     }
 }
@@ -6,7 +6,7 @@ import me.aki.tactical.conversion.smali2dex.InstructionIndex;
 import me.aki.tactical.conversion.smalidex.DexUtils;
 import me.aki.tactical.core.Method;
 import me.aki.tactical.core.util.InsertList;
-import me.aki.tactical.core.util.LinkedInsertList;
+import me.aki.tactical.core.util.LinkedIdentityInsertList;
 import me.aki.tactical.core.utils.AbstractCfgGraph;
 import me.aki.tactical.dex.DexBody;
 import me.aki.tactical.dex.Register;
@@ -105,7 +105,7 @@ public class BodyConverter {
             this.instructionProviders = body.getInstructions().stream()
                     .map(this.convertedInsns::get)
                     .filter(Objects::nonNull)
-                    .collect(Collectors.toCollection(LinkedInsertList::new));
+                    .collect(Collectors.toCollection(LinkedIdentityInsertList::new));
             this.instructionProviders.addAll(writer.getPayloadInstructions());
 
             // The targets of some OffsetCells have temporary been assigned to tactical Instructions.
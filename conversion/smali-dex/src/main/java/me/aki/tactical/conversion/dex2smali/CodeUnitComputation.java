@@ -2,7 +2,7 @@ package me.aki.tactical.conversion.dex2smali;
 
 import me.aki.tactical.conversion.dex2smali.provider.*;
 import me.aki.tactical.core.util.InsertList;
-import me.aki.tactical.core.util.LinkedInsertList;
+import me.aki.tactical.core.util.LinkedIdentityInsertList;
 import org.jf.dexlib2.Format;
 import org.jf.dexlib2.iface.instruction.Instruction;
 
@@ -23,7 +23,7 @@ public class CodeUnitComputation {
     private final Map<InstructionProvider<? extends Instruction>, Set<OffsetCell>> affectionMap = new HashMap<>();
 
     public CodeUnitComputation(List<InstructionProvider<? extends Instruction>> instructions) {
-        this.instructions = new LinkedInsertList<>(instructions);
+        this.instructions = new LinkedIdentityInsertList<>(instructions);
         this.instructions.forEach(this::addToAffectionMap);
     }
 
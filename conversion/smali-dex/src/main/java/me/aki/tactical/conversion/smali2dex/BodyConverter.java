@@ -8,6 +8,7 @@ import me.aki.tactical.core.Path;
 import me.aki.tactical.core.type.DoubleType;
 import me.aki.tactical.core.type.LongType;
 import me.aki.tactical.core.type.Type;
+import me.aki.tactical.core.util.ArrayIdentityInsertList;
 import me.aki.tactical.core.util.InsertList;
 import me.aki.tactical.core.util.RWCell;
 import me.aki.tactical.dex.DexBody;
@@ -59,6 +60,7 @@ public class BodyConverter {
         this.smaliBody = smaliBody;
 
         this.body = new DexBody();
+        this.body.setInstructions(new ArrayIdentityInsertList<>());
         this.insnIndex = new InstructionIndex(smaliBody.getInstructions());
         this.smaliCfg = new SmaliCfgGraph(this.insnIndex, smaliBody.getTryBlocks());
 
@@ -119,17 +121,17 @@ public class BodyConverter {
         SmaliDexInsnWriter writer = new SmaliDexInsnWriter(body.getRegisters(), insnRefs);
         SmaliDexInsnReader reader = new SmaliDexInsnReader(insnIndex, writer);
 
-        smaliCfg.forEachNode(node -> {
-            reader.accept(node.getInstruction());
+        smaliCfg.getDenseGraph().forEachInstruction(instruction -> {
+            reader.accept(instruction);
 
             List<me.aki.tactical.dex.insn.Instruction> instructions = writer.popInstructions();
             switch (instructions.size()) {
                 case 0:
-                    this.nonConvertedInstructions.add(node.getInstruction());
+                    this.nonConvertedInstructions.add(instruction);
                     break;
 
                 case 1:
-                    this.convertedInsns.put(node.getInstruction(), instructions.get(0));
+                    this.convertedInsns.put(instruction, instructions.get(0));
                     break;
 
                 default:
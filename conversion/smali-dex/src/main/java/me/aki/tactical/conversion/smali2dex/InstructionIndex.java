@@ -1,7 +1,7 @@
 package me.aki.tactical.conversion.smali2dex;
 
+import me.aki.tactical.core.util.ArrayIdentityInsertList;
 import me.aki.tactical.core.util.InsertList;
-import me.aki.tactical.core.util.LinkedInsertList;
 import org.jf.dexlib2.iface.instruction.Instruction;
 
 import java.util.ArrayList;
@@ -27,7 +27,7 @@ public class InstructionIndex {
     private final Map<Instruction, Integer> codeUnitByInstruction;
 
     public InstructionIndex(Iterable<? extends Instruction> instructions) {
-        this.instructions = new LinkedInsertList<>(instructions);
+        this.instructions = new ArrayIdentityInsertList<>(instructions);
 
         this.codeUnitByInstruction = new HashMap<>();
         int addressOffset = 0;
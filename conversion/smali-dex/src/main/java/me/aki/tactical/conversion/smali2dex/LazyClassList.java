@@ -0,0 +1,114 @@
+package me.aki.tactical.conversion.smali2dex;
+
+import me.aki.tactical.conversion.smalidex.DexUtils;
+import me.aki.tactical.core.Classfile;
+import me.aki.tactical.core.Path;
+import me.aki.tactical.core.TypePool;
+import org.jf.dexlib2.iface.ClassDef;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * An unmodifiable list of classes that are converted from their smali {@link ClassDef} on first access.
+ *
+ * Converted classes are kept until they get {@link #drop(int) dropped}, so single classes of a large
+ * <tt>*.dex</tt> file can be inspected without converting all other classes.
+ * Changes to a dropped class are lost, the next access converts it again.
+ *
+ * All classes of the list are converted within one {@link TypePool}, so equal names and types are shared among them.
+ * The list may be accessed by several threads.
+ */
+public class LazyClassList extends AbstractList<Classfile> implements RandomAccess {
+    private final List<ClassDef> classDefs;
+
+    /**
+     * The converted classes or null for classes that are not converted.
+     */
+    private final AtomicReferenceArray<Classfile> classes;
+
+    /**
+     * The pool that the classes are converted within.
+     */
+    private final TypePool typePool;
+
+    public LazyClassList(Collection<? extends ClassDef> classDefs) {
+        this(classDefs, new TypePool());
+    }
+
+    /**
+     * @param classDefs the smali classes
+     * @param typePool pool that the classes get converted within, e.g. shared with the other <tt>*.dex</tt> files of an apk
+     */
+    public LazyClassList(Collection<? extends ClassDef> classDefs, TypePool typePool) {
+        this.classDefs = new ArrayList<>(classDefs);
+        this.classes = new AtomicReferenceArray<>(this.classDefs.size());
+        this.typePool = typePool;
+    }
+
+    @Override
+    public Classfile get(int index) {
+        Classfile classfile;
+        while ((classfile = classes.get(index)) == null) {
+            ClassDef classDef = classDefs.get(index);
+            Classfile converted = typePool.within(() -> new ClassFileConverter(classDef).getTacticalClass());
+            if (classes.compareAndSet(index, null, converted)) {
+                return converted;
+            }
+        }
+        return classfile;
+    }
+
+    @Override
+    public int size() {
+        return classDefs.size();
+    }
+
+    /**
+     * Find a class by its name without converting any class.
+     *
+     * @param name name of the class
+     * @return index of the class or -1 if there is no such class
+     */
+    public int indexOfClass(Path name) {
+        String descriptor = DexUtils.toObjectDescriptor(name);
+        for (int i = 0; i < classDefs.size(); i++) {
+            if (classDefs.get(i).getType().equals(descriptor)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Has the class at an index already been converted.
+     *
+     * @param index index of the class
+     * @return is the converted class kept in memory
+     */
+    public boolean isConverted(int index) {
+        return classes.get(index) != null;
+    }
+
+    /**
+     * Release a converted class, so it can be garbage collected.
+     *
+     * @param index index of the class
+     */
+    public void drop(int index) {
+        classes.set(index, null);
+    }
+
+    /**
+     * Release all converted classes.
+     */
+    public void dropAll() {
+        for (int i = 0; i < classes.length(); i++) {
+            classes.set(i, null);
+        }
+    }
+}
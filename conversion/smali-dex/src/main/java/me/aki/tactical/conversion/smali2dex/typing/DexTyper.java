@@ -30,6 +30,12 @@ public class DexTyper {
 
     private final Map<Instruction, RegisterState> states = new HashMap<>();
 
+    /**
+     * The instructions reading and writing values of registers.
+     * It is computed for the code before any instructions were removed by this typer.
+     */
+    private RegisterFlowAnalysis registerFlow;
+
     /**
      * All instructions that currently read or write ambiguous values.
      */
@@ -50,7 +56,7 @@ public class DexTyper {
 
     /**
      * Create a {@link RegisterState} with the computed {@link RegisterState#access} for each instruction.
-     * The {@link RegisterState#reads} and {@link RegisterState#writes} are not yet computed.
+     * The reads and writes of the registers are not yet computed.
      */
     private void createInitialRegisterStates() {
         TypeHintInsnVisitor iv = new TypeHintInsnVisitor(this.method.getReturnType()) {
@@ -93,66 +99,11 @@ public class DexTyper {
     }
 
     /**
-     * Distribute the information that an instruction reads or writes from/to a register through the
-     * {@link RegisterState#reads} and {@link RegisterState#writes} of all affected instructions.
+     * Compute which instructions read and write the values present in registers at each instruction,
+     * which is queried through the {@link RegisterState} of the instructions.
      */
     public void propagateRegisterAccesses() {
-        class TypePropagation {
-            private void propagateReadBackwards(DexCfgGraph.Node node, Instruction readingInsn, Register register) {
-                RegisterState state = getStateAt(node.getInstruction());
-                Set<Instruction> reads = state.reads.computeIfAbsent(register, x -> new HashSet<>());
-                if (!reads.add(readingInsn)) {
-                    // We've already propagated this read to this instruction.
-                    // This occurs if we propagate a type through some kind of loop.
-                    return;
-                }
-
-                for (DexCfgGraph.Node predecessor : node.getPreceding()) {
-                    Optional<Register> writtenRegister = predecessor.getInstruction().getWrittenRegister();
-                    if (writtenRegister.isPresent() && writtenRegister.get() == register) {
-                        // The preceding instruction overwrites the value in the register
-                        continue;
-                    }
-
-                    propagateReadBackwards(predecessor, readingInsn, register);
-                }
-            }
-
-            private void propagateWriteForward(DexCfgGraph.Node node, Instruction writingInsn, Register register) {
-                RegisterState state = getStateAt(node.getInstruction());
-
-                Set<Instruction> writes = state.writes.computeIfAbsent(register, x -> new HashSet<>());
-                if (!writes.add(writingInsn)) {
-                    // We've already propagated this write to this instruction.
-                    // This may happen if we went through a loop.
-                    return;
-                }
-
-                for (DexCfgGraph.Node succeeding : node.getSucceeding()) {
-                    Optional<Register> writtenRegister = succeeding.getInstruction().getWrittenRegister();
-                    if (writtenRegister.isPresent() && writtenRegister.get() == register) {
-                        // The next overwrites the value in the register
-                        continue;
-                    }
-
-                    propagateWriteForward(succeeding, writingInsn, register);
-                }
-            }
-        }
-
-        TypePropagation typePropagation = new TypePropagation();
-
-        for (RegisterState state : states.values()) {
-            TypeHintInsnVisitor.RegisterAccess access = state.access;
-
-            access.getReads().forEach((register, type) -> {
-                typePropagation.propagateReadBackwards(state.node, state.node.getInstruction(), register);
-            });
-
-            if (access.getWrittenRegister() != null) {
-                typePropagation.propagateWriteForward(state.node, state.node.getInstruction(), access.getWrittenRegister());
-            }
-        }
+        this.registerFlow = new RegisterFlowAnalysis(cfgGraph.getDenseGraph(), insn -> getStateAt(insn).access);
     }
 
     public void typeInstructions() {
@@ -396,25 +347,35 @@ public class DexTyper {
 
         private TypeHintInsnVisitor.RegisterAccess access;
 
+        public RegisterState(DexCfgGraph.Node node, TypeHintInsnVisitor.RegisterAccess access) {
+            this.node = node;
+            this.access = access;
+        }
+
         /**
-         * Map registers to all instructions that may possible read the value that is currently
-         * (before the instruction is executed) present in the register.
+         * Get all instructions that may possible read the value that is currently
+         * (before the instruction is executed) present in a register.
+         *
+         * @param register the register
+         * @return instructions reading the value
          */
-        private final Map<Register, Set<Instruction>> reads = new HashMap<>();
+        private Set<Instruction> getReads(Register register) {
+            return registerFlow.getReaders(node.getInstruction(), register);
+        }
 
         /**
-         * Map registers to all instructions that may possibly have written the value that is currently
-         * (after the instruction is executed) present in the register.
+         * Get all instructions that may possibly have written the value that is currently
+         * (after the instruction is executed) present in a register.
+         *
+         * @param register the register
+         * @return instructions that wrote the value
          */
-        private final Map<Register, Set<Instruction>> writes = new HashMap<>();
-
-        public RegisterState(DexCfgGraph.Node node, TypeHintInsnVisitor.RegisterAccess access) {
-            this.node = node;
-            this.access = access;
+        private Set<Instruction> getWrites(Register register) {
+            return registerFlow.getWriters(node.getInstruction(), register);
         }
 
         public Optional<Type> getReadType(Register register) {
-            return this.reads.getOrDefault(register, Set.of()).stream()
+            return getReads(register).stream()
                 .map(insn -> getReadTypeAt(register, insn))
                 .reduce(typeMerge::mergeAmbiguousDominating);
         }
@@ -429,7 +390,7 @@ public class DexTyper {
         }
 
         public Type getWrittenType(Register register) {
-            return this.writes.getOrDefault(register, Set.of()).stream()
+            return getWrites(register).stream()
                     .map(insn -> getWrittenTypeAt(insn, register))
                     .reduce(typeMerge::mergePreciseDominating)
                     .orElseThrow(() -> new IllegalStateException("Register " + register + " is never read before instruction " + node.getInstruction()));
@@ -452,8 +413,7 @@ public class DexTyper {
          */
         public Set<Instruction> getReadersOfWrittenValue(Register register) {
             return node.getSucceeding().stream()
-                    .map(node -> getStateAt(node.getInstruction()).reads)
-                    .flatMap(readMap -> readMap.getOrDefault(register, Set.of()).stream())
+                    .flatMap(node -> getStateAt(node.getInstruction()).getReads(register).stream())
                     .collect(Collectors.toSet());
         }
 
@@ -465,8 +425,7 @@ public class DexTyper {
          */
         private Set<Instruction> getValueWriters(Register register) {
             return node.getPreceding().stream()
-                    .map(node -> getStateAt(node.getInstruction()).writes)
-                    .flatMap(writeMap -> writeMap.getOrDefault(register, Set.of()).stream())
+                    .flatMap(node -> getStateAt(node.getInstruction()).getWrites(register).stream())
                     .collect(Collectors.toSet());
         }
 
@@ -0,0 +1,395 @@
+package me.aki.tactical.conversion.smali2dex.typing;
+
+import me.aki.tactical.core.utils.DenseCfgGraph;
+import me.aki.tactical.dex.Register;
+import me.aki.tactical.dex.insn.Instruction;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Compute which instructions may read or may have written the value of a register at any location in code.
+ *
+ * Each register is solved by an iterative worklist over the basic blocks of a {@link DenseCfgGraph}.
+ * Only the values at block boundaries and the instructions that access a register are stored,
+ * the values at other instructions are derived on request.
+ */
+class RegisterFlowAnalysis {
+    /**
+     * The instruction reads the register.
+     */
+    private static final byte READ = 1;
+
+    /**
+     * The instruction writes a value of the register, that succeeding instructions may read.
+     */
+    private static final byte WRITE = 2;
+
+    /**
+     * The instruction overwrites the register, so values from preceding instructions do not reach succeeding instructions.
+     */
+    private static final byte KILL = 4;
+
+    private final DenseCfgGraph<Instruction> graph;
+    private final Map<Register, RegisterFlow> registers = new HashMap<>();
+
+    /**
+     * @param graph cfg of the method
+     * @param accessOf get the reads and write of a reachable instruction
+     */
+    RegisterFlowAnalysis(DenseCfgGraph<Instruction> graph, Function<Instruction, TypeHintInsnVisitor.RegisterAccess> accessOf) {
+        this.graph = graph;
+
+        Map<Register, RegisterFlowBuilder> builders = new HashMap<>();
+        for (int insn = 0; insn < graph.getInstructionCount(); insn++) {
+            if (graph.getBlock(insn) < 0) {
+                continue;
+            }
+
+            Instruction instruction = graph.getInstruction(insn);
+            TypeHintInsnVisitor.RegisterAccess access = accessOf.apply(instruction);
+
+            for (Register register : access.getReads().keySet()) {
+                builders.computeIfAbsent(register, x -> new RegisterFlowBuilder()).add(insn, READ);
+            }
+
+            if (access.getWrittenRegister() != null) {
+                builders.computeIfAbsent(access.getWrittenRegister(), x -> new RegisterFlowBuilder()).add(insn, WRITE);
+            }
+
+            Optional<Register> overwrittenRegister = instruction.getWrittenRegister();
+            if (overwrittenRegister.isPresent()) {
+                builders.computeIfAbsent(overwrittenRegister.get(), x -> new RegisterFlowBuilder()).add(insn, KILL);
+            }
+        }
+
+        builders.forEach((register, builder) -> registers.put(register, builder.build()));
+    }
+
+    /**
+     * Get all instructions that may read the value, that is present in a register before an instruction is executed.
+     *
+     * @param instruction a reachable instruction
+     * @param register the register
+     * @return instructions that may read the value
+     */
+    public Set<Instruction> getReaders(Instruction instruction, Register register) {
+        RegisterFlow flow = registers.get(register);
+        if (flow == null) {
+            return Collections.emptySet();
+        }
+
+        int insn = graph.getIndex(instruction);
+        int block = graph.getBlock(insn);
+        Set<Instruction> readers = new HashSet<>();
+
+        int position = lowerBound(flow.accesses, insn);
+        for (; position < flow.accesses.length && flow.accesses[position] < graph.getBlockEnd(block); position++) {
+            int access = flow.accesses[position];
+            if ((flow.flags[position] & READ) != 0) {
+                readers.add(graph.getInstruction(access));
+            }
+            if ((flow.flags[position] & KILL) != 0) {
+                return readers;
+            }
+        }
+
+        addAll(readers, flow.blockExitReads[block], flow.reads);
+        return readers;
+    }
+
+    /**
+     * Get all instructions that may have written the value, that is present in a register after an instruction was executed.
+     *
+     * @param instruction a reachable instruction
+     * @param register the register
+     * @return instructions that may have written the value
+     */
+    public Set<Instruction> getWriters(Instruction instruction, Register register) {
+        RegisterFlow flow = registers.get(register);
+        if (flow == null) {
+            return Collections.emptySet();
+        }
+
+        int insn = graph.getIndex(instruction);
+        int block = graph.getBlock(insn);
+        Set<Instruction> writers = new HashSet<>();
+
+        int position = lowerBound(flow.accesses, insn + 1) - 1;
+        for (; position >= 0 && flow.accesses[position] >= graph.getBlockStart(block); position--) {
+            int access = flow.accesses[position];
+            if ((flow.flags[position] & WRITE) != 0) {
+                writers.add(graph.getInstruction(access));
+            }
+            if ((flow.flags[position] & KILL) != 0) {
+                return writers;
+            }
+        }
+
+        addAll(writers, flow.blockEntryWrites[block], flow.writes);
+        return writers;
+    }
+
+    private void addAll(Set<Instruction> instructions, BitSet bits, int[] insns) {
+        if (bits != null) {
+            for (int bit = bits.nextSetBit(0); bit >= 0; bit = bits.nextSetBit(bit + 1)) {
+                instructions.add(graph.getInstruction(insns[bit]));
+            }
+        }
+    }
+
+    /**
+     * Get the position of the first element in a sorted array that is greater or equal to a value.
+     */
+    private static int lowerBound(int[] array, int value) {
+        int position = Arrays.binarySearch(array, value);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    /**
+     * The results of the analysis for one register.
+     */
+    private static class RegisterFlow {
+        /**
+         * Indices of all instructions that access the register in ascending order.
+         */
+        private int[] accesses;
+
+        /**
+         * How the instructions in {@link #accesses} access the register.
+         */
+        private byte[] flags;
+
+        /**
+         * Indices of the instructions that read or write the register.
+         * The bit sets of this class refer to the instructions by their position within these arrays.
+         */
+        private int[] reads;
+        private int[] writes;
+
+        /**
+         * The writes that reach the start of each block or <tt>null</tt> if there are none.
+         */
+        private BitSet[] blockEntryWrites;
+
+        /**
+         * The reads that may be reached from the end of each block or <tt>null</tt> if there are none.
+         */
+        private BitSet[] blockExitReads;
+    }
+
+    private class RegisterFlowBuilder {
+        private int[] accesses = new int[4];
+        private byte[] flags = new byte[4];
+        private int size = 0;
+
+        /**
+         * Record an access of the register.
+         * Instructions must be added in ascending order.
+         */
+        private void add(int insn, byte flag) {
+            if (size > 0 && accesses[size - 1] == insn) {
+                flags[size - 1] |= flag;
+                return;
+            }
+
+            if (size == accesses.length) {
+                accesses = Arrays.copyOf(accesses, size * 2);
+                flags = Arrays.copyOf(flags, size * 2);
+            }
+            accesses[size] = insn;
+            flags[size] = flag;
+            size++;
+        }
+
+        private RegisterFlow build() {
+            RegisterFlow flow = new RegisterFlow();
+            flow.accesses = Arrays.copyOf(accesses, size);
+            flow.flags = Arrays.copyOf(flags, size);
+            flow.reads = filter(READ);
+            flow.writes = filter(WRITE);
+
+            int blockCount = graph.getBlockCount();
+            BitSet killingBlocks = new BitSet(blockCount);
+            BitSet[] blockWrites = new BitSet[blockCount];
+            BitSet[] blockReads = new BitSet[blockCount];
+
+            // The writes that leave a block and the reads that are exposed at the beginning of a block
+            int readIndex = 0;
+            int writeIndex = 0;
+            for (int position = 0; position < size; position++) {
+                int block = graph.getBlock(accesses[position]);
+                byte flag = flags[position];
+
+                if ((flag & READ) != 0 && !killingBlocks.get(block)) {
+                    getOrCreate(blockReads, block).set(readIndex);
+                }
+
+                if ((flag & KILL) != 0) {
+                    killingBlocks.set(block);
+                    if (blockWrites[block] != null) {
+                        blockWrites[block].clear();
+                    }
+                }
+
+                if ((flag & WRITE) != 0) {
+                    getOrCreate(blockWrites, block).set(writeIndex);
+                }
+
+                if ((flag & READ) != 0) {
+                    readIndex++;
+                }
+                if ((flag & WRITE) != 0) {
+                    writeIndex++;
+                }
+            }
+
+            flow.blockEntryWrites = propagateWritesForward(blockWrites, killingBlocks);
+            flow.blockExitReads = propagateReadsBackward(blockReads, killingBlocks);
+            return flow;
+        }
+
+        private int[] filter(byte flag) {
+            int[] insns = new int[size];
+            int count = 0;
+            for (int position = 0; position < size; position++) {
+                if ((flags[position] & flag) != 0) {
+                    insns[count++] = accesses[position];
+                }
+            }
+            return Arrays.copyOf(insns, count);
+        }
+
+        private BitSet[] propagateWritesForward(BitSet[] blockWrites, BitSet killingBlocks) {
+            int blockCount = graph.getBlockCount();
+            BitSet[] entryWrites = new BitSet[blockCount];
+
+            Worklist worklist = new Worklist(blockCount);
+            for (int block = 0; block < blockCount; block++) {
+                if (blockWrites[block] != null && !blockWrites[block].isEmpty()) {
+                    worklist.add(block);
+                }
+            }
+
+            while (!worklist.isEmpty()) {
+                int block = worklist.poll();
+
+                BitSet out = new BitSet();
+                if (blockWrites[block] != null) {
+                    out.or(blockWrites[block]);
+                }
+                if (!killingBlocks.get(block) && entryWrites[block] != null) {
+                    out.or(entryWrites[block]);
+                }
+
+                for (int i = 0; i < graph.getSuccessorCount(block); i++) {
+                    int successor = graph.getSuccessor(block, i);
+                    if (mergeInto(entryWrites, successor, out)) {
+                        worklist.add(successor);
+                    }
+                }
+            }
+
+            return entryWrites;
+        }
+
+        private BitSet[] propagateReadsBackward(BitSet[] blockReads, BitSet killingBlocks) {
+            int blockCount = graph.getBlockCount();
+            BitSet[] exitReads = new BitSet[blockCount];
+
+            Worklist worklist = new Worklist(blockCount);
+            for (int block = 0; block < blockCount; block++) {
+                if (blockReads[block] != null && !blockReads[block].isEmpty()) {
+                    worklist.add(block);
+                }
+            }
+
+            while (!worklist.isEmpty()) {
+                int block = worklist.poll();
+
+                BitSet in = new BitSet();
+                if (blockReads[block] != null) {
+                    in.or(blockReads[block]);
+                }
+                if (!killingBlocks.get(block) && exitReads[block] != null) {
+                    in.or(exitReads[block]);
+                }
+
+                for (int i = 0; i < graph.getPredecessorCount(block); i++) {
+                    int predecessor = graph.getPredecessor(block, i);
+                    if (mergeInto(exitReads, predecessor, in)) {
+                        worklist.add(predecessor);
+                    }
+                }
+            }
+
+            return exitReads;
+        }
+
+        private BitSet getOrCreate(BitSet[] bitSets, int index) {
+            BitSet bitSet = bitSets[index];
+            if (bitSet == null) {
+                bitSet = bitSets[index] = new BitSet();
+            }
+            return bitSet;
+        }
+
+        /**
+         * Add bits to a bit set of a block.
+         *
+         * @return did the bit set of the block change
+         */
+        private boolean mergeInto(BitSet[] bitSets, int block, BitSet bits) {
+            if (bits.isEmpty()) {
+                return false;
+            }
+
+            BitSet target = getOrCreate(bitSets, block);
+            int oldCardinality = target.cardinality();
+            target.or(bits);
+            return target.cardinality() != oldCardinality;
+        }
+    }
+
+    /**
+     * A queue of blocks, that contains each block at most once.
+     */
+    private static class Worklist {
+        private final int[] queue;
+        private final BitSet isQueued;
+        private int start = 0;
+        private int size = 0;
+
+        private Worklist(int blockCount) {
+            this.queue = new int[blockCount];
+            this.isQueued = new BitSet(blockCount);
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+
+        private void add(int block) {
+            if (!isQueued.get(block)) {
+                isQueued.set(block);
+                queue[(start + size) % queue.length] = block;
+                size++;
+            }
+        }
+
+        private int poll() {
+            int block = queue[start];
+            start = (start + 1) % queue.length;
+            size--;
+            isQueued.clear(block);
+            return block;
+        }
+    }
+}
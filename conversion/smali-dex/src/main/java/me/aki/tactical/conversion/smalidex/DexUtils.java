@@ -46,11 +46,7 @@ public class DexUtils {
      * @return the parsed {@link Type}
      */
     public static Optional<Type> parseReturnType(CharSequence descriptor) {
-        return parseReturnType(descriptor, 0);
-    }
-
-    private static Optional<Type> parseReturnType(CharSequence descriptor, int offset) {
-        return descriptor.charAt(offset) == 'V' ? Optional.empty() : Optional.of(parseDescriptor(descriptor, offset));
+        return descriptor.charAt(0) == 'V' ? Optional.empty() : Optional.of(parseDescriptor(descriptor));
     }
 
     /**
@@ -60,7 +56,7 @@ public class DexUtils {
      * @return the parsed {@link Type}
      */
     public static Type parseDescriptor(CharSequence descriptor) {
-        return parseDescriptor(descriptor, 0);
+        return TypePool.current().typeFromDescriptor(descriptor.toString(), desc -> parseDescriptor(desc, 0));
     }
 
     private static Type parseDescriptor(CharSequence string, int offset) {
@@ -75,24 +71,14 @@ public class DexUtils {
             case 'D': return DoubleType.getInstance();
 
             case 'L': {
-                List<String> pkg = new ArrayList<>();
-                StringBuilder builder = new StringBuilder();
-
-                while (true) {
-                    char c = string.charAt(++offset);
-                    switch (c) {
-                        case '/':
-                            pkg.add(builder.toString());
-                            builder.setLength(0);
-                            break;
-
-                        case ';':
-                            return new ObjectType(new Path(pkg, builder.toString()));
-
-                        default:
-                            builder.append(c);
-                    }
+                String descriptor = string.toString();
+                int end = descriptor.indexOf(';', offset);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Illegal descriptor: " + descriptor.substring(offset));
                 }
+
+                TypePool pool = TypePool.current();
+                return pool.objectType(pool.pathFromInternalName(descriptor.substring(offset + 1, end)));
             }
 
             case '[': {
@@ -100,7 +86,7 @@ public class DexUtils {
                 while ((string.charAt(++offset)) == '[') {
                     dimensions += 1;
                 }
-                return new ArrayType(parseDescriptor(string, offset), dimensions);
+                return TypePool.current().arrayType(parseDescriptor(string, offset), dimensions);
             }
 
             default:
@@ -109,12 +95,22 @@ public class DexUtils {
     }
 
     public static MethodDescriptor convertMethodDescriptor(MethodProtoReference methodProto) {
-        Optional<Type> returnType = parseReturnType(methodProto.getReturnType());
-        List<Type> parameters = methodProto.getParameterTypes().stream()
-                .map(DexUtils::parseDescriptor)
-                .collect(Collectors.toList());
+        // The jvm method descriptor of the proto is the cache key
+        StringBuilder descriptor = new StringBuilder("(");
+        for (CharSequence parameterType : methodProto.getParameterTypes()) {
+            descriptor.append(parameterType);
+        }
+        descriptor.append(')').append(methodProto.getReturnType());
+
+        TypePool pool = TypePool.current();
+        return pool.methodDescriptorFromDescriptor(descriptor.toString(), desc -> {
+            Optional<Type> returnType = parseReturnType(methodProto.getReturnType());
+            List<Type> parameters = methodProto.getParameterTypes().stream()
+                    .map(DexUtils::parseDescriptor)
+                    .collect(Collectors.toList());
 
-        return new MethodDescriptor(parameters, returnType);
+            return pool.methodDescriptor(parameters, returnType);
+        });
     }
 
     /**
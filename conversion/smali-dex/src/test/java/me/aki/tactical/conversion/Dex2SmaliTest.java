@@ -0,0 +1,62 @@
+package me.aki.tactical.conversion;
+
+import me.aki.tactical.dex.DexFile;
+import org.jf.dexlib2.Opcodes;
+import org.jf.dexlib2.writer.pool.DexPool;
+import org.junit.jupiter.api.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class Dex2SmaliTest {
+    @Test
+    public void testSingleDex() {
+        List<DexPool> pools = Dex2Smali.convertDex(new DexFile(TestClasses.createAbstractClasses(10, 10)), Opcodes.getDefault());
+        assertEquals(1, pools.size());
+    }
+
+    @Test
+    public void testMultiDex() {
+        // 70000 method references exceed the 65536 references of one dex file
+        DexFile dexFile = new DexFile(TestClasses.createAbstractClasses(700, 100));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<DexPool> pools = Dex2Smali.convertDex(dexFile, Opcodes.getDefault(), executor, 16);
+            assertEquals(2, pools.size());
+            for (DexPool pool : pools) {
+                assertFalse(pool.hasOverflowed());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testSingleDexOverflow() throws IOException {
+        DexFile dexFile = new DexFile(TestClasses.createAbstractClasses(700, 100));
+
+        Path directory = Files.createTempDirectory("tactical-dex");
+        File file = directory.resolve("classes.dex").toFile();
+        try {
+            assertThrows(IllegalArgumentException.class, () -> Dex2Smali.writeDex(dexFile, Opcodes.getDefault(), file));
+            assertFalse(file.exists());
+        } finally {
+            Files.deleteIfExists(file.toPath());
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void testClassExceedingLimits() {
+        DexFile dexFile = new DexFile(TestClasses.createAbstractClasses(1, 70000));
+        assertThrows(IllegalArgumentException.class, () -> Dex2Smali.convertDex(dexFile, Opcodes.getDefault()));
+    }
+}
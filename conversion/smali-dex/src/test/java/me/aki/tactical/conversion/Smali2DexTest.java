@@ -0,0 +1,101 @@
+package me.aki.tactical.conversion;
+
+import me.aki.tactical.core.Classfile;
+import me.aki.tactical.core.Path;
+import me.aki.tactical.dex.DexFile;
+import org.jf.dexlib2.Opcodes;
+import org.jf.dexlib2.dexbacked.DexBackedDexFile;
+import org.jf.dexlib2.iface.ClassDef;
+import org.jf.dexlib2.immutable.ImmutableDexFile;
+import org.junit.jupiter.api.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class Smali2DexTest {
+    @Test
+    public void testParallelConversionKeepsOrder() {
+        List<ClassDef> classDefs = new ArrayList<>();
+        List<Path> names = new ArrayList<>();
+        for (Classfile classfile : TestClasses.createAbstractClasses(200, 1)) {
+            classDefs.add(Dex2Smali.convertClass(classfile));
+            names.add(classfile.getName());
+        }
+        org.jf.dexlib2.iface.DexFile smaliFile = new ImmutableDexFile(Opcodes.getDefault(), classDefs);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            DexFile dexFile = Smali2Dex.convertDex(smaliFile, executor);
+            List<Path> convertedNames = dexFile.getClasses().stream()
+                    .map(Classfile::getName)
+                    .collect(Collectors.toList());
+
+            assertEquals(names, convertedNames);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testReadApk() throws IOException {
+        List<Classfile> classes = TestClasses.createAbstractClasses(5, 1);
+        java.nio.file.Path directory = Files.createTempDirectory("tactical-apk");
+        File classesDex = directory.resolve("classes.dex").toFile();
+        File classes2Dex = directory.resolve("classes2.dex").toFile();
+        File apk = directory.resolve("app.apk").toFile();
+        try {
+            Dex2Smali.writeDex(new DexFile(classes.subList(0, 3)), Opcodes.getDefault(), classesDex);
+            Dex2Smali.writeDex(new DexFile(classes.subList(3, 5)), Opcodes.getDefault(), classes2Dex);
+
+            // classes4.dex does not follow classes2.dex, so it is not part of the apk
+            try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(apk))) {
+                out.putNextEntry(new ZipEntry("AndroidManifest.xml"));
+                out.closeEntry();
+                writeEntry(out, "classes2.dex", classes2Dex);
+                writeEntry(out, "classes.dex", classesDex);
+                writeEntry(out, "classes4.dex", classesDex);
+            }
+
+            List<DexBackedDexFile> dexFiles = Smali2Dex.readApk(apk, Opcodes.getDefault());
+            assertEquals(2, dexFiles.size());
+            assertEquals(Set.of("Ltest/Class0;", "Ltest/Class1;", "Ltest/Class2;"), getTypes(dexFiles.get(0)));
+            assertEquals(Set.of("Ltest/Class3;", "Ltest/Class4;"), getTypes(dexFiles.get(1)));
+
+            List<DexFile> lazyDexFiles = Smali2Dex.convertApkLazily(apk, Opcodes.getDefault());
+            assertEquals(2, lazyDexFiles.size());
+            assertEquals(3, lazyDexFiles.get(0).getClasses().size());
+            assertEquals(2, lazyDexFiles.get(1).getClasses().size());
+
+            // all dex files of the apk share one type pool
+            assertSame(lazyDexFiles.get(0).getClasses().get(0).getSupertype(),
+                    lazyDexFiles.get(1).getClasses().get(0).getSupertype());
+        } finally {
+            for (File file : List.of(classesDex, classes2Dex, apk)) {
+                Files.deleteIfExists(file.toPath());
+            }
+            Files.delete(directory);
+        }
+    }
+
+    private void writeEntry(ZipOutputStream out, String name, File file) throws IOException {
+        out.putNextEntry(new ZipEntry(name));
+        out.write(Files.readAllBytes(file.toPath()));
+        out.closeEntry();
+    }
+
+    private Set<String> getTypes(org.jf.dexlib2.iface.DexFile dexFile) {
+        return dexFile.getClasses().stream()
+                .map(ClassDef::getType)
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,40 @@
+package me.aki.tactical.conversion;
+
+import me.aki.tactical.core.Classfile;
+import me.aki.tactical.core.Method;
+import me.aki.tactical.core.Path;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Classes that the conversion tests operate on.
+ */
+public class TestClasses {
+    /**
+     * Create abstract classes <tt>test.Class0</tt>, <tt>test.Class1</tt>, ...
+     * with the abstract methods <tt>method0</tt>, <tt>method1</tt>, ...
+     *
+     * @param classCount amount of classes
+     * @param methodCount amount of methods per class
+     * @return the classes
+     */
+    public static List<Classfile> createAbstractClasses(int classCount, int methodCount) {
+        List<Classfile> classes = new ArrayList<>();
+        for (int i = 0; i < classCount; i++) {
+            Classfile classfile = new Classfile(null, Path.of("test", "Class" + i), Path.OBJECT, new ArrayList<>());
+            classfile.getFlags().addAll(Set.of(Classfile.Flag.PUBLIC, Classfile.Flag.ABSTRACT));
+
+            for (int j = 0; j < methodCount; j++) {
+                Method method = new Method("method" + j, new ArrayList<>(), Optional.empty());
+                method.getFlags().addAll(Set.of(Method.Flag.PUBLIC, Method.Flag.ABSTRACT));
+                classfile.getMethods().add(method);
+            }
+
+            classes.add(classfile);
+        }
+        return classes;
+    }
+}
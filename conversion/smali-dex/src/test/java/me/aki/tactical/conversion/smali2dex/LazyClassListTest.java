@@ -0,0 +1,141 @@
+package me.aki.tactical.conversion.smali2dex;
+
+import me.aki.tactical.conversion.Dex2Smali;
+import me.aki.tactical.conversion.TestClasses;
+import me.aki.tactical.core.Classfile;
+import me.aki.tactical.core.Path;
+import org.jf.dexlib2.iface.ClassDef;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LazyClassListTest {
+    @Test
+    public void testConvertOnFirstAccess() {
+        LazyClassList list = createList(3);
+        assertEquals(3, list.size());
+
+        // finding a class does not convert it
+        assertEquals(1, list.indexOfClass(Path.of("test", "Class1")));
+        assertEquals(-1, list.indexOfClass(Path.of("test", "Missing")));
+        for (int i = 0; i < list.size(); i++) {
+            assertFalse(list.isConverted(i));
+        }
+
+        Classfile classfile = list.get(1);
+        assertEquals(Path.of("test", "Class1"), classfile.getName());
+        assertTrue(list.isConverted(1));
+        assertFalse(list.isConverted(0));
+        assertSame(classfile, list.get(1));
+
+        assertThrows(UnsupportedOperationException.class, () -> list.set(0, classfile));
+    }
+
+    @Test
+    public void testDrop() {
+        LazyClassList list = createList(3);
+        Classfile classfile = list.get(0);
+        list.get(2);
+
+        list.drop(0);
+        assertFalse(list.isConverted(0));
+        assertTrue(list.isConverted(2));
+
+        // the class is converted again
+        Classfile reconverted = list.get(0);
+        assertNotSame(classfile, reconverted);
+        assertEquals(classfile.getName(), reconverted.getName());
+
+        list.dropAll();
+        for (int i = 0; i < list.size(); i++) {
+            assertFalse(list.isConverted(i));
+        }
+    }
+
+    @Test
+    public void testSharedTypePool() {
+        LazyClassList list = createList(2);
+        assertSame(list.get(0).getSupertype(), list.get(1).getSupertype());
+    }
+
+    @Test
+    public void testConcurrentGet() throws Exception {
+        LazyClassList list = createList(50);
+        int threadCount = 8;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<List<Classfile>>> futures = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return new ArrayList<>(list);
+                }));
+            }
+            start.countDown();
+
+            // all threads observe the same instance of each class
+            List<Classfile> classes = futures.get(0).get();
+            for (Future<List<Classfile>> future : futures) {
+                List<Classfile> otherClasses = future.get();
+                for (int i = 0; i < list.size(); i++) {
+                    assertSame(classes.get(i), otherClasses.get(i));
+                }
+            }
+
+            List<Path> names = classes.stream().map(Classfile::getName).collect(Collectors.toList());
+            List<Path> expectedNames = TestClasses.createAbstractClasses(50, 1).stream()
+                    .map(Classfile::getName).collect(Collectors.toList());
+            assertEquals(expectedNames, names);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testConversionFailure() {
+        List<ClassDef> classDefs = new ArrayList<>(createClassDefs(2));
+        classDefs.add(1, createBrokenClassDef("Ltest/Broken;"));
+        LazyClassList list = new LazyClassList(classDefs);
+
+        assertEquals(1, list.indexOfClass(Path.of("test", "Broken")));
+        assertThrows(IllegalStateException.class, () -> list.get(1));
+        assertFalse(list.isConverted(1));
+
+        // the failure is not cached and does not affect the other classes
+        assertThrows(IllegalStateException.class, () -> list.get(1));
+        assertEquals(Path.of("test", "Class1"), list.get(2).getName());
+    }
+
+    private LazyClassList createList(int classCount) {
+        return new LazyClassList(createClassDefs(classCount));
+    }
+
+    private List<ClassDef> createClassDefs(int classCount) {
+        return TestClasses.createAbstractClasses(classCount, 1).stream()
+                .map(Dex2Smali::convertClass)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Create a class whose conversion fails, since all methods but {@link ClassDef#getType()} throw.
+     */
+    private ClassDef createBrokenClassDef(String type) {
+        return (ClassDef) Proxy.newProxyInstance(ClassDef.class.getClassLoader(), new Class<?>[] { ClassDef.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getType": return type;
+                        case "hashCode": return System.identityHashCode(proxy);
+                        case "equals": return proxy == args[0];
+                        case "toString": return type;
+                        default: throw new IllegalStateException("Broken class");
+                    }
+                });
+    }
+}
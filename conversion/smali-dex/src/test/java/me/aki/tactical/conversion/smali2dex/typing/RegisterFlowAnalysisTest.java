@@ -0,0 +1,221 @@
+package me.aki.tactical.conversion.smali2dex.typing;
+
+import me.aki.tactical.core.type.IntType;
+import me.aki.tactical.dex.DexBody;
+import me.aki.tactical.dex.Register;
+import me.aki.tactical.dex.insn.*;
+import me.aki.tactical.dex.insn.math.AddInstruction;
+import me.aki.tactical.dex.utils.DexCfgGraph;
+import me.aki.tactical.dex.utils.DexInsnReader;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RegisterFlowAnalysisTest {
+    @Test
+    public void testKillWithinBlock() {
+        DexBody body = createBody(1);
+        Register a = body.getRegisters().get(0);
+
+        Instruction write1 = new ConstInstruction(constant(1), a);
+        Instruction write2 = new ConstInstruction(constant(2), a);
+        Instruction read = new ReturnInstruction(a);
+        body.getInstructions().addAll(List.of(write1, write2, read));
+
+        RegisterFlowAnalysis analysis = analyze(body);
+
+        // The value written by the first instruction is overwritten before it is read
+        assertEquals(Set.of(), analysis.getReaders(write1, a));
+        assertEquals(Set.of(), analysis.getReaders(write2, a));
+        assertEquals(Set.of(read), analysis.getReaders(read, a));
+
+        assertEquals(Set.of(write1), analysis.getWriters(write1, a));
+        assertEquals(Set.of(write2), analysis.getWriters(write2, a));
+        assertEquals(Set.of(write2), analysis.getWriters(read, a));
+    }
+
+    @Test
+    public void testReadAndWriteAcrossBlocks() {
+        DexBody body = createBody(2);
+        Register a = body.getRegisters().get(0);
+        Register b = body.getRegisters().get(1);
+
+        Instruction writeA1 = new ConstInstruction(constant(1), a);
+        Instruction writeB = new ConstInstruction(constant(1), b);
+        Instruction read = new ReturnInstruction(a);
+        Instruction branch = new IfInstruction(IfInstruction.Comparison.EQUAL, b, Optional.empty(), read);
+        Instruction writeA2 = new ConstInstruction(constant(2), a);
+        body.getInstructions().addAll(List.of(writeA1, writeB, branch, writeA2, read));
+
+        RegisterFlowAnalysis analysis = analyze(body);
+
+        // The first value of "a" only reaches the read through the branch
+        assertEquals(Set.of(read), analysis.getReaders(writeB, a));
+        assertEquals(Set.of(read), analysis.getReaders(branch, a));
+        assertEquals(Set.of(), analysis.getReaders(writeA2, a));
+
+        assertEquals(Set.of(writeA1), analysis.getWriters(branch, a));
+        assertEquals(Set.of(writeA1, writeA2), analysis.getWriters(read, a));
+        assertEquals(Set.of(branch), analysis.getReaders(branch, b));
+    }
+
+    @Test
+    public void testLoop() {
+        DexBody body = createBody(1);
+        Register a = body.getRegisters().get(0);
+
+        Instruction write = new ConstInstruction(constant(1), a);
+        Instruction add = new AddInstruction(IntType.getInstance(), a, a, a);
+        Instruction loop = new GotoInstruction(add);
+        body.getInstructions().addAll(List.of(write, add, loop));
+
+        RegisterFlowAnalysis analysis = analyze(body);
+
+        assertEquals(Set.of(add), analysis.getReaders(add, a));
+        assertEquals(Set.of(add), analysis.getReaders(loop, a));
+        assertEquals(Set.of(add), analysis.getWriters(loop, a));
+        assertEquals(Set.of(write), analysis.getWriters(write, a));
+    }
+
+    /**
+     * Compare the analysis against a walk over the instructions of random methods.
+     */
+    @Test
+    public void testRandomMethods() {
+        Random random = new Random(0);
+        for (int i = 0; i < 500; i++) {
+            DexBody body = createRandomBody(random, 3, 2 + random.nextInt(30));
+            DexCfgGraph cfgGraph = new DexCfgGraph(body);
+            Map<Instruction, TypeHintInsnVisitor.RegisterAccess> accesses = computeAccesses(cfgGraph);
+            RegisterFlowAnalysis analysis = new RegisterFlowAnalysis(cfgGraph.getDenseGraph(), accesses::get);
+
+            for (Instruction instruction : accesses.keySet()) {
+                DexCfgGraph.Node node = cfgGraph.getNode(instruction);
+                for (Register register : body.getRegisters()) {
+                    assertEquals(findReaders(node, register, accesses), analysis.getReaders(instruction, register));
+                    assertEquals(findWriters(node, register, accesses), analysis.getWriters(instruction, register));
+                }
+            }
+        }
+    }
+
+    private Set<Instruction> findReaders(DexCfgGraph.Node start, Register register, Map<Instruction, TypeHintInsnVisitor.RegisterAccess> accesses) {
+        Set<Instruction> readers = new HashSet<>();
+        Set<DexCfgGraph.Node> visited = new HashSet<>();
+        Deque<DexCfgGraph.Node> worklist = new ArrayDeque<>(List.of(start));
+        while (!worklist.isEmpty()) {
+            DexCfgGraph.Node node = worklist.poll();
+            if (!visited.add(node)) {
+                continue;
+            }
+
+            Instruction instruction = node.getInstruction();
+            if (accesses.get(instruction).getReads().containsKey(register)) {
+                readers.add(instruction);
+            }
+            if (!instruction.getWrittenRegister().equals(Optional.of(register))) {
+                worklist.addAll(node.getSucceeding());
+            }
+        }
+        return readers;
+    }
+
+    private Set<Instruction> findWriters(DexCfgGraph.Node start, Register register, Map<Instruction, TypeHintInsnVisitor.RegisterAccess> accesses) {
+        Set<Instruction> writers = new HashSet<>();
+        Set<DexCfgGraph.Node> visited = new HashSet<>();
+        Deque<DexCfgGraph.Node> worklist = new ArrayDeque<>(List.of(start));
+        while (!worklist.isEmpty()) {
+            DexCfgGraph.Node node = worklist.poll();
+            if (!visited.add(node)) {
+                continue;
+            }
+
+            Instruction instruction = node.getInstruction();
+            if (accesses.get(instruction).getWrittenRegister() == register) {
+                writers.add(instruction);
+            }
+            if (!instruction.getWrittenRegister().equals(Optional.of(register))) {
+                worklist.addAll(node.getPreceding());
+            }
+        }
+        return writers;
+    }
+
+    private DexBody createRandomBody(Random random, int registerCount, int instructionCount) {
+        DexBody body = createBody(registerCount);
+        List<Register> registers = body.getRegisters();
+
+        List<Instruction> instructions = new ArrayList<>();
+        for (int i = 0; i < instructionCount; i++) {
+            Register register = registers.get(random.nextInt(registerCount));
+            switch (random.nextInt(5)) {
+                case 0:
+                    instructions.add(new ConstInstruction(constant(1), register));
+                    break;
+                case 1:
+                    Register op1 = registers.get(random.nextInt(registerCount));
+                    Register op2 = registers.get(random.nextInt(registerCount));
+                    instructions.add(new AddInstruction(IntType.getInstance(), op1, op2, register));
+                    break;
+                case 2:
+                    instructions.add(new IfInstruction(IfInstruction.Comparison.EQUAL, register, Optional.empty(), null));
+                    break;
+                case 3:
+                    instructions.add(new GotoInstruction(null));
+                    break;
+                default:
+                    instructions.add(new ReturnInstruction(register));
+                    break;
+            }
+        }
+        instructions.add(new ReturnInstruction(registers.get(0)));
+
+        for (Instruction instruction : instructions) {
+            Instruction target = instructions.get(random.nextInt(instructions.size()));
+            if (instruction instanceof IfInstruction) {
+                ((IfInstruction) instruction).setTarget(target);
+            } else if (instruction instanceof GotoInstruction) {
+                ((GotoInstruction) instruction).setTarget(target);
+            }
+        }
+
+        body.getInstructions().addAll(instructions);
+        return body;
+    }
+
+    private RegisterFlowAnalysis analyze(DexBody body) {
+        DexCfgGraph cfgGraph = new DexCfgGraph(body);
+        return new RegisterFlowAnalysis(cfgGraph.getDenseGraph(), computeAccesses(cfgGraph)::get);
+    }
+
+    private Map<Instruction, TypeHintInsnVisitor.RegisterAccess> computeAccesses(DexCfgGraph cfgGraph) {
+        Map<Instruction, TypeHintInsnVisitor.RegisterAccess> accesses = new HashMap<>();
+        TypeHintInsnVisitor iv = new TypeHintInsnVisitor(Optional.of(IntType.getInstance())) {
+            @Override
+            protected void visit(RegisterAccess access) {
+                accesses.put(node.getInstruction(), access);
+            }
+        };
+
+        DexInsnReader reader = new DexInsnReader(iv);
+        cfgGraph.forEachNode(node -> {
+            iv.setNode(node);
+            reader.accept(node.getInstruction());
+        });
+        return accesses;
+    }
+
+    private DexBody createBody(int registerCount) {
+        DexBody body = new DexBody();
+        for (int i = 0; i < registerCount; i++) {
+            body.getRegisters().add(new Register(null));
+        }
+        return body;
+    }
+
+    private UntypedNumberConstant constant(int i) {
+        return new UntypedNumberConstant(AmbiguousType.IntOrFloat.getInstance(), i);
+    }
+}
@@ -10,13 +10,21 @@ import me.aki.tactical.core.Method;
 import me.aki.tactical.ref.RefBody;
 import me.aki.tactical.stack.StackBody;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * Main entry point to the stack to ref conversion.
  */
 public class Stack2Ref {
-    private static PostProcessor[] POST_PROCESSORS = {
+    /**
+     * The postprocessors are stateless, so the same instances may be used concurrently.
+     */
+    private static final PostProcessor[] POST_PROCESSORS = {
             new DirectReuseInliningPostProcessor(),
             new LocalPartitioningPostProcessor(),
             new LocalTypingPostProcessor()
@@ -39,9 +47,58 @@ public class Stack2Ref {
         }
     }
 
+    /**
+     * Take a class containing only methods with StackBodies and replace them against RefBodies.
+     *
+     * The bodies are converted concurrently on the executor.
+     * They get replaced once all methods were converted successfully.
+     *
+     * @param classfile classfile whose method bodies should get converted.
+     * @param executor executor that converts the bodies
+     */
+    public static void convert(Classfile classfile, Executor executor) {
+        List<Method> methods = new ArrayList<>();
+        List<CompletableFuture<RefBody>> futures = new ArrayList<>();
+
+        for (Method method : classfile.getMethods()) {
+            method.getBody().ifPresent(body -> {
+                if (body instanceof StackBody) {
+                    methods.add(method);
+                    futures.add(CompletableFuture.supplyAsync(() -> convert(classfile, method, (StackBody) body), executor));
+                } else {
+                    throw new IllegalArgumentException("Class contains a " + body.getClass().getSimpleName() + " expected only StackBodies");
+                }
+            });
+        }
+
+        List<RefBody> refBodies = new ArrayList<>();
+        try {
+            for (CompletableFuture<RefBody> future : futures) {
+                refBodies.add(future.join());
+            }
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(false));
+
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw e;
+            }
+        }
+
+        for (int i = 0; i < methods.size(); i++) {
+            methods.get(i).setBody(Optional.of(refBodies.get(i)));
+        }
+    }
+
     /**
      * Build a {@link RefBody} from a {@link StackBody}.
      *
+     * This method may be called concurrently for different bodies.
+     *
      * @param classfile the classfile that contains the method and body
      * @param method the method contains the body
      * @param stackBody the stackbody to be converted
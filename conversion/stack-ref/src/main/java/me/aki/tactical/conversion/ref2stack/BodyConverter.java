@@ -4,6 +4,7 @@ import me.aki.tactical.core.Path;
 import me.aki.tactical.core.type.ObjectType;
 import me.aki.tactical.core.type.Type;
 import me.aki.tactical.core.typeannotation.LocalVariableTypeAnnotation;
+import me.aki.tactical.core.util.ArrayIdentityInsertList;
 import me.aki.tactical.ref.RefBody;
 import me.aki.tactical.ref.RefLocal;
 import me.aki.tactical.ref.Statement;
@@ -37,6 +38,7 @@ public class BodyConverter {
 
     public BodyConverter(RefBody refBody) {
         this(refBody, new StackBody());
+        this.stackBody.setInstructions(new ArrayIdentityInsertList<>());
     }
 
     public BodyConverter(RefBody refBody, StackBody stackBody) {
@@ -319,7 +319,7 @@ public class BodyConverter {
      * @return is the instruction non-reachable
      */
     private boolean isDeadCode(Instruction instruction) {
-        return !analysis.getStackState(instruction).isPresent();
+        return !analysis.isReachable(instruction);
     }
 
     private void resolveInsnsRefs() {
@@ -1,15 +1,16 @@
 package me.aki.tactical.conversion.stack2ref.postprocessor;
 
 import me.aki.tactical.core.util.InsertList;
-import me.aki.tactical.ref.Expression;
 import me.aki.tactical.ref.RefBody;
 import me.aki.tactical.ref.RefLocal;
 import me.aki.tactical.ref.Statement;
 import me.aki.tactical.ref.stmt.AssignStmt;
 import me.aki.tactical.ref.util.CommonOperations;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * A PostProcessor that inlines values stored in a local and that are only referenced by the immediately following statement.
@@ -27,6 +28,10 @@ public class DirectReuseInliningPostProcessor implements PostProcessor {
         final Map<RefLocal, List<Statement>> localReadMap = CommonOperations.getLocalReadMap(body);
         final Map<RefLocal, List<AssignStmt>> localWriteMap = CommonOperations.getLocalWriteMap(body);
 
+        // Statements and locals are removed together after all locals got inlined
+        final Set<Statement> removedStatements = new HashSet<>();
+        final Set<RefLocal> inlinedLocals = new HashSet<>();
+
         List.copyOf(body.getLocals()).forEach(local -> {
             List<Statement> readingStatements = localReadMap.getOrDefault(local, List.of());
             List<AssignStmt> writingStatements = localWriteMap.getOrDefault(local, List.of());
@@ -37,18 +42,41 @@ public class DirectReuseInliningPostProcessor implements PostProcessor {
 
             Statement readingStatement = readingStatements.get(0);
             AssignStmt writingStatement = writingStatements.get(0);
-            if (statements.getNext(writingStatement) != readingStatement) {
+            if (getNextRemaining(statements, removedStatements, writingStatement) != readingStatement) {
                 // The statement that reads from the local does not directly succeed the writing statements.
                 return;
             }
 
-            readingStatement.getAllReadValueCells().stream()
-                    .filter(cell -> cell.get() == local)
-                    .findAny().get()
-                    .w(Expression.class).set(writingStatement.getValue());
+            int[] readCount = { 0 };
+            readingStatement.forEachReadValueRecursively(value -> {
+                if (value == local) {
+                    readCount[0]++;
+                }
+                return value;
+            });
+            if (readCount[0] != 1) {
+                // The statement reads the local several times, so it cannot be replaced by the assigned value.
+                return;
+            }
+
+            readingStatement.forEachReadValueRecursively(value -> value == local ? writingStatement.getValue() : value);
 
-            CommonOperations.removeStatement(body, writingStatement);
-            CommonOperations.removeLocal(body, local);
+            removedStatements.add(writingStatement);
+            inlinedLocals.add(local);
         });
+
+        CommonOperations.removeStatements(body, removedStatements);
+        CommonOperations.removeLocals(body, inlinedLocals);
+    }
+
+    /**
+     * Get the next statement that will not be removed.
+     */
+    private Statement getNextRemaining(InsertList<Statement> statements, Set<Statement> removedStatements, Statement statement) {
+        Statement next = statements.getNext(statement);
+        while (next != null && removedStatements.contains(next)) {
+            next = statements.getNext(next);
+        }
+        return next;
     }
 }
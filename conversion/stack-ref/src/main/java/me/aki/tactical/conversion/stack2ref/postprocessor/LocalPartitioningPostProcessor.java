@@ -1,8 +1,6 @@
 package me.aki.tactical.conversion.stack2ref.postprocessor;
 
-import me.aki.tactical.core.util.RCell;
 import me.aki.tactical.ref.utils.LocalStateAnalysis;
-import me.aki.tactical.ref.Expression;
 import me.aki.tactical.ref.RefBody;
 import me.aki.tactical.ref.RefLocal;
 import me.aki.tactical.ref.Statement;
@@ -80,11 +78,7 @@ public class LocalPartitioningPostProcessor implements PostProcessor {
         // Update all references within the group that read from the local
         for (LocalStateAnalysis.State state : group) {
             for (Statement statement : localState.getStatement(state)) {
-                for (RCell<Expression> cell : statement.getAllReadValueCells()) {
-                    if (cell.get() == local) {
-                        cell.w(RefLocal.class).set(newLocal);
-                    }
-                }
+                statement.forEachReadValueRecursively(value -> value == local ? newLocal : value);
             }
         }
 
@@ -4,6 +4,9 @@ import me.aki.tactical.ref.RefBody;
 
 /**
  * Apply patches to an already build RefBody
+ *
+ * Implementations must not hold any state,
+ * since the same instance processes several bodies concurrently.
  */
 public interface PostProcessor {
     public void process(RefBody body);
@@ -0,0 +1,58 @@
+package me.aki.tactical.conversion.stack2ref.test
+
+import java.util.Optional
+
+import scala.collection.JavaConverters._
+import me.aki.tactical.conversion.stack2ref.postprocessor.DirectReuseInliningPostProcessor
+import me.aki.tactical.core.{MethodRef, Path}
+import me.aki.tactical.core.`type`.{IntType, ObjectType, Type}
+import me.aki.tactical.core.constant.StringConstant
+import me.aki.tactical.ref.{Expression, RefBody, RefLocal, Statement}
+import me.aki.tactical.ref.expr.ConstantExpr
+import me.aki.tactical.ref.invoke.InvokeStatic
+import me.aki.tactical.ref.stmt.{AssignStmt, InvokeStmt, ReturnStmt}
+import org.scalatest.{FlatSpec, Matchers}
+
+class DirectReuseInliningPostProcessorTest extends FlatSpec with Matchers {
+
+  val parseIntMethod = new MethodRef(Path.of("java", "lang", "Integer"), "parseInt", List[Type](ObjectType.STRING).asJava, Optional.of(IntType.getInstance))
+  val compareMethod = new MethodRef(Path.of("test", "Test"), "compare", List[Type](ObjectType.STRING, ObjectType.STRING).asJava, Optional.of(IntType.getInstance))
+
+  "The DirectReuseInliningPostProcessor" should "inline a local that is read by the next statement" in {
+    val body = new RefBody()
+    val local1 = new RefLocal(null)
+
+    val value = new ConstantExpr(new StringConstant("A"))
+    val invoke = new InvokeStatic(parseIntMethod, List[Expression](local1).asJava, false)
+    val stmt2 = new InvokeStmt(invoke)
+    val stmt3 = new ReturnStmt()
+
+    body.getStatements.addAll(List[Statement](new AssignStmt(local1, value), stmt2, stmt3).asJava)
+    body.getLocals.add(local1)
+
+    new DirectReuseInliningPostProcessor().process(body)
+
+    body.getStatements.asScala shouldEqual List(stmt2, stmt3)
+    invoke.getArguments.asScala shouldEqual List(value)
+    body.getLocals.asScala shouldBe empty
+  }
+
+  it should "not inline a local that the next statement reads several times" in {
+    val body = new RefBody()
+    val local1 = new RefLocal(null)
+
+    val stmt1 = new AssignStmt(local1, new ConstantExpr(new StringConstant("A")))
+    val invoke = new InvokeStatic(compareMethod, List[Expression](local1, local1).asJava, false)
+    val stmt2 = new InvokeStmt(invoke)
+    val stmt3 = new ReturnStmt()
+
+    body.getStatements.addAll(List[Statement](stmt1, stmt2, stmt3).asJava)
+    body.getLocals.add(local1)
+
+    new DirectReuseInliningPostProcessor().process(body)
+
+    body.getStatements.asScala shouldEqual List(stmt1, stmt2, stmt3)
+    invoke.getArguments.asScala shouldEqual List(local1, local1)
+    body.getLocals.asScala shouldEqual List(local1)
+  }
+}
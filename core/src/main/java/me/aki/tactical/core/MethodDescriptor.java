@@ -8,20 +8,22 @@ import java.util.Optional;
 
 /**
  * Argument types and return type of a method.
+ *
+ * Descriptors are immutable, so they can be shared (e.g. by a {@link TypePool}).
  */
 public class MethodDescriptor {
     /**
-     * Types of method parameters.
+     * Immutable list of the types of method parameters.
      */
-    private List<Type> parameterTypes;
+    private final List<Type> parameterTypes;
 
     /**
      * Type of value returned by the method or empty for "void".
      */
-    private Optional<Type> returnType;
+    private final Optional<Type> returnType;
 
     public MethodDescriptor(List<Type> parameterTypes, Optional<Type> returnType) {
-        this.parameterTypes = parameterTypes;
+        this.parameterTypes = List.copyOf(parameterTypes);
         this.returnType = returnType;
     }
 
@@ -29,18 +31,10 @@ public class MethodDescriptor {
         return parameterTypes;
     }
 
-    public void setParameterTypes(List<Type> parameterTypes) {
-        this.parameterTypes = parameterTypes;
-    }
-
     public Optional<Type> getReturnType() {
         return returnType;
     }
 
-    public void setReturnType(Optional<Type> returnType) {
-        this.returnType = returnType;
-    }
-
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -27,6 +27,11 @@ public class Path {
      */
     private final String name;
 
+    /**
+     * Lazily computed hash code or zero if not yet computed.
+     */
+    private int hash;
+
     /**
      * Syntactic sugar for initialization of a path constant.
      *
@@ -98,12 +103,17 @@ public class Path {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Path path = (Path) o;
+        if (hash != 0 && path.hash != 0 && hash != path.hash) return false;
         return Objects.equals(pkg, path.pkg) &&
                 Objects.equals(name, path.name);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(pkg, name);
+        int hash = this.hash;
+        if (hash == 0) {
+            this.hash = hash = Objects.hash(pkg, name);
+        }
+        return hash;
     }
 }
@@ -0,0 +1,262 @@
+package me.aki.tactical.core;
+
+import me.aki.tactical.core.type.ArrayType;
+import me.aki.tactical.core.type.ObjectType;
+import me.aki.tactical.core.type.Type;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Interns {@link Path Paths}, {@link ObjectType ObjectTypes}, {@link ArrayType ArrayTypes}
+ * and {@link MethodDescriptor MethodDescriptors}, so equal values share one instance.
+ *
+ * A pool lives as long as one conversion session (e.g. the conversion of a jar or dex file).
+ * While a conversion runs {@link #within(Supplier) within} a pool, the asm and smali front-ends
+ * create their names and types through it. A pool may be shared by several threads.
+ *
+ * The pool also caches the parsed types of type and method descriptors by their raw string,
+ * since the same descriptors are referenced by many instructions.
+ */
+public class TypePool {
+    /**
+     * Max amount of descriptors per cache. Descriptors seen after a cache is full are parsed on every lookup.
+     */
+    private static final int MAX_CACHED_DESCRIPTORS = 1 << 16;
+
+    private static final ThreadLocal<TypePool> ACTIVE_POOL = new ThreadLocal<>();
+
+    /**
+     * A pool that creates new instances without interning them.
+     */
+    private static final TypePool NO_POOL = new TypePool(false);
+
+    /**
+     * Does this pool intern its values or does it only create them.
+     */
+    private final boolean interning;
+
+    /**
+     * Paths by their slash separated internal name (e.g. "java/lang/String").
+     */
+    private final ConcurrentMap<String, Path> internalNames = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<List<String>, List<String>> packages = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Path, Path> paths = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Path, ObjectType> objectTypes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<ArrayType, ArrayType> arrayTypes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<MethodDescriptor, MethodDescriptor> methodDescriptors = new ConcurrentHashMap<>();
+
+    /**
+     * Parsed types by their descriptor (e.g. "[Ljava/lang/String;").
+     */
+    private final ConcurrentMap<String, Type> typesByDescriptor = new ConcurrentHashMap<>();
+
+    /**
+     * Parsed method descriptors by their descriptor (e.g. "(ILjava/lang/String;)V").
+     */
+    private final ConcurrentMap<String, MethodDescriptor> methodDescriptorsByDescriptor = new ConcurrentHashMap<>();
+
+    public TypePool() {
+        this(true);
+    }
+
+    private TypePool(boolean interning) {
+        this.interning = interning;
+    }
+
+    /**
+     * Get the pool of the conversion running on the current thread.
+     *
+     * @return the active pool or a pool that does not intern any values
+     */
+    public static TypePool current() {
+        TypePool pool = ACTIVE_POOL.get();
+        return pool == null ? NO_POOL : pool;
+    }
+
+    /**
+     * Run a conversion on the current thread while this pool is active.
+     *
+     * @param conversion the conversion to run
+     * @param <T> result of the conversion
+     * @return the result of the conversion
+     */
+    public <T> T within(Supplier<T> conversion) {
+        TypePool previousPool = ACTIVE_POOL.get();
+        ACTIVE_POOL.set(this);
+        try {
+            return conversion.get();
+        } finally {
+            if (previousPool == null) {
+                ACTIVE_POOL.remove();
+            } else {
+                ACTIVE_POOL.set(previousPool);
+            }
+        }
+    }
+
+    /**
+     * Run a conversion within the active pool or within a new pool if no pool is active.
+     *
+     * @param conversion the conversion to run
+     * @param <T> result of the conversion
+     * @return the result of the conversion
+     */
+    public static <T> T withinActiveOrNew(Supplier<T> conversion) {
+        return ACTIVE_POOL.get() != null ? conversion.get() : new TypePool().within(conversion);
+    }
+
+    /**
+     * Get the path of a slash separated class name (e.g. "java/lang/String").
+     *
+     * @param internalName slash separated class name
+     * @return the interned path
+     */
+    public Path pathFromInternalName(String internalName) {
+        if (!interning) {
+            return parseInternalName(internalName);
+        }
+
+        Path path = internalNames.get(internalName);
+        if (path == null) {
+            path = parseInternalName(internalName);
+            Path previous = internalNames.putIfAbsent(internalName, path);
+            if (previous != null) {
+                path = previous;
+            }
+        }
+        return path;
+    }
+
+    private Path parseInternalName(String internalName) {
+        List<String> pkg = new ArrayList<>();
+
+        int start = 0;
+        int end;
+        while ((end = internalName.indexOf('/', start)) >= 0) {
+            pkg.add(internalName.substring(start, end));
+            start = end + 1;
+        }
+
+        return path(pkg, internalName.substring(start));
+    }
+
+    /**
+     * Get a path with the given package and name.
+     *
+     * @param pkg packages of the class
+     * @param name name of the class
+     * @return the interned path
+     */
+    public Path path(List<String> pkg, String name) {
+        if (!interning) {
+            return new Path(pkg, name);
+        }
+
+        return path(new Path(intern(packages, List.copyOf(pkg)), name));
+    }
+
+    /**
+     * Intern a path.
+     *
+     * @param path a path
+     * @return an equal path shared by all users of this pool
+     */
+    public Path path(Path path) {
+        return interning ? intern(paths, path) : path;
+    }
+
+    /**
+     * Get the type of a class.
+     *
+     * @param path name of the class
+     * @return the interned type
+     */
+    public ObjectType objectType(Path path) {
+        if (!interning) {
+            return new ObjectType(path);
+        }
+
+        ObjectType type = objectTypes.get(path);
+        if (type == null) {
+            Path internedPath = path(path);
+            type = new ObjectType(internedPath);
+            ObjectType previous = objectTypes.putIfAbsent(internedPath, type);
+            if (previous != null) {
+                type = previous;
+            }
+        }
+        return type;
+    }
+
+    /**
+     * Get an array type.
+     *
+     * @param baseType type of the array elements
+     * @param dimensions dimensions of the array
+     * @return the interned type
+     */
+    public ArrayType arrayType(Type baseType, int dimensions) {
+        ArrayType type = new ArrayType(baseType, dimensions);
+        return interning ? intern(arrayTypes, type) : type;
+    }
+
+    /**
+     * Get a method descriptor.
+     *
+     * @param parameterTypes types of the method parameters
+     * @param returnType return type of the method or empty for void
+     * @return the interned descriptor
+     */
+    public MethodDescriptor methodDescriptor(List<Type> parameterTypes, Optional<Type> returnType) {
+        MethodDescriptor descriptor = new MethodDescriptor(parameterTypes, returnType);
+        return interning ? intern(methodDescriptors, descriptor) : descriptor;
+    }
+
+    /**
+     * Get the type of a type descriptor.
+     *
+     * @param descriptor a type descriptor (e.g. "[Ljava/lang/String;")
+     * @param parser parses the descriptor if it is not yet cached
+     * @return the cached or parsed type
+     */
+    public Type typeFromDescriptor(String descriptor, Function<String, Type> parser) {
+        return interning ? cached(typesByDescriptor, descriptor, parser) : parser.apply(descriptor);
+    }
+
+    /**
+     * Get the method descriptor of a jvm method descriptor string.
+     *
+     * @param descriptor a method descriptor (e.g. "(ILjava/lang/String;)V")
+     * @param parser parses the descriptor if it is not yet cached
+     * @return the cached or parsed method descriptor
+     */
+    public MethodDescriptor methodDescriptorFromDescriptor(String descriptor, Function<String, MethodDescriptor> parser) {
+        return interning ? cached(methodDescriptorsByDescriptor, descriptor, parser) : parser.apply(descriptor);
+    }
+
+    private static <T> T cached(ConcurrentMap<String, T> cache, String descriptor, Function<String, T> parser) {
+        T value = cache.get(descriptor);
+        if (value == null) {
+            value = parser.apply(descriptor);
+            if (cache.size() < MAX_CACHED_DESCRIPTORS) {
+                T previous = cache.putIfAbsent(descriptor, value);
+                if (previous != null) {
+                    value = previous;
+                }
+            }
+        }
+        return value;
+    }
+
+    private static <T> T intern(ConcurrentMap<T, T> map, T value) {
+        T previous = map.putIfAbsent(value, value);
+        return previous == null ? value : previous;
+    }
+}
@@ -5,6 +5,7 @@ import java.util.Objects;
 public class ArrayType implements RefType {
     private final int dimensions;
     private final Type baseType;
+    private final int hash;
 
     public ArrayType(Type baseType, int dimensions) {
         if (dimensions < 1) {
@@ -19,6 +20,7 @@ public class ArrayType implements RefType {
 
         this.dimensions = dimensions;
         this.baseType = baseType;
+        this.hash = Objects.hash(dimensions, baseType);
     }
 
     public int getDimensions() {
@@ -44,13 +46,14 @@ public class ArrayType implements RefType {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ArrayType arrayType = (ArrayType) o;
-        return dimensions == arrayType.dimensions &&
+        return hash == arrayType.hash &&
+                dimensions == arrayType.dimensions &&
                 Objects.equals(baseType, arrayType.baseType);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(dimensions, baseType);
+        return hash;
     }
 
     @Override
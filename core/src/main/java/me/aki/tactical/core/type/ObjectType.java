@@ -16,9 +16,11 @@ public class ObjectType implements RefType {
     public static final ObjectType METHOD_TYPE = new ObjectType(Path.METHOD_TYPE);
 
     private final Path name;
+    private final int hash;
 
     public ObjectType(Path name) {
         this.name = name;
+        this.hash = Objects.hash(name);
     }
 
     public Path getName() {
@@ -30,12 +32,12 @@ public class ObjectType implements RefType {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ObjectType that = (ObjectType) o;
-        return Objects.equals(name, that.name);
+        return hash == that.hash && Objects.equals(name, that.name);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(name);
+        return hash;
     }
 
     @Override
@@ -0,0 +1,617 @@
+package me.aki.tactical.core.util;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * An {@link InsertList} that stores its elements in a gap buffer.
+ *
+ * All elements are stored in one array that contains a gap of free slots.
+ * Insertions and removals move the gap to their location, so appending elements
+ * or editing close to the previous edit is cheap and elements are accessed by index in constant time.
+ *
+ * The position of each element within the array is tagged in an open addressing hash table,
+ * so the elements next to any element are found in constant time.
+ * Therefore it can contain each element only once.
+ *
+ * @param <T> type of the stored elements
+ */
+public abstract class AbstractArrayInsertList<T> extends AbstractList<T> implements InsertList<T> {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Key of the <tt>null</tt> element in the hash table.
+     */
+    private static final Object NULL_KEY = new Object();
+
+    /**
+     * All elements of the list and the gap.
+     */
+    private Object[] buffer;
+
+    /**
+     * Index of the first slot of the gap within the {@link #buffer}.
+     */
+    private int gapStart;
+
+    /**
+     * Index of the first slot after the gap within the {@link #buffer}.
+     */
+    private int gapEnd;
+
+    /**
+     * Keys of the hash table from all elements to their index within the {@link #buffer}.
+     * Free slots of the table are <tt>null</tt>.
+     */
+    private Object[] keys;
+
+    /**
+     * Index within the {@link #buffer} of the element in the same slot of {@link #keys}.
+     */
+    private int[] positions;
+
+    AbstractArrayInsertList(int capacity) {
+        capacity = Math.max(capacity, DEFAULT_CAPACITY);
+        this.buffer = new Object[capacity];
+        this.gapStart = 0;
+        this.gapEnd = capacity;
+
+        int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        this.keys = new Object[tableSize];
+        this.positions = new int[tableSize];
+    }
+
+    AbstractArrayInsertList(Iterable<? extends T> elements) {
+        this(elements instanceof Collection ? ((Collection<?>) elements).size() : DEFAULT_CAPACITY);
+
+        for (T element : elements) {
+            insertAt(size(), element);
+        }
+    }
+
+    /**
+     * Compute the hash code of an element.
+     *
+     * @param element a non-null element
+     * @return its hash code
+     */
+    abstract int hash(Object element);
+
+    /**
+     * Check whether two elements should be treated as the same element.
+     *
+     * @param a a non-null element
+     * @param b another non-null element
+     * @return are the elements the same
+     */
+    abstract boolean isSame(Object a, Object b);
+
+    // Hash table from elements to their position
+
+    private static Object maskNull(Object element) {
+        return element == null ? NULL_KEY : element;
+    }
+
+    private int slotOf(Object key) {
+        int hash = hash(key);
+        hash *= 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (keys.length - 1);
+    }
+
+    /**
+     * Find the slot of an element within the hash table.
+     *
+     * @param key masked element
+     * @return its slot or <tt>-1</tt> if the list does not contain the element
+     */
+    private int findSlot(Object key) {
+        int mask = keys.length - 1;
+        Object k;
+        for (int slot = slotOf(key); (k = keys[slot]) != null; slot = (slot + 1) & mask) {
+            if (k == key || isSame(k, key)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the index within the {@link #buffer} of an element.
+     *
+     * @param element the element
+     * @return its index or <tt>-1</tt> if the list does not contain the element
+     */
+    private int positionOf(Object element) {
+        int slot = findSlot(maskNull(element));
+        return slot < 0 ? -1 : positions[slot];
+    }
+
+    private void setPosition(Object element, int position) {
+        positions[findSlot(maskNull(element))] = position;
+    }
+
+    private void requireAbsent(Object element) {
+        if (findSlot(maskNull(element)) >= 0) {
+            throw new IllegalArgumentException("List already contains element");
+        }
+    }
+
+    /**
+     * Add an element that is not yet contained to the hash table.
+     */
+    private void addKey(Object element, int position) {
+        if ((size() + 1) * 2 > keys.length) {
+            resizeTable(keys.length * 2);
+        }
+
+        Object key = maskNull(element);
+        int mask = keys.length - 1;
+        int slot = slotOf(key);
+        while (keys[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        positions[slot] = position;
+    }
+
+    /**
+     * Remove an element from the hash table and move succeeding keys of the probe sequence into the free slot.
+     */
+    private void removeKey(Object element) {
+        int slot = findSlot(maskNull(element));
+        if (slot < 0) {
+            return;
+        }
+
+        int mask = keys.length - 1;
+        int free = slot;
+        keys[free] = null;
+
+        for (int next = (free + 1) & mask; keys[next] != null; next = (next + 1) & mask) {
+            int ideal = slotOf(keys[next]);
+
+            // Can the key be moved into the free slot without being placed before its ideal slot?
+            boolean isMovable = free <= next ? (ideal <= free || ideal > next) : (ideal <= free && ideal > next);
+            if (isMovable) {
+                keys[free] = keys[next];
+                positions[free] = positions[next];
+                keys[next] = null;
+                free = next;
+            }
+        }
+    }
+
+    private void resizeTable(int tableSize) {
+        Object[] oldKeys = this.keys;
+        int[] oldPositions = this.positions;
+
+        this.keys = new Object[tableSize];
+        this.positions = new int[tableSize];
+
+        int mask = tableSize - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            Object key = oldKeys[i];
+            if (key != null) {
+                int slot = slotOf(key);
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                positions[slot] = oldPositions[i];
+            }
+        }
+    }
+
+    // Gap buffer
+
+    private int gapSize() {
+        return gapEnd - gapStart;
+    }
+
+    private int toBufferIndex(int index) {
+        return index < gapStart ? index : index + gapSize();
+    }
+
+    private int toListIndex(int position) {
+        return position < gapStart ? position : position - gapSize();
+    }
+
+    /**
+     * Move the gap, so it starts at a certain index within the list.
+     *
+     * @param index index within the list
+     */
+    private void moveGap(int index) {
+        if (index < gapStart) {
+            int count = gapStart - index;
+            int newGapEnd = gapEnd - count;
+            System.arraycopy(buffer, index, buffer, newGapEnd, count);
+            for (int position = newGapEnd; position < gapEnd; position++) {
+                setPosition(buffer[position], position);
+            }
+            Arrays.fill(buffer, index, Math.min(gapStart, newGapEnd), null);
+
+            gapStart = index;
+            gapEnd = newGapEnd;
+        } else if (index > gapStart) {
+            int count = index - gapStart;
+            System.arraycopy(buffer, gapEnd, buffer, gapStart, count);
+            for (int position = gapStart; position < index; position++) {
+                setPosition(buffer[position], position);
+            }
+            Arrays.fill(buffer, Math.max(gapEnd, index), gapEnd + count, null);
+
+            gapStart = index;
+            gapEnd += count;
+        }
+    }
+
+    /**
+     * Grow the buffer if the gap is empty.
+     */
+    private void ensureGap() {
+        if (gapStart < gapEnd) {
+            return;
+        }
+
+        int tailLength = buffer.length - gapEnd;
+        Object[] newBuffer = new Object[buffer.length * 2];
+        int newGapEnd = newBuffer.length - tailLength;
+
+        System.arraycopy(buffer, 0, newBuffer, 0, gapStart);
+        System.arraycopy(buffer, gapEnd, newBuffer, newGapEnd, tailLength);
+        this.buffer = newBuffer;
+        this.gapEnd = newGapEnd;
+
+        for (int position = newGapEnd; position < newBuffer.length; position++) {
+            setPosition(newBuffer[position], position);
+        }
+    }
+
+    private void insertAt(int index, T element) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + " Size: " + size());
+        }
+        requireAbsent(element);
+
+        moveGap(index);
+        ensureGap();
+
+        buffer[gapStart] = element;
+        addKey(element, gapStart);
+        gapStart += 1;
+        modCount += 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T removeAt(int index) {
+        Objects.checkIndex(index, size());
+        moveGap(index);
+
+        T element = (T) buffer[gapEnd];
+        buffer[gapEnd] = null;
+        gapEnd += 1;
+
+        removeKey(element);
+        modCount += 1;
+        return element;
+    }
+
+    /**
+     * Get the index within the list of an element.
+     *
+     * @throws NoSuchElementException the list does not contain the element
+     */
+    private int requireIndex(Object element) {
+        int position = positionOf(element);
+        if (position < 0) {
+            throw new NoSuchElementException();
+        }
+        return toListIndex(position);
+    }
+
+    // Methods that implement InsertList
+
+    @Override
+    public T getFirst() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        } else {
+            return get(0);
+        }
+    }
+
+    @Override
+    public T getLast() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        } else {
+            return get(size() - 1);
+        }
+    }
+
+    @Override
+    public T getNext(T element) {
+        int index = requireIndex(element) + 1;
+        return index < size() ? get(index) : null;
+    }
+
+    @Override
+    public T getPrevious(T element) {
+        int index = requireIndex(element) - 1;
+        return index >= 0 ? get(index) : null;
+    }
+
+    @Override
+    public void insertAfter(T location, T element) {
+        insertAt(requireIndex(location) + 1, element);
+    }
+
+    @Override
+    public void insertAfter(T location, Collection<T> elements) {
+        int index = requireIndex(location) + 1;
+        for (T element : elements) {
+            insertAt(index++, element);
+        }
+    }
+
+    @Override
+    public void insertBefore(T location, T element) {
+        insertAt(requireIndex(location), element);
+    }
+
+    @Override
+    public void insertBefore(T location, Collection<T> elements) {
+        int index = requireIndex(location);
+        for (T element : elements) {
+            insertAt(index++, element);
+        }
+    }
+
+    // Methods that implement java.util.List
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        Objects.checkIndex(index, size());
+        return (T) buffer[toBufferIndex(index)];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T set(int index, T element) {
+        Objects.checkIndex(index, size());
+        int position = toBufferIndex(index);
+
+        T oldElement = (T) buffer[position];
+        if (element != oldElement) {
+            requireAbsent(element);
+
+            removeKey(oldElement);
+            addKey(element, position);
+            buffer[position] = element;
+        }
+        return oldElement;
+    }
+
+    @Override
+    public boolean add(T element) {
+        insertAt(size(), element);
+        return true;
+    }
+
+    @Override
+    public void add(int index, T element) {
+        insertAt(index, element);
+    }
+
+    @Override
+    public boolean remove(Object obj) {
+        int position = positionOf(obj);
+        if (position < 0) {
+            return false;
+        } else {
+            removeAt(toListIndex(position));
+            return true;
+        }
+    }
+
+    @Override
+    public T remove(int index) {
+        return removeAt(index);
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+        moveGap(size());
+
+        // Compact the kept elements to the start of the buffer
+        int size = gapStart;
+        int keptCount = 0;
+        for (int position = 0; position < size; position++) {
+            @SuppressWarnings("unchecked")
+            T element = (T) buffer[position];
+
+            if (filter.test(element)) {
+                removeKey(element);
+            } else {
+                if (keptCount != position) {
+                    buffer[keptCount] = element;
+                    setPosition(element, keptCount);
+                }
+                keptCount += 1;
+            }
+        }
+
+        if (keptCount == size) {
+            return false;
+        }
+
+        Arrays.fill(buffer, keptCount, size, null);
+        gapStart = keptCount;
+        modCount += 1;
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return removeIf(c::contains);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return removeIf(element -> !c.contains(element));
+    }
+
+    @Override
+    public int size() {
+        return buffer.length - gapSize();
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(buffer, null);
+        Arrays.fill(keys, null);
+        gapStart = 0;
+        gapEnd = buffer.length;
+        modCount += 1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return positionOf(o) >= 0;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        int position = positionOf(o);
+        return position < 0 ? -1 : toListIndex(position);
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iter(0);
+    }
+
+    @Override
+    public Iterator<T> iterator(T element) {
+        return new Iter(requireIndex(element));
+    }
+
+    @Override
+    public Iterator<T> iterator(T start, T end) {
+        return new RangeIter(requireIndex(start), end);
+    }
+
+    /**
+     * Iterator that tolerates modifications of the list as long as the next element is not removed.
+     *
+     * Like in the linked insert lists, the element returned by the next call of {@link #next()} is fixed,
+     * when the previous element is returned.
+     */
+    private class Iter implements Iterator<T> {
+        private boolean hasNext;
+        private T next;
+        private int nextIndex;
+        private int expectedModCount;
+
+        private boolean canRemove = false;
+        private T lastReturned;
+
+        private Iter(int index) {
+            seek(index);
+        }
+
+        private void seek(int index) {
+            this.nextIndex = index;
+            this.hasNext = index < size();
+            this.next = hasNext ? get(index) : null;
+            this.expectedModCount = modCount;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext) {
+                throw new NoSuchElementException();
+            }
+
+            if (modCount != expectedModCount) {
+                int position = positionOf(next);
+                if (position < 0) {
+                    throw new ConcurrentModificationException();
+                }
+                nextIndex = toListIndex(position);
+            }
+
+            T element = next;
+            this.lastReturned = element;
+            this.canRemove = true;
+            seek(nextIndex + 1);
+            return element;
+        }
+
+        @Override
+        public void remove() {
+            if (!canRemove) {
+                throw new IllegalStateException();
+            }
+            canRemove = false;
+
+            AbstractArrayInsertList.this.remove(lastReturned);
+            if (hasNext) {
+                int position = positionOf(next);
+                if (position < 0) {
+                    throw new ConcurrentModificationException();
+                }
+                nextIndex = toListIndex(position);
+            }
+            expectedModCount = modCount;
+        }
+    }
+
+    private class RangeIter extends Iter {
+        private final Object end;
+        private boolean reachedEnd = false;
+
+        private RangeIter(int index, T end) {
+            super(index);
+            this.end = maskNull(end);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !reachedEnd && super.hasNext();
+        }
+
+        @Override
+        public T next() {
+            if (reachedEnd) {
+                throw new NoSuchElementException();
+            }
+
+            T element = super.next();
+            Object key = maskNull(element);
+            if (key == end || isSame(key, end)) {
+                reachedEnd = true;
+            } else if (!super.hasNext()) {
+                // We've reached the last element of the list but did not yet see the 'end' element.
+                throw new IllegalStateException("Illegal Range");
+            }
+
+            return element;
+        }
+    }
+}
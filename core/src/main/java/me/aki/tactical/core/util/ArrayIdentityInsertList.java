@@ -0,0 +1,36 @@
+package me.aki.tactical.core.util;
+
+/**
+ * A {@link InsertList} based on a gap buffer that finds elements in the collection based on identity.
+ *
+ * @param <T> type of elements contained within this list
+ * @see ArrayInsertList array insert list that finds elements based on equality
+ */
+public class ArrayIdentityInsertList<T> extends AbstractArrayInsertList<T> {
+    public ArrayIdentityInsertList() {
+        super(0);
+    }
+
+    /**
+     * Create a list that can store a certain amount of elements without growing.
+     *
+     * @param capacity initial capacity of the list
+     */
+    public ArrayIdentityInsertList(int capacity) {
+        super(capacity);
+    }
+
+    public ArrayIdentityInsertList(Iterable<? extends T> elements) {
+        super(elements);
+    }
+
+    @Override
+    int hash(Object element) {
+        return System.identityHashCode(element);
+    }
+
+    @Override
+    boolean isSame(Object a, Object b) {
+        return a == b;
+    }
+}
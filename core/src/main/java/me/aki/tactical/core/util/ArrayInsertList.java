@@ -0,0 +1,39 @@
+package me.aki.tactical.core.util;
+
+/**
+ * A implementation of {@link InsertList} based on a gap buffer that finds elements by equality, not identity.
+ *
+ * Unlike the {@link LinkedInsertList}, elements are accessed by index in constant time and
+ * far less memory is required per element. It is a good fit for lists that are built in bulk.
+ *
+ * @param <T> type of elements in the list
+ * @see ArrayIdentityInsertList array insert list that finds elements based on identity.
+ */
+public class ArrayInsertList<T> extends AbstractArrayInsertList<T> {
+    public ArrayInsertList() {
+        super(0);
+    }
+
+    /**
+     * Create a list that can store a certain amount of elements without growing.
+     *
+     * @param capacity initial capacity of the list
+     */
+    public ArrayInsertList(int capacity) {
+        super(capacity);
+    }
+
+    public ArrayInsertList(Iterable<? extends T> elements) {
+        super(elements);
+    }
+
+    @Override
+    int hash(Object element) {
+        return element.hashCode();
+    }
+
+    @Override
+    boolean isSame(Object a, Object b) {
+        return a.equals(b);
+    }
+}
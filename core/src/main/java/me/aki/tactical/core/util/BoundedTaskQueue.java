@@ -0,0 +1,146 @@
+package me.aki.tactical.core.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * A queue of tasks that were submitted to an executor, whose results are consumed in submission order.
+ *
+ * The queue is {@link #isFull() full} once it holds {@link #getCapacity()} tasks,
+ * so a producer can bound the amount of results held in memory at once.
+ * If waiting for a task fails, all other pending tasks are cancelled.
+ *
+ * @param <T> result type of the tasks
+ */
+public class BoundedTaskQueue<T> implements AutoCloseable {
+    /**
+     * Max amount of tasks that are submitted but not yet consumed.
+     */
+    private final int capacity;
+
+    private final Deque<Future<T>> pending = new ArrayDeque<>();
+
+    public BoundedTaskQueue(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+
+        this.capacity = capacity;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Append a task to the queue.
+     *
+     * @param future the submitted task
+     */
+    public void add(Future<T> future) {
+        pending.add(future);
+    }
+
+    /**
+     * Should the oldest tasks be consumed before another one gets submitted.
+     *
+     * @return does the queue hold at least as many tasks as its capacity
+     */
+    public boolean isFull() {
+        return pending.size() >= capacity;
+    }
+
+    public boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    /**
+     * Wait for the oldest task and remove it from the queue.
+     *
+     * If the task failed, was cancelled or the thread got interrupted, all other tasks are cancelled.
+     *
+     * @return result of the oldest task
+     * @throws IOException the task threw an {@link IOException} or the thread got interrupted
+     */
+    public T next() throws IOException {
+        Future<T> future = pending.poll();
+        if (future == null) {
+            throw new IllegalStateException("The queue is empty");
+        }
+
+        boolean completed = false;
+        try {
+            T result = await(future);
+            completed = true;
+            return result;
+        } finally {
+            if (!completed) {
+                close();
+            }
+        }
+    }
+
+    /**
+     * Cancel all tasks that were not yet consumed.
+     */
+    @Override
+    public void close() {
+        Future<T> future;
+        while ((future = pending.poll()) != null) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * Wait for a task and unwrap the exception it threw.
+     *
+     * @param future the submitted task
+     * @param <T> result type of the task
+     * @return result of the task
+     * @throws IOException the task threw an {@link IOException} or the thread got interrupted
+     */
+    public static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a task");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * Read all remaining bytes of a stream, e.g. an entry of a jar that is passed to a task.
+     *
+     * @param in the stream to read
+     * @return all remaining bytes
+     * @throws IOException reading the stream failed
+     */
+    public static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,347 @@
+package me.aki.tactical.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ArrayInsertListTest {
+    @Test
+    public void testInsertAtGapEdges() {
+        ArrayInsertList<Integer> list = new ArrayInsertList<>(List.of(0, 1, 2, 3, 4));
+
+        // moves the gap behind 2
+        list.insertAfter(2, 10);
+        // directly before and after the gap
+        list.insertBefore(3, 11);
+        list.insertAfter(10, 12);
+        // at the start and the end of the list
+        list.insertBefore(0, 13);
+        list.insertAfter(4, 14);
+
+        assertEquals(List.of(13, 0, 1, 2, 10, 12, 11, 3, 4, 14), list);
+        assertEquals(List.of(13, 0, 1, 2, 10, 12, 11, 3, 4, 14), toListForward(list));
+        assertEquals(List.of(14, 4, 3, 11, 12, 10, 2, 1, 0, 13), toListBackward(list));
+        assertIndices(list);
+    }
+
+    @Test
+    public void testInsertCollections() {
+        ArrayInsertList<Integer> list = new ArrayInsertList<>(List.of(0, 1, 2));
+        list.insertBefore(1, List.of(10, 11));
+        list.insertAfter(1, List.of(12, 13));
+
+        assertEquals(List.of(0, 10, 11, 1, 12, 13, 2), list);
+        assertIndices(list);
+    }
+
+    @Test
+    public void testDuplicateElements() {
+        ArrayInsertList<Integer> list = new ArrayInsertList<>(List.of(0, 1, 2));
+        assertThrows(IllegalArgumentException.class, () -> list.add(1));
+        assertThrows(IllegalArgumentException.class, () -> list.insertAfter(0, 2));
+        assertThrows(IllegalArgumentException.class, () -> list.set(0, 2));
+        assertThrows(NoSuchElementException.class, () -> list.insertAfter(3, 4));
+        assertEquals(List.of(0, 1, 2), list);
+    }
+
+    @Test
+    public void testRemove() {
+        ArrayInsertList<Integer> list = new ArrayInsertList<>(List.of(0, 1, 2, 3, 4, 5, 6));
+
+        assertTrue(list.remove((Object) 3));
+        assertFalse(list.remove((Object) 3));
+        assertEquals(0, (int) list.remove(0));
+        assertEquals(6, (int) list.remove(list.size() - 1));
+
+        assertEquals(List.of(1, 2, 4, 5), list);
+        assertEquals(4, (int) list.getNext(2));
+        assertEquals(2, (int) list.getPrevious(4));
+        assertNull(list.getPrevious(1));
+        assertNull(list.getNext(5));
+        assertFalse(list.contains(3));
+        assertEquals(-1, list.indexOf(3));
+        assertThrows(NoSuchElementException.class, () -> list.getNext(3));
+        assertIndices(list);
+
+        // removed elements can be added again
+        list.insertAfter(2, 3);
+        assertEquals(List.of(1, 2, 3, 4, 5), list);
+
+        assertTrue(list.removeIf(i -> i % 2 == 1));
+        assertFalse(list.removeIf(i -> i % 2 == 1));
+        assertEquals(List.of(2, 4), list);
+        assertIndices(list);
+
+        list.clear();
+        assertTrue(list.isEmpty());
+        assertFalse(list.contains(2));
+        list.add(2);
+        assertEquals(List.of(2), list);
+    }
+
+    @Test
+    public void testGrowth() {
+        ArrayInsertList<Integer> list = new ArrayInsertList<>();
+        List<Integer> expected = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            // alternate between the end and the middle of the list, so the gap moves while the buffer grows
+            int index = i % 2 == 0 ? list.size() : list.size() / 2;
+            list.add(index, i);
+            expected.add(index, i);
+        }
+
+        assertEquals(expected, list);
+        assertEquals(expected, toListForward(list));
+        assertIndices(list);
+    }
+
+    @Test
+    public void testRemovalFromProbeSequences() {
+        // Elements with colliding hash codes share probe sequences within the hash table
+        List<Collider> elements = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            elements.add(new Collider(i));
+        }
+
+        ArrayInsertList<Collider> list = new ArrayInsertList<>(elements);
+        for (int i = 0; i < elements.size(); i += 2) {
+            list.remove(elements.get(i));
+        }
+
+        for (int i = 0; i < elements.size(); i++) {
+            assertEquals(i % 2 == 1, list.contains(elements.get(i)));
+        }
+        assertIndices(list);
+
+        // Add the removed elements again, so the table gets resized
+        for (int i = 0; i < elements.size(); i += 2) {
+            list.insertBefore(elements.get(i + 1), elements.get(i));
+        }
+        for (int i = 0; i < 200; i++) {
+            list.add(new Collider(200 + i));
+        }
+
+        assertEquals(400, list.size());
+        for (int i = 0; i < 400; i++) {
+            assertEquals(i, list.indexOf(new Collider(i)));
+        }
+    }
+
+    @Test
+    public void testIdentity() {
+        String a = new String("a");
+        String b = new String("a");
+
+        ArrayIdentityInsertList<String> list = new ArrayIdentityInsertList<>();
+        list.add(a);
+        list.add(b);
+
+        assertEquals(2, list.size());
+        assertSame(b, list.getNext(a));
+        assertTrue(list.remove(b));
+        assertSame(a, list.getFirst());
+    }
+
+    @Test
+    public void testNullElement() {
+        ArrayInsertList<Integer> list = new ArrayInsertList<>();
+        list.add(0);
+        list.add(null);
+        list.add(1);
+
+        assertEquals(1, list.indexOf(null));
+        assertEquals(1, (int) list.getNext(null));
+        assertThrows(IllegalArgumentException.class, () -> list.add(null));
+        assertTrue(list.remove(null));
+        assertEquals(List.of(0, 1), list);
+    }
+
+    @Test
+    public void testIteratorToleratesInsertions() {
+        ArrayInsertList<Integer> list = new ArrayInsertList<>(List.of(0, 1, 2, 3));
+
+        List<Integer> visited = new ArrayList<>();
+        Iterator<Integer> iter = list.iterator();
+        while (iter.hasNext()) {
+            int element = iter.next();
+            visited.add(element);
+
+            if (element == 1) {
+                list.insertBefore(0, 10); // before the iterator
+                list.insertAfter(3, 11); // behind the iterator
+            }
+        }
+
+        assertEquals(List.of(0, 1, 2, 3, 11), visited);
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        ArrayInsertList<Integer> list = new ArrayInsertList<>(List.of(0, 1, 2, 3, 4));
+
+        Iterator<Integer> iter = list.iterator(1);
+        assertThrows(IllegalStateException.class, iter::remove);
+        while (iter.hasNext()) {
+            if (iter.next() % 2 == 1) {
+                iter.remove();
+            }
+        }
+
+        assertEquals(List.of(0, 2, 4), list);
+    }
+
+    @Test
+    public void testIteratorInvalidation() {
+        ArrayInsertList<Integer> list = new ArrayInsertList<>(List.of(0, 1, 2, 3));
+
+        Iterator<Integer> iter = list.iterator();
+        assertEquals(0, (int) iter.next());
+
+        // the next element of the iterator is removed
+        list.remove((Object) 1);
+        assertThrows(ConcurrentModificationException.class, iter::next);
+    }
+
+    @Test
+    public void testRangeIterator() {
+        ArrayInsertList<Integer> list = new ArrayInsertList<>(List.of(0, 1, 2, 3, 4));
+
+        List<Integer> visited = new ArrayList<>();
+        list.iterator(1, 3).forEachRemaining(visited::add);
+        assertEquals(List.of(1, 2, 3), visited);
+
+        Iterator<Integer> illegalRange = list.iterator(3, 1);
+        assertThrows(IllegalStateException.class, () -> illegalRange.forEachRemaining(x -> {}));
+    }
+
+    /**
+     * Apply random edits to an {@link ArrayInsertList} and a {@link LinkedInsertList} and compare them.
+     */
+    @Test
+    public void testDifferentialAgainstLinkedInsertList() {
+        Random random = new Random(0);
+        ArrayInsertList<Integer> arrayList = new ArrayInsertList<>();
+        LinkedInsertList<Integer> linkedList = new LinkedInsertList<>();
+        int nextElement = 0;
+
+        for (int i = 0; i < 20000; i++) {
+            int operation = linkedList.isEmpty() ? 0 : random.nextInt(8);
+            Integer element = linkedList.isEmpty() ? null : linkedList.get(random.nextInt(linkedList.size()));
+            switch (operation) {
+                case 0:
+                    arrayList.add(nextElement);
+                    linkedList.add(nextElement);
+                    nextElement++;
+                    break;
+                case 1:
+                    arrayList.insertBefore(element, nextElement);
+                    linkedList.insertBefore(element, nextElement);
+                    nextElement++;
+                    break;
+                case 2:
+                    arrayList.insertAfter(element, nextElement);
+                    linkedList.insertAfter(element, nextElement);
+                    nextElement++;
+                    break;
+                case 3:
+                    List<Integer> elements = List.of(nextElement, nextElement + 1, nextElement + 2);
+                    arrayList.insertAfter(element, elements);
+                    linkedList.insertAfter(element, elements);
+                    nextElement += 3;
+                    break;
+                case 4:
+                    assertEquals(linkedList.remove(element), arrayList.remove(element));
+                    break;
+                case 5:
+                    // the linked list does not support removals by index
+                    int index = linkedList.indexOf(element);
+                    linkedList.remove(element);
+                    assertEquals(element, arrayList.remove(index));
+                    break;
+                case 6:
+                    assertEquals(linkedList.getNext(element), arrayList.getNext(element));
+                    assertEquals(linkedList.getPrevious(element), arrayList.getPrevious(element));
+                    break;
+                case 7:
+                    if (random.nextInt(50) == 0) {
+                        int modulus = 2 + random.nextInt(5);
+                        List<Integer> removed = new ArrayList<>();
+                        linkedList.forEach(e -> {
+                            if (e % modulus == 0) {
+                                removed.add(e);
+                            }
+                        });
+                        removed.forEach(linkedList::remove);
+                        assertEquals(!removed.isEmpty(), arrayList.removeIf(e -> e % modulus == 0));
+                    }
+                    break;
+            }
+
+            assertEquals(linkedList.size(), arrayList.size());
+            if (i % 100 == 0) {
+                assertEquals(linkedList, arrayList);
+                assertIndices(arrayList);
+            }
+        }
+
+        assertEquals(linkedList, arrayList);
+    }
+
+    /**
+     * Check that all elements are found at their index.
+     */
+    private <T> void assertIndices(InsertList<T> list) {
+        for (int i = 0; i < list.size(); i++) {
+            assertEquals(i, list.indexOf(list.get(i)));
+        }
+    }
+
+    private <T> List<T> toListForward(InsertList<T> list) {
+        List<T> elements = new ArrayList<>();
+        if (!list.isEmpty()) {
+            for (T element = list.getFirst(); element != null; element = list.getNext(element)) {
+                elements.add(element);
+            }
+        }
+        return elements;
+    }
+
+    private <T> List<T> toListBackward(InsertList<T> list) {
+        List<T> elements = new ArrayList<>();
+        if (!list.isEmpty()) {
+            for (T element = list.getLast(); element != null; element = list.getPrevious(element)) {
+                elements.add(element);
+            }
+        }
+        return elements;
+    }
+
+    /**
+     * An element whose hash code collides with many other elements.
+     */
+    private static class Collider {
+        private final int id;
+
+        private Collider(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Collider && ((Collider) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id % 3;
+        }
+
+        @Override
+        public String toString() {
+            return "Collider{" + id + '}';
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package me.aki.tactical.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedTaskQueueTest {
+    @Test
+    public void testResultsInSubmissionOrder() throws IOException {
+        BoundedTaskQueue<Integer> queue = new BoundedTaskQueue<>(2);
+        CompletableFuture<Integer> first = new CompletableFuture<>();
+        CompletableFuture<Integer> second = CompletableFuture.completedFuture(2);
+
+        queue.add(first);
+        assertFalse(queue.isFull());
+        queue.add(second);
+        assertTrue(queue.isFull());
+
+        first.complete(1);
+        assertEquals(1, (int) queue.next());
+        assertFalse(queue.isFull());
+        assertEquals(2, (int) queue.next());
+        assertTrue(queue.isEmpty());
+        assertThrows(IllegalStateException.class, queue::next);
+    }
+
+    @Test
+    public void testFailureCancelsPendingTasks() {
+        BoundedTaskQueue<Integer> queue = new BoundedTaskQueue<>(3);
+        CompletableFuture<Integer> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IOException("failed"));
+        CompletableFuture<Integer> pending = new CompletableFuture<>();
+
+        queue.add(failed);
+        queue.add(pending);
+
+        IOException exception = assertThrows(IOException.class, queue::next);
+        assertEquals("failed", exception.getMessage());
+        assertTrue(pending.isCancelled());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testUnwrapExceptions() {
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        future.completeExceptionally(new IllegalStateException("failed"));
+        assertThrows(IllegalStateException.class, () -> BoundedTaskQueue.await(future));
+    }
+
+    @Test
+    public void testReadFully() throws IOException {
+        byte[] bytes = new byte[10000];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+
+        assertArrayEquals(bytes, BoundedTaskQueue.readFully(new ByteArrayInputStream(bytes)));
+    }
+}
@@ -2,7 +2,7 @@ package me.aki.tactical.dex;
 
 import me.aki.tactical.core.Body;
 import me.aki.tactical.core.util.InsertList;
-import me.aki.tactical.core.util.LinkedInsertList;
+import me.aki.tactical.core.util.LinkedIdentityInsertList;
 import me.aki.tactical.dex.insn.Instruction;
 
 import java.util.ArrayList;
@@ -37,7 +37,7 @@ public class DexBody implements Body {
     private List<TryCatchBlock> tryCatchBlocks;
 
     public DexBody() {
-        this(new ArrayList<>(), Optional.empty(), new ArrayList<>(), new LinkedInsertList<>(), new ArrayList<>());
+        this(new ArrayList<>(), Optional.empty(), new ArrayList<>(), new LinkedIdentityInsertList<>(), new ArrayList<>());
     }
 
     public DexBody(List<Register> registers, Optional<Register> thisRegister, List<Register> parameterRegisters,
@@ -29,6 +29,9 @@ public class TryCatchBlock {
      */
     private List<Handler> handlers;
 
+    private RWCell<Instruction> startCell;
+    private RWCell<Instruction> endCell;
+
     public TryCatchBlock(Instruction start, Instruction end, List<Handler> handlers) {
         this.start = start;
         this.end = end;
@@ -44,7 +47,10 @@ public class TryCatchBlock {
     }
 
     public RWCell<Instruction> getStartCell() {
-        return RWCell.of(this::getStart, this::setStart, Instruction.class);
+        if (startCell == null) {
+            startCell = RWCell.of(this::getStart, this::setStart, Instruction.class);
+        }
+        return startCell;
     }
 
     public Instruction getEnd() {
@@ -56,7 +62,10 @@ public class TryCatchBlock {
     }
 
     public RWCell<Instruction> getEndCell() {
-        return RWCell.of(this::getEnd, this::setEnd, Instruction.class);
+        if (endCell == null) {
+            endCell = RWCell.of(this::getEnd, this::setEnd, Instruction.class);
+        }
+        return endCell;
     }
 
     public List<Handler> getHandlers() {
@@ -97,6 +106,8 @@ public class TryCatchBlock {
          */
         private Instruction handler;
 
+        private RWCell<Instruction> handlerCell;
+
         public Handler(Optional<Path> exception, Instruction handler) {
             this.exception = exception;
             this.handler = handler;
@@ -119,7 +130,10 @@ public class TryCatchBlock {
         }
 
         public RWCell<Instruction> getHandlerCell() {
-            return RWCell.of(this::getHandler, this::setHandler, Instruction.class);
+            if (handlerCell == null) {
+                handlerCell = RWCell.of(this::getHandler, this::setHandler, Instruction.class);
+            }
+            return handlerCell;
         }
 
         @Override
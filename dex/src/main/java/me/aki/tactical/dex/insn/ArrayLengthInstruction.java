@@ -22,6 +22,9 @@ public class ArrayLengthInstruction implements Instruction {
      */
     private Register result;
 
+    private RWCell<Register> arrayCell;
+    private RWCell<Register> resultCell;
+
     public ArrayLengthInstruction(Register array, Register result) {
         this.array = array;
         this.result = result;
@@ -36,7 +39,10 @@ public class ArrayLengthInstruction implements Instruction {
     }
 
     public RWCell<Register> getArrayCell() {
-        return RWCell.of(this::getArray, this::setArray, Register.class);
+        if (arrayCell == null) {
+            arrayCell = RWCell.of(this::getArray, this::setArray, Register.class);
+        }
+        return arrayCell;
     }
 
     public Register getResult() {
@@ -48,7 +54,10 @@ public class ArrayLengthInstruction implements Instruction {
     }
 
     public RWCell<Register> getResultCell() {
-        return RWCell.of(this::getResult, this::setResult, Register.class);
+        if (resultCell == null) {
+            resultCell = RWCell.of(this::getResult, this::setResult, Register.class);
+        }
+        return resultCell;
     }
 
     @Override
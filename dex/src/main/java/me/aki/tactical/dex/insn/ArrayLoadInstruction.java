@@ -35,6 +35,10 @@ public class ArrayLoadInstruction implements Instruction {
      */
     private Register result;
 
+    private RWCell<Register> arrayCell;
+    private RWCell<Register> indexCell;
+    private RWCell<Register> resultCell;
+
     public ArrayLoadInstruction(Type type, Register array, Register index, Register result) {
         this.type = type;
         this.array = array;
@@ -59,7 +63,10 @@ public class ArrayLoadInstruction implements Instruction {
     }
 
     public RWCell<Register> getArrayCell() {
-        return RWCell.of(this::getArray, this::setArray, Register.class);
+        if (arrayCell == null) {
+            arrayCell = RWCell.of(this::getArray, this::setArray, Register.class);
+        }
+        return arrayCell;
     }
 
     public Register getIndex() {
@@ -71,7 +78,10 @@ public class ArrayLoadInstruction implements Instruction {
     }
 
     public RWCell<Register> getIndexCell() {
-        return RWCell.of(this::getIndex, this::setIndex, Register.class);
+        if (indexCell == null) {
+            indexCell = RWCell.of(this::getIndex, this::setIndex, Register.class);
+        }
+        return indexCell;
     }
 
     public Register getResult() {
@@ -83,7 +93,10 @@ public class ArrayLoadInstruction implements Instruction {
     }
 
     public RWCell<Register> getResultCell() {
-        return RWCell.of(this::getResult, this::setResult, Register.class);
+        if (resultCell == null) {
+            resultCell = RWCell.of(this::getResult, this::setResult, Register.class);
+        }
+        return resultCell;
     }
 
     @Override
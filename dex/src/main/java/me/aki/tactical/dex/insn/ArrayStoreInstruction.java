@@ -37,6 +37,10 @@ public class ArrayStoreInstruction implements Instruction {
      */
     private Register value;
 
+    private RWCell<Register> arrayCell;
+    private RWCell<Register> indexCell;
+    private RWCell<Register> valueCell;
+
     public ArrayStoreInstruction(Type type, Register array, Register index, Register value) {
         this.type = type;
         this.array = array;
@@ -61,7 +65,10 @@ public class ArrayStoreInstruction implements Instruction {
     }
 
     public RWCell<Register> getArrayCell() {
-        return RWCell.of(this::getArray, this::setArray, Register.class);
+        if (arrayCell == null) {
+            arrayCell = RWCell.of(this::getArray, this::setArray, Register.class);
+        }
+        return arrayCell;
     }
 
     public Register getIndex() {
@@ -73,7 +80,10 @@ public class ArrayStoreInstruction implements Instruction {
     }
 
     public RWCell<Register> getIndexCell() {
-        return RWCell.of(this::getIndex, this::setIndex, Register.class);
+        if (indexCell == null) {
+            indexCell = RWCell.of(this::getIndex, this::setIndex, Register.class);
+        }
+        return indexCell;
     }
 
     public Register getValue() {
@@ -85,7 +95,10 @@ public class ArrayStoreInstruction implements Instruction {
     }
 
     public RWCell<Register> getValueCell() {
-        return RWCell.of(this::getValue, this::setValue, Register.class);
+        if (valueCell == null) {
+            valueCell = RWCell.of(this::getValue, this::setValue, Register.class);
+        }
+        return valueCell;
     }
 
     @Override
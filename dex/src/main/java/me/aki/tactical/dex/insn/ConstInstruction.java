@@ -21,6 +21,8 @@ public class ConstInstruction implements Instruction {
      */
     private Register register;
 
+    private RWCell<Register> registerCell;
+
     public ConstInstruction(DexConstant constant, Register register) {
         this.constant = constant;
         this.register = register;
@@ -43,7 +45,10 @@ public class ConstInstruction implements Instruction {
     }
 
     public RWCell<Register> getRegisterCell() {
-        return RWCell.of(this::getRegister, this::setRegister, Register.class);
+        if (registerCell == null) {
+            registerCell = RWCell.of(this::getRegister, this::setRegister, Register.class);
+        }
+        return registerCell;
     }
 
     @Override
@@ -27,6 +27,9 @@ public class FieldGetInstruction implements Instruction {
      */
     private Register result;
 
+    private RWCell<Register> resultCell;
+    private RWCell<Register> instanceCell;
+
     public FieldGetInstruction(FieldRef field, Optional<Register> instance, Register result) {
         this.field = field;
         this.instance = instance;
@@ -54,7 +57,14 @@ public class FieldGetInstruction implements Instruction {
     }
 
     public Optional<RWCell<Register>> getInstanceCell() {
-        return instance.map(x -> RWCell.of(() -> this.instance.get(), instance -> this.instance = Optional.of(instance), Register.class));
+        if (!instance.isPresent()) {
+            return Optional.empty();
+        }
+
+        if (instanceCell == null) {
+            instanceCell = RWCell.of(() -> this.instance.get(), instance -> this.instance = Optional.of(instance), Register.class);
+        }
+        return Optional.of(instanceCell);
     }
 
     public Register getResult() {
@@ -66,7 +76,10 @@ public class FieldGetInstruction implements Instruction {
     }
 
     public RWCell<Register> getResultCell() {
-        return RWCell.of(this::getResult, this::setResult, Register.class);
+        if (resultCell == null) {
+            resultCell = RWCell.of(this::getResult, this::setResult, Register.class);
+        }
+        return resultCell;
     }
 
     @Override
@@ -30,6 +30,9 @@ public class FieldSetInstruction implements Instruction {
      */
     private Register value;
 
+    private RWCell<Register> valueCell;
+    private RWCell<Register> instanceCell;
+
     public FieldSetInstruction(FieldRef field, Optional<Register> instance, Register value) {
         this.field = field;
         this.instance = instance;
@@ -53,7 +56,14 @@ public class FieldSetInstruction implements Instruction {
     }
 
     public Optional<RWCell<Register>> getInstanceCell() {
-        return instance.map(x -> RWCell.of(() -> this.instance.get(), instance -> this.instance = Optional.of(instance), Register.class));
+        if (!instance.isPresent()) {
+            return Optional.empty();
+        }
+
+        if (instanceCell == null) {
+            instanceCell = RWCell.of(() -> this.instance.get(), instance -> this.instance = Optional.of(instance), Register.class);
+        }
+        return Optional.of(instanceCell);
     }
 
     public Register getValue() {
@@ -65,7 +75,10 @@ public class FieldSetInstruction implements Instruction {
     }
 
     public RWCell<Register> getValueCell() {
-        return RWCell.of(this::getValue, this::setValue, Register.class);
+        if (valueCell == null) {
+            valueCell = RWCell.of(this::getValue, this::setValue, Register.class);
+        }
+        return valueCell;
     }
 
     @Override
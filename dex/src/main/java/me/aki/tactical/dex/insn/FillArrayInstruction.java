@@ -26,6 +26,8 @@ public class FillArrayInstruction implements Instruction {
      */
     private List<NumericConstant> values;
 
+    private RWCell<Register> arrayCell;
+
     public FillArrayInstruction(Register array, NumberSize elementSize, List<NumericConstant> values) {
         this.array = array;
         this.elementSize = elementSize;
@@ -41,7 +43,10 @@ public class FillArrayInstruction implements Instruction {
     }
 
     public RWCell<Register> getArrayCell() {
-        return RWCell.of(this::getArray, this::setArray, Register.class);
+        if (arrayCell == null) {
+            arrayCell = RWCell.of(this::getArray, this::setArray, Register.class);
+        }
+        return arrayCell;
     }
 
     public NumberSize getElementSize() {
@@ -15,6 +15,8 @@ public class GotoInstruction implements BranchInstruction {
      */
     private Instruction target;
 
+    private RWCell<Instruction> targetCell;
+
     public GotoInstruction(Instruction target) {
         this.target = target;
     }
@@ -28,7 +30,10 @@ public class GotoInstruction implements BranchInstruction {
     }
 
     public RWCell<Instruction> getTargetCell() {
-        return RWCell.of(this::getTarget, this::setTarget, Instruction.class);
+        if (targetCell == null) {
+            targetCell = RWCell.of(this::getTarget, this::setTarget, Instruction.class);
+        }
+        return targetCell;
     }
 
     @Override
@@ -32,6 +32,10 @@ public class IfInstruction implements BranchInstruction {
      */
     private Instruction target;
 
+    private RWCell<Register> op1Cell;
+    private RWCell<Register> op2Cell;
+    private RWCell<Instruction> targetCell;
+
     public IfInstruction(Comparison comparison, Register op1, Optional<Register> op2, Instruction target) {
         this.comparison = comparison;
         this.op1 = op1;
@@ -56,7 +60,10 @@ public class IfInstruction implements BranchInstruction {
     }
 
     public RWCell<Register> getOp1Cell() {
-        return RWCell.of(this::getOp1, this::setOp1, Register.class);
+        if (op1Cell == null) {
+            op1Cell = RWCell.of(this::getOp1, this::setOp1, Register.class);
+        }
+        return op1Cell;
     }
 
     public Optional<Register> getOp2() {
@@ -68,7 +75,14 @@ public class IfInstruction implements BranchInstruction {
     }
 
     public Optional<RWCell<Register>> getOp2Cell() {
-        return op2.map(x -> RWCell.of(() -> this.op2.get(), op2 -> this.op2 = Optional.of(op2), Register.class));
+        if (!op2.isPresent()) {
+            return Optional.empty();
+        }
+
+        if (op2Cell == null) {
+            op2Cell = RWCell.of(() -> this.op2.get(), op2 -> this.op2 = Optional.of(op2), Register.class);
+        }
+        return Optional.of(op2Cell);
     }
 
     public Instruction getTarget() {
@@ -80,7 +94,10 @@ public class IfInstruction implements BranchInstruction {
     }
 
     public RWCell<Instruction> getTargetCell() {
-        return RWCell.of(this::getTarget, this::setTarget, Instruction.class);
+        if (targetCell == null) {
+            targetCell = RWCell.of(this::getTarget, this::setTarget, Instruction.class);
+        }
+        return targetCell;
     }
 
     @Override
@@ -28,6 +28,9 @@ public class InstanceOfInstruction implements Instruction {
      */
     private Register result;
 
+    private RWCell<Register> valueCell;
+    private RWCell<Register> resultCell;
+
     public InstanceOfInstruction(RefType type, Register value, Register result) {
         this.type = type;
         this.value = value;
@@ -51,7 +54,10 @@ public class InstanceOfInstruction implements Instruction {
     }
 
     public RWCell<Register> getValueCell() {
-        return RWCell.of(this::getValue, this::setValue, Register.class);
+        if (valueCell == null) {
+            valueCell = RWCell.of(this::getValue, this::setValue, Register.class);
+        }
+        return valueCell;
     }
 
     public Register getResult() {
@@ -63,7 +69,10 @@ public class InstanceOfInstruction implements Instruction {
     }
 
     public RWCell<Register> getResultCell() {
-        return RWCell.of(this::getResult, this::setResult, Register.class);
+        if (resultCell == null) {
+            resultCell = RWCell.of(this::getResult, this::setResult, Register.class);
+        }
+        return resultCell;
     }
 
     @Override
@@ -15,6 +15,8 @@ public class MoveExceptionInstruction implements Instruction {
      */
     private Register register;
 
+    private RWCell<Register> registerCell;
+
     public MoveExceptionInstruction(Register register) {
         this.register = register;
     }
@@ -28,7 +30,10 @@ public class MoveExceptionInstruction implements Instruction {
     }
 
     public RWCell<Register> getRegisterCell() {
-        return RWCell.of(this::getRegister, this::setRegister, Register.class);
+        if (registerCell == null) {
+            registerCell = RWCell.of(this::getRegister, this::setRegister, Register.class);
+        }
+        return registerCell;
     }
 
     @Override
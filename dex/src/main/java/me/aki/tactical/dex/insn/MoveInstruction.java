@@ -32,6 +32,9 @@ public class MoveInstruction implements Instruction {
      */
     private Register to;
 
+    private RWCell<Register> fromCell;
+    private RWCell<Register> toCell;
+
     public MoveInstruction(Type type, Register from, Register to) {
         this.type = type;
         this.from = from;
@@ -55,7 +58,10 @@ public class MoveInstruction implements Instruction {
     }
 
     public RWCell<Register> getFromCell() {
-        return RWCell.of(this::getFrom, this::setFrom, Register.class);
+        if (fromCell == null) {
+            fromCell = RWCell.of(this::getFrom, this::setFrom, Register.class);
+        }
+        return fromCell;
     }
 
     public Register getTo() {
@@ -67,7 +73,10 @@ public class MoveInstruction implements Instruction {
     }
 
     public RWCell<Register> getToCell() {
-        return RWCell.of(this::getTo, this::setTo, Register.class);
+        if (toCell == null) {
+            toCell = RWCell.of(this::getTo, this::setTo, Register.class);
+        }
+        return toCell;
     }
 
     @Override
@@ -17,6 +17,8 @@ public class MoveResultInstruction implements Instruction {
      */
     private Register register;
 
+    private RWCell<Register> registerCell;
+
     public MoveResultInstruction(Register register) {
         this.register = register;
     }
@@ -30,7 +32,10 @@ public class MoveResultInstruction implements Instruction {
     }
 
     public RWCell<Register> getRegisterCell() {
-        return RWCell.of(this::getRegister, this::setRegister, Register.class);
+        if (registerCell == null) {
+            registerCell = RWCell.of(this::getRegister, this::setRegister, Register.class);
+        }
+        return registerCell;
     }
 
     @Override
@@ -30,6 +30,9 @@ public class NegInstruction implements Instruction {
      */
     private Register result;
 
+    private RWCell<Register> valueCell;
+    private RWCell<Register> resultCell;
+
     public NegInstruction(PrimitiveType type, Register value, Register result) {
         setType(type);
         this.value = value;
@@ -53,7 +56,10 @@ public class NegInstruction implements Instruction {
     }
 
     public RWCell<Register> getValueCell() {
-        return RWCell.of(this::getValue, this::setValue, Register.class);
+        if (valueCell == null) {
+            valueCell = RWCell.of(this::getValue, this::setValue, Register.class);
+        }
+        return valueCell;
     }
 
     public Register getResult() {
@@ -65,7 +71,10 @@ public class NegInstruction implements Instruction {
     }
 
     public RWCell<Register> getResultCell() {
-        return RWCell.of(this::getResult, this::setResult, Register.class);
+        if (resultCell == null) {
+            resultCell = RWCell.of(this::getResult, this::setResult, Register.class);
+        }
+        return resultCell;
     }
 
     @Override
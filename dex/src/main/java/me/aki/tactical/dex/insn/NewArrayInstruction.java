@@ -27,6 +27,9 @@ public class NewArrayInstruction implements Instruction {
      */
     private Register result;
 
+    private RWCell<Register> sizeCell;
+    private RWCell<Register> resultCell;
+
     public NewArrayInstruction(ArrayType arrayType, Register size, Register result) {
         this.arrayType = arrayType;
         this.size = size;
@@ -50,7 +53,10 @@ public class NewArrayInstruction implements Instruction {
     }
 
     public RWCell<Register> getSizeCell() {
-        return RWCell.of(this::getSize, this::setSize, Register.class);
+        if (sizeCell == null) {
+            sizeCell = RWCell.of(this::getSize, this::setSize, Register.class);
+        }
+        return sizeCell;
     }
 
     public Register getResult() {
@@ -62,7 +68,10 @@ public class NewArrayInstruction implements Instruction {
     }
 
     public RWCell<Register> getResultCell() {
-        return RWCell.of(this::getResult, this::setResult, Register.class);
+        if (resultCell == null) {
+            resultCell = RWCell.of(this::getResult, this::setResult, Register.class);
+        }
+        return resultCell;
     }
 
     @Override
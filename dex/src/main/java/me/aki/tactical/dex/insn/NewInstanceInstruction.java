@@ -22,6 +22,8 @@ public class NewInstanceInstruction implements Instruction {
      */
     private Register result;
 
+    private RWCell<Register> resultCell;
+
     public NewInstanceInstruction(Path type, Register result) {
         this.type = type;
         this.result = result;
@@ -44,7 +46,10 @@ public class NewInstanceInstruction implements Instruction {
     }
 
     public RWCell<Register> getResultCell() {
-        return RWCell.of(this::getResult, this::setResult, Register.class);
+        if (resultCell == null) {
+            resultCell = RWCell.of(this::getResult, this::setResult, Register.class);
+        }
+        return resultCell;
     }
 
     @Override
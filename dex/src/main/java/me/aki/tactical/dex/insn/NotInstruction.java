@@ -31,6 +31,9 @@ public class NotInstruction implements Instruction {
      */
     private Register result;
 
+    private RWCell<Register> valueCell;
+    private RWCell<Register> resultCell;
+
     public NotInstruction(PrimitiveType type, Register value, Register result) {
         setType(type);
         this.value = value;
@@ -58,7 +61,10 @@ public class NotInstruction implements Instruction {
     }
 
     public RWCell<Register> getValueCell() {
-        return RWCell.of(this::getValue, this::setValue, Register.class);
+        if (valueCell == null) {
+            valueCell = RWCell.of(this::getValue, this::setValue, Register.class);
+        }
+        return valueCell;
     }
 
     public Register getResult() {
@@ -70,7 +76,10 @@ public class NotInstruction implements Instruction {
     }
 
     public RWCell<Register> getResultCell() {
-        return RWCell.of(this::getResult, this::setResult, Register.class);
+        if (resultCell == null) {
+            resultCell = RWCell.of(this::getResult, this::setResult, Register.class);
+        }
+        return resultCell;
     }
 
     @Override
@@ -35,6 +35,9 @@ public class PrimitiveCastInstruction implements Instruction {
      */
     private Register toRegister;
 
+    private RWCell<Register> fromRegisterCell;
+    private RWCell<Register> toRegisterCell;
+
     public PrimitiveCastInstruction(PrimitiveType fromType, PrimitiveType toType, Register fromRegister, Register toRegister) {
         setFromType(fromType);
         setToType(toType);
@@ -76,7 +79,10 @@ public class PrimitiveCastInstruction implements Instruction {
     }
 
     public RWCell<Register> getFromRegisterCell() {
-        return RWCell.of(this::getFromRegister, this::setFromRegister, Register.class);
+        if (fromRegisterCell == null) {
+            fromRegisterCell = RWCell.of(this::getFromRegister, this::setFromRegister, Register.class);
+        }
+        return fromRegisterCell;
     }
 
     public Register getToRegister() {
@@ -88,7 +94,10 @@ public class PrimitiveCastInstruction implements Instruction {
     }
 
     public RWCell<Register> getToRegisterCell() {
-        return RWCell.of(this::getToRegister, this::setToRegister, Register.class);
+        if (toRegisterCell == null) {
+            toRegisterCell = RWCell.of(this::getToRegister, this::setToRegister, Register.class);
+        }
+        return toRegisterCell;
     }
 
     @Override
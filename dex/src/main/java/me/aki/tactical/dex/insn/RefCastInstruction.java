@@ -22,6 +22,8 @@ public class RefCastInstruction implements Instruction {
      */
     private Register register;
 
+    private RWCell<Register> registerCell;
+
     public RefCastInstruction(RefType type, Register register) {
         this.type = type;
         this.register = register;
@@ -44,7 +46,10 @@ public class RefCastInstruction implements Instruction {
     }
 
     public RWCell<Register> getRegisterCell() {
-        return RWCell.of(this::getRegister, this::setRegister, Register.class);
+        if (registerCell == null) {
+            registerCell = RWCell.of(this::getRegister, this::setRegister, Register.class);
+        }
+        return registerCell;
     }
 
     @Override
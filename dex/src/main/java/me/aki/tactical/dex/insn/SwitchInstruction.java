@@ -25,6 +25,8 @@ public class SwitchInstruction implements BranchInstruction {
      */
     private LinkedHashMap<Integer, Instruction> branchTable;
 
+    private RWCell<Register> valueCell;
+
     public SwitchInstruction(Register value, LinkedHashMap<Integer, Instruction> branchTable) {
         this.value = value;
         this.branchTable = branchTable;
@@ -39,7 +41,10 @@ public class SwitchInstruction implements BranchInstruction {
     }
 
     public RWCell<Register> getValueCell() {
-        return RWCell.of(this::getValue, this::setValue, Register.class);
+        if (valueCell == null) {
+            valueCell = RWCell.of(this::getValue, this::setValue, Register.class);
+        }
+        return valueCell;
     }
 
     public LinkedHashMap<Integer, Instruction> getBranchTable() {
@@ -26,6 +26,9 @@ public abstract class AbstractBinaryLitMathInstruction implements Instruction {
      */
     private Register result;
 
+    private RWCell<Register> op1Cell;
+    private RWCell<Register> resultCell;
+
     public AbstractBinaryLitMathInstruction(Register op1, short op2, Register result) {
         this.op1 = op1;
         this.op2 = op2;
@@ -41,7 +44,10 @@ public abstract class AbstractBinaryLitMathInstruction implements Instruction {
     }
 
     public RWCell<Register> getOp1Cell() {
-        return RWCell.of(this::getOp1, this::setOp1, Register.class);
+        if (op1Cell == null) {
+            op1Cell = RWCell.of(this::getOp1, this::setOp1, Register.class);
+        }
+        return op1Cell;
     }
 
     public short getOp2() {
@@ -61,7 +67,10 @@ public abstract class AbstractBinaryLitMathInstruction implements Instruction {
     }
 
     public RWCell<Register> getResultCell() {
-        return RWCell.of(this::getResult, this::setResult, Register.class);
+        if (resultCell == null) {
+            resultCell = RWCell.of(this::getResult, this::setResult, Register.class);
+        }
+        return resultCell;
     }
 
     @Override
@@ -26,6 +26,10 @@ public abstract class AbstractBinaryMathInstruction implements Instruction {
      */
     private Register result;
 
+    private RWCell<Register> op1Cell;
+    private RWCell<Register> op2Cell;
+    private RWCell<Register> resultCell;
+
     public AbstractBinaryMathInstruction(Register op1, Register op2, Register result) {
         this.op1 = op1;
         this.op2 = op2;
@@ -41,7 +45,10 @@ public abstract class AbstractBinaryMathInstruction implements Instruction {
     }
 
     public RWCell<Register> getOp1Cell() {
-        return RWCell.of(this::getOp1, this::setOp1, Register.class);
+        if (op1Cell == null) {
+            op1Cell = RWCell.of(this::getOp1, this::setOp1, Register.class);
+        }
+        return op1Cell;
     }
 
     public Register getOp2() {
@@ -53,7 +60,10 @@ public abstract class AbstractBinaryMathInstruction implements Instruction {
     }
 
     public RWCell<Register> getOp2Cell() {
-        return RWCell.of(this::getOp2, this::setOp2, Register.class);
+        if (op2Cell == null) {
+            op2Cell = RWCell.of(this::getOp2, this::setOp2, Register.class);
+        }
+        return op2Cell;
     }
 
     public Register getResult() {
@@ -65,7 +75,10 @@ public abstract class AbstractBinaryMathInstruction implements Instruction {
     }
 
     public RWCell<Register> getResultCell() {
-        return RWCell.of(this::getResult, this::setResult, Register.class);
+        if (resultCell == null) {
+            resultCell = RWCell.of(this::getResult, this::setResult, Register.class);
+        }
+        return resultCell;
     }
 
     @Override
@@ -19,6 +19,8 @@ public abstract class InstanceInvoke extends ConcreteInvoke {
      */
     private Register instance;
 
+    private RWCell<Register> instanceCell;
+
     public InstanceInvoke(MethodRef method, Register instance, List<Register> arguments) {
         super(method, arguments);
         this.instance = instance;
@@ -33,7 +35,10 @@ public abstract class InstanceInvoke extends ConcreteInvoke {
     }
 
     public RWCell<Register> getInstanceCell() {
-        return RWCell.of(this::getInstance, this::setInstance, Register.class);
+        if (instanceCell == null) {
+            instanceCell = RWCell.of(this::getInstance, this::setInstance, Register.class);
+        }
+        return instanceCell;
     }
 
     @Override
@@ -0,0 +1,619 @@
+package me.aki.tactical.disassembler;
+
+import me.aki.tactical.conversion.Asm2Stack;
+import me.aki.tactical.conversion.Smali2Dex;
+import me.aki.tactical.conversion.Stack2Ref;
+import me.aki.tactical.conversion.smalidex.DexUtils;
+import me.aki.tactical.core.Classfile;
+import me.aki.tactical.core.TypePool;
+import me.aki.tactical.core.Path;
+import me.aki.tactical.core.textify.ClassTextifier;
+import me.aki.tactical.core.util.BoundedTaskQueue;
+import me.aki.tactical.dex.textifier.DexBodyTextifier;
+import me.aki.tactical.ref.textifier.RefBodyTextifier;
+import me.aki.tactical.stack.textify.StackBodyTextifier;
+import org.jf.dexlib2.Opcodes;
+import org.jf.dexlib2.dexbacked.DexBackedDexFile;
+import org.jf.dexlib2.iface.ClassDef;
+import org.objectweb.asm.ClassReader;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Textify all classes of a jar file, a directory or a <tt>*.dex</tt> file into a directory.
+ *
+ * The output directory mirrors the packages of the classes: the class <tt>a/b/C.class</tt>
+ * is textified into <tt>a/b/C.txt</tt>. Jvm classes are textified in the stack or ref intermediation,
+ * classes of dex files in the dex intermediation.
+ *
+ * The classes are textified concurrently on an {@link ExecutorService} and each text is streamed into its file.
+ * At most {@link #getMaxInFlight()} classes are held in memory at once.
+ * A class that cannot be textified does not abort the disassembling, its failure is reported in the {@link Result}.
+ *
+ * In {@link #isIncremental() incremental} mode the hash of the input of each class is stored in the output directory.
+ * Classes whose input did not change since the last run are skipped, unless the format, the api level
+ * or the version of the disassembler changed. Texts of classes that could not be textified are deleted.
+ * Texts that the previous run recorded in the {@link #HASH_FILE} are deleted if their class is no longer
+ * part of the input. Other files in the output directory are never deleted.
+ */
+public class Disassembler {
+    private static final String CLASS_SUFFIX = ".class";
+    private static final String DEX_SUFFIX = ".dex";
+    private static final String TEXT_SUFFIX = ".txt";
+
+    /**
+     * Name of the file in the output directory that stores the input hashes of all textified classes.
+     */
+    public static final String HASH_FILE = ".tactical-hashes";
+
+    /**
+     * Revision of the texts. It must be incremented whenever the textifiers print classes differently,
+     * so texts of an older revision are not considered up to date.
+     */
+    private static final int TEXT_REVISION = 1;
+
+    /**
+     * The intermediation that jvm classes get textified in.
+     */
+    public enum Format {
+        STACK, REF
+    }
+
+    /**
+     * The executor that textifies the classes.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Max amount of classes that are submitted to the executor but not yet written.
+     */
+    private final int maxInFlight;
+
+    /**
+     * The intermediation that jvm classes get textified in.
+     */
+    private final Format format;
+
+    /**
+     * Skip classes whose input did not change since the last run.
+     */
+    private final boolean incremental;
+
+    /**
+     * Api level of disassembled <tt>*.dex</tt> files.
+     */
+    private final Opcodes opcodes;
+
+    private final ClassTextifier stackTextifier = new ClassTextifier(new StackBodyTextifier());
+    private final ClassTextifier refTextifier = new ClassTextifier(new RefBodyTextifier());
+    private final ClassTextifier dexTextifier = new ClassTextifier(new DexBodyTextifier());
+
+    /**
+     * Textify the classes on the {@link ForkJoinPool#commonPool() common pool}.
+     *
+     * @param format intermediation that jvm classes get textified in
+     * @param incremental skip classes whose input did not change since the last run
+     */
+    public Disassembler(Format format, boolean incremental) {
+        this(ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism() * 4, format, incremental, Opcodes.getDefault());
+    }
+
+    /**
+     * @param executor executor that textifies the classes
+     * @param maxInFlight max amount of classes held in memory at once
+     * @param format intermediation that jvm classes get textified in
+     * @param incremental skip classes whose input did not change since the last run
+     * @param opcodes api level of disassembled <tt>*.dex</tt> files
+     */
+    public Disassembler(ExecutorService executor, int maxInFlight, Format format, boolean incremental, Opcodes opcodes) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive");
+        }
+
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+        this.format = format;
+        this.incremental = incremental;
+        this.opcodes = opcodes;
+    }
+
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public Opcodes getOpcodes() {
+        return opcodes;
+    }
+
+    /**
+     * Textify all classes of a jar file, directory or <tt>*.dex</tt> file.
+     *
+     * @param input jar file, directory or <tt>*.dex</tt> file
+     * @param output directory that the texts are written to
+     * @return the outcome of the disassembling
+     * @throws IOException reading the input or writing the texts failed
+     */
+    public Result disassemble(File input, File output) throws IOException {
+        if (input.isDirectory()) {
+            return disassembleDirectory(input, output);
+        } else if (input.getName().endsWith(DEX_SUFFIX)) {
+            return disassembleDex(input, output);
+        } else {
+            return disassembleJar(input, output);
+        }
+    }
+
+    /**
+     * Textify all classes of a jar file.
+     *
+     * @param input the jar to read
+     * @param output directory that the texts are written to
+     * @return the outcome of the disassembling
+     * @throws IOException reading the jar or writing the texts failed
+     */
+    public Result disassembleJar(File input, File output) throws IOException {
+        try (ZipInputStream in = new ZipInputStream(new FileInputStream(input));
+             Run run = new Run(output.toPath())) {
+
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                String name = entry.getName();
+                if (!entry.isDirectory() && name.endsWith(CLASS_SUFFIX)) {
+                    run.submitJvmClass(name, BoundedTaskQueue.readFully(in));
+                }
+            }
+
+            return run.finish();
+        }
+    }
+
+    /**
+     * Textify all classes within a directory.
+     *
+     * @param input the directory to read
+     * @param output directory that the texts are written to
+     * @return the outcome of the disassembling
+     * @throws IOException reading the classes or writing the texts failed
+     */
+    public Result disassembleDirectory(File input, File output) throws IOException {
+        java.nio.file.Path root = input.toPath();
+
+        List<java.nio.file.Path> files;
+        try (Stream<java.nio.file.Path> stream = Files.walk(root)) {
+            files = stream.filter(Files::isRegularFile)
+                    .filter(file -> file.getFileName().toString().endsWith(CLASS_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+
+        try (Run run = new Run(output.toPath())) {
+            for (java.nio.file.Path file : files) {
+                String name = root.relativize(file).toString().replace(File.separatorChar, '/');
+                run.submitJvmClass(name, Files.readAllBytes(file));
+            }
+            return run.finish();
+        }
+    }
+
+    /**
+     * Textify all classes of a <tt>*.dex</tt> file.
+     *
+     * The classes of a dex file cannot be hashed individually,
+     * so in incremental mode either all or none of its classes are textified.
+     *
+     * @param input the <tt>*.dex</tt> file to read
+     * @param output directory that the texts are written to
+     * @return the outcome of the disassembling
+     * @throws IOException reading the dex file or writing the texts failed
+     */
+    public Result disassembleDex(File input, File output) throws IOException {
+        byte[] bytes = Files.readAllBytes(input.toPath());
+        String hash = incremental ? hash(bytes) : null;
+        DexBackedDexFile dexFile = new DexBackedDexFile(opcodes, bytes);
+
+        try (Run run = new Run(output.toPath())) {
+            for (ClassDef classDef : dexFile.getClasses()) {
+                Path path = DexUtils.parseObjectDescriptor(classDef.getType());
+                String name = String.join("/", path.getPackage()) + (path.getPackage().isEmpty() ? "" : "/") + path.getName();
+                run.submit(name + TEXT_SUFFIX, hash, () -> Smali2Dex.convertClass(classDef), dexTextifier);
+            }
+            return run.finish();
+        }
+    }
+
+    /**
+     * Textify one class into its file. This is invoked concurrently for several classes.
+     *
+     * If the class cannot be read or textified, its file is deleted,
+     * so neither a partial nor an outdated text is left behind.
+     *
+     * @param file the file to write
+     * @param supplier reads the class
+     * @param textifier textifies the class
+     * @throws IOException writing the file failed
+     */
+    private void textify(java.nio.file.Path file, ClassSupplier supplier, ClassTextifier textifier) throws IOException {
+        boolean written = false;
+        try {
+            Classfile classfile = supplier.load();
+
+            Files.createDirectories(file.getParent());
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                textifier.print(writer, classfile);
+                written = true;
+            }
+        } finally {
+            if (!written) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Identifies everything besides the input of a class that its text depends on.
+     * Stored hashes are only valid if they were computed with the same settings.
+     *
+     * @return a line describing the settings of this disassembler
+     */
+    private String getHashHeader() {
+        String version = Disassembler.class.getPackage().getImplementationVersion();
+        return "# revision=" + TEXT_REVISION +
+                " version=" + (version == null ? "unknown" : version) +
+                " format=" + format +
+                " api=" + opcodes.api +
+                " art=" + opcodes.artVersion;
+    }
+
+    private Classfile loadJvmClass(byte[] bytes) {
+        Classfile classfile = Asm2Stack.convert(new ClassReader(bytes));
+        if (format == Format.REF) {
+            Stack2Ref.convert(classfile);
+        }
+        return classfile;
+    }
+
+    private static String hash(byte[] bytes) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+
+        byte[] hash = digest.digest(bytes);
+        char[] chars = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            chars[i * 2] = Character.forDigit((hash[i] >> 4) & 0xF, 16);
+            chars[i * 2 + 1] = Character.forDigit(hash[i] & 0xF, 16);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Lazily read a class, so the conversion happens on the executor.
+     */
+    @FunctionalInterface
+    private interface ClassSupplier {
+        Classfile load();
+    }
+
+    /**
+     * State of one invocation of the disassembler.
+     *
+     * Closing it cancels all classes that are still being textified.
+     */
+    private class Run implements AutoCloseable {
+        /**
+         * The output directory.
+         */
+        private final java.nio.file.Path root;
+
+        /**
+         * Input hashes of the classes of the last run by the name of their text file.
+         * It is empty if the last run used other settings.
+         */
+        private final Map<String, String> previousHashes;
+
+        /**
+         * Names of all text files recorded by the last incremental run, regardless of its settings.
+         */
+        private final Set<String> previousNames;
+
+        /**
+         * Input hashes of all classes that are up to date after this run by the name of their text file.
+         */
+        private final Map<String, String> hashes = new TreeMap<>();
+
+        /**
+         * Names of the text files of all classes of the input.
+         */
+        private final Set<String> names = new HashSet<>();
+
+        /**
+         * Shares equal names and types among all classes of this run.
+         */
+        private final TypePool typePool = new TypePool();
+
+        private final BoundedTaskQueue<Outcome> pending = new BoundedTaskQueue<>(maxInFlight);
+        private final List<Failure> failures = new ArrayList<>();
+        private int textifiedCount = 0;
+        private int skippedCount = 0;
+
+        private Run(java.nio.file.Path root) throws IOException {
+            this.root = root;
+
+            if (incremental) {
+                Map<String, String> recordedHashes = new HashMap<>();
+                boolean sameSettings = readHashes(recordedHashes);
+                this.previousNames = recordedHashes.keySet();
+                this.previousHashes = sameSettings ? recordedHashes : Map.of();
+            } else {
+                this.previousNames = Set.of();
+                this.previousHashes = Map.of();
+            }
+        }
+
+        private void submitJvmClass(String name, byte[] bytes) throws IOException {
+            String textName = name.substring(0, name.length() - CLASS_SUFFIX.length()) + TEXT_SUFFIX;
+            ClassTextifier textifier = format == Format.REF ? refTextifier : stackTextifier;
+            submit(textName, incremental ? hash(bytes) : null, () -> loadJvmClass(bytes), textifier);
+        }
+
+        /**
+         * Textify a class unless its text is up to date.
+         *
+         * @param name path of the text file relative to the output directory separated by slashes
+         * @param hash hash of the input of the class or null if not in incremental mode
+         * @param supplier reads the class
+         * @param textifier textifies the class
+         * @throws IOException writing a previously submitted class failed
+         */
+        private void submit(String name, String hash, ClassSupplier supplier, ClassTextifier textifier) throws IOException {
+            java.nio.file.Path file = root.resolve(name).normalize();
+            if (!file.startsWith(root.normalize())) {
+                failures.add(new Failure(name, new IllegalArgumentException("Class is outside of the output directory")));
+                return;
+            }
+
+            names.add(name);
+            if (incremental && hash.equals(previousHashes.get(name)) && Files.exists(file)) {
+                hashes.put(name, hash);
+                skippedCount++;
+                return;
+            }
+
+            pending.add(executor.submit(() -> {
+                try {
+                    textify(file, () -> typePool.within(supplier::load), textifier);
+                    return new Outcome(name, hash, null);
+                } catch (RuntimeException | AssertionError | StackOverflowError e) {
+                    return new Outcome(name, hash, new Failure(name, e));
+                }
+            }));
+
+            while (pending.isFull()) {
+                handleOutcome(pending.next());
+            }
+        }
+
+        /**
+         * Wait for all submitted classes. In incremental mode delete the texts of the last run
+         * whose classes are no longer part of the input and store the hashes.
+         *
+         * @return the outcome of the disassembling
+         * @throws IOException writing a class or the hashes failed
+         */
+        private Result finish() throws IOException {
+            while (!pending.isEmpty()) {
+                handleOutcome(pending.next());
+            }
+
+            if (incremental) {
+                deleteStaleTexts();
+                writeHashes();
+            }
+
+            return new Result(textifiedCount, skippedCount, failures);
+        }
+
+        private void handleOutcome(Outcome outcome) {
+            if (outcome.failure != null) {
+                failures.add(outcome.failure);
+            } else {
+                textifiedCount++;
+                if (outcome.hash != null) {
+                    hashes.put(outcome.name, outcome.hash);
+                }
+            }
+        }
+
+        /**
+         * Delete the texts that the last run recorded in the hash file but that belong to no class of the input.
+         *
+         * @throws IOException deleting a file failed
+         */
+        private void deleteStaleTexts() throws IOException {
+            for (String name : previousNames) {
+                java.nio.file.Path file = root.resolve(name).normalize();
+                if (!names.contains(name) && name.endsWith(TEXT_SUFFIX) && file.startsWith(root.normalize())) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            pending.close();
+        }
+
+        /**
+         * Read the hashes stored by the last incremental run.
+         *
+         * @param hashes receives the hashes by the name of their text file
+         * @return were the hashes computed with the same settings as this run
+         * @throws IOException reading the hash file failed
+         */
+        private boolean readHashes(Map<String, String> hashes) throws IOException {
+            java.nio.file.Path file = root.resolve(HASH_FILE);
+            if (!Files.exists(file)) {
+                return false;
+            }
+
+            boolean sameSettings;
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                sameSettings = getHashHeader().equals(reader.readLine());
+
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int separator = line.indexOf(' ');
+                    if (separator > 0) {
+                        hashes.put(line.substring(separator + 1), line.substring(0, separator));
+                    }
+                }
+            }
+            return sameSettings;
+        }
+
+        private void writeHashes() throws IOException {
+            Files.createDirectories(root);
+            try (BufferedWriter writer = Files.newBufferedWriter(root.resolve(HASH_FILE), StandardCharsets.UTF_8)) {
+                writer.write(getHashHeader());
+                writer.newLine();
+                for (Map.Entry<String, String> entry : hashes.entrySet()) {
+                    writer.write(entry.getValue());
+                    writer.write(' ');
+                    writer.write(entry.getKey());
+                    writer.newLine();
+                }
+            }
+        }
+    }
+
+    /**
+     * The hash of a textified class and the failure that prevented its textification.
+     */
+    private static class Outcome {
+        private final String name;
+        private final String hash;
+        private final Failure failure;
+
+        private Outcome(String name, String hash, Failure failure) {
+            this.name = name;
+            this.hash = hash;
+            this.failure = failure;
+        }
+    }
+
+    /**
+     * A class that could not be textified.
+     */
+    public static class Failure {
+        /**
+         * Name of the text file of the class.
+         */
+        private final String name;
+
+        /**
+         * The exception thrown while textifying the class.
+         */
+        private final Throwable cause;
+
+        public Failure(String name, Throwable cause) {
+            this.name = name;
+            this.cause = cause;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Throwable getCause() {
+            return cause;
+        }
+
+        @Override
+        public String toString() {
+            return Failure.class.getSimpleName() + '{' +
+                    "name='" + name + '\'' +
+                    ", cause=" + cause +
+                    '}';
+        }
+    }
+
+    /**
+     * Outcome of the disassembling of a jar, directory or dex file.
+     */
+    public static class Result {
+        /**
+         * Amount of textified classes.
+         */
+        private final int textifiedCount;
+
+        /**
+         * Amount of classes that were skipped since their text is up to date.
+         */
+        private final int skippedCount;
+
+        /**
+         * All classes that could not be textified.
+         */
+        private final List<Failure> failures;
+
+        public Result(int textifiedCount, int skippedCount, List<Failure> failures) {
+            this.textifiedCount = textifiedCount;
+            this.skippedCount = skippedCount;
+            this.failures = Collections.unmodifiableList(failures);
+        }
+
+        public int getTextifiedCount() {
+            return textifiedCount;
+        }
+
+        public int getSkippedCount() {
+            return skippedCount;
+        }
+
+        public List<Failure> getFailures() {
+            return failures;
+        }
+
+        public boolean isSuccessful() {
+            return failures.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package me.aki.tactical.disassembler;
+
+import org.jf.dexlib2.Opcodes;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Command line front-end of the {@link Disassembler}.
+ */
+public class Main {
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: disassembler [options] <input> <output>",
+            "  <input>              jar file, directory or *.dex file",
+            "  <output>             directory that the texts get written to",
+            "Options:",
+            "  --ref                textify jvm classes in the ref instead of the stack intermediation",
+            "  --incremental        skip classes that did not change since the last run",
+            "  --threads <count>    amount of threads that textify classes",
+            "  --api <level>        android api level of *.dex files");
+
+    public static void main(String[] args) throws IOException {
+        Disassembler.Format format = Disassembler.Format.STACK;
+        boolean incremental = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Opcodes opcodes = Opcodes.getDefault();
+        List<String> files = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--ref":
+                        format = Disassembler.Format.REF;
+                        break;
+
+                    case "--incremental":
+                        incremental = true;
+                        break;
+
+                    case "--threads":
+                        threads = Integer.parseInt(args[++i]);
+                        if (threads < 1) {
+                            throw new IllegalArgumentException("Thread count must be positive");
+                        }
+                        break;
+
+                    case "--api":
+                        opcodes = Opcodes.forApi(Integer.parseInt(args[++i]));
+                        break;
+
+                    default:
+                        if (args[i].startsWith("--")) {
+                            throw new IllegalArgumentException("Unknown option " + args[i]);
+                        }
+                        files.add(args[i]);
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            exitWithUsage();
+        }
+
+        if (files.size() != 2) {
+            exitWithUsage();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Disassembler.Result result;
+        try {
+            Disassembler disassembler = new Disassembler(executor, threads * 4, format, incremental, opcodes);
+            result = disassembler.disassemble(new File(files.get(0)), new File(files.get(1)));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (Disassembler.Failure failure : result.getFailures()) {
+            System.err.println("Could not textify " + failure.getName() + ": " + failure.getCause());
+        }
+
+        System.out.println("Textified " + result.getTextifiedCount() + " classes, skipped " +
+                result.getSkippedCount() + " unchanged classes, " + result.getFailures().size() + " failures");
+
+        if (!result.isSuccessful()) {
+            System.exit(1);
+        }
+    }
+
+    private static void exitWithUsage() {
+        System.err.println(USAGE);
+        System.exit(2);
+    }
+}
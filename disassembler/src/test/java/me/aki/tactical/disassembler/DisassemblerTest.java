@@ -0,0 +1,179 @@
+package me.aki.tactical.disassembler;
+
+import me.aki.tactical.core.util.BoundedTaskQueue;
+import org.jf.dexlib2.Opcodes;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DisassemblerTest {
+    private ExecutorService executor;
+    private Path input;
+    private Path output;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        executor = Executors.newFixedThreadPool(2);
+        input = Files.createTempDirectory("tactical-input");
+        output = Files.createTempDirectory("tactical-output");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        executor.shutdownNow();
+        delete(input);
+        delete(output);
+    }
+
+    @Test
+    public void testIncrementalSkipsUnchangedClasses() throws IOException {
+        writeClass("a/A.class", A.class);
+        writeClass("a/B.class", B.class);
+
+        Disassembler.Result first = disassemble(Disassembler.Format.STACK, true);
+        assertEquals(2, first.getTextifiedCount());
+        assertEquals(0, first.getSkippedCount());
+        assertTrue(Files.exists(output.resolve("a/A.txt")));
+        assertTrue(Files.exists(output.resolve("a/B.txt")));
+
+        Disassembler.Result second = disassemble(Disassembler.Format.STACK, true);
+        assertEquals(0, second.getTextifiedCount());
+        assertEquals(2, second.getSkippedCount());
+
+        // only the changed class gets textified again
+        writeClass("a/B.class", A.class);
+        Disassembler.Result third = disassemble(Disassembler.Format.STACK, true);
+        assertEquals(1, third.getTextifiedCount());
+        assertEquals(1, third.getSkippedCount());
+        assertEquals(readText(output.resolve("a/A.txt")), readText(output.resolve("a/B.txt")));
+    }
+
+    @Test
+    public void testNonIncrementalTextifiesAllClasses() throws IOException {
+        writeClass("a/A.class", A.class);
+
+        disassemble(Disassembler.Format.STACK, true);
+        Disassembler.Result result = disassemble(Disassembler.Format.STACK, false);
+        assertEquals(1, result.getTextifiedCount());
+        assertEquals(0, result.getSkippedCount());
+    }
+
+    @Test
+    public void testFormatChangeInvalidatesHashes() throws IOException {
+        writeClass("a/A.class", A.class);
+        writeClass("a/B.class", B.class);
+
+        disassemble(Disassembler.Format.STACK, true);
+        String stackText = readText(output.resolve("a/A.txt"));
+
+        Disassembler.Result result = disassemble(Disassembler.Format.REF, true);
+        assertEquals(2, result.getTextifiedCount());
+        assertEquals(0, result.getSkippedCount());
+        assertNotEquals(stackText, readText(output.resolve("a/A.txt")));
+
+        // the hashes of the ref texts are stored again
+        assertEquals(2, disassemble(Disassembler.Format.REF, true).getSkippedCount());
+    }
+
+    @Test
+    public void testFailureIsReported() throws IOException {
+        writeClass("a/A.class", A.class);
+        writeClass("a/B.class", B.class);
+        disassemble(Disassembler.Format.STACK, true);
+
+        Files.write(input.resolve("a/B.class"), new byte[] { 1, 2, 3 });
+        Disassembler.Result result = disassemble(Disassembler.Format.STACK, true);
+        assertFalse(result.isSuccessful());
+        assertEquals(1, result.getFailures().size());
+        assertEquals("a/B.txt", result.getFailures().get(0).getName());
+        assertEquals(0, result.getTextifiedCount());
+        assertEquals(1, result.getSkippedCount());
+
+        // the outdated text is deleted and the class is not considered up to date
+        assertFalse(Files.exists(output.resolve("a/B.txt")));
+        assertEquals(1, disassemble(Disassembler.Format.STACK, true).getFailures().size());
+    }
+
+    @Test
+    public void testStaleTextsAreDeleted() throws IOException {
+        writeClass("a/A.class", A.class);
+        writeClass("a/B.class", B.class);
+        disassemble(Disassembler.Format.STACK, true);
+
+        Files.delete(input.resolve("a/B.class"));
+        Disassembler.Result result = disassemble(Disassembler.Format.STACK, true);
+        assertTrue(result.isSuccessful());
+        assertEquals(1, result.getSkippedCount());
+        assertTrue(Files.exists(output.resolve("a/A.txt")));
+        assertFalse(Files.exists(output.resolve("a/B.txt")));
+    }
+
+    @Test
+    public void testForeignFilesSurvive() throws IOException {
+        writeClass("a/A.class", A.class);
+        Files.write(output.resolve("notes.txt"), new byte[] { 1 });
+        Files.createDirectories(output.resolve("a"));
+        Files.write(output.resolve("a/notes.txt"), new byte[] { 2 });
+
+        disassemble(Disassembler.Format.STACK, false);
+        disassemble(Disassembler.Format.STACK, true);
+        disassemble(Disassembler.Format.REF, true);
+
+        assertTrue(Files.exists(output.resolve("a/A.txt")));
+        assertTrue(Files.exists(output.resolve("notes.txt")));
+        assertTrue(Files.exists(output.resolve("a/notes.txt")));
+    }
+
+    private Disassembler.Result disassemble(Disassembler.Format format, boolean incremental) throws IOException {
+        Disassembler disassembler = new Disassembler(executor, 2, format, incremental, Opcodes.getDefault());
+        return disassembler.disassemble(input.toFile(), output.toFile());
+    }
+
+    private void writeClass(String name, Class<?> clazz) throws IOException {
+        String resource = clazz.getName().substring(clazz.getName().lastIndexOf('.') + 1) + ".class";
+        try (InputStream in = clazz.getResourceAsStream(resource)) {
+            Path file = input.resolve(name);
+            Files.createDirectories(file.getParent());
+            Files.write(file, BoundedTaskQueue.readFully(in));
+        }
+    }
+
+    private String readText(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+
+    private void delete(Path directory) throws IOException {
+        try (Stream<Path> stream = Files.walk(directory)) {
+            List<Path> files = stream.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    public static class A {
+        public int add(int a, int b) {
+            return a + b;
+        }
+    }
+
+    public static class B {
+        public String describe(Object o) {
+            return o == null ? "null" : o.toString();
+        }
+    }
+}
@@ -2,6 +2,9 @@ package me.aki.tactical.core.parser
 
 import scala.collection.JavaConverters._
 import java.util.Optional
+import java.util.concurrent.Executor
+
+import scala.collection.mutable.ArrayBuffer
 
 import fastparse.all._
 import me.aki.tactical.core._
@@ -9,7 +12,32 @@ import me.aki.tactical.core.Classfile.{EnclosingMethod, Version}
 import me.aki.tactical.core.annotation.Annotation
 import me.aki.tactical.core.typeannotation.ClassTypeAnnotation
 
-class ClassfileParser(bodyParser: BodyParser) extends Parser[Classfile] {
+/**
+  * Parse a class.
+  *
+  * Each member of the class is followed by a cut, so input before the member that is currently read can be dropped.
+  *
+  * @param bodyExecutor if present, method bodies are parsed concurrently on it while the rest of the class is read
+  */
+class ClassfileParser(bodyParser: BodyParser, bodyExecutor: Option[Executor]) extends Parser[Classfile] {
+  def this(bodyParser: BodyParser) = this(bodyParser, None)
+
+  def this(bodyParser: BodyParser, bodyExecutor: Executor) = this(bodyParser, Some(bodyExecutor))
+
+  /** Bodies that were submitted by the current parse of each thread */
+  private val submittedBodies = new ThreadLocal[ArrayBuffer[DeferredBodies]]
+
+  override protected def parsing(parse: => Classfile): Classfile = {
+    val previous = submittedBodies.get
+    val bodies = new ArrayBuffer[DeferredBodies]
+    submittedBodies.set(bodies)
+    try parse catch {
+      case e: Throwable =>
+        bodies.foreach(_.cancel())
+        throw e
+    } finally submittedBodies.set(previous)
+  }
+
   val parser: P[Classfile] = P {
     val pkg = "package" ~ WS ~ Literal.rep(min = 1, sep = WS.? ~ "." ~ WS.?) ~ WS.? ~ ";"
     val version = "version" ~ WS ~ int ~ WS.? ~ "." ~ WS.? ~ int ~ WS.? ~ ";"
@@ -45,8 +73,16 @@ class ClassfileParser(bodyParser: BodyParser) extends Parser[Classfile] {
 
         prefixes.foreach(_ apply classfile)
 
-        for (contents ← new ClassContentParser(classfile, bodyParser).rep(sep = WS.?) ~ WS.? ~ "}") yield {
+        val deferredBodies = bodyExecutor.map { executor =>
+          val bodies = new DeferredBodies(executor)
+          Option(submittedBodies.get).foreach(_ += bodies)
+          bodies
+        }
+
+        val member = new ClassContentParser(classfile, bodyParser, deferredBodies) ~/ Pass
+        for (contents ← member.rep(sep = WS.?) ~ WS.? ~ "}") yield {
           contents.foreach(_ apply classfile)
+          deferredBodies.foreach(_.complete())
           classfile
         }
     }
@@ -223,14 +259,14 @@ object ClassContentParser {
     } opaque "<field>"
   }
 
-  class MethodContentParser(classfile: Classfile, bodyParser: BodyParser) extends Parser[ClassContent.MethodContent] {
+  class MethodContentParser(classfile: Classfile, bodyParser: BodyParser, deferredBodies: Option[DeferredBodies] = None) extends Parser[ClassContent.MethodContent] {
     val parser: P[ClassContent.MethodContent] = P {
-      for (method ← new MethodParser(classfile, bodyParser)) yield new ClassContent.MethodContent(method)
+      for (method ← new MethodParser(classfile, bodyParser, deferredBodies)) yield new ClassContent.MethodContent(method)
     } opaque "<method>"
   }
 }
 
-class ClassContentParser(classfile: Classfile, bodyParser: BodyParser) extends Parser[ClassContent] {
+class ClassContentParser(classfile: Classfile, bodyParser: BodyParser, deferredBodies: Option[DeferredBodies] = None) extends Parser[ClassContent] {
   import ClassContentParser._
 
   val parser: P[ClassContent] = P {
@@ -240,6 +276,6 @@ class ClassContentParser(classfile: Classfile, bodyParser: BodyParser) extends P
       NestHostContentParser |
       NestMemberContentParser |
       FieldContentParser |
-      new MethodContentParser(classfile, bodyParser)
+      new MethodContentParser(classfile, bodyParser, deferredBodies)
   }
 }
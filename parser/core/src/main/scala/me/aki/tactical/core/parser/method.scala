@@ -1,7 +1,10 @@
 package me.aki.tactical.core.parser
 
 import java.util.{ArrayList, Optional, List => JList, Set => JSet}
+import java.util.concurrent.{CompletableFuture, CompletionException, Executor}
+import java.util.function.Supplier
 import scala.collection.JavaConverters._
+import scala.collection.mutable.ArrayBuffer
 import fastparse.all._
 import me.aki.tactical.core._
 import me.aki.tactical.core.`type`.Type
@@ -23,7 +26,12 @@ trait BodyParser {
   def bodyParser(classfile: Classfile, method: Method, ctx: Ctx): P[Body]
 }
 
-class MethodParser[B <: BodyParser](classfile: Classfile, bodyParser: B) extends Parser[Method] {
+/**
+  * Parse a method.
+  *
+  * @param deferredBodies if present, bodies are only read as text and parsed by the [[DeferredBodies]]
+  */
+class MethodParser[B <: BodyParser](classfile: Classfile, bodyParser: B, deferredBodies: Option[DeferredBodies] = None) extends Parser[Method] {
   private type MethodDescriptor = (JSet[Method.Flag], Optional[Type], String, (bodyParser.type#Ctx, List[Type]), Option[Seq[Path]])
 
   def methodParser(descriptorParser: P[MethodDescriptor], contentParser: (Method, bodyParser.type, bodyParser.type#Ctx) => P[MethodContent]) = P {
@@ -41,6 +49,11 @@ class MethodParser[B <: BodyParser](classfile: Classfile, bodyParser: B) extends
       }
   }
 
+  private def bodyFormParser(method: Method, bp: bodyParser.type, ctx: bodyParser.type#Ctx): P[MethodContent] = deferredBodies match {
+    case Some(bodies) => new MethodContentParser.DeferredBodyFormParser[bp.type#Ctx, bp.type](classfile, method, bp, ctx, bodies)
+    case None => new MethodContentParser.BodyFormParser[bp.type#Ctx, bp.type](classfile, method, bp, ctx)
+  }
+
   val parser: P[Method] = {
     val throws = "throws" ~ WS ~ PathParser.rep(min = 1, sep = WS.? ~ "," ~ WS.?)
     val void = Optional.empty[Type]
@@ -57,9 +70,9 @@ class MethodParser[B <: BodyParser](classfile: Classfile, bodyParser: B) extends
       for ((flags, returnType, name, params, exceptions) ← MethodFlagParser ~ ReturnTypeParser ~ WS ~ Literal ~ WS.? ~ "(" ~ bodyParser.parameterParser ~ ")" ~ WS.? ~ throws.? ~ WS.?)
         yield (flags, returnType, name, params, exceptions)
 
-    methodParser(staticInitializerForm, (method, bp, ctx) => new MethodContentParser.BodyFormParser[bp.type#Ctx, bp.type](classfile, method, bp, ctx)) |
-      methodParser(constructorForm, (method, bp, ctx) => new MethodContentParser.BodyFormParser[bp.type#Ctx, bp.type](classfile, method, bp, ctx)) |
-      methodParser(methodForm, (method, bp, ctx) => MethodContentParser.AbstractFormParser | MethodContentParser.AnnotationFormParser | new MethodContentParser.BodyFormParser[bp.type#Ctx, bp.type](classfile, method, bp, ctx))
+    methodParser(staticInitializerForm, bodyFormParser) |
+      methodParser(constructorForm, bodyFormParser) |
+      methodParser(methodForm, (method, bp, ctx) => MethodContentParser.AbstractFormParser | MethodContentParser.AnnotationFormParser | bodyFormParser(method, bp, ctx))
   }
 }
 
@@ -76,6 +89,10 @@ object MethodContent {
   class BodyForm(body: Body) extends MethodContent {
     def apply(method: Method) = method.setBody(Optional.of(body))
   }
+
+  class DeferredBodyForm(bodies: DeferredBodies, parseBody: () => Body) extends MethodContent {
+    def apply(method: Method) = bodies.add(method, parseBody)
+  }
 }
 
 object MethodContentParser {
@@ -95,6 +112,68 @@ object MethodContentParser {
       for (body ← "{" ~ WS.? ~ bp.bodyParser(classfile, method, ctx) ~ WS.? ~ "}")
         yield new MethodContent.BodyForm(body)
   }
+
+  /** Read the text of a body, it gets parsed by the [[DeferredBodies]] */
+  class DeferredBodyFormParser[C, B <: BodyParser { type Ctx = C }](classfile: Classfile, method: Method, bp: B, ctx: C, bodies: DeferredBodies) extends Parser[MethodContent.DeferredBodyForm] {
+    val parser: P[MethodContent.DeferredBodyForm] =
+      for (text ← "{" ~ BlockContentParser.! ~ "}") yield new MethodContent.DeferredBodyForm(bodies, () =>
+        (WS.? ~ bp.bodyParser(classfile, method, ctx) ~ WS.? ~ End).parse(text).get.value)
+  }
+}
+
+/**
+  * Skip the content of a block up to its closing brace.
+  *
+  * Nested blocks and string, char or escaped literals may contain braces.
+  */
+object BlockContentParser extends Parser[Unit] {
+  val parser: P[Unit] = P {
+    val text = CharsWhile(c => c != '{' && c != '}' && c != '"' && c != '`' && c != '\'')
+    def quoted(quote: Char) = P {
+      quote.toString ~ ("\\" ~ AnyChar | CharPred(c => c != quote && c != '\\')).rep ~ quote.toString
+    }
+    val char = P { "'" ~ ("\\" ~ AnyChar ~ CharsWhile(_ != '\'', min = 0) | AnyChar) ~ "'" }
+    val block = P { "{" ~ parser ~ "}" }
+
+    (text | quoted('"') | quoted('`') | char | block).rep
+  }
+}
+
+/**
+  * Method bodies that are parsed concurrently on an executor.
+  *
+  * Each body is parsed as soon as its text has been read,
+  * the parsed bodies are assigned to their methods by [[complete]].
+  * If the class cannot be parsed, the bodies that are not yet parsed get [[cancel cancelled]].
+  */
+class DeferredBodies(executor: Executor) {
+  private val pending = new ArrayBuffer[(Method, CompletableFuture[Body])]
+
+  def add(method: Method, parseBody: () => Body): Unit = {
+    val future = CompletableFuture.supplyAsync(new Supplier[Body] {
+      override def get(): Body = parseBody()
+    }, executor)
+
+    pending += ((method, future))
+  }
+
+  /** Wait for all bodies and assign them to their methods, the other bodies are cancelled if one fails */
+  def complete(): Unit = {
+    try {
+      for ((method, future) ← pending) {
+        val body = try future.join() catch {
+          case e: CompletionException => throw e.getCause
+        }
+        method.setBody(Optional.of(body))
+      }
+    } finally cancel()
+  }
+
+  /** Cancel all bodies that were not yet parsed */
+  def cancel(): Unit = {
+    pending.foreach(_._2.cancel(false))
+    pending.clear()
+  }
 }
 
 trait MethodPrefix extends (Method => Unit)
@@ -1,14 +1,44 @@
 package me.aki.tactical.core
 
-import fastparse.all._
+import java.io.Reader
 
-import scala.util.Try
+import fastparse.all._
+import fastparse.core.Parsed
 
 package object parser {
   trait Parser[T] {
     def parser() : P[T]
 
-    def parse(string: String): T = parser().parse(string).get.value
+    def parse(string: String): T = parsing(parser().parse(string).get.value)
+
+    /**
+      * Parse an input that is read in chunks.
+      *
+      * Chunks are only retained up to the last cut (`~/`) of the grammar, behind which the parser cannot backtrack.
+      * E.g. the [[ClassfileParser]] cuts behind each member of a class.
+      */
+    def parse(chunks: Iterator[String]): T = parsing(parser().parseIterator(chunks) match {
+      case Parsed.Success(value, _) => value
+      case failure: Parsed.Failure[_, _] =>
+        throw new IllegalArgumentException(s"Expected ${failure.lastParser} at index ${failure.index}")
+    })
+
+    /** Parse the text of a reader */
+    def parse(reader: Reader): T = parse(readChunks(reader))
+
+    /**
+      * Run one parse of this parser.
+      *
+      * Parsers may override it to release resources acquired while parsing if the parse fails.
+      */
+    protected def parsing(parse: => T): T = parse
+  }
+
+  private val ChunkSize = 8192
+
+  private def readChunks(reader: Reader): Iterator[String] = {
+    val buffer = new Array[Char](ChunkSize)
+    Iterator.continually(reader.read(buffer)).takeWhile(_ >= 0).map(new String(buffer, 0, _))
   }
 
   val boolean = P {
@@ -25,12 +55,43 @@ package object parser {
     "-".? ~ num ~ (("e" | "E") ~ integerNumber).?
   } opaque "<floating-point number>"
 
-  val byte: P[Byte] = for (byte ← integerNumber.! if Try(byte.toByte).isSuccess) yield byte.toByte
-  val short: P[Short] = for (short ← integerNumber.! if Try(short.toShort).isSuccess) yield short.toShort
-  val int: P[Int] = for (int ← integerNumber.! if Try(int.toInt).isSuccess) yield int.toInt
-  val long: P[Long] = for (long ← integerNumber.! if Try(long.toLong).isSuccess) yield long.toLong
-  val float: P[Float] = for (float ← floatingNumber.! if Try(float.toFloat).isSuccess) yield float.toFloat
-  val double: P[Double] = for (double ← floatingNumber.! if Try(double.toDouble).isSuccess) yield double.toDouble
+  /**
+    * Convert a decimal integer without throwing exceptions.
+    *
+    * @param number the optional minus sign and digits of the number
+    * @return the value or None if it is outside of the range
+    */
+  private def parseIntegral(number: String, min: Long, max: Long): Option[Long] = {
+    val negative = number.charAt(0) == '-'
+
+    // Accumulate negatively, since the negative range is larger
+    val limit = if (negative) min else -max
+    val multiplyLimit = limit / 10
+    var value = 0L
+    var i = if (negative) 1 else 0
+    while (i < number.length) {
+      val digit = number.charAt(i) - '0'
+      if (value < multiplyLimit) return None
+      value *= 10
+      if (value < limit + digit) return None
+      value -= digit
+      i += 1
+    }
+
+    Some(if (negative) value else -value)
+  }
+
+  private def integral(min: Long, max: Long): P[Long] =
+    for (value ← integerNumber.!.map(parseIntegral(_, min, max)) if value.isDefined) yield value.get
+
+  val byte: P[Byte] = integral(Byte.MinValue, Byte.MaxValue).map(_.toByte)
+  val short: P[Short] = integral(Short.MinValue, Short.MaxValue).map(_.toShort)
+  val int: P[Int] = integral(Int.MinValue, Int.MaxValue).map(_.toInt)
+  val long: P[Long] = integral(Long.MinValue, Long.MaxValue)
+
+  // Every number matched by the grammar is a valid java floating-point literal
+  val float: P[Float] = floatingNumber.!.map(_.toFloat)
+  val double: P[Double] = floatingNumber.!.map(_.toDouble)
 
   /** A parser that maps a string to a value */
   class StringParser[T](string: String, value: => T) extends Parser[T] {
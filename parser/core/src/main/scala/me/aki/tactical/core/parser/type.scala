@@ -116,4 +116,5 @@ object InsnTypeParser {
   val ilfd = P { i | l | f | d }
   val ilfdref = P { i | l | f | d | ref }
   val bscilfd = P { b | s | c | i | l | f | d }
+  val bscilfdref = P { b | s | c | i | l | f | d | ref }
 }
@@ -1,14 +1,19 @@
 package me.aki.tactical.core.parser.test
 
+import java.io.StringReader
 import java.util.{Optional, Set => JSet}
+import java.util.concurrent.{Executor, ForkJoinPool}
+import java.util.concurrent.atomic.AtomicInteger
 
 import me.aki.tactical.core.Classfile.InnerClass
 import me.aki.tactical.core.annotation.Annotation
 
 import scala.collection.JavaConverters._
+import scala.collection.mutable.ArrayBuffer
 import me.aki.tactical.core._
 import me.aki.tactical.core.`type`._
-import me.aki.tactical.core.parser.ClassfileParser
+import fastparse.all._
+import me.aki.tactical.core.parser.{BodyParser, ClassfileParser}
 import me.aki.tactical.core.typeannotation._
 import me.aki.tactical.core.typeannotation.TargetType.Extends
 import me.aki.tactical.core.typeannotation.TypePath.Kind
@@ -246,4 +251,121 @@ class ClassfileTest extends FlatSpec with Matchers {
     }
     classfile.getMethods shouldEqual List(new Method("foo", Nil.asJava, Optional.empty[Type])).asJava
   }
-}
\ No newline at end of file
+
+  /** Parses any body into its text */
+  object TextBodyParser extends BodyParser {
+    case class TextBody(text: String) extends Body
+
+    override type Ctx = DummyBodyParser.Ctx
+
+    def staticInitializerCtx = DummyBodyParser.staticInitializerCtx
+    def parameterParser = DummyBodyParser.parameterParser
+    def bodyParser(classfile: Classfile, method: Method, ctx: Ctx): P[Body] =
+      for (text ← AnyChar.rep.!) yield TextBody(text.trim)
+  }
+
+  it should "parse method bodies on an executor" in {
+    val parser = new ClassfileParser(TextBodyParser, ForkJoinPool.commonPool())
+    val classfile = parser.parse {
+      """package com.example;
+        |version 54.0;
+        |
+        |class Foo {
+        |  void foo() { a }
+        |  void bar();
+        |  static { b }
+        |}
+      """.stripMargin
+    }
+
+    classfile.getMethods.asScala.map(_.getBody) shouldEqual
+      List(Optional.of(TextBodyParser.TextBody("a")), Optional.empty, Optional.of(TextBodyParser.TextBody("b")))
+  }
+
+  it should "skip braces within literals of deferred bodies" in {
+    val parser = new ClassfileParser(TextBodyParser, ForkJoinPool.commonPool())
+    val classfile = parser.parse {
+      """package com.example;
+        |version 54.0;
+        |
+        |class Foo {
+        |  void foo() { a { "}" `}` '}' '\'' } }
+        |}
+      """.stripMargin
+    }
+
+    classfile.getMethods.get(0).getBody shouldEqual
+      Optional.of(TextBodyParser.TextBody("a { \"}\" `}` '}' '\\'' }"))
+  }
+
+  it should "parse a class from a reader" in {
+    val classfile = classParser.parse(new StringReader(
+      """package com.example;
+        |version 54.0;
+        |
+        |class Foo {
+        |  void foo() {}
+        |}
+      """.stripMargin))
+
+    classfile.getName shouldEqual Path.of("com", "example", "Foo")
+    classfile.getMethods.get(0).getBody.isPresent shouldEqual true
+  }
+
+  it should "parse a class from small chunks" in {
+    val text =
+      """package com.example;
+        |version 54.0;
+        |
+        |class Foo {
+        |  int i;
+        |  void foo() { a }
+        |  static { b }
+        |}
+      """.stripMargin
+
+    val parser = new ClassfileParser(TextBodyParser, ForkJoinPool.commonPool())
+    val classfile = parser.parse(text.grouped(3))
+
+    classfile.getFields shouldEqual List(new Field("i", IntType.getInstance)).asJava
+    classfile.getMethods.asScala.map(_.getBody) shouldEqual
+      List(Optional.of(TextBodyParser.TextBody("a")), Optional.of(TextBodyParser.TextBody("b")))
+  }
+
+  it should "cancel deferred bodies if the class cannot be parsed" in {
+    val tasks = new ArrayBuffer[Runnable]
+    val executor = new Executor {
+      override def execute(task: Runnable): Unit = tasks += task
+    }
+
+    val parsedBodies = new AtomicInteger
+    val countingBodyParser = new BodyParser {
+      override type Ctx = TextBodyParser.Ctx
+
+      def staticInitializerCtx = TextBodyParser.staticInitializerCtx
+      def parameterParser = TextBodyParser.parameterParser
+      def bodyParser(classfile: Classfile, method: Method, ctx: Ctx): P[Body] =
+        for (body ← TextBodyParser.bodyParser(classfile, method, ctx)) yield {
+          parsedBodies.incrementAndGet()
+          body
+        }
+    }
+
+    val parser = new ClassfileParser(countingBodyParser, executor)
+    an [Exception] should be thrownBy parser.parse {
+      """package com.example;
+        |version 54.0;
+        |
+        |class Foo {
+        |  void foo() { a }
+        |  void bar() { b }
+        |  !
+        |}
+      """.stripMargin
+    }
+
+    tasks.size shouldEqual 2
+    tasks.foreach(_.run())
+    parsedBodies.get shouldEqual 0
+  }
+}
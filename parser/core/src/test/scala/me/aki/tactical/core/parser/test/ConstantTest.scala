@@ -40,6 +40,20 @@ class ConstantTest extends FlatSpec with Matchers with PropertyChecks {
     }
   }
 
+  it should "parse the bounds of int and long values" in {
+    FieldConstantParser.parse(Int.MinValue.toString) shouldEqual new IntConstant(Int.MinValue)
+    FieldConstantParser.parse(Int.MaxValue.toString) shouldEqual new IntConstant(Int.MaxValue)
+    FieldConstantParser.parse(Long.MinValue + "L") shouldEqual new LongConstant(Long.MinValue)
+    FieldConstantParser.parse(Long.MaxValue + "L") shouldEqual new LongConstant(Long.MaxValue)
+  }
+
+  it should "reject int and long values out of their range" in {
+    an [Exception] should be thrownBy IntConstantParser.parse("2147483648")
+    an [Exception] should be thrownBy IntConstantParser.parse("-2147483649")
+    an [Exception] should be thrownBy LongConstantParser.parse("9223372036854775808L")
+    an [Exception] should be thrownBy LongConstantParser.parse("-9223372036854775809L")
+  }
+
   it should "parse string values" in {
     forAll { string: String =>
       val escapedString = string.replace("\"", "\\\"")
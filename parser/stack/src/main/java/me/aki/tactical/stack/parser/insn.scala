@@ -155,13 +155,13 @@ object ArrayLengthParser extends Parser[ArrayLengthInsn] {
 
 object ArrayLoadInsnParser extends Parser[ArrayLoadInsn] {
   val parser: P[ArrayLoadInsn] =
-    for (typ ← "arrayload" ~ WS ~ ilfdref ~ WS.? ~ ";")
+    for (typ ← "arrayload" ~ WS ~ bscilfdref ~ WS.? ~ ";")
       yield new ArrayLoadInsn(typ)
 }
 
 object ArrayStoreInsnParser extends Parser[ArrayStoreInsn] {
   val parser: P[ArrayStoreInsn] =
-    for (typ ← "arraystore" ~ WS ~ ilfdref ~ WS.? ~ ";")
+    for (typ ← "arraystore" ~ WS ~ bscilfdref ~ WS.? ~ ";")
       yield new ArrayStoreInsn(typ)
 }
 
@@ -50,6 +50,17 @@ class InsnTest extends FlatSpec with Matchers with PropertyChecks {
     ("double", DoubleType.getInstance()),
   )
 
+  val arrayElementType = Table(
+    ("typ as String", "typ instance"),
+    ("byte", ByteType.getInstance()),
+    ("short", ShortType.getInstance()),
+    ("char", CharType.getInstance()),
+    ("int", IntType.getInstance()),
+    ("long", LongType.getInstance()),
+    ("float", FloatType.getInstance()),
+    ("double", DoubleType.getInstance()),
+  )
+
   val intLong = Table(
     ("typ as String", "typ instance"),
     ("int", IntType.getInstance()),
@@ -255,7 +266,7 @@ class InsnTest extends FlatSpec with Matchers with PropertyChecks {
   }
 
   it should "parse array load insns" in {
-    forAll (intLongFloatDouble) { (typString, typ) =>
+    forAll (arrayElementType) { (typString, typ) =>
       parseInsn(s"arrayload $typString;") match {
         case insn: ArrayLoadInsn => insn.getType shouldEqual typ
       }
@@ -263,7 +274,7 @@ class InsnTest extends FlatSpec with Matchers with PropertyChecks {
   }
 
   it should "parse array store insns" in {
-    forAll (intLongFloatDouble) { (typString, typ) =>
+    forAll (arrayElementType) { (typString, typ) =>
       parseInsn(s"arraystore $typString;") match {
         case insn: ArrayStoreInsn => insn.getType shouldEqual typ
       }
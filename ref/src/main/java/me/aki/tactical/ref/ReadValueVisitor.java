@@ -0,0 +1,15 @@
+package me.aki.tactical.ref;
+
+/**
+ * Visit the expressions read by a {@link Referencing} entity without creating cells for them.
+ */
+@FunctionalInterface
+public interface ReadValueVisitor {
+    /**
+     * Visit an expression that is read and optionally replace it.
+     *
+     * @param value the read expression
+     * @return the expression that should be read instead or the visited expression to keep it
+     */
+    Expression visit(Expression value);
+}
@@ -5,7 +5,7 @@ import me.aki.tactical.core.type.Type;
 import me.aki.tactical.core.typeannotation.LocalVariableTypeAnnotation;
 import me.aki.tactical.core.util.RWCell;
 import me.aki.tactical.core.util.InsertList;
-import me.aki.tactical.core.util.LinkedInsertList;
+import me.aki.tactical.core.util.LinkedIdentityInsertList;
 import me.aki.tactical.ref.stmt.AssignStmt;
 
 import java.util.ArrayList;
@@ -36,7 +36,7 @@ public class RefBody implements Body {
     /**
      * The statements of this method.
      */
-    private InsertList<Statement> statements = new LinkedInsertList<>();
+    private InsertList<Statement> statements = new LinkedIdentityInsertList<>();
 
     /**
      * The try-catch-blocks of this method.
@@ -178,6 +178,9 @@ public class RefBody implements Body {
          */
         private RefLocal local;
 
+        private RWCell<Statement> startCell;
+        private RWCell<Statement> endCell;
+
         public LocalVariable(String name, Type type, Optional<String> signature, Statement start,
                              Statement end, RefLocal local) {
             this.name = name;
@@ -221,7 +224,10 @@ public class RefBody implements Body {
         }
 
         public RWCell<Statement> getStartCell() {
-            return RWCell.of(this::getStart, this::setStart, Statement.class);
+            if (startCell == null) {
+                startCell = RWCell.of(this::getStart, this::setStart, Statement.class);
+            }
+            return startCell;
         }
 
         public Statement getEnd() {
@@ -233,7 +239,10 @@ public class RefBody implements Body {
         }
 
         public RWCell<Statement> getEndCell() {
-            return RWCell.of(this::getEnd, this::setEnd, Statement.class);
+            if (endCell == null) {
+                endCell = RWCell.of(this::getEnd, this::setEnd, Statement.class);
+            }
+            return endCell;
         }
 
         public RefLocal getLocal() {
@@ -331,6 +340,9 @@ public class RefBody implements Body {
              */
             private RefLocal local;
 
+            private RWCell<Statement> startCell;
+            private RWCell<Statement> endCell;
+
             public Location(Statement start, Statement end, RefLocal local) {
                 this.start = start;
                 this.end = end;
@@ -346,7 +358,10 @@ public class RefBody implements Body {
             }
 
             public RWCell<Statement> getStartCell() {
-                return RWCell.of(this::getStart, this::setStart, Statement.class);
+                if (startCell == null) {
+                    startCell = RWCell.of(this::getStart, this::setStart, Statement.class);
+                }
+                return startCell;
             }
 
             public Statement getEnd() {
@@ -358,7 +373,10 @@ public class RefBody implements Body {
             }
 
             public RWCell<Statement> getEndCell() {
-                return RWCell.of(this::getEnd, this::setEnd, Statement.class);
+                if (endCell == null) {
+                    endCell = RWCell.of(this::getEnd, this::setEnd, Statement.class);
+                }
+                return endCell;
             }
 
             public RefLocal getLocal() {
@@ -400,6 +418,8 @@ public class RefBody implements Body {
          */
         private Statement statement;
 
+        private RWCell<Statement> statementCell;
+
         public LineNumber(int line, Statement statement) {
             this.line = line;
             this.statement = statement;
@@ -422,7 +442,10 @@ public class RefBody implements Body {
         }
 
         public RWCell<Statement> getStatementCell() {
-            return RWCell.of(this::getStatement, this::setStatement, Statement.class);
+            if (statementCell == null) {
+                statementCell = RWCell.of(this::getStatement, this::setStatement, Statement.class);
+            }
+            return statementCell;
         }
 
         @Override
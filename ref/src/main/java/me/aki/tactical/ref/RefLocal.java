@@ -27,4 +27,8 @@ public class RefLocal implements Variable {
     public Set<RCell<Expression>> getReadValueCells() {
         return Set.of();
     }
+
+    @Override
+    public void forEachReadValue(ReadValueVisitor visitor) {
+    }
 }
@@ -2,9 +2,9 @@ package me.aki.tactical.ref;
 
 import me.aki.tactical.core.util.RCell;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * An entity that references other expressions
@@ -17,15 +17,48 @@ public interface Referencing {
      */
     Set<RCell<Expression>> getReadValueCells();
 
+    /**
+     * Visit all expressions that this entity reads from.
+     *
+     * Unlike {@link #getReadValueCells()} no cells or collections are allocated.
+     *
+     * @param visitor visits the read expressions and may replace them
+     */
+    void forEachReadValue(ReadValueVisitor visitor);
+
+    /**
+     * Visit all expressions read by this entity and also expressions read by those.
+     *
+     * An expression is visited before the expressions that it reads from.
+     * If the visitor replaces an expression, neither the replaced expression nor the replacement are descended into.
+     *
+     * @param visitor visits the referenced expressions and may replace them
+     */
+    default void forEachReadValueRecursively(ReadValueVisitor visitor) {
+        forEachReadValue(new ReadValueVisitor() {
+            @Override
+            public Expression visit(Expression value) {
+                Expression newValue = visitor.visit(value);
+                if (newValue == value) {
+                    value.forEachReadValue(this);
+                }
+                return newValue;
+            }
+        });
+    }
+
     /**
      * Get all expressions that this entity reads from.
      *
      * @return all read expressions
      */
     default Set<Expression> getReadValues() {
-        return getReadValueCells().stream()
-                .map(RCell::get)
-                .collect(Collectors.toUnmodifiableSet());
+        Set<Expression> values = new HashSet<>();
+        forEachReadValue(value -> {
+            values.add(value);
+            return value;
+        });
+        return Collections.unmodifiableSet(values);
     }
 
     /**
@@ -34,15 +67,12 @@ public interface Referencing {
      * @return cells of all referenced expressions
      */
     default Set<Expression> getAllReadValues() {
-        class Inner {
-            private Stream<Expression> getRecursiveReferencedValueStream(Referencing ref) {
-                return ref.getReadValueCells().stream()
-                        .map(RCell::get)
-                        .flatMap(expr -> Stream.concat(Stream.of(expr), getRecursiveReferencedValueStream(expr)));
-            }
-        }
-
-        return new Inner().getRecursiveReferencedValueStream(this).collect(Collectors.toUnmodifiableSet());
+        Set<Expression> values = new HashSet<>();
+        forEachReadValueRecursively(value -> {
+            values.add(value);
+            return value;
+        });
+        return Collections.unmodifiableSet(values);
     }
 
     /**
@@ -51,13 +81,21 @@ public interface Referencing {
      * @return cells of all referenced expressions
      */
     default Set<RCell<Expression>> getAllReadValueCells() {
-        class Inner {
-            private Stream<RCell<Expression>> getRecursiveReferencedValueCellStream(Referencing ref) {
-                return ref.getReadValueCells().stream()
-                        .flatMap(refCell -> Stream.concat(Stream.of(refCell), getRecursiveReferencedValueCellStream(refCell.get())));
-            }
-        }
+        Set<RCell<Expression>> cells = new HashSet<>();
+        addAllReadValueCells(this, cells);
+        return Collections.unmodifiableSet(cells);
+    }
 
-        return new Inner().getRecursiveReferencedValueCellStream(this).collect(Collectors.toUnmodifiableSet());
+    /**
+     * Add the cells of all expressions referenced by an entity to a set.
+     *
+     * @param referencing the entity whose referenced expressions are requested
+     * @param cells set to which the cells get added
+     */
+    private static void addAllReadValueCells(Referencing referencing, Set<RCell<Expression>> cells) {
+        for (RCell<Expression> cell : referencing.getReadValueCells()) {
+            cells.add(cell);
+            addAllReadValueCells(cell.get(), cells);
+        }
     }
 }
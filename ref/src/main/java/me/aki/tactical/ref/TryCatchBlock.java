@@ -44,6 +44,11 @@ public class TryCatchBlock {
      */
     private List<ExceptionTypeAnnotation> typeAnnotations = new ArrayList<>();
 
+    private RWCell<Statement> firstCell;
+    private RWCell<Statement> lastCell;
+    private RWCell<Statement> handlerCell;
+    private RWCell<RefLocal> exceptionLocalCell;
+
     public TryCatchBlock(Statement first, Statement last, Statement handler,
                          Optional<Path> exception, RefLocal exceptionLocal) {
         this.first = first;
@@ -62,7 +67,10 @@ public class TryCatchBlock {
     }
 
     public RWCell<Statement> getFirstCell() {
-        return RWCell.of(this::getFirst, this::setFirst, Statement.class);
+        if (firstCell == null) {
+            firstCell = RWCell.of(this::getFirst, this::setFirst, Statement.class);
+        }
+        return firstCell;
     }
 
     public Statement getLast() {
@@ -74,7 +82,10 @@ public class TryCatchBlock {
     }
 
     public RWCell<Statement> getLastCell() {
-        return RWCell.of(this::getLast, this::setLast, Statement.class);
+        if (lastCell == null) {
+            lastCell = RWCell.of(this::getLast, this::setLast, Statement.class);
+        }
+        return lastCell;
     }
 
     public Statement getHandler() {
@@ -86,7 +97,10 @@ public class TryCatchBlock {
     }
 
     public RWCell<Statement> getHandlerCell() {
-        return RWCell.of(this::getHandler, this::setHandler, Statement.class);
+        if (handlerCell == null) {
+            handlerCell = RWCell.of(this::getHandler, this::setHandler, Statement.class);
+        }
+        return handlerCell;
     }
 
     public Optional<Path> getException() {
@@ -106,7 +120,10 @@ public class TryCatchBlock {
     }
 
     public RWCell<RefLocal> getExceptionLocalCell() {
-        return RWCell.of(this::getExceptionLocal, this::setExceptionLocal, RefLocal.class);
+        if (exceptionLocalCell == null) {
+            exceptionLocalCell = RWCell.of(this::getExceptionLocal, this::setExceptionLocal, RefLocal.class);
+        }
+        return exceptionLocalCell;
     }
 
     public List<ExceptionTypeAnnotation> getTypeAnnotations() {
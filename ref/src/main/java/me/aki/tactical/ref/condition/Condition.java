@@ -3,6 +3,7 @@ package me.aki.tactical.ref.condition;
 import me.aki.tactical.core.util.RCell;
 import me.aki.tactical.core.util.RWCell;
 import me.aki.tactical.ref.Expression;
+import me.aki.tactical.ref.ReadValueVisitor;
 import me.aki.tactical.ref.Referencing;
 
 import java.util.Objects;
@@ -15,6 +16,9 @@ public abstract class Condition implements Referencing {
     private Expression value1;
     private Expression value2;
 
+    private RWCell<Expression> value1Cell;
+    private RWCell<Expression> value2Cell;
+
     public Condition(Expression value1, Expression value2) {
         this.value1 = value1;
         this.value2 = value2;
@@ -29,7 +33,10 @@ public abstract class Condition implements Referencing {
     }
 
     public RWCell<Expression> getValue1Cell() {
-        return RWCell.of(this::getValue1, this::setValue1, Expression.class);
+        if (value1Cell == null) {
+            value1Cell = RWCell.of(this::getValue1, this::setValue1, Expression.class);
+        }
+        return value1Cell;
     }
 
     public Expression getValue2() {
@@ -41,7 +48,10 @@ public abstract class Condition implements Referencing {
     }
 
     public RWCell<Expression> getValue2Cell() {
-        return RWCell.of(this::getValue2, this::setValue2, Expression.class);
+        if (value2Cell == null) {
+            value2Cell = RWCell.of(this::getValue2, this::setValue2, Expression.class);
+        }
+        return value2Cell;
     }
 
     @Override
@@ -49,6 +59,12 @@ public abstract class Condition implements Referencing {
         return Set.of(getValue1Cell(), getValue2Cell());
     }
 
+    @Override
+    public void forEachReadValue(ReadValueVisitor visitor) {
+        value1 = visitor.visit(value1);
+        value2 = visitor.visit(value2);
+    }
+
     public abstract Condition negate();
 
     @Override
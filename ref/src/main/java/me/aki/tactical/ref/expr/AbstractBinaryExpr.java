@@ -3,6 +3,7 @@ package me.aki.tactical.ref.expr;
 import me.aki.tactical.core.util.RCell;
 import me.aki.tactical.core.util.RWCell;
 import me.aki.tactical.ref.Expression;
+import me.aki.tactical.ref.ReadValueVisitor;
 
 import java.util.Objects;
 import java.util.Set;
@@ -14,6 +15,9 @@ public abstract class AbstractBinaryExpr implements Expression {
     private Expression value1;
     private Expression value2;
 
+    private RWCell<Expression> value1Cell;
+    private RWCell<Expression> value2Cell;
+
     public AbstractBinaryExpr(Expression value1, Expression value2) {
         this.value1 = value1;
         this.value2 = value2;
@@ -28,7 +32,10 @@ public abstract class AbstractBinaryExpr implements Expression {
     }
 
     public RWCell<Expression> getValue1Cell() {
-        return RWCell.of(this::getValue1, this::setValue1, Expression.class);
+        if (value1Cell == null) {
+            value1Cell = RWCell.of(this::getValue1, this::setValue1, Expression.class);
+        }
+        return value1Cell;
     }
 
     public Expression getValue2() {
@@ -40,7 +47,10 @@ public abstract class AbstractBinaryExpr implements Expression {
     }
 
     public RWCell<Expression> getValue2Cell() {
-        return RWCell.of(this::getValue2, this::setValue2, Expression.class);
+        if (value2Cell == null) {
+            value2Cell = RWCell.of(this::getValue2, this::setValue2, Expression.class);
+        }
+        return value2Cell;
     }
 
     @Override
@@ -48,6 +58,12 @@ public abstract class AbstractBinaryExpr implements Expression {
         return Set.of(getValue1Cell(), getValue2Cell());
     }
 
+    @Override
+    public void forEachReadValue(ReadValueVisitor visitor) {
+        value1 = visitor.visit(value1);
+        value2 = visitor.visit(value2);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -5,6 +5,7 @@ import me.aki.tactical.core.type.Type;
 import me.aki.tactical.core.util.RCell;
 import me.aki.tactical.core.util.RWCell;
 import me.aki.tactical.ref.Expression;
+import me.aki.tactical.ref.ReadValueVisitor;
 import me.aki.tactical.ref.Variable;
 
 import java.util.Objects;
@@ -24,6 +25,9 @@ public class ArrayBoxExpr implements Variable {
      */
     private Expression index;
 
+    private RWCell<Expression> arrayCell;
+    private RWCell<Expression> indexCell;
+
     public ArrayBoxExpr(Expression array, Expression index) {
         this.array = array;
         this.index = index;
@@ -38,7 +42,10 @@ public class ArrayBoxExpr implements Variable {
     }
 
     public RWCell<Expression> getArrayCell() {
-        return RWCell.of(this::getArray, this::setArray, Expression.class);
+        if (arrayCell == null) {
+            arrayCell = RWCell.of(this::getArray, this::setArray, Expression.class);
+        }
+        return arrayCell;
     }
 
     public Expression getIndex() {
@@ -50,7 +57,10 @@ public class ArrayBoxExpr implements Variable {
     }
 
     public RWCell<Expression> getIndexCell() {
-        return RWCell.of(this::getIndex, this::setIndex, Expression.class);
+        if (indexCell == null) {
+            indexCell = RWCell.of(this::getIndex, this::setIndex, Expression.class);
+        }
+        return indexCell;
     }
 
     @Override
@@ -63,6 +73,12 @@ public class ArrayBoxExpr implements Variable {
         return Set.of(getArrayCell(), getIndexCell());
     }
 
+    @Override
+    public void forEachReadValue(ReadValueVisitor visitor) {
+        array = visitor.visit(array);
+        index = visitor.visit(index);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -5,6 +5,7 @@ import me.aki.tactical.core.type.Type;
 import me.aki.tactical.core.util.RCell;
 import me.aki.tactical.core.util.RWCell;
 import me.aki.tactical.ref.Expression;
+import me.aki.tactical.ref.ReadValueVisitor;
 
 import java.util.Objects;
 import java.util.Set;
@@ -18,6 +19,8 @@ public class ArrayLengthExpr implements Expression {
      */
     private Expression array;
 
+    private RWCell<Expression> arrayCell;
+
     public ArrayLengthExpr(Expression array) {
         this.array = array;
     }
@@ -31,7 +34,10 @@ public class ArrayLengthExpr implements Expression {
     }
 
     public RWCell<Expression> getArrayCell() {
-        return RWCell.of(this::getArray, this::setArray, Expression.class);
+        if (arrayCell == null) {
+            arrayCell = RWCell.of(this::getArray, this::setArray, Expression.class);
+        }
+        return arrayCell;
     }
 
     @Override
@@ -44,6 +50,11 @@ public class ArrayLengthExpr implements Expression {
         return Set.of(getArrayCell());
     }
 
+    @Override
+    public void forEachReadValue(ReadValueVisitor visitor) {
+        array = visitor.visit(array);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
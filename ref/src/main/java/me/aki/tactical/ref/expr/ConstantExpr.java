@@ -4,6 +4,7 @@ import me.aki.tactical.core.constant.PushableConstant;
 import me.aki.tactical.core.type.Type;
 import me.aki.tactical.core.util.RCell;
 import me.aki.tactical.ref.Expression;
+import me.aki.tactical.ref.ReadValueVisitor;
 
 import java.util.Objects;
 import java.util.Set;
@@ -36,6 +37,10 @@ public class ConstantExpr implements Expression {
         return Set.of();
     }
 
+    @Override
+    public void forEachReadValue(ReadValueVisitor visitor) {
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
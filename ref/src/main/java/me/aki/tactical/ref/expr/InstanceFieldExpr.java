@@ -4,6 +4,7 @@ import me.aki.tactical.core.FieldRef;
 import me.aki.tactical.core.util.RCell;
 import me.aki.tactical.core.util.RWCell;
 import me.aki.tactical.ref.Expression;
+import me.aki.tactical.ref.ReadValueVisitor;
 
 import java.util.Objects;
 import java.util.Set;
@@ -17,6 +18,8 @@ public class InstanceFieldExpr extends AbstractFieldExpr {
      */
     private Expression instance;
 
+    private RWCell<Expression> instanceCell;
+
     public InstanceFieldExpr(FieldRef field, Expression instance) {
         super(field);
         this.instance = instance;
@@ -31,7 +34,10 @@ public class InstanceFieldExpr extends AbstractFieldExpr {
     }
 
     public RWCell<Expression> getInstanceCell() {
-        return RWCell.of(this::getInstance, this::setInstance, Expression.class);
+        if (instanceCell == null) {
+            instanceCell = RWCell.of(this::getInstance, this::setInstance, Expression.class);
+        }
+        return instanceCell;
     }
 
     @Override
@@ -39,6 +45,11 @@ public class InstanceFieldExpr extends AbstractFieldExpr {
         return Set.of(getInstanceCell());
     }
 
+    @Override
+    public void forEachReadValue(ReadValueVisitor visitor) {
+        instance = visitor.visit(instance);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
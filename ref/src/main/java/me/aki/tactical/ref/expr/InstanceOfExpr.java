@@ -6,6 +6,7 @@ import me.aki.tactical.core.type.Type;
 import me.aki.tactical.core.util.RCell;
 import me.aki.tactical.core.util.RWCell;
 import me.aki.tactical.ref.Expression;
+import me.aki.tactical.ref.ReadValueVisitor;
 
 import java.util.Objects;
 import java.util.Set;
@@ -25,6 +26,8 @@ public class InstanceOfExpr implements Expression {
      */
     private Expression value;
 
+    private RWCell<Expression> valueCell;
+
     public InstanceOfExpr(RefType checkType, Expression value) {
         this.checkType = checkType;
         this.value = value;
@@ -47,7 +50,10 @@ public class InstanceOfExpr implements Expression {
     }
 
     public RWCell<Expression> getValueCell() {
-        return RWCell.of(this::getValue, this::setValue, Expression.class);
+        if (valueCell == null) {
+            valueCell = RWCell.of(this::getValue, this::setValue, Expression.class);
+        }
+        return valueCell;
     }
 
     @Override
@@ -60,6 +66,11 @@ public class InstanceOfExpr implements Expression {
         return Set.of(getValueCell());
     }
 
+    @Override
+    public void forEachReadValue(ReadValueVisitor visitor) {
+        value = visitor.visit(value);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -3,6 +3,7 @@ package me.aki.tactical.ref.expr;
 import me.aki.tactical.core.type.Type;
 import me.aki.tactical.core.util.RCell;
 import me.aki.tactical.ref.Expression;
+import me.aki.tactical.ref.ReadValueVisitor;
 import me.aki.tactical.ref.invoke.AbstractInvoke;
 import me.aki.tactical.ref.stmt.InvokeStmt;
 
@@ -43,6 +44,11 @@ public class InvokeExpr implements Expression {
         return invoke.getReadValueCells();
     }
 
+    @Override
+    public void forEachReadValue(ReadValueVisitor visitor) {
+        invoke.forEachReadValue(visitor);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
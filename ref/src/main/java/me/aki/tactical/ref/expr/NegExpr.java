@@ -4,6 +4,7 @@ import me.aki.tactical.core.type.Type;
 import me.aki.tactical.core.util.RCell;
 import me.aki.tactical.core.util.RWCell;
 import me.aki.tactical.ref.Expression;
+import me.aki.tactical.ref.ReadValueVisitor;
 
 import java.util.Objects;
 import java.util.Set;
@@ -17,6 +18,8 @@ public class NegExpr implements Expression {
      */
     private Expression value;
 
+    private RWCell<Expression> valueCell;
+
     public NegExpr(Expression value) {
         this.value = value;
     }
@@ -30,7 +33,10 @@ public class NegExpr implements Expression {
     }
 
     public RWCell<Expression> getValueCell() {
-        return RWCell.of(this::getValue, this::setValue, Expression.class);
+        if (valueCell == null) {
+            valueCell = RWCell.of(this::getValue, this::setValue, Expression.class);
+        }
+        return valueCell;
     }
 
     @Override
@@ -43,6 +49,11 @@ public class NegExpr implements Expression {
         return Set.of(getValueCell());
     }
 
+    @Override
+    public void forEachReadValue(ReadValueVisitor visitor) {
+        value = visitor.visit(value);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -4,6 +4,7 @@ import me.aki.tactical.core.type.ArrayType;
 import me.aki.tactical.core.util.RCell;
 import me.aki.tactical.core.util.RWCell;
 import me.aki.tactical.ref.Expression;
+import me.aki.tactical.ref.ReadValueVisitor;
 
 import java.util.List;
 import java.util.Objects;
@@ -59,6 +60,17 @@ public class NewArrayExpr implements Expression {
         return Set.copyOf(getDimensionSizeCells());
     }
 
+    @Override
+    public void forEachReadValue(ReadValueVisitor visitor) {
+        for (int i = 0; i < dimensionSizes.size(); i++) {
+            Expression value = dimensionSizes.get(i);
+            Expression newValue = visitor.visit(value);
+            if (newValue != value) {
+                dimensionSizes.set(i, newValue);
+            }
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
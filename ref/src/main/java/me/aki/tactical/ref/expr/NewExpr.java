@@ -5,6 +5,7 @@ import me.aki.tactical.core.type.ObjectType;
 import me.aki.tactical.core.type.Type;
 import me.aki.tactical.core.util.RCell;
 import me.aki.tactical.ref.Expression;
+import me.aki.tactical.ref.ReadValueVisitor;
 
 import java.util.Objects;
 import java.util.Set;
@@ -42,6 +43,10 @@ public class NewExpr implements Expression {
         return Set.of();
     }
 
+    @Override
+    public void forEachReadValue(ReadValueVisitor visitor) {
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
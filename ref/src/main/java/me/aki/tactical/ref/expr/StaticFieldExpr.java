@@ -3,6 +3,7 @@ package me.aki.tactical.ref.expr;
 import me.aki.tactical.core.FieldRef;
 import me.aki.tactical.core.util.RCell;
 import me.aki.tactical.ref.Expression;
+import me.aki.tactical.ref.ReadValueVisitor;
 
 import java.util.Set;
 
@@ -18,4 +19,8 @@ public class StaticFieldExpr extends AbstractFieldExpr {
     public Set<RCell<Expression>> getReadValueCells() {
         return Set.of();
     }
+
+    @Override
+    public void forEachReadValue(ReadValueVisitor visitor) {
+    }
 }
@@ -4,6 +4,7 @@ import me.aki.tactical.core.MethodRef;
 import me.aki.tactical.core.util.RCell;
 import me.aki.tactical.core.util.RWCell;
 import me.aki.tactical.ref.Expression;
+import me.aki.tactical.ref.ReadValueVisitor;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -15,6 +16,8 @@ import java.util.stream.Stream;
 public class AbstractInstanceInvoke extends AbstractConcreteInvoke {
     private Expression instance;
 
+    private RWCell<Expression> instanceCell;
+
     public AbstractInstanceInvoke(MethodRef method, Expression instance, List<Expression> arguments) {
         super(method, arguments);
         this.instance = instance;
@@ -29,7 +32,10 @@ public class AbstractInstanceInvoke extends AbstractConcreteInvoke {
     }
 
     public RWCell<Expression> getInstanceCell() {
-        return RWCell.of(this::getInstance, this::setInstance, Expression.class);
+        if (instanceCell == null) {
+            instanceCell = RWCell.of(this::getInstance, this::setInstance, Expression.class);
+        }
+        return instanceCell;
     }
 
     @Override
@@ -38,6 +44,12 @@ public class AbstractInstanceInvoke extends AbstractConcreteInvoke {
                 .collect(Collectors.toUnmodifiableSet());
     }
 
+    @Override
+    public void forEachReadValue(ReadValueVisitor visitor) {
+        instance = visitor.visit(instance);
+        super.forEachReadValue(visitor);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
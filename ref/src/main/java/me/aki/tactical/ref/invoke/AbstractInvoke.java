@@ -4,6 +4,7 @@ import me.aki.tactical.core.MethodDescriptor;
 import me.aki.tactical.core.util.RCell;
 import me.aki.tactical.core.util.RWCell;
 import me.aki.tactical.ref.Expression;
+import me.aki.tactical.ref.ReadValueVisitor;
 import me.aki.tactical.ref.Referencing;
 
 import java.lang.invoke.CallSite;
@@ -47,6 +48,17 @@ public abstract class AbstractInvoke implements Referencing {
         return Set.copyOf(getArgumentCells());
     }
 
+    @Override
+    public void forEachReadValue(ReadValueVisitor visitor) {
+        for (int i = 0; i < arguments.size(); i++) {
+            Expression value = arguments.get(i);
+            Expression newValue = visitor.visit(value);
+            if (newValue != value) {
+                arguments.set(i, newValue);
+            }
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
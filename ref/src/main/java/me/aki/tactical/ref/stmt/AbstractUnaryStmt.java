@@ -3,6 +3,7 @@ package me.aki.tactical.ref.stmt;
 import me.aki.tactical.core.util.RCell;
 import me.aki.tactical.core.util.RWCell;
 import me.aki.tactical.ref.Expression;
+import me.aki.tactical.ref.ReadValueVisitor;
 import me.aki.tactical.ref.Statement;
 
 import java.util.Set;
@@ -10,6 +11,8 @@ import java.util.Set;
 public class AbstractUnaryStmt implements Statement {
     private Expression value;
 
+    private RWCell<Expression> valueCell;
+
     public AbstractUnaryStmt(Expression value) {
         this.value = value;
     }
@@ -23,11 +26,19 @@ public class AbstractUnaryStmt implements Statement {
     }
 
     public RWCell<Expression> getValueCell() {
-        return RWCell.of(this::getValue, this::setValue, Expression.class);
+        if (valueCell == null) {
+            valueCell = RWCell.of(this::getValue, this::setValue, Expression.class);
+        }
+        return valueCell;
     }
 
     @Override
     public Set<RCell<Expression>> getReadValueCells() {
         return Set.of(getValueCell());
     }
+
+    @Override
+    public void forEachReadValue(ReadValueVisitor visitor) {
+        value = visitor.visit(value);
+    }
 }
@@ -3,14 +3,14 @@ package me.aki.tactical.ref.stmt;
 import me.aki.tactical.core.util.RCell;
 import me.aki.tactical.core.util.RWCell;
 import me.aki.tactical.ref.Expression;
+import me.aki.tactical.ref.ReadValueVisitor;
 import me.aki.tactical.ref.Statement;
 import me.aki.tactical.ref.Variable;
 
-import java.util.List;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Assign a value to a variable
@@ -26,6 +26,9 @@ public class AssignStmt implements Statement {
      */
     private Expression value;
 
+    private RWCell<Variable> variableCell;
+    private RWCell<Expression> valueCell;
+
     public AssignStmt(Variable variable, Expression value) {
         this.variable = variable;
         this.value = value;
@@ -40,7 +43,10 @@ public class AssignStmt implements Statement {
     }
 
     public RWCell<Variable> getVariableCell() {
-        return RWCell.of(this::getVariable, this::setVariable, Variable.class);
+        if (variableCell == null) {
+            variableCell = RWCell.of(this::getVariable, this::setVariable, Variable.class);
+        }
+        return variableCell;
     }
 
     public Expression getValue() {
@@ -52,12 +58,10 @@ public class AssignStmt implements Statement {
     }
 
     public RWCell<Expression> getValueCell() {
-        return RWCell.of(this::getValue, this::setValue, Expression.class);
-    }
-
-    @Override
-    public Set<Expression> getReadValues() {
-        return Set.of(getValue());
+        if (valueCell == null) {
+            valueCell = RWCell.of(this::getValue, this::setValue, Expression.class);
+        }
+        return valueCell;
     }
 
     @Override
@@ -66,23 +70,21 @@ public class AssignStmt implements Statement {
     }
 
     @Override
-    public Set<Expression> getAllReadValues() {
-        Stream<Expression> allReads = getReadValues().stream()
-                .flatMap(read -> Stream.concat(Stream.of(read), read.getAllReadValues().stream()));
-
-        Stream<Expression> readsOfWrites = getVariable().getAllReadValues().stream();
+    public void forEachReadValue(ReadValueVisitor visitor) {
+        value = visitor.visit(value);
+    }
 
-        return Stream.concat(allReads, readsOfWrites).collect(Collectors.toUnmodifiableSet());
+    @Override
+    public void forEachReadValueRecursively(ReadValueVisitor visitor) {
+        Statement.super.forEachReadValueRecursively(visitor);
+        getVariable().forEachReadValueRecursively(visitor);
     }
 
     @Override
     public Set<RCell<Expression>> getAllReadValueCells() {
-        Stream<RCell<Expression>> allReadCells = getReadValueCells().stream()
-                .flatMap(readCell -> Stream.concat(Stream.of(readCell), readCell.get().getAllReadValueCells().stream()));
-
-        Stream<RCell<Expression>> readCellsOfWrite = getVariable().getAllReadValueCells().stream();
-
-        return Stream.concat(allReadCells, readCellsOfWrite).collect(Collectors.toUnmodifiableSet());
+        Set<RCell<Expression>> cells = new HashSet<>(Statement.super.getAllReadValueCells());
+        cells.addAll(getVariable().getAllReadValueCells());
+        return Collections.unmodifiableSet(cells);
     }
 
     @Override
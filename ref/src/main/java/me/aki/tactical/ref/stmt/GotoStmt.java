@@ -3,6 +3,7 @@ package me.aki.tactical.ref.stmt;
 import me.aki.tactical.core.util.RCell;
 import me.aki.tactical.core.util.RWCell;
 import me.aki.tactical.ref.Expression;
+import me.aki.tactical.ref.ReadValueVisitor;
 import me.aki.tactical.ref.Statement;
 
 import java.util.Set;
@@ -16,6 +17,8 @@ public class GotoStmt implements BranchStmt {
      */
     private Statement target;
 
+    private RWCell<Statement> targetCell;
+
     public GotoStmt(Statement target) {
         this.target = target;
     }
@@ -29,7 +32,10 @@ public class GotoStmt implements BranchStmt {
     }
 
     public RWCell<Statement> getTargetCell() {
-        return RWCell.of(this::getTarget, this::setTarget, Statement.class);
+        if (targetCell == null) {
+            targetCell = RWCell.of(this::getTarget, this::setTarget, Statement.class);
+        }
+        return targetCell;
     }
 
     @Override
@@ -37,6 +43,10 @@ public class GotoStmt implements BranchStmt {
         return Set.of();
     }
 
+    @Override
+    public void forEachReadValue(ReadValueVisitor visitor) {
+    }
+
     @Override
     public Set<Statement> getBranchTargets() {
         return Set.of(getTarget());
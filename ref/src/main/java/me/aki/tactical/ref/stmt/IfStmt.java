@@ -3,6 +3,7 @@ package me.aki.tactical.ref.stmt;
 import me.aki.tactical.core.util.RCell;
 import me.aki.tactical.core.util.RWCell;
 import me.aki.tactical.ref.Expression;
+import me.aki.tactical.ref.ReadValueVisitor;
 import me.aki.tactical.ref.Statement;
 import me.aki.tactical.ref.condition.Condition;
 
@@ -22,6 +23,8 @@ public class IfStmt implements BranchStmt {
      */
     private Statement target;
 
+    private RWCell<Statement> targetCell;
+
     public IfStmt(Condition condition, Statement target) {
         this.condition = condition;
         this.target = target;
@@ -44,7 +47,10 @@ public class IfStmt implements BranchStmt {
     }
 
     public RWCell<Statement> getTargetCell() {
-        return RWCell.of(this::getTarget, this::setTarget, Statement.class);
+        if (targetCell == null) {
+            targetCell = RWCell.of(this::getTarget, this::setTarget, Statement.class);
+        }
+        return targetCell;
     }
 
     @Override
@@ -52,6 +58,11 @@ public class IfStmt implements BranchStmt {
         return condition.getReadValueCells();
     }
 
+    @Override
+    public void forEachReadValue(ReadValueVisitor visitor) {
+        condition.forEachReadValue(visitor);
+    }
+
     @Override
     public Set<Statement> getBranchTargets() {
         return Set.of(getTarget());
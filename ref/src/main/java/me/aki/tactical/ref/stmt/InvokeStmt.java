@@ -2,6 +2,7 @@ package me.aki.tactical.ref.stmt;
 
 import me.aki.tactical.core.util.RCell;
 import me.aki.tactical.ref.Expression;
+import me.aki.tactical.ref.ReadValueVisitor;
 import me.aki.tactical.ref.Statement;
 import me.aki.tactical.ref.expr.InvokeExpr;
 import me.aki.tactical.ref.invoke.AbstractInvoke;
@@ -32,4 +33,9 @@ public class InvokeStmt implements Statement {
     public Set<RCell<Expression>> getReadValueCells() {
         return invoke.getReadValueCells();
     }
+
+    @Override
+    public void forEachReadValue(ReadValueVisitor visitor) {
+        invoke.forEachReadValue(visitor);
+    }
 }
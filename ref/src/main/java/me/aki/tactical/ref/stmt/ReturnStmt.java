@@ -3,6 +3,7 @@ package me.aki.tactical.ref.stmt;
 import me.aki.tactical.core.util.RCell;
 import me.aki.tactical.core.util.RWCell;
 import me.aki.tactical.ref.Expression;
+import me.aki.tactical.ref.ReadValueVisitor;
 import me.aki.tactical.ref.Statement;
 
 import java.util.Optional;
@@ -18,6 +19,8 @@ public class ReturnStmt implements Statement {
      */
     private Optional<Expression> value;
 
+    private RWCell<Expression> valueCell;
+
     /**
      * Initialize a ReturnStmt that returns no value as found in <tt>void</tt> methods.
      */
@@ -45,8 +48,14 @@ public class ReturnStmt implements Statement {
     }
 
     public Optional<RWCell<Expression>> getValueCell() {
-        return value.map(x -> RWCell.of(() -> value.get(),
-                        newValue -> value = Optional.of(newValue), Expression.class));
+        if (!value.isPresent()) {
+            return Optional.empty();
+        }
+
+        if (valueCell == null) {
+            valueCell = RWCell.of(() -> value.get(), newValue -> value = Optional.of(newValue), Expression.class);
+        }
+        return Optional.of(valueCell);
     }
 
     @Override
@@ -54,6 +63,17 @@ public class ReturnStmt implements Statement {
         return getValueCell().stream().collect(Collectors.toUnmodifiableSet());
     }
 
+    @Override
+    public void forEachReadValue(ReadValueVisitor visitor) {
+        if (value.isPresent()) {
+            Expression oldValue = value.get();
+            Expression newValue = visitor.visit(oldValue);
+            if (newValue != oldValue) {
+                value = Optional.of(newValue);
+            }
+        }
+    }
+
     @Override
     public boolean continuesExecution() {
         return false;
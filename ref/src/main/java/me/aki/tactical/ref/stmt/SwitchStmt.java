@@ -3,6 +3,7 @@ package me.aki.tactical.ref.stmt;
 import me.aki.tactical.core.util.RCell;
 import me.aki.tactical.core.util.RWCell;
 import me.aki.tactical.ref.Expression;
+import me.aki.tactical.ref.ReadValueVisitor;
 import me.aki.tactical.ref.Statement;
 
 import java.util.*;
@@ -28,6 +29,9 @@ public class SwitchStmt implements BranchStmt {
      */
     private Statement defaultTarget;
 
+    private RWCell<Expression> valueCell;
+    private RWCell<Statement> defaultTargetCell;
+
     public SwitchStmt(Expression value, LinkedHashMap<Integer, Statement> branchTable, Statement defaultTarget) {
         this.value = value;
         this.branchTable = branchTable;
@@ -43,7 +47,10 @@ public class SwitchStmt implements BranchStmt {
     }
 
     public RWCell<Expression> getValueCell() {
-        return RWCell.of(this::getValue, this::setValue, Expression.class);
+        if (valueCell == null) {
+            valueCell = RWCell.of(this::getValue, this::setValue, Expression.class);
+        }
+        return valueCell;
     }
 
     public LinkedHashMap<Integer, Statement> getBranchTable() {
@@ -73,7 +80,10 @@ public class SwitchStmt implements BranchStmt {
     }
 
     public RWCell<Statement> getDefaultTargetCell() {
-        return RWCell.of(this::getDefaultTarget, this::setDefaultTarget, Statement.class);
+        if (defaultTargetCell == null) {
+            defaultTargetCell = RWCell.of(this::getDefaultTarget, this::setDefaultTarget, Statement.class);
+        }
+        return defaultTargetCell;
     }
 
     @Override
@@ -81,15 +91,20 @@ public class SwitchStmt implements BranchStmt {
         return Set.of(getValueCell());
     }
 
+    @Override
+    public void forEachReadValue(ReadValueVisitor visitor) {
+        value = visitor.visit(value);
+    }
+
     @Override
     public Set<Statement> getBranchTargets() {
-        return Stream.concat(getBranchTargets().stream(), Stream.of(getDefaultTarget()))
+        return Stream.concat(branchTable.values().stream(), Stream.of(getDefaultTarget()))
                 .collect(Collectors.toUnmodifiableSet());
     }
 
     @Override
     public Set<RWCell<Statement>> getBranchTargetsCells() {
-        return Stream.concat(getBranchTargetsCells().stream(), Stream.of(getDefaultTargetCell()))
+        return Stream.concat(getBranchTableCells().stream(), Stream.of(getDefaultTargetCell()))
                 .collect(Collectors.toUnmodifiableSet());
     }
 
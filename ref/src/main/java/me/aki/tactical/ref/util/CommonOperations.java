@@ -2,7 +2,6 @@ package me.aki.tactical.ref.util;
 
 import me.aki.tactical.core.util.RWCell;
 import me.aki.tactical.core.util.InsertList;
-import me.aki.tactical.ref.Expression;
 import me.aki.tactical.ref.RefBody;
 import me.aki.tactical.ref.RefLocal;
 import me.aki.tactical.ref.Statement;
@@ -10,9 +9,12 @@ import me.aki.tactical.ref.stmt.AssignStmt;
 import me.aki.tactical.ref.stmt.BranchStmt;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class CommonOperations {
     /**
@@ -22,56 +24,108 @@ public class CommonOperations {
      * @param statement the statement to be removed
      */
     public static void removeStatement(RefBody body, Statement statement) {
+        removeStatements(body, Collections.singleton(statement));
+    }
+
+    /**
+     * Remove several statements from a method and update all references to them within one pass over the body.
+     *
+     * References to a removed statement are updated as if the statements were removed one after another:
+     * Branch targets, exception handlers and starts of ranges refer to the next statement that is not removed
+     * and ends of ranges refer to the previous statement that is not removed.
+     * Ranges that contain only removed statements are dropped.
+     *
+     * @param body The body of the method that contains the statements
+     * @param removedStatements the statements to be removed
+     */
+    public static void removeStatements(RefBody body, Set<? extends Statement> removedStatements) {
+        if (removedStatements.isEmpty()) {
+            return;
+        }
+
         InsertList<Statement> statements = body.getStatements();
 
+        // Map removed statements to the closest statements that are not removed
+        Map<Statement, Statement> nextKept = new HashMap<>();
+        Map<Statement, Statement> previousKept = new HashMap<>();
+        List<Statement> pending = new ArrayList<>();
+        Statement lastKept = null;
+        for (Statement statement : statements) {
+            if (removedStatements.contains(statement)) {
+                previousKept.put(statement, lastKept);
+                pending.add(statement);
+            } else {
+                for (Statement removed : pending) {
+                    nextKept.put(removed, statement);
+                }
+                pending.clear();
+                lastKept = statement;
+            }
+        }
+        for (Statement removed : pending) {
+            nextKept.put(removed, null);
+        }
+
         body.getTryCatchBlocks().removeIf(block -> {
-            if (block.getHandler() == statement) {
-                block.setHandler(statements.getNext(statement));
+            if (removedStatements.contains(block.getHandler())) {
+                block.setHandler(nextKept.get(block.getHandler()));
             }
-            return removeFromRange(statements, statement, block.getFirstCell(), block.getLastCell());
+            return removeFromRange(removedStatements, nextKept, previousKept, block.getFirstCell(), block.getLastCell());
         });
 
         body.getLocalVariables().removeIf(anno ->
-                removeFromRange(statements, statement, anno.getStartCell(), anno.getEndCell()));
+                removeFromRange(removedStatements, nextKept, previousKept, anno.getStartCell(), anno.getEndCell()));
 
         body.getLocalVariableAnnotations().removeIf(varAnno -> {
             varAnno.getLocations().removeIf(location ->
-                    removeFromRange(statements, statement, location.getStartCell(), location.getEndCell()));
+                    removeFromRange(removedStatements, nextKept, previousKept, location.getStartCell(), location.getEndCell()));
 
             return varAnno.getLocations().isEmpty();
         });
 
-        body.getLineNumbers().removeIf(lineNumber -> lineNumber.getStatement() == statement);
+        body.getLineNumbers().removeIf(lineNumber -> removedStatements.contains(lineNumber.getStatement()));
 
-        statements.stream().filter(stmt -> stmt instanceof BranchStmt)
-                .flatMap(stmt -> ((BranchStmt) stmt).getBranchTargetsCells().stream())
-                .filter(cell -> cell.get() == statement)
-                .forEach(cell -> cell.w(Statement.class).set(statements.getNext(statement)));
+        for (Statement statement : statements) {
+            if (statement instanceof BranchStmt && !removedStatements.contains(statement)) {
+                for (RWCell<Statement> cell : ((BranchStmt) statement).getBranchTargetsCells()) {
+                    if (removedStatements.contains(cell.get())) {
+                        cell.set(nextKept.get(cell.get()));
+                    }
+                }
+            }
+        }
 
-        statements.remove(statement);
+        for (Statement removed : removedStatements) {
+            statements.remove(removed);
+        }
     }
 
     /**
      * Update the bounds of a range if it starts or ends with a statement that should be removed.
      *
-     * @param statements all statements of the method
-     * @param statement the statement to be removed
+     * @param removedStatements the statements to be removed
+     * @param nextKept map removed statements to the next statement that is not removed
+     * @param previousKept map removed statements to the previous statement that is not removed
      * @param start the first statement of the range
      * @param end the last statement of the range
-     * @return did the range only contain the removed statement.
+     * @return did the range only contain removed statements.
      */
-    private static boolean removeFromRange(InsertList<Statement> statements, Statement statement, RWCell<Statement> start, RWCell<Statement> end) {
-        boolean isStart = start.get() == statement;
-        boolean isEnd = end.get() == statement;
-        if (isStart && isEnd) {
+    private static boolean removeFromRange(Set<? extends Statement> removedStatements,
+                                           Map<Statement, Statement> nextKept, Map<Statement, Statement> previousKept,
+                                           RWCell<Statement> start, RWCell<Statement> end) {
+        boolean isStartRemoved = removedStatements.contains(start.get());
+        boolean isEndRemoved = removedStatements.contains(end.get());
+
+        // No statement within the range is kept if the next kept statements after its start and end are the same
+        if (isStartRemoved && isEndRemoved && nextKept.get(start.get()) == nextKept.get(end.get())) {
             return true;
         }
 
-        if (isStart) {
-            start.set(statements.getNext(statement));
+        if (isStartRemoved) {
+            start.set(nextKept.get(start.get()));
         }
-        if (isEnd) {
-            end.set(statements.getPrevious(statement));
+        if (isEndRemoved) {
+            end.set(previousKept.get(end.get()));
         }
 
         return false;
@@ -85,10 +139,31 @@ public class CommonOperations {
      * @return was the local actually removed
      */
     public static boolean removeLocal(RefBody body, RefLocal local) {
-        if (RefUtils.getExpressionCells(body).anyMatch(cell -> cell.get() == local)) {
-            return false;
-        }
-        return body.getLocals().remove(local);
+        boolean[] isUsed = { false };
+        RefUtils.forEachExpression(body, expr -> {
+            if (expr == local) {
+                isUsed[0] = true;
+            }
+        });
+        return !isUsed[0] && body.getLocals().remove(local);
+    }
+
+    /**
+     * Remove all locals of a set from a RefBody that are no longer used anywhere within its body.
+     *
+     * Unlike calling {@link #removeLocal(RefBody, RefLocal)} for each local, the body is only scanned once.
+     *
+     * @param body the body containing the locals
+     * @param locals the locals to be removed
+     * @return the locals that were actually removed
+     */
+    public static Set<RefLocal> removeLocals(RefBody body, Set<RefLocal> locals) {
+        Set<RefLocal> unusedLocals = new HashSet<>(locals);
+        RefUtils.forEachExpression(body, unusedLocals::remove);
+
+        Set<RefLocal> removedLocals = new HashSet<>();
+        body.getLocals().removeIf(local -> unusedLocals.contains(local) && removedLocals.add(local));
+        return removedLocals;
     }
 
     /**
@@ -100,11 +175,17 @@ public class CommonOperations {
     public static Map<RefLocal, List<Statement>> getLocalReadMap(RefBody body) {
         final Map<RefLocal, List<Statement>> localReadMap = new HashMap<>();
         for (Statement statement : body.getStatements()) {
-            for (Expression expr : statement.getAllReadValues()) {
+            statement.forEachReadValueRecursively(expr -> {
                 if (expr instanceof RefLocal) {
-                    localReadMap.computeIfAbsent((RefLocal) expr, x -> new ArrayList<>()).add(statement);
+                    List<Statement> statements = localReadMap.computeIfAbsent((RefLocal) expr, x -> new ArrayList<>());
+
+                    // A statement may read the same local several times
+                    if (statements.isEmpty() || statements.get(statements.size() - 1) != statement) {
+                        statements.add(statement);
+                    }
                 }
-            }
+                return expr;
+            });
         }
         return localReadMap;
     }
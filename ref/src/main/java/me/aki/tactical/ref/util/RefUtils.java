@@ -3,12 +3,15 @@ package me.aki.tactical.ref.util;
 import me.aki.tactical.core.util.RCell;
 import me.aki.tactical.core.util.RWCell;
 import me.aki.tactical.ref.Expression;
+import me.aki.tactical.ref.ReadValueVisitor;
 import me.aki.tactical.ref.RefBody;
 import me.aki.tactical.ref.Statement;
+import me.aki.tactical.ref.TryCatchBlock;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -68,6 +71,29 @@ public class RefUtils {
         return Stream.concat(stmtRefs, tryCatchRefs);
     }
 
+    /**
+     * Visit all expressions within one method.
+     *
+     * Unlike {@link #getExpressionCells(RefBody)} no cells are allocated.
+     *
+     * @param refBody body of the method
+     * @param consumer gets called with each expression
+     */
+    public static void forEachExpression(RefBody refBody, Consumer<Expression> consumer) {
+        ReadValueVisitor visitor = value -> {
+            consumer.accept(value);
+            return value;
+        };
+
+        for (Statement statement : refBody.getStatements()) {
+            statement.forEachReadValueRecursively(visitor);
+        }
+
+        for (TryCatchBlock block : refBody.getTryCatchBlocks()) {
+            consumer.accept(block.getExceptionLocal());
+        }
+    }
+
     /**
      * Get a map that zips expressions of a method with all cells that currently point a them.
      *
@@ -5,7 +5,7 @@ import me.aki.tactical.core.type.Type;
 import me.aki.tactical.core.typeannotation.LocalVariableTypeAnnotation;
 import me.aki.tactical.core.util.RWCell;
 import me.aki.tactical.core.util.InsertList;
-import me.aki.tactical.core.util.LinkedInsertList;
+import me.aki.tactical.core.util.LinkedIdentityInsertList;
 import me.aki.tactical.stack.insn.Instruction;
 import me.aki.tactical.stack.insn.StoreInsn;
 
@@ -39,7 +39,7 @@ public class StackBody implements Body {
     /**
      * The instructions of this method
      */
-    private InsertList<Instruction> instructions = new LinkedInsertList<>();
+    private InsertList<Instruction> instructions = new LinkedIdentityInsertList<>();
 
     /**
      * The try-catch-blocks of this method.
@@ -181,6 +181,9 @@ public class StackBody implements Body {
          */
         private StackLocal local;
 
+        private RWCell<Instruction> startCell;
+        private RWCell<Instruction> endCell;
+
         public LocalVariable(String name, Type type, Optional<String> signature, Instruction start,
                              Instruction end, StackLocal local) {
             this.name = name;
@@ -224,7 +227,10 @@ public class StackBody implements Body {
         }
 
         public RWCell<Instruction> getStartCell() {
-            return RWCell.of(this::getStart, this::setStart, Instruction.class);
+            if (startCell == null) {
+                startCell = RWCell.of(this::getStart, this::setStart, Instruction.class);
+            }
+            return startCell;
         }
 
         public Instruction getEnd() {
@@ -236,7 +242,10 @@ public class StackBody implements Body {
         }
 
         public RWCell<Instruction> getEndCell() {
-            return RWCell.of(this::getEnd, this::setEnd, Instruction.class);
+            if (endCell == null) {
+                endCell = RWCell.of(this::getEnd, this::setEnd, Instruction.class);
+            }
+            return endCell;
         }
 
         public StackLocal getLocal() {
@@ -331,6 +340,9 @@ public class StackBody implements Body {
              */
             private StackLocal local;
 
+            private RWCell<Instruction> startCell;
+            private RWCell<Instruction> endCell;
+
             public Location(Instruction start, Instruction end, StackLocal local) {
                 this.start = start;
                 this.end = end;
@@ -346,7 +358,10 @@ public class StackBody implements Body {
             }
 
             public RWCell<Instruction> getStartCell() {
-                return RWCell.of(this::getStart, this::setStart, Instruction.class);
+                if (startCell == null) {
+                    startCell = RWCell.of(this::getStart, this::setStart, Instruction.class);
+                }
+                return startCell;
             }
 
             public Instruction getEnd() {
@@ -358,7 +373,10 @@ public class StackBody implements Body {
             }
 
             public RWCell<Instruction> getEndCell() {
-                return RWCell.of(this::getEnd, this::setEnd, Instruction.class);
+                if (endCell == null) {
+                    endCell = RWCell.of(this::getEnd, this::setEnd, Instruction.class);
+                }
+                return endCell;
             }
 
             public StackLocal getLocal() {
@@ -400,6 +418,8 @@ public class StackBody implements Body {
          */
         private Instruction instruction;
 
+        private RWCell<Instruction> instructionCell;
+
         public LineNumber(int line, Instruction instruction) {
             this.line = line;
             this.instruction = instruction;
@@ -422,7 +442,10 @@ public class StackBody implements Body {
         }
 
         public RWCell<Instruction> getInstructionCell() {
-            return RWCell.of(this::getInstruction, this::setInstruction, Instruction.class);
+            if (instructionCell == null) {
+                instructionCell = RWCell.of(this::getInstruction, this::setInstruction, Instruction.class);
+            }
+            return instructionCell;
         }
 
         @Override
@@ -40,6 +40,10 @@ public class TryCatchBlock {
      */
     private List<ExceptionTypeAnnotation> typeAnnotations = new ArrayList<>();
 
+    private RWCell<Instruction> firstCell;
+    private RWCell<Instruction> lastCell;
+    private RWCell<Instruction> handlerCell;
+
     public TryCatchBlock(Instruction first, Instruction last, Instruction handler, Optional<Path> exceptionType) {
         this.first = first;
         this.last = last;
@@ -56,7 +60,10 @@ public class TryCatchBlock {
     }
 
     public RWCell<Instruction> getFirstCell() {
-        return RWCell.of(this::getFirst, this::setFirst, Instruction.class);
+        if (firstCell == null) {
+            firstCell = RWCell.of(this::getFirst, this::setFirst, Instruction.class);
+        }
+        return firstCell;
     }
 
     public Instruction getLast() {
@@ -68,7 +75,10 @@ public class TryCatchBlock {
     }
 
     public RWCell<Instruction> getLastCell() {
-        return RWCell.of(this::getLast, this::setLast, Instruction.class);
+        if (lastCell == null) {
+            lastCell = RWCell.of(this::getLast, this::setLast, Instruction.class);
+        }
+        return lastCell;
     }
 
     public Instruction getHandler() {
@@ -80,7 +90,10 @@ public class TryCatchBlock {
     }
 
     public RWCell<Instruction> getHandlerCell() {
-        return RWCell.of(this::getHandler, this::setHandler, Instruction.class);
+        if (handlerCell == null) {
+            handlerCell = RWCell.of(this::getHandler, this::setHandler, Instruction.class);
+        }
+        return handlerCell;
     }
 
     public Optional<Path> getExceptionType() {
@@ -1,10 +1,13 @@
 package me.aki.tactical.stack.insn;
 
+import me.aki.tactical.core.type.ByteType;
+import me.aki.tactical.core.type.CharType;
 import me.aki.tactical.core.type.DoubleType;
 import me.aki.tactical.core.type.FloatType;
 import me.aki.tactical.core.type.IntType;
 import me.aki.tactical.core.type.LongType;
 import me.aki.tactical.core.type.RefType;
+import me.aki.tactical.core.type.ShortType;
 import me.aki.tactical.core.type.Type;
 
 /**
@@ -24,6 +27,7 @@ public class ArrayStoreInsn extends AbstractTypeInsn {
     @Override
     protected boolean isTypeSupported(Type type) {
         return type instanceof RefType ||
+                type instanceof ByteType || type instanceof ShortType || type instanceof CharType ||
                 type instanceof IntType || type instanceof LongType ||
                 type instanceof FloatType || type instanceof DoubleType;
     }
@@ -13,6 +13,8 @@ public class GotoInsn extends AbstractInstruction implements BranchInsn {
      */
     private Instruction target;
 
+    private RWCell<Instruction> targetCell;
+
     public GotoInsn(Instruction target) {
         this.target = target;
     }
@@ -26,7 +28,10 @@ public class GotoInsn extends AbstractInstruction implements BranchInsn {
     }
 
     public RWCell<Instruction> getTargetCell() {
-        return RWCell.of(this::getTarget, this::setTarget, Instruction.class);
+        if (targetCell == null) {
+            targetCell = RWCell.of(this::getTarget, this::setTarget, Instruction.class);
+        }
+        return targetCell;
     }
 
     @Override
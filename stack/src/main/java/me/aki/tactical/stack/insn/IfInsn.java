@@ -43,6 +43,8 @@ public class IfInsn extends AbstractInstruction implements BranchInsn {
      */
     private Instruction target;
 
+    private RWCell<Instruction> targetCell;
+
     public IfInsn(Condition condition, Instruction target) {
         this.condition = condition;
         this.target = target;
@@ -65,7 +67,10 @@ public class IfInsn extends AbstractInstruction implements BranchInsn {
     }
 
     public RWCell<Instruction> getTargetCell() {
-        return RWCell.of(this::getTarget, this::setTarget, Instruction.class);
+        if (targetCell == null) {
+            targetCell = RWCell.of(this::getTarget, this::setTarget, Instruction.class);
+        }
+        return targetCell;
     }
 
     @Override
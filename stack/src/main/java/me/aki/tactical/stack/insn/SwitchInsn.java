@@ -25,6 +25,8 @@ public class SwitchInsn extends AbstractInstruction implements BranchInsn {
      */
     private Instruction defaultLocation;
 
+    private RWCell<Instruction> defaultLocationCell;
+
     public SwitchInsn(LinkedHashMap<Integer, Instruction> branchTable, Instruction defaultLocation) {
         this.branchTable = branchTable;
         this.defaultLocation = defaultLocation;
@@ -57,7 +59,10 @@ public class SwitchInsn extends AbstractInstruction implements BranchInsn {
     }
 
     public RWCell<Instruction> getDefaultLocationCell() {
-        return RWCell.of(this::getDefaultLocation, this::setDefaultLocation, Instruction.class);
+        if (defaultLocationCell == null) {
+            defaultLocationCell = RWCell.of(this::getDefaultLocation, this::setDefaultLocation, Instruction.class);
+        }
+        return defaultLocationCell;
     }
 
     @Override
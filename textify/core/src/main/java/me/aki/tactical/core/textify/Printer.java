@@ -2,51 +2,126 @@ package me.aki.tactical.core.textify;
 
 import me.aki.tactical.core.Path;
 
-import java.util.ArrayList;
-import java.util.List;
-
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Print indented lines of tokens.
+ *
+ * The current line is collected in a scratch buffer and gets written to the output
+ * as soon as a new line is started, so the printed text is never held in memory as a whole.
+ */
 public class Printer {
     private final static String LINE_SEPARATOR = System.lineSeparator();
     private final static String INDENT_STRING = "  ";
 
     /**
-     * List of all lines of the file.
+     * The output that lines get written to.
+     */
+    private final Appendable out;
+
+    /**
+     * The output if the printer collects the text in memory, otherwise null.
      */
-    private List<Line> lines;
+    private final StringBuilder buffer;
 
+    /**
+     * Scratch buffer containing the content of the current line.
+     */
+    private final StringBuilder line = new StringBuilder();
+
+    /**
+     * Scratch buffer for passing the current line to a {@link Writer}.
+     */
+    private char[] chars = new char[0];
+
+    /**
+     * The indentation of the current line.
+     */
+    private int indent;
+
+    private boolean finished = false;
+
+    /**
+     * Create a printer that collects the text in memory.
+     * The text is available through {@link #toString()}.
+     */
     public Printer() {
-        this.lines = new ArrayList<>(List.of(new Line(0)));
+        this.buffer = new StringBuilder();
+        this.out = buffer;
+    }
+
+    /**
+     * Create a printer that writes all lines to an {@link Appendable} such as a {@link Writer}.
+     *
+     * Call {@link #finish()} to write the last line.
+     *
+     * @param out receives the printed text
+     */
+    public Printer(Appendable out) {
+        this.buffer = null;
+        this.out = out;
     }
 
-    private Line getLastLine() {
-        return this.lines.get(this.lines.size() - 1);
+    /**
+     * Create a printer that writes all lines UTF-8 encoded into a channel.
+     *
+     * Call {@link #finish()} to write the last line.
+     *
+     * @param channel receives the printed text
+     */
+    public Printer(WritableByteChannel channel) {
+        this(Channels.newWriter(channel, StandardCharsets.UTF_8));
     }
 
     /**
      * Increase the indentation of the current line by one.
      */
     public void increaseIndent() {
-        getLastLine().indent += 1;
+        indent += 1;
     }
 
     /**
      * Decrease the indentation of the current line by one.
      */
     public void decreaseIndent() {
-        Line lastLine = getLastLine();
-        lastLine.indent -= 1;
-
-        if (lastLine.indent < 0) {
+        if (indent == 0) {
             throw new IllegalStateException("Negative indent");
         }
+
+        indent -= 1;
     }
 
     /**
      * Start a new line
      */
     public void newLine() {
-        int indent = getLastLine().indent;
-        this.lines.add(new Line(indent));
+        requireNotFinished();
+        writeLine();
+    }
+
+    /**
+     * Write the current line and flush the output.
+     *
+     * Nothing can be printed afterwards.
+     */
+    public void finish() {
+        requireNotFinished();
+        writeLine();
+        finished = true;
+
+        if (out instanceof Flushable) {
+            try {
+                ((Flushable) out).flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
     }
 
     /**
@@ -55,7 +130,8 @@ public class Printer {
      * @param text to be appended
      */
     public void addText(String text) {
-        add(new TextToken(text));
+        requireNotFinished();
+        line.append(text);
     }
 
     /**
@@ -65,7 +141,8 @@ public class Printer {
      * @param quote string is quote by this character
      */
     public void addEscaped(String text, char quote) {
-        add(new EscapedToken(text, quote));
+        requireNotFinished();
+        TextUtil.printEscapedString(line, text, quote);
     }
 
     /**
@@ -74,7 +151,8 @@ public class Printer {
      * @param text to be appended
      */
     public void addLiteral(String text) {
-        add(new LiteralToken(text));
+        requireNotFinished();
+        TextUtil.printMaybeEscapedString(line, text);
     }
 
     /**
@@ -83,117 +161,71 @@ public class Printer {
      * @param path that gets appended
      */
     public void addPath(Path path) {
-        add(new PathToken(path));
-    }
-
-    /**
-     * Append a token to the current line.
-     *
-     * @param token that is added to the line
-     */
-    protected void add(Token token) {
-        getLastLine().tokens.add(token);
-    }
-
-    @Override
-    public String toString() {
-        StringBuilder builder = new StringBuilder();
-
-        for (Line line : this.lines) {
-            appendIndent(builder, line.indent);
-
-            for (Token token : line.tokens) {
-                token.append(builder);
-            }
-
-            builder.append(LINE_SEPARATOR);
+        requireNotFinished();
+        for (String pkg : path.getPackage()) {
+            TextUtil.printMaybeEscapedString(line, pkg);
+            line.append('.');
         }
-
-        return builder.toString();
+        TextUtil.printMaybeEscapedString(line, path.getName());
     }
 
-    private void appendIndent(StringBuilder builder, int indent) {
-        builder.ensureCapacity(INDENT_STRING.length() * indent);
-        for (int i = 0; i < indent; i++) {
-            builder.append(INDENT_STRING);
+    private void requireNotFinished() {
+        if (finished) {
+            throw new IllegalStateException("Printer is already finished");
         }
     }
 
-    private class Line {
-        /**
-         * The indentation of this line.
-         */
-        private int indent;
-
-        /**
-         * All tokens that form the content of this line.
-         */
-        private List<Token> tokens = new ArrayList<>();
-
-        public Line(int indent) {
-            this.indent = indent;
-        }
-    }
-
-    private interface Token {
-        void append(StringBuilder builder);
-    }
-
-    private class TextToken implements Token {
-        private String text;
-
-        public TextToken(String text) {
-            this.text = text;
-        }
-
-        @Override
-        public void append(StringBuilder builder) {
-            builder.append(text);
-        }
-    }
-
-    private class LiteralToken implements Token {
-        private String text;
-
-        public LiteralToken(String text) {
-            this.text = text;
-        }
-
-        @Override
-        public void append(StringBuilder builder) {
-            TextUtil.printMaybeEscapedString(builder, text);
-        }
-    }
+    /**
+     * Write the current line with its indentation to the output and start an empty line.
+     */
+    private void writeLine() {
+        try {
+            for (int i = 0; i < indent; i++) {
+                out.append(INDENT_STRING);
+            }
 
-    private class EscapedToken implements Token {
-        private String text;
-        private char quote;
+            if (out instanceof Writer) {
+                // Writer#append would copy the line into a new String
+                int length = line.length();
+                if (chars.length < length) {
+                    chars = new char[Math.max(length, chars.length * 2)];
+                }
+                line.getChars(0, length, chars, 0);
+                ((Writer) out).write(chars, 0, length);
+            } else {
+                out.append(line);
+            }
 
-        public EscapedToken(String text, char quote) {
-            this.text = text;
-            this.quote = quote;
+            out.append(LINE_SEPARATOR);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
 
-        @Override
-        public void append(StringBuilder builder) {
-            TextUtil.printEscapedString(builder, text, quote);
-        }
+        line.setLength(0);
     }
 
-    private class PathToken implements Token {
-        private Path path;
-
-        public PathToken(Path path) {
-            this.path = path;
+    /**
+     * Get the printed text of a printer that collects its text in memory.
+     *
+     * The current line is included as if the printer was finished.
+     *
+     * @return the printed text
+     */
+    @Override
+    public String toString() {
+        if (buffer == null) {
+            return super.toString();
         }
 
-        @Override
-        public void append(StringBuilder builder) {
-            for (String pkg : path.getPackage()) {
-                TextUtil.printMaybeEscapedString(builder, pkg);
-                builder.append('.');
+        StringBuilder builder = new StringBuilder(buffer.length() + INDENT_STRING.length() * indent + line.length() + LINE_SEPARATOR.length());
+        builder.append(buffer);
+        if (!finished) {
+            for (int i = 0; i < indent; i++) {
+                builder.append(INDENT_STRING);
             }
-            TextUtil.printMaybeEscapedString(builder, path.getName());
+            builder.append(line);
+            builder.append(LINE_SEPARATOR);
         }
+        return builder.toString();
     }
 }
@@ -9,4 +9,16 @@ public interface Textifier<T> {
         textify(printer, value);
         return printer.toString();
     }
+
+    /**
+     * Write the text of a value to an output without keeping it in memory.
+     *
+     * @param out receives the text
+     * @param value to be textified
+     */
+    default void print(Appendable out, T value) {
+        Printer printer = new Printer(out);
+        textify(printer, value);
+        printer.finish();
+    }
 }
@@ -9,6 +9,9 @@ import java.util.stream.Stream;
  * Build a Control-Flow-Graph of a method.
  * Each node in this graph corresponds to one instruction.
  *
+ * The nodes are built once they are first accessed.
+ * Analyses that do not require mutable nodes should prefer the more compact {@link #getDenseGraph() dense graph}.
+ *
  * @param <I> type of instructions in the cfg graph
  */
 public abstract class AbstractCfgGraph<I> {
@@ -20,10 +23,24 @@ public abstract class AbstractCfgGraph<I> {
 
     private Collection<TryCatchBlock> tryCatchBlocks;
 
+    private boolean isAnalyzed = false;
+
+    private DenseCfgGraph<I> denseGraph;
+
+    /**
+     * Build the nodes of the CFG graph unless that was already done.
+     */
+    protected void ensureAnalyzed() {
+        if (!isAnalyzed) {
+            analyze();
+        }
+    }
+
     /**
      * Start building the CFG graph.
      */
     protected void analyze() {
+        this.isAnalyzed = true;
         this.tryCatchBlocks = getTryCatchBlocks();
 
         startAnalyzingFrom(getHeadInsn());
@@ -64,6 +81,7 @@ public abstract class AbstractCfgGraph<I> {
     }
 
     protected Node getOrCreateNode(I insn) {
+        ensureAnalyzed();
         Node node = nodes.get(insn);
         if (node == null) {
             nodes.put(insn, node = new Node(insn));
@@ -77,6 +95,7 @@ public abstract class AbstractCfgGraph<I> {
      * @return entry point of the method
      */
     public Node getHead() {
+        ensureAnalyzed();
         return getNode(getHeadInsn());
     }
 
@@ -86,6 +105,7 @@ public abstract class AbstractCfgGraph<I> {
      * @return all try/catch handler nodes
      */
     public Set<Node> getHandlerNodes() {
+        ensureAnalyzed();
         return tryCatchBlocks.stream()
                 .map(block -> block.handler)
                 .map(this::getNode)
@@ -98,6 +118,7 @@ public abstract class AbstractCfgGraph<I> {
      * @return all nodes of the cfg
      */
     public Collection<Node> getNodes() {
+        ensureAnalyzed();
         return Collections.unmodifiableCollection(nodes.values());
     }
 
@@ -108,6 +129,7 @@ public abstract class AbstractCfgGraph<I> {
      * @return node or <tt>null</tt> for dead code.
      */
     public Node getNode(I instruction) {
+        ensureAnalyzed();
         return nodes.get(instruction);
     }
 
@@ -118,10 +140,24 @@ public abstract class AbstractCfgGraph<I> {
      * @return is the instruction dead code.
      */
     public boolean isDeadCode(I instruction) {
+        ensureAnalyzed();
         return !nodes.containsKey(instruction);
     }
 
-
+    /**
+     * Get a compact immutable representation of this graph.
+     *
+     * It is built from the same hooks as the nodes, but does not require them to be built.
+     * Changes made to the nodes of this graph are not reflected by the dense graph.
+     *
+     * @return the dense graph
+     */
+    public DenseCfgGraph<I> getDenseGraph() {
+        if (denseGraph == null) {
+            denseGraph = new DenseCfgGraph<>(this);
+        }
+        return denseGraph;
+    }
 
     /**
      * Get the first instruction of the method that is its entry point.
@@ -130,6 +166,13 @@ public abstract class AbstractCfgGraph<I> {
      */
     protected abstract I getHeadInsn();
 
+    /**
+     * Get all instructions in the order they appear within the method.
+     *
+     * @return all instructions including dead code
+     */
+    protected abstract Iterable<I> getInstructions();
+
     /**
      * Get a list of all try/catch blocks.
      *
@@ -202,6 +245,18 @@ public abstract class AbstractCfgGraph<I> {
             this.end = end;
             this.handler = handler;
         }
+
+        I getStart() {
+            return start;
+        }
+
+        I getEnd() {
+            return end;
+        }
+
+        I getHandler() {
+            return handler;
+        }
     }
 
     /**
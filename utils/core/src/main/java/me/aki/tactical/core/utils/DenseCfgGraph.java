@@ -0,0 +1,461 @@
+package me.aki.tactical.core.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A compact Control-Flow-Graph of a method, that is built from the same information as an {@link AbstractCfgGraph}.
+ *
+ * All instructions are numbered densely by their position within the method.
+ * Reachable instructions are grouped into basic blocks and the edges between blocks are stored
+ * in primitive int arrays (compressed sparse row layout), so no objects are allocated per instruction or edge.
+ *
+ * Like in the {@link AbstractCfgGraph}, there are no edges from instructions to exception handlers.
+ * Reachable exception handlers are entry points of the graph just like the first instruction.
+ *
+ * @param <I> type of instructions in the cfg graph
+ */
+public class DenseCfgGraph<I> {
+    /**
+     * All instructions of the method ordered by their index.
+     */
+    private final List<I> instructions;
+
+    /**
+     * Map instructions to their index.
+     */
+    private final Map<I, Integer> indices;
+
+    /**
+     * Map the index of an instruction to the block that contains it or <tt>-1</tt> if it is dead code.
+     */
+    private final int[] blockOfInsn;
+
+    /**
+     * Index of the first instruction of each block.
+     */
+    private final int[] blockStarts;
+
+    /**
+     * Index of the instruction after the last instruction of each block.
+     */
+    private final int[] blockEnds;
+
+    /**
+     * The successors of block <tt>b</tt> are stored in {@link #successors} starting at
+     * <tt>successorOffsets[b]</tt> (inclusive) until <tt>successorOffsets[b + 1]</tt> (exclusive).
+     */
+    private final int[] successorOffsets;
+    private final int[] successors;
+
+    /**
+     * The predecessors of a block, stored the same way as the {@link #successors}.
+     */
+    private final int[] predecessorOffsets;
+    private final int[] predecessors;
+
+    /**
+     * The block that contains the first instruction of the method.
+     */
+    private final int headBlock;
+
+    /**
+     * Blocks that start with the exception handler of a reachable try/catch block.
+     */
+    private final int[] handlerBlocks;
+
+    DenseCfgGraph(AbstractCfgGraph<I> graph) {
+        this.instructions = new ArrayList<>();
+        this.indices = new HashMap<>();
+        for (I instruction : graph.getInstructions()) {
+            indices.put(instruction, instructions.size());
+            instructions.add(instruction);
+        }
+
+        int insnCount = instructions.size();
+        Builder builder = new Builder(graph, insnCount);
+
+        int headInsn = getIndexOrThrow(graph.getHeadInsn());
+        builder.analyzeFrom(headInsn);
+
+        // Try/catch blocks protecting only dead code are ignored, like in the AbstractCfgGraph.
+        BitSet handlerInsns = new BitSet(insnCount);
+        for (AbstractCfgGraph<I>.TryCatchBlock block : graph.getTryCatchBlocks()) {
+            int start = getIndexOrThrow(block.getStart());
+            int end = block.getEnd() == null ? insnCount - 1 : getIndexOrThrow(block.getEnd());
+            int firstReachable = builder.reachable.nextSetBit(start);
+            if (firstReachable >= 0 && firstReachable <= end) {
+                handlerInsns.set(getIndexOrThrow(block.getHandler()));
+            }
+        }
+
+        for (int handler = handlerInsns.nextSetBit(0); handler >= 0; handler = handlerInsns.nextSetBit(handler + 1)) {
+            builder.analyzeFrom(handler);
+        }
+
+        this.blockOfInsn = new int[insnCount];
+        Arrays.fill(blockOfInsn, -1);
+
+        int blockCount = 0;
+        int[] starts = new int[16];
+        int[] ends = new int[16];
+        for (int insn = builder.reachable.nextSetBit(0); insn >= 0; insn = builder.reachable.nextSetBit(insn + 1)) {
+            if (insn == headInsn || handlerInsns.get(insn) || builder.isBlockStart(insn)) {
+                if (blockCount == starts.length) {
+                    starts = Arrays.copyOf(starts, blockCount * 2);
+                    ends = Arrays.copyOf(ends, blockCount * 2);
+                }
+                starts[blockCount++] = insn;
+            }
+
+            blockOfInsn[insn] = blockCount - 1;
+            ends[blockCount - 1] = insn + 1;
+        }
+        this.blockStarts = Arrays.copyOf(starts, blockCount);
+        this.blockEnds = Arrays.copyOf(ends, blockCount);
+
+        this.headBlock = blockOfInsn[headInsn];
+        this.handlerBlocks = handlerInsns.stream().map(insn -> blockOfInsn[insn]).toArray();
+
+        // Count the edges between blocks, that are the edges leaving the last instruction of a block.
+        // Branch targets may be listed several times, so the edges are deduplicated per block.
+        int[] successorCounts = new int[blockCount];
+        int[] predecessorCounts = new int[blockCount];
+        int[] blockSuccessors = new int[builder.edgeCount];
+        int blockEdgeCount = 0;
+        for (int block = 0; block < blockCount; block++) {
+            int lastInsn = blockEnds[block] - 1;
+
+            int from = blockEdgeCount;
+            for (int edge = builder.edgeOffsets[lastInsn]; edge < builder.edgeOffsets[lastInsn] + builder.edgeCounts[lastInsn]; edge++) {
+                blockSuccessors[blockEdgeCount++] = blockOfInsn[builder.edgeTargets[edge]];
+            }
+
+            Arrays.sort(blockSuccessors, from, blockEdgeCount);
+            int distinctEnd = from;
+            for (int i = from; i < blockEdgeCount; i++) {
+                if (i == from || blockSuccessors[i] != blockSuccessors[i - 1]) {
+                    blockSuccessors[distinctEnd++] = blockSuccessors[i];
+                }
+            }
+            blockEdgeCount = distinctEnd;
+
+            successorCounts[block] = blockEdgeCount - from;
+            for (int i = from; i < blockEdgeCount; i++) {
+                predecessorCounts[blockSuccessors[i]]++;
+            }
+        }
+
+        this.successorOffsets = new int[blockCount + 1];
+        this.successors = Arrays.copyOf(blockSuccessors, blockEdgeCount);
+        for (int block = 0; block < blockCount; block++) {
+            successorOffsets[block + 1] = successorOffsets[block] + successorCounts[block];
+        }
+
+        this.predecessorOffsets = new int[blockCount + 1];
+        for (int block = 0; block < blockCount; block++) {
+            predecessorOffsets[block + 1] = predecessorOffsets[block] + predecessorCounts[block];
+        }
+
+        this.predecessors = new int[blockEdgeCount];
+        int[] predecessorFill = Arrays.copyOf(predecessorOffsets, blockCount);
+        for (int block = 0; block < blockCount; block++) {
+            for (int i = successorOffsets[block]; i < successorOffsets[block + 1]; i++) {
+                predecessors[predecessorFill[successors[i]]++] = block;
+            }
+        }
+    }
+
+    private int getIndexOrThrow(I instruction) {
+        Integer index = indices.get(instruction);
+        if (index == null) {
+            throw new IllegalStateException("Instruction is not part of the method");
+        }
+        return index;
+    }
+
+    /**
+     * Get the amount of instructions within the method, including dead code.
+     *
+     * @return amount of instructions
+     */
+    public int getInstructionCount() {
+        return instructions.size();
+    }
+
+    /**
+     * Get an instruction by its index.
+     *
+     * @param index index of the instruction
+     * @return the instruction
+     */
+    public I getInstruction(int index) {
+        return instructions.get(index);
+    }
+
+    /**
+     * Get the index of an instruction.
+     *
+     * @param instruction an instruction of the method
+     * @return index of the instruction or <tt>-1</tt> if the instruction is not part of the method.
+     */
+    public int getIndex(I instruction) {
+        Integer index = indices.get(instruction);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Check whether a instruction cannot be reached.
+     *
+     * @param instruction the instruction
+     * @return is the instruction dead code.
+     */
+    public boolean isDeadCode(I instruction) {
+        int index = getIndex(instruction);
+        return index < 0 || blockOfInsn[index] < 0;
+    }
+
+    /**
+     * Execute a function for each reachable instruction, ordered by their index.
+     *
+     * @param function the function to be executed
+     */
+    public void forEachInstruction(Consumer<I> function) {
+        for (int block = 0; block < getBlockCount(); block++) {
+            for (int insn = blockStarts[block]; insn < blockEnds[block]; insn++) {
+                function.accept(instructions.get(insn));
+            }
+        }
+    }
+
+    /**
+     * Get all reachable instructions that may be executed directly after an instruction.
+     *
+     * This is the equivalent of the {@link AbstractCfgGraph.Node#getSucceeding() succeeding nodes}.
+     *
+     * @param instruction a reachable instruction
+     * @return the succeeding instructions
+     */
+    public List<I> getSucceeding(I instruction) {
+        int index = getReachableIndex(instruction);
+        int block = blockOfInsn[index];
+        if (index + 1 < blockEnds[block]) {
+            return Collections.singletonList(instructions.get(index + 1));
+        }
+
+        List<I> succeeding = new ArrayList<>(getSuccessorCount(block));
+        for (int i = successorOffsets[block]; i < successorOffsets[block + 1]; i++) {
+            succeeding.add(instructions.get(blockStarts[successors[i]]));
+        }
+        return succeeding;
+    }
+
+    /**
+     * Get all reachable instructions that may be executed directly before an instruction.
+     *
+     * This is the equivalent of the {@link AbstractCfgGraph.Node#getPreceding() preceding nodes}.
+     *
+     * @param instruction a reachable instruction
+     * @return the preceding instructions
+     */
+    public List<I> getPreceding(I instruction) {
+        int index = getReachableIndex(instruction);
+        int block = blockOfInsn[index];
+        if (index > blockStarts[block]) {
+            return Collections.singletonList(instructions.get(index - 1));
+        }
+
+        List<I> preceding = new ArrayList<>(getPredecessorCount(block));
+        for (int i = predecessorOffsets[block]; i < predecessorOffsets[block + 1]; i++) {
+            preceding.add(instructions.get(blockEnds[predecessors[i]] - 1));
+        }
+        return preceding;
+    }
+
+    private int getReachableIndex(I instruction) {
+        int index = getIndexOrThrow(instruction);
+        if (blockOfInsn[index] < 0) {
+            throw new IllegalArgumentException("Instruction is dead code");
+        }
+        return index;
+    }
+
+    /**
+     * Get the amount of basic blocks.
+     *
+     * Blocks are numbered by the order of their instructions.
+     *
+     * @return amount of blocks
+     */
+    public int getBlockCount() {
+        return blockStarts.length;
+    }
+
+    /**
+     * Get the block that contains the first instruction of the method.
+     *
+     * @return the entry block
+     */
+    public int getHeadBlock() {
+        return headBlock;
+    }
+
+    /**
+     * Get the blocks that start with an exception handler of a reachable try/catch block.
+     *
+     * @return the handler blocks in ascending order
+     */
+    public int[] getHandlerBlocks() {
+        return handlerBlocks.clone();
+    }
+
+    /**
+     * Get the block that contains an instruction.
+     *
+     * @param index index of the instruction
+     * @return the block or <tt>-1</tt> if the instruction is dead code
+     */
+    public int getBlock(int index) {
+        return blockOfInsn[index];
+    }
+
+    /**
+     * Get the index of the first instruction of a block.
+     *
+     * @param block the block
+     * @return index of its first instruction
+     */
+    public int getBlockStart(int block) {
+        return blockStarts[block];
+    }
+
+    /**
+     * Get the index after the last instruction of a block.
+     *
+     * @param block the block
+     * @return index after its last instruction
+     */
+    public int getBlockEnd(int block) {
+        return blockEnds[block];
+    }
+
+    public int getSuccessorCount(int block) {
+        return successorOffsets[block + 1] - successorOffsets[block];
+    }
+
+    /**
+     * Get a block that may be executed after a block.
+     *
+     * @param block the block
+     * @param n number of the successor, less than the {@link #getSuccessorCount(int) successor count}
+     * @return the n-th succeeding block
+     */
+    public int getSuccessor(int block, int n) {
+        return successors[successorOffsets[block] + n];
+    }
+
+    public int getPredecessorCount(int block) {
+        return predecessorOffsets[block + 1] - predecessorOffsets[block];
+    }
+
+    /**
+     * Get a block that may be executed before a block.
+     *
+     * @param block the block
+     * @param n number of the predecessor, less than the {@link #getPredecessorCount(int) predecessor count}
+     * @return the n-th preceding block
+     */
+    public int getPredecessor(int block, int n) {
+        return predecessors[predecessorOffsets[block] + n];
+    }
+
+    /**
+     * Discovers the reachable instructions and the edges between them.
+     */
+    private class Builder {
+        private final AbstractCfgGraph<I> graph;
+
+        private final BitSet reachable;
+
+        /**
+         * The outgoing edges of an instruction are stored in {@link #edgeTargets} starting at its offset.
+         */
+        private final int[] edgeOffsets;
+        private final int[] edgeCounts;
+        private int[] edgeTargets = new int[16];
+        private int edgeCount = 0;
+
+        /**
+         * Amount of edges leading to an instruction.
+         */
+        private final int[] incomingCounts;
+
+        private Builder(AbstractCfgGraph<I> graph, int insnCount) {
+            this.graph = graph;
+            this.reachable = new BitSet(insnCount);
+            this.edgeOffsets = new int[insnCount];
+            this.edgeCounts = new int[insnCount];
+            this.incomingCounts = new int[insnCount];
+        }
+
+        private void analyzeFrom(int start) {
+            if (reachable.get(start)) {
+                return;
+            }
+            reachable.set(start);
+
+            int[] worklist = new int[16];
+            int worklistSize = 0;
+            worklist[worklistSize++] = start;
+
+            while (worklistSize > 0) {
+                int insn = worklist[--worklistSize];
+                edgeOffsets[insn] = edgeCount;
+
+                Iterator<I> iterator = graph.getReachableInstructions(instructions.get(insn)).iterator();
+                while (iterator.hasNext()) {
+                    I next = iterator.next();
+                    if (next == null) {
+                        throw new IllegalStateException("Illegal end of method");
+                    }
+
+                    int target = getIndexOrThrow(next);
+                    if (edgeCount == edgeTargets.length) {
+                        edgeTargets = Arrays.copyOf(edgeTargets, edgeCount * 2);
+                    }
+                    edgeTargets[edgeCount++] = target;
+                    edgeCounts[insn]++;
+                    incomingCounts[target]++;
+
+                    if (!reachable.get(target)) {
+                        reachable.set(target);
+                        if (worklistSize == worklist.length) {
+                            worklist = Arrays.copyOf(worklist, worklistSize * 2);
+                        }
+                        worklist[worklistSize++] = target;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Check whether a reachable instruction must be the first instruction of a block.
+         * That is the case unless it is only reached by falling through from the previous instruction.
+         */
+        private boolean isBlockStart(int insn) {
+            if (insn == 0 || !reachable.get(insn - 1) || incomingCounts[insn] != 1) {
+                return true;
+            }
+
+            int previous = insn - 1;
+            return edgeCounts[previous] != 1 || edgeTargets[edgeOffsets[previous]] != insn;
+        }
+    }
+}
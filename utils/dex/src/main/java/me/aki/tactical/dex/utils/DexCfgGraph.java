@@ -14,13 +14,17 @@ public class DexCfgGraph extends AbstractCfgGraph<Instruction> {
 
     public DexCfgGraph(DexBody body) {
         this.body = body;
-        this.analyze();
     }
 
     public DexBody getBody() {
         return body;
     }
 
+    @Override
+    protected Iterable<Instruction> getInstructions() {
+        return body.getInstructions();
+    }
+
     @Override
     protected Instruction getHeadInsn() {
         return body.getInstructions().getFirst();
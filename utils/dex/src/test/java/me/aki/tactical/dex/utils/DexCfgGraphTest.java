@@ -10,6 +10,7 @@ import me.aki.tactical.core.type.IntType;
 import me.aki.tactical.core.type.ObjectType;
 import me.aki.tactical.core.util.InsertList;
 import me.aki.tactical.core.utils.AbstractCfgGraph;
+import me.aki.tactical.core.utils.DenseCfgGraph;
 import me.aki.tactical.dex.DexBody;
 import me.aki.tactical.dex.Register;
 import me.aki.tactical.dex.insn.*;
@@ -21,7 +22,9 @@ import java.util.*;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class DexCfgGraphTest {
     @Test
@@ -258,6 +261,68 @@ public class DexCfgGraphTest {
         assertCfgNode(cfg, insn4, Set.of(insn3), Set.of());
     }
 
+    @Test
+    public void testDenseGraph() {
+        DexBody body = newBody(1, false, 0);
+        Register register = body.getRegisters().get(0);
+        InsertList<Instruction> instructions = body.getInstructions();
+
+        Instruction insn0 = new ConstInstruction(new IntConstant(4), register);
+        IfInstruction insn1 = new IfInstruction(IfInstruction.Comparison.EQUAL, register, Optional.empty(), null);
+        Instruction insn2 = new ConstInstruction(new IntConstant(5), register);
+        GotoInstruction insn3 = new GotoInstruction(null);
+        Instruction insn4 = new MulLitInstruction(register, (short) 2, register);
+        Instruction insn5 = new ReturnInstruction(register);
+        Instruction insn6 = new ConstInstruction(new IntConstant(6), register);
+        insn1.setTarget(insn4);
+        insn3.setTarget(insn5);
+
+        instructions.addAll(List.of(insn0, insn1, insn2, insn3, insn4, insn5, insn6));
+        DexCfgGraph cfg = new DexCfgGraph(body);
+        DenseCfgGraph<Instruction> dense = cfg.getDenseGraph();
+
+        // Block 0: 0 1
+        //          |  \
+        // Block 1: 2 3 |
+        //            | Block 2: 4
+        //            | /
+        // Block 3:   5
+        //
+        // 6 is dead code
+        assertEquals(4, dense.getBlockCount());
+        assertEquals(0, dense.getHeadBlock());
+        assertArrayEquals(new int[] { 0, 0, 1, 1, 2, 3, -1 },
+                List.of(insn0, insn1, insn2, insn3, insn4, insn5, insn6).stream()
+                        .mapToInt(insn -> dense.getBlock(dense.getIndex(insn)))
+                        .toArray());
+        assertTrue(dense.isDeadCode(insn6));
+
+        assertBlockEdges(dense, 0, Set.of(), Set.of(1, 2));
+        assertBlockEdges(dense, 1, Set.of(0), Set.of(3));
+        assertBlockEdges(dense, 2, Set.of(0), Set.of(3));
+        assertBlockEdges(dense, 3, Set.of(1, 2), Set.of());
+
+        // The instruction level view is the same as the one of the nodes
+        for (Instruction insn : List.of(insn0, insn1, insn2, insn3, insn4, insn5)) {
+            assertCfgNode(cfg, insn, Set.copyOf(dense.getPreceding(insn)), Set.copyOf(dense.getSucceeding(insn)));
+        }
+    }
+
+    private void assertBlockEdges(DenseCfgGraph<Instruction> dense, int block, Set<Integer> predecessors, Set<Integer> successors) {
+        Set<Integer> actualPredecessors = new HashSet<>();
+        for (int i = 0; i < dense.getPredecessorCount(block); i++) {
+            actualPredecessors.add(dense.getPredecessor(block, i));
+        }
+
+        Set<Integer> actualSuccessors = new HashSet<>();
+        for (int i = 0; i < dense.getSuccessorCount(block); i++) {
+            actualSuccessors.add(dense.getSuccessor(block, i));
+        }
+
+        assertEquals(predecessors, actualPredecessors);
+        assertEquals(successors, actualSuccessors);
+    }
+
     /**
      * Assert that the body and CFG contain a list of instructions in that order.
      *
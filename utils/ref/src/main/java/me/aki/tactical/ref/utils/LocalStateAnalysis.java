@@ -1,35 +1,60 @@
 package me.aki.tactical.ref.utils;
 
+import me.aki.tactical.core.utils.DenseCfgGraph;
 import me.aki.tactical.ref.RefBody;
 import me.aki.tactical.ref.RefLocal;
 import me.aki.tactical.ref.Statement;
 import me.aki.tactical.ref.stmt.AssignStmt;
 import me.aki.tactical.ref.util.CommonOperations;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
-import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 /**
  * Analyse the possible values that locals may have at certain locations in code.
+ *
+ * The states of all locals are numbered and propagated together as bit vectors through the
+ * blocks of the {@link DenseCfgGraph} (a reaching definitions analysis).
+ * States at single statements are derived on demand from the states at the start of their block.
  */
 public class LocalStateAnalysis {
     private final RefBody body;
     private final RefCfgGraph graph;
+    private final DenseCfgGraph<Statement> denseGraph;
     private final Map<RefLocal, LocalStates> locals;
     private final Map<RefLocal, List<Statement>> localReadMap;
     private final Map<RefLocal, List<AssignStmt>> localWriteMap;
 
+    /**
+     * The states of all locals, numbered by their index.
+     * The states of one local are numbered consecutively.
+     */
+    private final List<State> states = new ArrayList<>();
+
+    /**
+     * The local states that each state belongs to, indexed by the number of the state.
+     */
+    private final List<LocalStates> stateOwners = new ArrayList<>();
+
+    /**
+     * Map the index of a statement to the number of the state that it assigns, or <tt>-1</tt>.
+     */
+    private final int[] stateOfInsn;
+
+    /**
+     * The states of all locals that may reach the first statement of each block.
+     */
+    private BitSet[] blockStates;
+
     public LocalStateAnalysis(RefCfgGraph graph) {
         this(graph, CommonOperations.getLocalReadMap(graph.getBody()), CommonOperations.getLocalWriteMap(graph.getBody()));
     }
@@ -37,11 +62,24 @@ public class LocalStateAnalysis {
     public LocalStateAnalysis(RefCfgGraph graph, Map<RefLocal, List<Statement>> localReadMap, Map<RefLocal, List<AssignStmt>> localWriteMap) {
         this.graph  = graph;
         this.body = graph.getBody();
+        this.denseGraph = graph.getDenseGraph();
 
         this.localReadMap = localReadMap;
         this.localWriteMap = localWriteMap;
 
-        this.locals = body.getLocals().stream().collect(Collectors.toMap(Function.identity(), LocalStates::new));
+        this.stateOfInsn = new int[denseGraph.getInstructionCount()];
+        Arrays.fill(stateOfInsn, -1);
+
+        this.locals = new HashMap<>();
+        for (RefLocal local : body.getLocals()) {
+            locals.put(local, new LocalStates(local));
+        }
+
+        analyzeStates();
+
+        for (LocalStates localStates : locals.values()) {
+            localStates.buildAssignGroups();
+        }
     }
 
 
@@ -55,16 +93,93 @@ public class LocalStateAnalysis {
         return locals.get(local);
     }
 
+    /**
+     * Propagate the states of all locals through the blocks of the cfg until a fixpoint is reached.
+     *
+     * An assignment kills all other states of its local and the assigned state holds from the succeeding statement on.
+     * There are no edges to exception handlers, so states do only reach handlers through normal control flow.
+     */
+    private void analyzeStates() {
+        int blockCount = denseGraph.getBlockCount();
+        int stateCount = states.size();
+
+        BitSet[] gen = new BitSet[blockCount];
+        BitSet[] kill = new BitSet[blockCount];
+        this.blockStates = new BitSet[blockCount];
+
+        for (int block = 0; block < blockCount; block++) {
+            gen[block] = new BitSet(stateCount);
+            kill[block] = new BitSet(stateCount);
+            blockStates[block] = new BitSet(stateCount);
+
+            for (int insn = denseGraph.getBlockStart(block); insn < denseGraph.getBlockEnd(block); insn++) {
+                int state = stateOfInsn[insn];
+                if (state >= 0) {
+                    LocalStates owner = stateOwners.get(state);
+                    kill[block].set(owner.firstState, owner.endState);
+                    gen[block].clear(owner.firstState, owner.endState);
+                    gen[block].set(state);
+                }
+            }
+        }
+
+        // "this" and parameter states are assigned before the first statement
+        for (int state = 0; state < stateCount; state++) {
+            if (!(states.get(state) instanceof State.Stmt)) {
+                blockStates[denseGraph.getHeadBlock()].set(state);
+            }
+        }
+
+        // A block is at most once within the queue, so the circular queue cannot overflow.
+        int[] queue = new int[blockCount];
+        boolean[] isQueued = new boolean[blockCount];
+        int queueStart = 0;
+        int queueSize = blockCount;
+        for (int block = 0; block < blockCount; block++) {
+            queue[block] = block;
+            isQueued[block] = true;
+        }
+
+        while (queueSize > 0) {
+            int block = queue[queueStart];
+            queueStart = (queueStart + 1) % blockCount;
+            queueSize--;
+            isQueued[block] = false;
+
+            BitSet out = (BitSet) blockStates[block].clone();
+            out.andNot(kill[block]);
+            out.or(gen[block]);
+
+            for (int i = 0; i < denseGraph.getSuccessorCount(block); i++) {
+                int successor = denseGraph.getSuccessor(block, i);
+                BitSet in = blockStates[successor];
+
+                int oldCardinality = in.cardinality();
+                in.or(out);
+                if (in.cardinality() != oldCardinality && !isQueued[successor]) {
+                    queue[(queueStart + queueSize) % blockCount] = successor;
+                    queueSize++;
+                    isQueued[successor] = true;
+                }
+            }
+        }
+    }
+
     public class LocalStates {
         private final RefLocal local;
         private final Set<Statement> reads;
         private final Set<AssignStmt> writes;
 
         /**
-         * Map statements that reference the local to all possible states of the local.
+         * The states of this local are numbered from <tt>firstState</tt> (inclusive) until <tt>endState</tt> (exclusive).
          */
-        private Map<Statement, Set<State>> stmtToStates;
+        private final int firstState;
+        private final int endState;
 
+        /**
+         * Map states to all statements where the local may have that state.
+         * It is computed on the first request.
+         */
         private Map<State, Set<Statement>> stateToStmts;
 
         /**
@@ -78,8 +193,9 @@ public class LocalStateAnalysis {
             this.reads = new HashSet<>(localReadMap.getOrDefault(local, Collections.emptyList()));
             this.writes = new HashSet<>(localWriteMap.getOrDefault(local, Collections.emptyList()));
 
-            buildStateMap();
-            buildAssignGroups();
+            this.firstState = states.size();
+            registerStates();
+            this.endState = states.size();
         }
 
         /**
@@ -107,7 +223,25 @@ public class LocalStateAnalysis {
          * @return all possible states of the local
          */
         public Set<State> getStates(Statement statement) {
-            return stmtToStates.getOrDefault(statement, Collections.emptySet());
+            int insn = denseGraph.getIndex(statement);
+            if (insn < 0 || denseGraph.getBlock(insn) < 0) {
+                return Collections.emptySet();
+            }
+
+            // The last assignment within the same block overrides all states reaching the block.
+            int block = denseGraph.getBlock(insn);
+            for (int previous = insn - 1; previous >= denseGraph.getBlockStart(block); previous--) {
+                if (isStateOfLocal(stateOfInsn[previous])) {
+                    return Collections.singleton(states.get(stateOfInsn[previous]));
+                }
+            }
+
+            Set<State> statesAtInsn = new HashSet<>();
+            BitSet in = blockStates[block];
+            for (int state = in.nextSetBit(firstState); state >= 0 && state < endState; state = in.nextSetBit(state + 1)) {
+                statesAtInsn.add(states.get(state));
+            }
+            return statesAtInsn;
         }
 
         /**
@@ -117,6 +251,10 @@ public class LocalStateAnalysis {
          * @return all statements that may have the requested state
          */
         public Set<Statement> getStatement(State state) {
+            if (stateToStmts == null) {
+                buildStateMap();
+            }
+
             return stateToStmts.getOrDefault(state, Collections.emptySet());
         }
 
@@ -129,110 +267,117 @@ public class LocalStateAnalysis {
             return groups;
         }
 
-        private void buildStateMap() {
-            this.stmtToStates = new HashMap<>();
-            this.stateToStmts = new HashMap<>();
-
-            for (State assign : getLocalStates(body, local, graph, writes)) {
-                analyzeCfgForward(assign.getNode(), node -> {
-                    Statement stmt = node.getInstruction();
-                    this.stmtToStates.computeIfAbsent(stmt, x -> new HashSet<>()).add(assign);
-                    this.stateToStmts.computeIfAbsent(assign, x -> new HashSet<>()).add(stmt);
-
-                    return !writes.contains(stmt);
-                });
-            }
+        private boolean isStateOfLocal(int state) {
+            return state >= firstState && state < endState;
         }
 
-        private List<State> getLocalStates(RefBody body, RefLocal local, RefCfgGraph graph, Set<AssignStmt> writes) {
-            final List<State> assign = new ArrayList<>();
-
+        private void registerStates() {
             body.getThisLocal().ifPresent(thisLocal -> {
                 if (thisLocal == local) {
-                    assign.add(new State.This(graph.getHead()));
+                    registerState(new State.This(graph.getHead()));
                 }
             });
 
             int paramIndex = 0;
             for (RefLocal argumentLocal : body.getArgumentLocals()) {
                 if (argumentLocal == local) {
-                    assign.add(new State.Parameter(graph.getHead(), paramIndex));
+                    registerState(new State.Parameter(graph.getHead(), paramIndex));
                 }
                 paramIndex += 1;
             }
 
-            for (AssignStmt write : writes) {
-                assign.add(new State.Stmt(graph.getNode(body.getStatements().getNext(write)), write));
+            for (AssignStmt write : localWriteMap.getOrDefault(local, Collections.emptyList())) {
+                int state = registerState(new State.Stmt(graph.getNode(body.getStatements().getNext(write)), write));
+                stateOfInsn[denseGraph.getIndex(write)] = state;
             }
+        }
 
-            return assign;
+        private int registerState(State state) {
+            states.add(state);
+            stateOwners.add(this);
+            return states.size() - 1;
         }
 
         /**
-         * Walk forward through the CFG starting at a certain node.
-         * The function passed as parameter is evaluated for every node on the way.
-         * If the lambda evaluates to <tt>false</tt>, then the succeeding nodes will not be visited.
-         *
-         * Nodes that have already been visited will not be visited again.
+         * Sweep over all blocks that this local may have a state in.
+         */
+        private void buildStateMap() {
+            this.stateToStmts = new HashMap<>();
+
+            BitSet current = new BitSet();
+            for (int block = 0; block < denseGraph.getBlockCount(); block++) {
+                current.clear();
+                current.or(blockStates[block]);
+                current.clear(0, firstState);
+                current.clear(endState, states.size());
+
+                for (int insn = denseGraph.getBlockStart(block); insn < denseGraph.getBlockEnd(block); insn++) {
+                    Statement statement = denseGraph.getInstruction(insn);
+                    for (int state = current.nextSetBit(0); state >= 0; state = current.nextSetBit(state + 1)) {
+                        stateToStmts.computeIfAbsent(states.get(state), x -> new HashSet<>()).add(statement);
+                    }
+
+                    if (isStateOfLocal(stateOfInsn[insn])) {
+                        current.clear();
+                        current.set(stateOfInsn[insn]);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Merge all states that may reach the same statement, using a union-find structure.
          *
-         * @param start start the analysis from that node
-         * @param visit the function that is evaluated for each visited node
+         * Within a block, the states of the local are either those reaching the block
+         * or the single state of the last assignment, so it suffices to merge the states at the start of blocks.
          */
-        private void analyzeCfgForward(RefCfgGraph.Node start, Function<RefCfgGraph.Node, Boolean> visit) {
-            Deque<RefCfgGraph.Node> worklist = new ArrayDeque<>();
-            Set<RefCfgGraph.Node> visited = new HashSet<>();
-            worklist.add(start);
+        private void buildAssignGroups() {
+            int[] parents = new int[endState - firstState];
+            for (int i = 0; i < parents.length; i++) {
+                parents[i] = i;
+            }
 
-            while (!worklist.isEmpty()) {
-                RefCfgGraph.Node node = worklist.poll();
+            // states that reach at least one statement
+            BitSet reaching = new BitSet();
 
-                boolean alreadyVisited = !visited.add(node);
-                if (alreadyVisited) {
-                    continue;
+            for (int block = 0; block < denseGraph.getBlockCount(); block++) {
+                BitSet in = blockStates[block];
+                int first = in.nextSetBit(firstState);
+                for (int state = first; state >= 0 && state < endState; state = in.nextSetBit(state + 1)) {
+                    reaching.set(state - firstState);
+                    union(parents, first - firstState, state - firstState);
                 }
 
-                if (visit.apply(node)) {
-                    worklist.addAll(node.getSucceeding());
+                for (int insn = denseGraph.getBlockStart(block); insn < denseGraph.getBlockEnd(block); insn++) {
+                    if (isStateOfLocal(stateOfInsn[insn])) {
+                        reaching.set(stateOfInsn[insn] - firstState);
+                    }
                 }
             }
+
+            Map<Integer, Set<State>> groupMap = new LinkedHashMap<>();
+            for (int state = reaching.nextSetBit(0); state >= 0; state = reaching.nextSetBit(state + 1)) {
+                groupMap.computeIfAbsent(find(parents, state), x -> new HashSet<>()).add(states.get(firstState + state));
+            }
+
+            this.groups = new ArrayList<>(groupMap.values());
         }
 
-        private void buildAssignGroups() {
-            this.groups = new ArrayList<>();
-
-            // Maps local-writes to the group that they are currently in
-            Map<State, Set<State>> groupMap = new HashMap<>();
-
-            stmtToStates.forEach((stmt, assigns) -> {
-                Iterator<State> iterator = assigns.iterator();
-
-                // get or create the group for the first assign
-                final Set<State> group = groupMap.computeIfAbsent(iterator.next(), firstAssign -> {
-                    Set<State> newGroup = new HashSet<>(Collections.singleton(firstAssign));
-                    this.groups.add(newGroup);
-                    return newGroup;
-                });
-
-                // merge the first group with the groups of all other assigns if necessary
-                iterator.forEachRemaining(assign -> {
-                    if (!group.contains(assign)) {
-                        Set<State> oldGroup = groupMap.remove(assign);
-                        if (oldGroup == null) {
-                            // add to group
-                            group.add(assign);
-                            groupMap.put(assign, group);
-                        } else {
-                            // merge with other group
-                            for (State groupMember : oldGroup) {
-                                groupMap.put(groupMember, group);
-                                group.add(groupMember);
-                            }
-
-                            this.groups.remove(oldGroup);
-                        }
-                    }
-                });
-            });
+        private int find(int[] parents, int state) {
+            while (parents[state] != state) {
+                // path halving
+                parents[state] = parents[parents[state]];
+                state = parents[state];
+            }
+            return state;
+        }
+
+        private void union(int[] parents, int a, int b) {
+            int rootA = find(parents, a);
+            int rootB = find(parents, b);
+            if (rootA != rootB) {
+                parents[rootB] = rootA;
+            }
         }
     }
 
@@ -15,13 +15,17 @@ public class RefCfgGraph extends AbstractCfgGraph<Statement> {
 
     public RefCfgGraph(RefBody body) {
         this.body = body;
-        this.analyze();
     }
 
     public RefBody getBody() {
         return body;
     }
 
+    @Override
+    protected Iterable<Statement> getInstructions() {
+        return body.getStatements();
+    }
+
     @Override
     protected Statement getHeadInsn() {
         return body.getStatements().getFirst();
@@ -0,0 +1,550 @@
+package me.aki.tactical.stack.utils.analysis;
+
+import me.aki.tactical.core.FieldRef;
+import me.aki.tactical.core.Path;
+import me.aki.tactical.core.constant.PushableConstant;
+import me.aki.tactical.core.type.ArrayType;
+import me.aki.tactical.core.type.IntType;
+import me.aki.tactical.core.type.LongType;
+import me.aki.tactical.core.type.ObjectType;
+import me.aki.tactical.core.type.PrimitiveType;
+import me.aki.tactical.core.type.RefType;
+import me.aki.tactical.core.type.Type;
+import me.aki.tactical.stack.insn.IfInsn;
+import me.aki.tactical.stack.invoke.AbstractConcreteInvoke;
+import me.aki.tactical.stack.invoke.AbstractInstanceInvoke;
+import me.aki.tactical.stack.invoke.Invoke;
+import me.aki.tactical.stack.invoke.SpecialInvoke;
+import me.aki.tactical.stack.utils.StackInsnVisitor;
+
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Emulates the effects of instructions on a stack of abstract values.
+ *
+ * Subclasses decide how values are represented and stored.
+ * Values of instructions that are only known by their type are created by {@link #valueOf(Type)},
+ * the other hooks may be overridden to track more precise values.
+ *
+ * @param <I> type of instructions
+ * @param <L> type of locals
+ * @param <V> type of the values on the stack
+ */
+public abstract class AbstractStackEmulatingInsnVisitor<I, L, V> extends StackInsnVisitor<I, L> {
+    public AbstractStackEmulatingInsnVisitor(StackInsnVisitor<I, L> iv) {
+        super(iv);
+    }
+
+    protected abstract void push(V value);
+
+    protected abstract V pop();
+
+    protected abstract void clear();
+
+    /**
+     * Get the value of an instruction result that is only known by its type.
+     *
+     * @param type type of the value
+     * @return the value
+     */
+    protected abstract V valueOf(Type type);
+
+    /**
+     * Drop a value that is expected to be of a certain type from the stack.
+     * Subclasses may check that the value matches the type.
+     *
+     * @param type the expected type, references are denoted by {@link ObjectType#OBJECT}
+     * @return the dropped value
+     */
+    protected V popRequire(Type type) {
+        return pop();
+    }
+
+    /**
+     * Get the value of a pushed constant.
+     *
+     * @param constant the pushed constant
+     * @return the value
+     */
+    protected V constantValue(PushableConstant constant) {
+        return valueOf(constant.getType());
+    }
+
+    /**
+     * Get the value of an element loaded from an array.
+     *
+     * @param array the value of the array
+     * @param type type of the element as denoted by the instruction
+     * @return the value
+     */
+    protected V arrayElementValue(V array, Type type) {
+        return valueOf(type);
+    }
+
+    /**
+     * Get the value loaded from a local.
+     *
+     * @param type type of the value as denoted by the instruction
+     * @param local the local
+     * @return the value
+     */
+    protected V loadValue(Type type, L local) {
+        return valueOf(type);
+    }
+
+    /**
+     * A value was stored in a local.
+     *
+     * @param local the local
+     * @param value the stored value
+     */
+    protected void storeValue(L local, V value) {}
+
+    /**
+     * Get the value of a new but not yet initialized object.
+     *
+     * @param type class of the object
+     * @return the value
+     */
+    protected V newValue(Path type) {
+        return valueOf(new ObjectType(type));
+    }
+
+    /**
+     * A constructor was invoked on a value.
+     *
+     * @param instance the value that is now initialized
+     */
+    protected void initialize(V instance) {}
+
+    @Override
+    public void visitPush(PushableConstant constant) {
+        push(constantValue(constant));
+
+        super.visitPush(constant);
+    }
+
+    @Override
+    public void visitNeg(Type type) {
+        popRequire(type); // value to be negated
+        push(valueOf(type)); // negated value
+
+        super.visitNeg(type);
+    }
+
+    /**
+     * Emulate an operation with two operands and a result of the same type.
+     */
+    private void binaryOperation(Type type) {
+        popRequire(type); // operand 2
+        popRequire(type); // operand 1
+        push(valueOf(type)); //result
+    }
+
+    /**
+     * Emulate a shift of a value by an int.
+     */
+    private void shiftOperation(Type type) {
+        popRequire(IntType.getInstance()); // operand 2
+        popRequire(type); // operand 1
+        push(valueOf(type)); //result
+    }
+
+    @Override
+    public void visitAdd(Type type) {
+        binaryOperation(type);
+
+        super.visitAdd(type);
+    }
+
+    @Override
+    public void visitSub(Type type) {
+        binaryOperation(type);
+
+        super.visitSub(type);
+    }
+
+    @Override
+    public void visitMul(Type type) {
+        binaryOperation(type);
+
+        super.visitMul(type);
+    }
+
+    @Override
+    public void visitDiv(Type type) {
+        binaryOperation(type);
+
+        super.visitDiv(type);
+    }
+
+    @Override
+    public void visitMod(Type type) {
+        binaryOperation(type);
+
+        super.visitMod(type);
+    }
+
+    @Override
+    public void visitAnd(Type type) {
+        binaryOperation(type);
+
+        super.visitAnd(type);
+    }
+
+    @Override
+    public void visitOr(Type type) {
+        binaryOperation(type);
+
+        super.visitOr(type);
+    }
+
+    @Override
+    public void visitXor(Type type) {
+        binaryOperation(type);
+
+        super.visitXor(type);
+    }
+
+    @Override
+    public void visitShl(Type type) {
+        shiftOperation(type);
+
+        super.visitShl(type);
+    }
+
+    @Override
+    public void visitShr(Type type) {
+        shiftOperation(type);
+
+        super.visitShr(type);
+    }
+
+    @Override
+    public void visitUShr(Type type) {
+        shiftOperation(type);
+
+        super.visitUShr(type);
+    }
+
+    @Override
+    public void visitCmp() {
+        popRequire(LongType.getInstance()); // operand 2
+        popRequire(LongType.getInstance()); // operand 1
+        push(valueOf(IntType.getInstance())); //result
+
+        super.visitCmp();
+    }
+
+    @Override
+    public void visitCmpl(Type type) {
+        popRequire(type); // operand 2
+        popRequire(type); // operand 1
+        push(valueOf(IntType.getInstance())); //result
+
+        super.visitCmpl(type);
+    }
+
+    @Override
+    public void visitCmpg(Type type) {
+        popRequire(type); // operand 2
+        popRequire(type); // operand 1
+        push(valueOf(IntType.getInstance())); //result
+
+        super.visitCmpg(type);
+    }
+
+    @Override
+    public void visitNewArray(ArrayType type, int initializedDimensions) {
+        for (int i = 0; i < initializedDimensions; i++) {
+            popRequire(IntType.getInstance()); // size of a dimension
+        }
+        push(valueOf(type)); // the created array
+
+        super.visitNewArray(type, initializedDimensions);
+    }
+
+    @Override
+    public void visitArrayLength() {
+        popRequire(ObjectType.OBJECT); // an array
+        push(valueOf(IntType.getInstance())); // length of array
+
+        super.visitArrayLength();
+    }
+
+    @Override
+    public void visitArrayLoad(Type type) {
+        popRequire(IntType.getInstance()); // index
+        V array = popRequire(ObjectType.OBJECT); // the array
+        push(arrayElementValue(array, type)); // an element from the array
+
+        super.visitArrayLoad(type);
+    }
+
+    @Override
+    public void visitArrayStore(Type type) {
+        popRequire(type); // element to be stored
+        popRequire(IntType.getInstance()); // index
+        popRequire(ObjectType.OBJECT); // the array
+
+        super.visitArrayStore(type);
+    }
+
+    @Override
+    public void visitSwap() {
+        V value1 = pop();
+        V value2 = pop();
+        push(value1);
+        push(value2);
+
+        super.visitSwap();
+    }
+
+    @Override
+    public void visitPop() {
+        pop();
+
+        super.visitPop();
+    }
+
+    @Override
+    public void visitDup() {
+        V value = pop();
+        push(value);
+        push(value);
+
+        super.visitDup();
+    }
+
+    @Override
+    public void visitDupX1() {
+        V value1 = pop();
+        V value2 = pop();
+
+        push(value1);
+
+        push(value2);
+        push(value1);
+
+        super.visitDupX1();
+    }
+
+    @Override
+    public void visitDupX2() {
+        V value1 = pop();
+        V value2 = pop();
+        V value3 = pop();
+
+        push(value1);
+
+        push(value3);
+        push(value2);
+        push(value1);
+
+        super.visitDupX2();
+    }
+
+    @Override
+    public void visitDup2() {
+        V value1 = pop();
+        V value2 = pop();
+
+        push(value2);
+        push(value1);
+
+        push(value2);
+        push(value1);
+
+        super.visitDup2();
+    }
+
+    @Override
+    public void visitDup2X1() {
+        V value1 = pop();
+        V value2 = pop();
+        V value3 = pop();
+
+        push(value2);
+        push(value1);
+
+        push(value3);
+        push(value2);
+        push(value1);
+
+        super.visitDup2X1();
+    }
+
+    @Override
+    public void visitDup2X2() {
+        V value1 = pop();
+        V value2 = pop();
+        V value3 = pop();
+        V value4 = pop();
+
+        push(value2);
+        push(value1);
+
+        push(value4);
+        push(value3);
+        push(value2);
+        push(value1);
+
+        super.visitDup2X2();
+    }
+
+    @Override
+    public void visitLoad(Type type, L local) {
+        push(loadValue(type, local)); // value from local
+
+        super.visitLoad(type, local);
+    }
+
+    @Override
+    public void visitStore(Type type, L local) {
+        storeValue(local, popRequire(type)); // value to be stored in local
+
+        super.visitStore(type, local);
+    }
+
+    @Override
+    public void visitIncrement(L local, int value) {
+        // no stack change
+
+        super.visitIncrement(local, value);
+    }
+
+    @Override
+    public void visitNew(Path type) {
+        push(newValue(type)); // not yet initialized object
+
+        super.visitNew(type);
+    }
+
+    @Override
+    public void visitInstanceOf(RefType type) {
+        popRequire(ObjectType.OBJECT); // object to be checked
+        push(valueOf(IntType.getInstance())); // result (0 or 1)
+
+        super.visitInstanceOf(type);
+    }
+
+    @Override
+    public void visitPrimitiveCast(PrimitiveType from, PrimitiveType to) {
+        popRequire(from); // value to be casted
+        push(valueOf(to)); // casted value
+
+        super.visitPrimitiveCast(from, to);
+    }
+
+    @Override
+    public void visitReferenceCast(RefType type) {
+        popRequire(ObjectType.OBJECT); // value to be casted
+        push(valueOf(type)); // the casted value
+
+        super.visitReferenceCast(type);
+    }
+
+    @Override
+    public void visitReturn(Optional<Type> type) {
+        type.ifPresent(this::popRequire); // value to be returned
+
+        super.visitReturn(type);
+    }
+
+    @Override
+    public void visitThrow() {
+        V exception = popRequire(ObjectType.OBJECT); // exception to be thrown
+
+        // Clear the stack and push the exception.
+        // This prepares the stack for a possible jump to an exception handler.
+        clear();
+        push(exception);
+
+        super.visitThrow();
+    }
+
+    @Override
+    public void visitMonitorEnter() {
+        popRequire(ObjectType.OBJECT); // value to gain lock on
+
+        super.visitMonitorEnter();
+    }
+
+    @Override
+    public void visitMonitorExit() {
+        popRequire(ObjectType.OBJECT); // value to release lock from
+
+        super.visitMonitorExit();
+    }
+
+    @Override
+    public void visitFieldGet(FieldRef fieldRef, boolean isStatic) {
+        if (!isStatic) {
+            popRequire(ObjectType.OBJECT); // instance of class containing the field
+        }
+        push(valueOf(fieldRef.getType())); // value of the field
+
+        super.visitFieldGet(fieldRef, isStatic);
+    }
+
+    @Override
+    public void visitFieldSet(FieldRef fieldRef, boolean isStatic) {
+        popRequire(fieldRef.getType()); // value to store in field
+        if (!isStatic) {
+            popRequire(ObjectType.OBJECT); // instance of class containing the field
+        }
+
+        super.visitFieldSet(fieldRef, isStatic);
+    }
+
+    @Override
+    public void visitInvokeInsn(Invoke invoke) {
+        // pop arguments in reverse order
+        List<Type> arguments = invoke.getDescriptor().getParameterTypes();
+        ListIterator<Type> iter = arguments.listIterator(arguments.size());
+        while (iter.hasPrevious()) {
+            popRequire(iter.previous());
+        }
+
+        if (invoke instanceof AbstractInstanceInvoke) {
+            V instance = popRequire(ObjectType.OBJECT); // instance of class containing the method
+
+            if (invoke instanceof SpecialInvoke && ((AbstractConcreteInvoke) invoke).getMethod().getName().equals("<init>")) {
+                initialize(instance);
+            }
+        }
+
+        invoke.getDescriptor().getReturnType()
+                .map(this::valueOf).ifPresent(this::push);
+
+        super.visitInvokeInsn(invoke);
+    }
+
+    @Override
+    public void visitGoto(I target) {
+        // no stack changes
+
+        super.visitGoto(target);
+    }
+
+    @Override
+    public void visitIf(IfInsn.Condition condition, I target) {
+        Type type = condition instanceof IfInsn.IntCondition ? IntType.getInstance() : ObjectType.OBJECT;
+        if (condition.getCompareValue() instanceof IfInsn.StackValue) {
+            popRequire(type); // other value from stack to compare against
+        }
+        popRequire(type); // value to be compared
+
+        super.visitIf(condition, target);
+    }
+
+    @Override
+    public void visitSwitch(Map<Integer, I> targetTable, I defaultTarget) {
+        popRequire(IntType.getInstance()); // value to be compared against the table
+
+        super.visitSwitch(targetTable, defaultTarget);
+    }
+}
@@ -8,29 +8,69 @@ import me.aki.tactical.stack.insn.Instruction;
 import me.aki.tactical.stack.utils.StackInsnReader;
 
 import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Deque;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.List;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Computes types on the stack and thereby finds dead code.
  */
 public class Analysis {
+    /**
+     * Frame of instructions that are never executed.
+     */
+    private static final int UNREACHABLE = -1;
+
     /**
      * Body of a method that should get analysed.
      */
     private final StackBody body;
 
     /**
-     * Map instructions to the state of the stack before that instruction is executed.
+     * All instructions of the body, so they can be referred to by their index.
      */
-    private final Map<Instruction, Stack.Immutable<JvmType>> stackMap = new HashMap<>();
+    private Instruction[] instructions;
+
+    /**
+     * Map instructions to their index within the body.
+     */
+    private final Map<Instruction, Integer> indices = new IdentityHashMap<>();
+
+    /**
+     * Pool of all stack states that occur within the method.
+     */
+    private final FrameStore frameStore = new FrameStore();
+
+    /**
+     * The state of the stack before each instruction is executed or {@link #UNREACHABLE}.
+     */
+    private int[] frames;
+
+    /**
+     * All try/catch blocks of the body, so they can be referred to by their index.
+     */
+    private TryCatchBlock[] tryCatchBlocks;
+
+    /**
+     * Indices of the try/catch blocks that protect each instruction.
+     * The blocks protecting the instruction at index <tt>i</tt> are stored in {@link #protectingBlocks}
+     * from <tt>protectingBlockOffsets[i]</tt> (inclusive) to <tt>protectingBlockOffsets[i + 1]</tt> (exclusive).
+     */
+    private int[] protectingBlockOffsets;
+    private int[] protectingBlocks;
+
+    /**
+     * The try/catch blocks whose handlers were already added to the {@link #worklist}.
+     */
+    private BitSet enqueuedBlocks;
+
+    /**
+     * Start points of execution that are not yet analysed.
+     */
+    private final Deque<Workable> worklist = new ArrayDeque<>();
 
     /**
      * Was the analysis already started
@@ -44,15 +84,100 @@ public class Analysis {
     /**
      * Get the state of the stack before this instruction is executed.
      *
+     * Instructions with equal stack states share the same instance.
+     *
      * @param instruction whose stack state is requested
      * @return state of the stack or empty for unreachable instructions.
      */
     public Optional<Stack.Immutable<JvmType>> getStackState(Instruction instruction) {
         requireAnalysis();
-        return Optional.ofNullable(stackMap.get(instruction));
+        int frame = getFrame(instruction);
+        return frame == UNREACHABLE ? Optional.empty() : Optional.of(frameStore.toStack(frame));
     }
 
-    private void requireAnalysis() {
+    /**
+     * Check whether an instruction may get executed.
+     *
+     * @param instruction the instruction to check
+     * @return is the instruction reachable
+     */
+    public boolean isReachable(Instruction instruction) {
+        requireAnalysis();
+        return getFrame(instruction) != UNREACHABLE;
+    }
+
+    /**
+     * Get the max amount of jvm stack slots used by the method.
+     *
+     * @return max stack size
+     */
+    public int getMaxStack() {
+        requireAnalysis();
+        int maxStack = 0;
+        for (int frame : frames) {
+            if (frame != UNREACHABLE) {
+                maxStack = Math.max(maxStack, frameStore.getSlots(frame));
+            }
+        }
+        return maxStack;
+    }
+
+    /**
+     * Get the analysed body.
+     */
+    StackBody getBody() {
+        return body;
+    }
+
+    /**
+     * Get the amount of instructions of the analysed body.
+     */
+    int getInstructionCount() {
+        return instructions.length;
+    }
+
+    /**
+     * Get an instruction by its index within the body.
+     */
+    Instruction getInstruction(int index) {
+        return instructions[index];
+    }
+
+    /**
+     * Check whether the instruction at an index may get executed.
+     */
+    boolean isReachable(int index) {
+        return frames[index] != UNREACHABLE;
+    }
+
+    /**
+     * Get the position in {@link #getProtectingBlock(int)} of the first try/catch block protecting an instruction.
+     */
+    int getProtectingBlockStart(int index) {
+        return protectingBlockOffsets[index];
+    }
+
+    /**
+     * Get the position in {@link #getProtectingBlock(int)} following the last try/catch block protecting an instruction.
+     */
+    int getProtectingBlockEnd(int index) {
+        return protectingBlockOffsets[index + 1];
+    }
+
+    /**
+     * Get a try/catch block by a position between
+     * {@link #getProtectingBlockStart(int)} and {@link #getProtectingBlockEnd(int)}.
+     */
+    TryCatchBlock getProtectingBlock(int position) {
+        return tryCatchBlocks[protectingBlocks[position]];
+    }
+
+    private int getFrame(Instruction instruction) {
+        Integer index = indices.get(instruction);
+        return index == null ? UNREACHABLE : frames[index];
+    }
+
+    void requireAnalysis() {
         if (!this.didAnalyse) {
             throw new IllegalStateException("The analysis was not already run");
         }
@@ -64,81 +189,106 @@ public class Analysis {
         }
         didAnalyse = true;
 
-        startAnalysingFrom(new Workable(body.getInstructions().get(0), new Stack.Immutable<>()));
+        this.instructions = body.getInstructions().toArray(new Instruction[0]);
+        this.frames = new int[instructions.length];
+        Arrays.fill(frames, UNREACHABLE);
+        for (int index = 0; index < instructions.length; index++) {
+            indices.put(instructions[index], index);
+        }
 
-        Set<TryCatchBlock> notYetConvertedBlocks = new HashSet<>(body.getTryCatchBlocks());
-        List<TryCatchBlock> blocksToConvert;
-        do {
-            blocksToConvert = notYetConvertedBlocks.stream()
-                .filter(this::capturesReachableCode)
-                .collect(Collectors.toList());
+        computeProtectingBlocks();
 
-            for (TryCatchBlock block : blocksToConvert) {
-                Stack.Mutable<JvmType> stack = new Stack.Mutable<>();
-                stack.push(JvmType.REFERENCE); // put the caught exception on the stack
-                startAnalysingFrom(new Workable(block.getHandler(), stack.toImmutable()));
-            }
+        worklist.add(new Workable(getIndex(body.getInstructions().get(0)), FrameStore.EMPTY));
+        analyseWorklist();
+    }
 
-            notYetConvertedBlocks.removeAll(blocksToConvert);
-        } while (!blocksToConvert.isEmpty());
+    int getIndex(Instruction instruction) {
+        Integer index = indices.get(instruction);
+        if (index == null) {
+            throw new IllegalStateException("Instruction is not part of the method");
+        }
+        return index;
     }
 
     /**
-     * Check whether a TryCatchBlock encapsulates any reachable instruction.
-     *
-     * @param block try/catch block to check
-     * @return does the try/catch block protect any reachable instructions.
+     * Scan the range of each try/catch block once and store which blocks protect each instruction.
      */
-    private boolean capturesReachableCode(TryCatchBlock block) {
-        Iterator<Instruction> iter = body.getInstructions().iterator(block.getFirst());
-        while (iter.hasNext()) {
-            Instruction instruction = iter.next();
+    private void computeProtectingBlocks() {
+        this.tryCatchBlocks = body.getTryCatchBlocks().toArray(new TryCatchBlock[0]);
+        this.enqueuedBlocks = new BitSet(tryCatchBlocks.length);
 
-            if (stackMap.containsKey(instruction)) {
-                // "instruction" is reachable
-                return true;
+        int[] firsts = new int[tryCatchBlocks.length];
+        int[] lasts = new int[tryCatchBlocks.length];
+        this.protectingBlockOffsets = new int[instructions.length + 1];
+        for (int block = 0; block < tryCatchBlocks.length; block++) {
+            firsts[block] = getIndex(tryCatchBlocks[block].getFirst());
+            lasts[block] = getIndex(tryCatchBlocks[block].getLast());
+            if (lasts[block] < firsts[block]) {
+                // the block.getLast() instruction precedes the block.getFirst() instruction.
+                throw new IllegalStateException();
             }
 
-            if (instruction == block.getLast()) {
-                return false;
+            for (int index = firsts[block]; index <= lasts[block]; index++) {
+                protectingBlockOffsets[index + 1]++;
             }
         }
 
-        // the block.getLast() instruction is either not in the instruction list of the method or
-        // precedes the block.getFirst() instruction.
-        throw new IllegalStateException();
+        for (int index = 0; index < instructions.length; index++) {
+            protectingBlockOffsets[index + 1] += protectingBlockOffsets[index];
+        }
+
+        this.protectingBlocks = new int[protectingBlockOffsets[instructions.length]];
+        int[] positions = Arrays.copyOf(protectingBlockOffsets, instructions.length);
+        for (int block = 0; block < tryCatchBlocks.length; block++) {
+            for (int index = firsts[block]; index <= lasts[block]; index++) {
+                protectingBlocks[positions[index]++] = block;
+            }
+        }
     }
 
     /**
-     * Emulate the execution of the method and thereby compute the types on the stack.
+     * Enqueue the handlers of all try/catch blocks that protect an instruction, which just became reachable.
      *
-     * @param workable start point of execution
+     * @param index index of the instruction
      */
-    private void startAnalysingFrom(Workable workable) {
-        Deque<Workable> worklist = new ArrayDeque<>(List.of(workable));
+    private void enqueueHandlers(int index) {
+        for (int position = protectingBlockOffsets[index]; position < protectingBlockOffsets[index + 1]; position++) {
+            int block = protectingBlocks[position];
+            if (!enqueuedBlocks.get(block)) {
+                enqueuedBlocks.set(block);
+
+                // put the caught exception on the stack
+                int frame = frameStore.push(FrameStore.EMPTY, JvmType.REFERENCE);
+                worklist.add(new Workable(getIndex(tryCatchBlocks[block].getHandler()), frame));
+            }
+        }
+    }
 
-        StackEmulatingInsnVisitor<Instruction, StackLocal> stackEmulator = new StackEmulatingInsnVisitor<>(null, new Stack.Mutable<>());
+    /**
+     * Emulate the execution of the method and thereby compute the types on the stack.
+     */
+    private void analyseWorklist() {
+        FrameEmulator stackEmulator = new FrameEmulator();
         StackInsnReader insnReader = new StackInsnReader(stackEmulator);
 
         while (!worklist.isEmpty()) {
             Workable work = worklist.poll();
-            stackEmulator.getStack().loadFrom(work.stackState);
+            stackEmulator.frame = work.frame;
 
-            Iterator<Instruction> iterator = body.getInstructions().iterator(work.firstInsn);
+            int index = work.firstInsn;
             Instruction instruction;
             do {
-                if (!iterator.hasNext()) {
+                if (index >= instructions.length) {
                     throw new IllegalStateException("Illegal end of method");
                 }
 
-                instruction = iterator.next();
+                instruction = instructions[index];
 
-                Stack.Immutable<JvmType> currentFrame = stackEmulator.getStack().toImmutable();
-                Stack.Immutable<JvmType> expectedFrame = stackMap.get(instruction);
-                if (expectedFrame != null) {
+                int expectedFrame = frames[index];
+                if (expectedFrame != UNREACHABLE) {
                     // The code starting from here on has already been visited.
                     // The stack must have the same state as during the last visit.
-                    if (expectedFrame.isEqual(currentFrame)) {
+                    if (expectedFrame == stackEmulator.frame) {
                         break;
                     } else {
                         throw new IllegalStateException("Different stack states");
@@ -146,28 +296,58 @@ public class Analysis {
                 }
 
                 // store the stack state before the instruction was evaluated
-                stackMap.put(instruction, currentFrame);
+                frames[index] = stackEmulator.frame;
+                enqueueHandlers(index);
 
                 // evaluate the stack changes done by this instruction
                 insnReader.accept(instruction);
 
                 if (instruction instanceof BranchInsn) {
-                    currentFrame = stackEmulator.getStack().toImmutable();
                     for (Instruction branchTarget : ((BranchInsn) instruction).getBranchTargets()) {
-                        worklist.add(new Workable(branchTarget, currentFrame));
+                        worklist.add(new Workable(getIndex(branchTarget), stackEmulator.frame));
                     }
                 }
+
+                index++;
             } while (instruction.continuesExecution());
         }
     }
 
     class Workable {
-        private Instruction firstInsn;
-        private Stack.Immutable<JvmType> stackState;
+        private int firstInsn;
+        private int frame;
 
-        public Workable(Instruction firstInsn, Stack.Immutable<JvmType> stackState) {
-            this.stackState = stackState;
+        public Workable(int firstInsn, int frame) {
+            this.frame = frame;
             this.firstInsn = firstInsn;
         }
     }
+
+    /**
+     * Emulate the stack changes of instructions on the stack states of the {@link #frameStore}.
+     */
+    private class FrameEmulator extends StackEmulatingInsnVisitor<Instruction, StackLocal> {
+        private int frame = FrameStore.EMPTY;
+
+        public FrameEmulator() {
+            super(null);
+        }
+
+        @Override
+        protected void push(JvmType type) {
+            this.frame = frameStore.push(frame, type);
+        }
+
+        @Override
+        protected JvmType pop() {
+            JvmType type = frameStore.peek(frame);
+            this.frame = frameStore.pop(frame);
+            return type;
+        }
+
+        @Override
+        protected void clear() {
+            this.frame = FrameStore.EMPTY;
+        }
+    }
 }
@@ -0,0 +1,538 @@
+package me.aki.tactical.stack.utils.analysis;
+
+import me.aki.tactical.core.Method;
+import me.aki.tactical.core.Path;
+import me.aki.tactical.core.constant.NullConstant;
+import me.aki.tactical.core.constant.PushableConstant;
+import me.aki.tactical.core.type.ArrayType;
+import me.aki.tactical.core.type.ObjectType;
+import me.aki.tactical.core.type.RefType;
+import me.aki.tactical.core.type.Type;
+import me.aki.tactical.stack.StackLocal;
+import me.aki.tactical.stack.TryCatchBlock;
+import me.aki.tactical.stack.insn.BranchInsn;
+import me.aki.tactical.stack.insn.Instruction;
+import me.aki.tactical.stack.insn.NewInsn;
+import me.aki.tactical.stack.utils.StackInsnReader;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.BinaryOperator;
+import java.util.function.ToIntFunction;
+
+/**
+ * Computes the verification types of all locals and stack values,
+ * as required for stack map frames, and the local count of a method.
+ *
+ * The analysis builds upon an {@link Analysis} of the same body, whose instruction indices,
+ * reachability and try/catch ranges it reuses. The max stack size is given by {@link Analysis#getMaxStack()}.
+ *
+ * Locals are addressed by the jvm slot index assigned to them by the caller.
+ * Frames are only computed for reachable instructions where the control flow merges,
+ * which are branch targets and exception handlers.
+ * Since dead code gets dropped when writing bytecode, every other reachable instruction
+ * that follows an instruction not continuing the execution is one of those.
+ */
+public class FrameAnalysis {
+    /**
+     * Class that contains the method.
+     */
+    private final Path owner;
+
+    /**
+     * Method whose body should get analysed.
+     */
+    private final Method method;
+
+    /**
+     * Already run analysis of the body.
+     */
+    private final Analysis analysis;
+
+    /**
+     * Get the jvm local slot index of a local.
+     */
+    private final ToIntFunction<StackLocal> localIndex;
+
+    /**
+     * Compute the common super class of two classes.
+     */
+    private final BinaryOperator<Path> commonSuperClass;
+
+    /**
+     * Frames before the execution of each instruction or null for instructions that require no frame.
+     */
+    private Frame[] frames;
+
+    private int maxLocals = 0;
+
+    /**
+     * Was the analysis already started
+     */
+    private boolean didAnalyse = false;
+
+    /**
+     * @param owner class containing the method
+     * @param method method whose body is analysed
+     * @param analysis an already run analysis of the body
+     * @param localIndex get the jvm local slot index of a local
+     * @param commonSuperClass compute the common super class of two classes.
+     */
+    public FrameAnalysis(Path owner, Method method, Analysis analysis, ToIntFunction<StackLocal> localIndex, BinaryOperator<Path> commonSuperClass) {
+        analysis.requireAnalysis();
+        this.owner = owner;
+        this.method = method;
+        this.analysis = analysis;
+        this.localIndex = localIndex;
+        this.commonSuperClass = commonSuperClass;
+    }
+
+    /**
+     * Get the frame before the execution of an instruction.
+     *
+     * @param instruction whose frame is requested
+     * @return the frame or empty if the instruction requires no frame or is unreachable
+     */
+    public Optional<Frame> getFrame(Instruction instruction) {
+        requireAnalysis();
+        return Optional.ofNullable(frames[analysis.getIndex(instruction)]);
+    }
+
+    /**
+     * Get all instructions that require a frame together with their frame.
+     *
+     * @return map from instructions to the frame before their execution
+     */
+    public Map<Instruction, Frame> getFrames() {
+        requireAnalysis();
+        Map<Instruction, Frame> frameMap = new IdentityHashMap<>();
+        for (int index = 0; index < frames.length; index++) {
+            if (frames[index] != null) {
+                frameMap.put(analysis.getInstruction(index), frames[index]);
+            }
+        }
+        return Collections.unmodifiableMap(frameMap);
+    }
+
+    /**
+     * Get the max amount of local slots used by the method.
+     *
+     * @return max local count
+     */
+    public int getMaxLocals() {
+        requireAnalysis();
+        return maxLocals;
+    }
+
+    private void requireAnalysis() {
+        if (!this.didAnalyse) {
+            throw new IllegalStateException("The analysis was not already run");
+        }
+    }
+
+    public void analyze() {
+        if (this.didAnalyse) {
+            throw new IllegalStateException("The analysis was already run");
+        }
+        didAnalyse = true;
+
+        this.frames = new Frame[analysis.getInstructionCount()];
+        if (frames.length == 0) {
+            return;
+        }
+
+        BitSet mergePoints = computeMergePoints();
+
+        State initialState = createInitialState();
+        maxLocals = initialState.locals.length;
+
+        Emulator emulator = new Emulator();
+        StackInsnReader insnReader = new StackInsnReader(emulator);
+        Deque<Integer> worklist = new ArrayDeque<>();
+
+        if (mergePoints.get(0)) {
+            frames[0] = initialState.toFrame();
+            worklist.add(0);
+        } else {
+            emulateFrom(0, initialState, mergePoints, emulator, insnReader, worklist);
+        }
+
+        while (!worklist.isEmpty()) {
+            int head = worklist.poll();
+            emulateFrom(head, new State(frames[head]), mergePoints, emulator, insnReader, worklist);
+        }
+    }
+
+    /**
+     * Emulate the execution of instructions until the execution ends or an instruction requiring a frame is reached.
+     *
+     * @param firstIndex index of the instruction to start the emulation at
+     * @param state types of locals and stack values before the first instruction
+     * @param mergePoints indices of all instructions that require a frame
+     * @param emulator the emulator that evaluates instructions
+     * @param insnReader reader that passes instructions to the emulator
+     * @param worklist indices of instructions whose frame changed
+     */
+    private void emulateFrom(int firstIndex, State state, BitSet mergePoints,
+                             Emulator emulator, StackInsnReader insnReader, Deque<Integer> worklist) {
+        emulator.state = state;
+
+        int index = firstIndex;
+        Instruction instruction;
+        do {
+            if (index >= frames.length) {
+                throw new IllegalStateException("Illegal end of method");
+            }
+
+            if (index != firstIndex && mergePoints.get(index)) {
+                // The frame of the following code depends on other predecessors too
+                mergeInto(index, state.locals, state.stack, worklist);
+                return;
+            }
+            instruction = analysis.getInstruction(index);
+
+            int end = analysis.getProtectingBlockEnd(index);
+            for (int position = analysis.getProtectingBlockStart(index); position < end; position++) {
+                TryCatchBlock block = analysis.getProtectingBlock(position);
+                Path exceptionType = block.getExceptionType().orElse(Path.THROWABLE);
+                List<VerificationType> stack = List.of(new VerificationType.Reference(new ObjectType(exceptionType)));
+                mergeInto(analysis.getIndex(block.getHandler()), state.locals, stack, worklist);
+            }
+
+            emulator.currentInsn = instruction;
+            insnReader.accept(instruction);
+            maxLocals = Math.max(maxLocals, state.locals.length);
+
+            if (instruction instanceof BranchInsn) {
+                for (Instruction branchTarget : ((BranchInsn) instruction).getBranchTargets()) {
+                    mergeInto(analysis.getIndex(branchTarget), state.locals, state.stack, worklist);
+                }
+            }
+
+            index++;
+        } while (instruction.continuesExecution());
+    }
+
+    /**
+     * Get all reachable instructions where the control flow of several instructions can merge.
+     * These are all branch targets and exception handlers.
+     *
+     * @return indices of instructions requiring a frame
+     */
+    private BitSet computeMergePoints() {
+        BitSet mergePoints = new BitSet(frames.length);
+
+        for (int index = 0; index < frames.length; index++) {
+            Instruction instruction = analysis.getInstruction(index);
+            if (instruction instanceof BranchInsn && analysis.isReachable(index)) {
+                for (Instruction branchTarget : ((BranchInsn) instruction).getBranchTargets()) {
+                    mergePoints.set(analysis.getIndex(branchTarget));
+                }
+            }
+        }
+
+        for (TryCatchBlock block : analysis.getBody().getTryCatchBlocks()) {
+            mergePoints.set(analysis.getIndex(block.getHandler()));
+        }
+
+        return mergePoints;
+    }
+
+    /**
+     * Get the types of the this local and parameters at the start of the method.
+     */
+    private State createInitialState() {
+        List<VerificationType> locals = new ArrayList<>();
+
+        if (!method.getFlag(Method.Flag.STATIC)) {
+            boolean isUninitialized = method.getName().equals("<init>") && !owner.equals(Path.OBJECT);
+            locals.add(isUninitialized ? VerificationType.UNINITIALIZED_THIS : new VerificationType.Reference(new ObjectType(owner)));
+        }
+
+        for (Type type : method.getParameterTypes()) {
+            VerificationType verificationType = VerificationType.from(type);
+            locals.add(verificationType);
+            if (verificationType.is64bit()) {
+                locals.add(VerificationType.TOP);
+            }
+        }
+
+        return new State(locals.toArray(new VerificationType[0]), new ArrayList<>());
+    }
+
+    /**
+     * Merge a state into the frame of an instruction.
+     * The instruction is added to the worklist if its frame changed.
+     */
+    private void mergeInto(int target, VerificationType[] locals, List<VerificationType> stack, Deque<Integer> worklist) {
+        Frame oldFrame = frames[target];
+        Frame newFrame = oldFrame == null
+                ? new Frame(Arrays.copyOf(locals, trimTop(locals)), new ArrayList<>(stack))
+                : merge(oldFrame, locals, stack);
+
+        if (newFrame != oldFrame) {
+            frames[target] = newFrame;
+            worklist.add(target);
+        }
+    }
+
+    /**
+     * Merge a frame with the types of another state.
+     *
+     * @return the merged frame or the old frame if the merge changed nothing
+     */
+    private Frame merge(Frame frame, VerificationType[] locals, List<VerificationType> stack) {
+        if (frame.stack.size() != stack.size()) {
+            throw new IllegalStateException("Different stack sizes");
+        }
+
+        // The second slot of 64bit values is always TOP, so merging slot by slot cannot split a 64bit value.
+        VerificationType[] newLocals = new VerificationType[Math.max(frame.locals.length, locals.length)];
+        for (int i = 0; i < newLocals.length; i++) {
+            VerificationType oldType = i < frame.locals.length ? frame.locals[i] : VerificationType.TOP;
+            VerificationType newType = i < locals.length ? locals[i] : VerificationType.TOP;
+            newLocals[i] = VerificationType.merge(oldType, newType, commonSuperClass);
+        }
+        newLocals = Arrays.copyOf(newLocals, trimTop(newLocals));
+
+        List<VerificationType> newStack = new ArrayList<>(stack.size());
+        for (int i = 0; i < stack.size(); i++) {
+            VerificationType oldType = frame.stack.get(i);
+            VerificationType merged = VerificationType.merge(oldType, stack.get(i), commonSuperClass);
+            if (merged == VerificationType.TOP && oldType != VerificationType.TOP) {
+                throw new IllegalStateException("Incompatible stack values " + oldType + " and " + stack.get(i));
+            }
+            newStack.add(merged);
+        }
+
+        boolean changed = !Arrays.equals(newLocals, frame.locals) || !newStack.equals(frame.stack);
+        return changed ? new Frame(newLocals, newStack) : frame;
+    }
+
+    /**
+     * Get the length of an array of locals without trailing undefined locals.
+     */
+    private static int trimTop(VerificationType[] locals) {
+        int length = locals.length;
+        while (length > 0 && locals[length - 1] == VerificationType.TOP) {
+            length--;
+        }
+        return length;
+    }
+
+    /**
+     * Types of locals and stack values before the execution of an instruction.
+     */
+    public static class Frame {
+        /**
+         * Types of all local slots. The second slot of a 64bit value is {@link VerificationType#TOP}.
+         */
+        private final VerificationType[] locals;
+
+        /**
+         * Types of all stack values starting at the bottom of the stack.
+         * Note that 64bit values are stored only once.
+         */
+        private final List<VerificationType> stack;
+
+        private Frame(VerificationType[] locals, List<VerificationType> stack) {
+            this.locals = locals;
+            this.stack = Collections.unmodifiableList(stack);
+        }
+
+        /**
+         * Get the types of all local slots.
+         * The slot following a 64bit value is {@link VerificationType#TOP}.
+         *
+         * @return types of locals indexed by their slot
+         */
+        public List<VerificationType> getLocals() {
+            return Collections.unmodifiableList(Arrays.asList(locals));
+        }
+
+        /**
+         * Get the types of all values on the stack, starting at the bottom of the stack.
+         *
+         * @return types of stack values
+         */
+        public List<VerificationType> getStack() {
+            return stack;
+        }
+
+        @Override
+        public String toString() {
+            return Frame.class.getSimpleName() + '{' +
+                    "locals=" + Arrays.toString(locals) +
+                    ", stack=" + stack +
+                    '}';
+        }
+    }
+
+    /**
+     * Mutable types of locals and stack values during the emulation of instructions.
+     */
+    private static class State {
+        private VerificationType[] locals;
+        private final List<VerificationType> stack;
+
+        private State(VerificationType[] locals, List<VerificationType> stack) {
+            this.locals = locals;
+            this.stack = stack;
+        }
+
+        private State(Frame frame) {
+            this(frame.locals.clone(), new ArrayList<>(frame.stack));
+        }
+
+        private Frame toFrame() {
+            return new Frame(Arrays.copyOf(locals, trimTop(locals)), new ArrayList<>(stack));
+        }
+
+        private VerificationType getLocal(int index) {
+            return index < locals.length ? locals[index] : VerificationType.TOP;
+        }
+
+        private void setLocal(int index, VerificationType type) {
+            int size = type.is64bit() ? 2 : 1;
+            if (index + size > locals.length) {
+                int oldLength = locals.length;
+                locals = Arrays.copyOf(locals, index + size);
+                Arrays.fill(locals, oldLength, locals.length, VerificationType.TOP);
+            }
+
+            // overwriting the second half of a 64bit value invalidates it
+            if (index > 0 && locals[index - 1].is64bit()) {
+                locals[index - 1] = VerificationType.TOP;
+            }
+
+            locals[index] = type;
+            if (type.is64bit()) {
+                locals[index + 1] = VerificationType.TOP;
+            }
+        }
+
+        /**
+         * Replace all occurrences of a type in the locals and on the stack.
+         */
+        private void replace(VerificationType oldType, VerificationType newType) {
+            for (int i = 0; i < locals.length; i++) {
+                if (locals[i].equals(oldType)) {
+                    locals[i] = newType;
+                }
+            }
+
+            ListIterator<VerificationType> iter = stack.listIterator();
+            while (iter.hasNext()) {
+                if (iter.next().equals(oldType)) {
+                    iter.set(newType);
+                }
+            }
+        }
+    }
+
+    /**
+     * Emulate the effects of instructions on the verification types of the locals and the stack.
+     */
+    private class Emulator extends AbstractStackEmulatingInsnVisitor<Instruction, StackLocal, VerificationType> {
+        private State state;
+
+        /**
+         * The instruction that is currently visited.
+         */
+        private Instruction currentInsn;
+
+        private Emulator() {
+            super(null);
+        }
+
+        @Override
+        protected void push(VerificationType type) {
+            state.stack.add(type);
+        }
+
+        @Override
+        protected VerificationType pop() {
+            if (state.stack.isEmpty()) {
+                throw new NoSuchElementException("Stack underflow");
+            }
+            return state.stack.remove(state.stack.size() - 1);
+        }
+
+        @Override
+        protected void clear() {
+            state.stack.clear();
+        }
+
+        @Override
+        protected VerificationType valueOf(Type type) {
+            return VerificationType.from(type);
+        }
+
+        @Override
+        protected VerificationType constantValue(PushableConstant constant) {
+            return constant instanceof NullConstant ? VerificationType.NULL : VerificationType.from(constant.getType());
+        }
+
+        @Override
+        protected VerificationType arrayElementValue(VerificationType array, Type type) {
+            if (type instanceof RefType) {
+                // The element type is given by the actual type of the array
+                if (array instanceof VerificationType.Reference && ((VerificationType.Reference) array).getType() instanceof ArrayType) {
+                    ArrayType arrayType = (ArrayType) ((VerificationType.Reference) array).getType();
+                    return VerificationType.from(arrayType.getLowerType());
+                } else if (array == VerificationType.NULL) {
+                    return VerificationType.NULL;
+                }
+            }
+            return VerificationType.from(type);
+        }
+
+        @Override
+        protected VerificationType loadValue(Type type, StackLocal local) {
+            int index = localIndex.applyAsInt(local);
+            maxLocals = Math.max(maxLocals, index + (VerificationType.from(type).is64bit() ? 2 : 1));
+
+            VerificationType localType = state.getLocal(index);
+            return localType == VerificationType.TOP ? VerificationType.from(type) : localType;
+        }
+
+        @Override
+        protected void storeValue(StackLocal local, VerificationType value) {
+            state.setLocal(localIndex.applyAsInt(local), value);
+        }
+
+        @Override
+        public void visitIncrement(StackLocal local, int value) {
+            state.setLocal(localIndex.applyAsInt(local), VerificationType.INT);
+
+            super.visitIncrement(local, value);
+        }
+
+        @Override
+        protected VerificationType newValue(Path type) {
+            return new VerificationType.Uninitialized(currentInsn);
+        }
+
+        @Override
+        protected void initialize(VerificationType instance) {
+            // The constructor initializes all references to the object
+            if (instance == VerificationType.UNINITIALIZED_THIS) {
+                state.replace(instance, new VerificationType.Reference(new ObjectType(owner)));
+            } else if (instance instanceof VerificationType.Uninitialized) {
+                Instruction newInsn = ((VerificationType.Uninitialized) instance).getNewInsn();
+                Path type = ((NewInsn) newInsn).getPath();
+                state.replace(instance, new VerificationType.Reference(new ObjectType(type)));
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package me.aki.tactical.stack.utils.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A pool of interned stack states that are referred to by int ids.
+ *
+ * A state is stored as its upper value and the id of the state below it.
+ * States thereby share their lower values and equal states always have the same id,
+ * so they can be compared by their id.
+ */
+class FrameStore {
+    /**
+     * Id of the empty stack.
+     */
+    static final int EMPTY = 0;
+
+    private static final JvmType[] TYPES = JvmType.values();
+
+    /**
+     * Amount of allocated states including the empty stack.
+     */
+    private int count = 1;
+
+    /**
+     * Id of the state below each state.
+     */
+    private int[] parents = new int[16];
+
+    /**
+     * Ordinal of the upper value of each state.
+     */
+    private byte[] types = new byte[16];
+
+    /**
+     * Amount of values of each state.
+     */
+    private int[] sizes = new int[16];
+
+    /**
+     * Amount of jvm stack slots of each state, 64bit values occupy two slots.
+     */
+    private int[] slots = new int[16];
+
+    /**
+     * Open addressing hash table of all states except the empty stack.
+     * Free slots contain {@link #EMPTY}.
+     */
+    private int[] table = new int[32];
+
+    /**
+     * Snapshots of the states that were requested as {@link Stack}.
+     */
+    private final List<Stack.Immutable<JvmType>> stacks = new ArrayList<>();
+
+    /**
+     * Get the state with a value pushed onto another state.
+     *
+     * @param frame the state before the push
+     * @param type the pushed value
+     * @return the state after the push
+     */
+    public int push(int frame, JvmType type) {
+        int mask = table.length - 1;
+        int slot = hash(frame, type) & mask;
+
+        int id;
+        while ((id = table[slot]) != EMPTY) {
+            if (parents[id] == frame && types[id] == type.ordinal()) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (count == parents.length) {
+            parents = Arrays.copyOf(parents, count * 2);
+            types = Arrays.copyOf(types, count * 2);
+            sizes = Arrays.copyOf(sizes, count * 2);
+            slots = Arrays.copyOf(slots, count * 2);
+        }
+
+        id = count++;
+        parents[id] = frame;
+        types[id] = (byte) type.ordinal();
+        sizes[id] = sizes[frame] + 1;
+        slots[id] = slots[frame] + (type.is64bit() ? 2 : 1);
+        table[slot] = id;
+
+        if (count * 2 > table.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    /**
+     * Get the state with the upper value of another state removed.
+     *
+     * @param frame the state before the pop
+     * @return the state after the pop
+     * @throws NoSuchElementException the stack was empty
+     */
+    public int pop(int frame) {
+        requireNonEmpty(frame);
+        return parents[frame];
+    }
+
+    /**
+     * Get the upper value of a state.
+     *
+     * @param frame the state
+     * @return the upper value
+     * @throws NoSuchElementException the stack was empty
+     */
+    public JvmType peek(int frame) {
+        requireNonEmpty(frame);
+        return TYPES[types[frame]];
+    }
+
+    /**
+     * Get the amount of values of a state.
+     *
+     * @param frame the state
+     * @return amount of values on the stack
+     */
+    public int getSize(int frame) {
+        return sizes[frame];
+    }
+
+    /**
+     * Get the amount of jvm stack slots of a state.
+     *
+     * @param frame the state
+     * @return amount of slots where 64bit values occupy two slots
+     */
+    public int getSlots(int frame) {
+        return slots[frame];
+    }
+
+    /**
+     * Get a state as {@link Stack}.
+     *
+     * The snapshot is only created once for each state and
+     * shares its lower values with the snapshots of the states below.
+     *
+     * @param frame the state
+     * @return snapshot of the state
+     */
+    public Stack.Immutable<JvmType> toStack(int frame) {
+        while (stacks.size() < count) {
+            stacks.add(null);
+        }
+
+        // Find the upper most state below, whose snapshot was already created
+        int base = frame;
+        while (base != EMPTY && stacks.get(base) == null) {
+            base = parents[base];
+        }
+
+        Stack.Immutable<JvmType> stack = stacks.get(base);
+        if (stack == null) {
+            stack = new Stack.Immutable<>();
+            stacks.set(EMPTY, stack);
+        }
+
+        // Create the snapshots of all states from the bottom to the top
+        int[] missingFrames = new int[sizes[frame] - sizes[base]];
+        for (int i = missingFrames.length - 1, id = frame; i >= 0; i--, id = parents[id]) {
+            missingFrames[i] = id;
+        }
+
+        for (int id : missingFrames) {
+            stack = stack.push(TYPES[types[id]]);
+            stacks.set(id, stack);
+        }
+
+        return stack;
+    }
+
+    private void requireNonEmpty(int frame) {
+        if (frame == EMPTY) {
+            throw new NoSuchElementException();
+        }
+    }
+
+    private void rehash() {
+        table = new int[table.length * 2];
+        int mask = table.length - 1;
+
+        for (int id = 1; id < count; id++) {
+            int slot = hash(parents[id], TYPES[types[id]]) & mask;
+            while (table[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = id;
+        }
+    }
+
+    private static int hash(int frame, JvmType type) {
+        int hash = frame * TYPES.length + type.ordinal();
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -1,7 +1,6 @@
 package me.aki.tactical.stack.utils.analysis;
 
 import java.util.*;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -10,7 +9,7 @@ import java.util.stream.Stream;
 public class Stack<T> {
     public static class Mutable<T> extends Stack<T> {
         public Mutable() {
-            this(Optional.empty(), 0);
+            this(null, 0);
         }
 
         /**
@@ -20,13 +19,13 @@ public class Stack<T> {
          * @param values the values on the stack
          */
         public Mutable(T... values) {
-            this(Optional.empty(), values.length);
+            this(null, values.length);
             for (int i = values.length - 1; i >= 0; i--) {
-                this.head = Optional.of(new Stack<T>.Node(values[i], this.head));
+                this.head = new Stack<T>.Node(values[i], this.head);
             }
         }
 
-        private Mutable(Optional<Stack<T>.Node> head, int size) {
+        private Mutable(Stack<T>.Node head, int size) {
             super(head, size);
         }
 
@@ -36,7 +35,7 @@ public class Stack<T> {
          * @param value
          */
         public void push(T value) {
-            this.head = Optional.of(new Stack<T>.Node(value, this.head));
+            this.head = new Stack<T>.Node(value, this.head);
             this.size += 1;
         }
 
@@ -47,7 +46,7 @@ public class Stack<T> {
          * @throws NoSuchElementException the stack was empty
          */
         public T pop() {
-            Stack<T>.Node head = this.head.orElseThrow(NoSuchElementException::new);
+            Stack<T>.Node head = requireHead();
             this.head = head.tail;
             this.size -= 1;
             return head.value;
@@ -68,7 +67,7 @@ public class Stack<T> {
          */
         public void clear() {
             this.size = 0;
-            this.head = Optional.empty();
+            this.head = null;
         }
     }
 
@@ -77,7 +76,7 @@ public class Stack<T> {
      */
     public static class Immutable<T> extends Stack<T> {
         public Immutable() {
-            this(Optional.empty(), 0);
+            this(null, 0);
         }
 
         /**
@@ -87,32 +86,56 @@ public class Stack<T> {
          * @param values the values on the stack
          */
         public Immutable(T... values) {
-            this(Optional.empty(), values.length);
+            this(null, values.length);
             for (int i = values.length - 1; i >= 0; i--) {
-                this.head = Optional.of(new Stack<T>.Node(values[i], this.head));
+                this.head = new Stack<T>.Node(values[i], this.head);
             }
         }
 
-        public Immutable(Optional<Stack<T>.Node> head, int size) {
+        private Immutable(Stack<T>.Node head, int size) {
             super(head, size);
         }
+
+        /**
+         * Create a snapshot of this stack with one more value on top.
+         * The values of this stack are shared with the new snapshot.
+         *
+         * @param value the value to push
+         * @return the new snapshot
+         */
+        public Stack.Immutable<T> push(T value) {
+            return new Stack.Immutable<>(new Stack<T>.Node(value, this.head), this.size + 1);
+        }
     }
 
     /**
-     * The most upper value of the stack.
+     * The most upper value of the stack or <tt>null</tt> if the stack is empty.
      */
-    protected Optional<Node> head;
+    protected Node head;
 
     /**
      * Amount of values on the stack
      */
     protected int size;
 
-    private Stack(Optional<Node> head, int size) {
+    private Stack(Node head, int size) {
         this.head = head;
         this.size = size;
     }
 
+    /**
+     * Get the node of the upper value on the stack.
+     *
+     * @return node of the upper value
+     * @throws NoSuchElementException the stack was empty
+     */
+    protected Node requireHead() {
+        if (this.head == null) {
+            throw new NoSuchElementException();
+        }
+        return this.head;
+    }
+
     /**
      * Get, but do not remove the upper value on the stack.
      *
@@ -120,7 +143,7 @@ public class Stack<T> {
      * @throws NoSuchElementException the stack was empty
      */
     public T peek() {
-        return this.head.orElseThrow(NoSuchElementException::new).value;
+        return requireHead().value;
     }
 
     /**
@@ -129,7 +152,7 @@ public class Stack<T> {
      * @return upper value on the stack
      */
     public Optional<T> peekOpt() {
-        return this.head.map(node -> node.value);
+        return this.head == null ? Optional.empty() : Optional.of(this.head.value);
     }
 
     /**
@@ -142,11 +165,13 @@ public class Stack<T> {
     @SuppressWarnings("unchecked")
     public T[] peek(int amount) {
         T[] array = (T[]) new Object[amount];
-        Optional<Node> nodeOpt = this.head;
+        Node node = this.head;
         for (int i = 0; i < amount; i++) {
-            Node node = nodeOpt.orElseThrow(NoSuchElementException::new);
+            if (node == null) {
+                throw new NoSuchElementException();
+            }
             array[i] = node.value;
-            nodeOpt = node.tail;
+            node = node.tail;
         }
         return array;
     }
@@ -158,18 +183,21 @@ public class Stack<T> {
      */
     public Iterator<T> peekIterator() {
         return new Iterator<>() {
-            private Optional<Node> nodeOpt = Stack.this.head;
+            private Node node = Stack.this.head;
 
             @Override
             public boolean hasNext() {
-                return nodeOpt.isPresent();
+                return node != null;
             }
 
             @Override
             public T next() {
-                Node node = nodeOpt.orElseThrow(NoSuchElementException::new);
-                this.nodeOpt = node.tail;
-                return node.value;
+                if (node == null) {
+                    throw new NoSuchElementException();
+                }
+                T value = node.value;
+                this.node = node.tail;
+                return value;
             }
         };
     }
@@ -203,42 +231,51 @@ public class Stack<T> {
         return size;
     }
 
-    public boolean isEqual(Stack stack) {
-        return this.size == stack.size &&
-                Objects.equals(this.head, stack.head);
+    /**
+     * Check whether two stacks contain equal values.
+     *
+     * The comparison stops as soon as both stacks share the remaining nodes.
+     *
+     * @param stack the other stack
+     * @return do both stacks contain equal values
+     */
+    public boolean isEqual(Stack<?> stack) {
+        if (this.size != stack.size) {
+            return false;
+        }
+
+        Stack<?>.Node node1 = this.head;
+        Stack<?>.Node node2 = stack.head;
+        while (node1 != node2) {
+            if (node1 == null || node2 == null || !Objects.equals(node1.value, node2.value)) {
+                return false;
+            }
+            node1 = node1.tail;
+            node2 = node2.tail;
+        }
+        return true;
     }
 
     public Stream<T> stream() {
-        return Stream.iterate(this.head, Optional::isPresent, nodeOpt -> nodeOpt.flatMap(node -> node.tail))
-                .flatMap(node -> node.map(x -> x.value).stream());
+        return Stream.iterate(this.head, Objects::nonNull, node -> node.tail)
+                .map(node -> node.value);
     }
 
     public List<T> toList() {
-        return stream().collect(Collectors.toList());
+        List<T> list = new ArrayList<>(this.size);
+        for (Node node = this.head; node != null; node = node.tail) {
+            list.add(node.value);
+        }
+        return list;
     }
 
     private class Node {
         private final T value;
-        private final Optional<Node> tail;
+        private final Node tail;
 
-        public Node(T value, Optional<Node> tail) {
+        public Node(T value, Node tail) {
             this.value = value;
             this.tail = tail;
         }
-
-        @Override
-        @SuppressWarnings("unchecked")
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            Node node = (Node) o;
-            return Objects.equals(value, node.value) &&
-                    Objects.equals(tail, node.tail);
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(value, tail);
-        }
     }
 }
@@ -0,0 +1,219 @@
+package me.aki.tactical.stack.utils.analysis;
+
+import me.aki.tactical.core.Path;
+import me.aki.tactical.core.type.ArrayType;
+import me.aki.tactical.core.type.DoubleType;
+import me.aki.tactical.core.type.FloatType;
+import me.aki.tactical.core.type.IntLikeType;
+import me.aki.tactical.core.type.LongType;
+import me.aki.tactical.core.type.ObjectType;
+import me.aki.tactical.core.type.RefType;
+import me.aki.tactical.core.type.Type;
+import me.aki.tactical.stack.insn.Instruction;
+
+import java.util.Objects;
+import java.util.function.BinaryOperator;
+
+/**
+ * Types of values in locals and on the stack as seen by the jvm bytecode verifier.
+ */
+public abstract class VerificationType {
+    public static final VerificationType TOP = new Primitive("TOP", false);
+    public static final VerificationType INT = new Primitive("INT", false);
+    public static final VerificationType FLOAT = new Primitive("FLOAT", false);
+    public static final VerificationType LONG = new Primitive("LONG", true);
+    public static final VerificationType DOUBLE = new Primitive("DOUBLE", true);
+    public static final VerificationType NULL = new Primitive("NULL", false);
+    public static final VerificationType UNINITIALIZED_THIS = new Primitive("UNINITIALIZED_THIS", false);
+
+    private VerificationType() {}
+
+    /**
+     * Get the verification type of values of a certain type.
+     *
+     * @param type type of a value
+     * @return the corresponding verification type
+     */
+    public static VerificationType from(Type type) {
+        if (type instanceof IntLikeType) {
+            return INT;
+        } else if (type instanceof LongType) {
+            return LONG;
+        } else if (type instanceof FloatType) {
+            return FLOAT;
+        } else if (type instanceof DoubleType) {
+            return DOUBLE;
+        } else if (type instanceof RefType) {
+            return new Reference((RefType) type);
+        } else {
+            throw new AssertionError();
+        }
+    }
+
+    /**
+     * Does a value of this type occupy two local or stack slots.
+     *
+     * @return is this a long or double
+     */
+    public boolean is64bit() {
+        return false;
+    }
+
+    /**
+     * Get the most specific type that both types are assignable to.
+     *
+     * Class types are merged by their common super class. Interfaces should be treated like classes
+     * extending <tt>java/lang/Object</tt>, the same way as the bytecode verifier does.
+     *
+     * @param a first type
+     * @param b second type
+     * @param commonSuperClass get the common super class of two classes
+     * @return the merged type or {@link #TOP} if the types are incompatible
+     */
+    public static VerificationType merge(VerificationType a, VerificationType b, BinaryOperator<Path> commonSuperClass) {
+        if (a.equals(b)) {
+            return a;
+        }
+
+        if (a == NULL && b instanceof Reference) {
+            return b;
+        }
+
+        if (b == NULL && a instanceof Reference) {
+            return a;
+        }
+
+        if (a instanceof Reference && b instanceof Reference) {
+            return new Reference(mergeRefTypes(((Reference) a).getType(), ((Reference) b).getType(), commonSuperClass));
+        }
+
+        return TOP;
+    }
+
+    private static RefType mergeRefTypes(RefType a, RefType b, BinaryOperator<Path> commonSuperClass) {
+        if (a instanceof ObjectType && b instanceof ObjectType) {
+            Path superClass = commonSuperClass.apply(((ObjectType) a).getName(), ((ObjectType) b).getName());
+            return new ObjectType(superClass);
+        }
+
+        if (a instanceof ArrayType && b instanceof ArrayType) {
+            ArrayType arrayA = (ArrayType) a;
+            ArrayType arrayB = (ArrayType) b;
+
+            if (arrayA.getDimensions() == arrayB.getDimensions() &&
+                    arrayA.getBaseType() instanceof ObjectType && arrayB.getBaseType() instanceof ObjectType) {
+                RefType baseType = mergeRefTypes((ObjectType) arrayA.getBaseType(), (ObjectType) arrayB.getBaseType(), commonSuperClass);
+                return new ArrayType(baseType, arrayA.getDimensions());
+            }
+
+            // Arrays of primitives are objects, so an "int[][]" is an "Object[]".
+            int dimensionsA = getReferenceDimensions(arrayA);
+            int dimensionsB = getReferenceDimensions(arrayB);
+            int dimensions = Math.min(dimensionsA, dimensionsB);
+            return dimensions == 0 ? ObjectType.OBJECT : new ArrayType(ObjectType.OBJECT, dimensions);
+        }
+
+        // arrays and classes are only both assignable to "java.lang.Object"
+        return ObjectType.OBJECT;
+    }
+
+    /**
+     * Get the dimensions of an array, that contain references.
+     */
+    private static int getReferenceDimensions(ArrayType type) {
+        return type.getBaseType() instanceof RefType ? type.getDimensions() : type.getDimensions() - 1;
+    }
+
+    private static class Primitive extends VerificationType {
+        private final String name;
+        private final boolean is64bit;
+
+        private Primitive(String name, boolean is64bit) {
+            this.name = name;
+            this.is64bit = is64bit;
+        }
+
+        @Override
+        public boolean is64bit() {
+            return is64bit;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * An initialized object or array.
+     */
+    public static class Reference extends VerificationType {
+        private final RefType type;
+
+        public Reference(RefType type) {
+            this.type = type;
+        }
+
+        public RefType getType() {
+            return type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Reference reference = (Reference) o;
+            return Objects.equals(type, reference.type);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type);
+        }
+
+        @Override
+        public String toString() {
+            return Reference.class.getSimpleName() + '{' +
+                    "type=" + type +
+                    '}';
+        }
+    }
+
+    /**
+     * An object created by a {@link me.aki.tactical.stack.insn.NewInsn} whose constructor was not yet called.
+     */
+    public static class Uninitialized extends VerificationType {
+        /**
+         * The instruction that created the object.
+         */
+        private final Instruction newInsn;
+
+        public Uninitialized(Instruction newInsn) {
+            this.newInsn = newInsn;
+        }
+
+        public Instruction getNewInsn() {
+            return newInsn;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Uninitialized that = (Uninitialized) o;
+            return newInsn == that.newInsn;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(newInsn);
+        }
+
+        @Override
+        public String toString() {
+            return Uninitialized.class.getSimpleName() + '{' +
+                    "newInsn=" + newInsn +
+                    '}';
+        }
+    }
+}